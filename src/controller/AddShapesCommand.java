@@ -0,0 +1,64 @@
+package controller;
+
+/**
+ * The `AddShapesCommand` class records shapes that were added on top of the scene,
+ * either a single drawn shape or all shapes of a JSON import.
+ */
+public class AddShapesCommand implements Command {
+    private final GraphicController scene;
+    private final model.Shape[] shapes;
+
+    /**
+     * Creates a command for shapes that have just been added to the scene, in paint order.
+     *
+     * @param scene  The scene the shapes were added to.
+     * @param shapes The added shapes.
+     */
+    public AddShapesCommand(GraphicController scene, model.Shape... shapes) {
+        this.scene = scene;
+        this.shapes = shapes;
+    }
+
+    /**
+     * Removes the added shapes, which are the topmost shapes of the scene.
+     */
+    @Override
+    public void undo() {
+        for (int i = 0; i < shapes.length; i++) {
+            scene.removeLastShape();
+        }
+    }
+
+    /**
+     * Adds the shapes on top of the scene again.
+     */
+    @Override
+    public void redo() {
+        for (model.Shape shape : shapes) {
+            scene.addShape(shape);
+        }
+    }
+
+    @Override
+    public GraphicController getScene() { return scene; }
+
+    @Override
+    public java.awt.Rectangle getBounds() { return Command.boundsOf(shapes); }
+
+    /**
+     * Charges the references to the shapes plus the points of freehand strokes,
+     * the only shapes whose size is not bounded.
+     *
+     * @return The approximate size of the command in bytes.
+     */
+    @Override
+    public long getMemorySize() {
+        long size = 32 + 8L * shapes.length;
+        for (model.Shape shape : shapes) {
+            if (shape instanceof model.FreehandShape) {
+                size += 8L * ((model.FreehandShape) shape).getPointCount();
+            }
+        }
+        return size;
+    }
+}
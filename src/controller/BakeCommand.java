@@ -0,0 +1,103 @@
+package controller;
+
+/**
+ * The `BakeCommand` class records a run of shapes that was baked into a single image shape.
+ * The image takes the place of the run in paint order, so the shapes above it stay on top.
+ */
+public class BakeCommand implements Command {
+    private final GraphicController scene;
+    // Position of the first baked shape, where the image is put
+    private final int position;
+    private final model.Shape[] shapes;
+    private final model.ImageShape image;
+
+    /**
+     * Creates a command for a bake that has not been applied yet.
+     *
+     * @param scene    The scene containing the shapes.
+     * @param position The position of the first shape of the run in paint order.
+     * @param shapes   The shapes of the run, in paint order.
+     * @param image    The image the shapes were baked into.
+     */
+    public BakeCommand(GraphicController scene, int position, model.Shape[] shapes, model.ImageShape image) {
+        this.scene = scene;
+        this.position = position;
+        this.shapes = shapes;
+        this.image = image;
+    }
+
+    /**
+     * Replaces the image by the shapes baked into it.
+     */
+    @Override
+    public void undo() {
+        scene.removeShape(position);
+        for (int i = 0; i < shapes.length; i++) {
+            scene.insertShape(position + i, shapes[i]);
+        }
+    }
+
+    /**
+     * Replaces the shapes by the image, removing them top down.
+     */
+    @Override
+    public void redo() {
+        for (int i = shapes.length - 1; i >= 0; i--) {
+            scene.removeShape(position + i);
+        }
+        scene.insertShape(position, image);
+    }
+
+    @Override
+    public GraphicController getScene() { return scene; }
+
+    /**
+     * Covers the baked shapes together with the image, as either may be in the scene.
+     *
+     * @return The area the shapes and the image paint into.
+     */
+    @Override
+    public java.awt.Rectangle getBounds() {
+        java.awt.Rectangle bounds = image.getBounds();
+        java.awt.Rectangle baked = Command.boundsOf(shapes);
+        if (baked != null) {
+            bounds.add(baked);
+        }
+        return bounds;
+    }
+
+    /**
+     * Gets the image the shapes were baked into.
+     *
+     * @return The image shape.
+     */
+    public model.ImageShape getImage() {
+        return image;
+    }
+
+    /**
+     * Gets the number of shapes baked into the image.
+     *
+     * @return The number of baked shapes.
+     */
+    public int getBakedCount() {
+        return shapes.length;
+    }
+
+    /**
+     * Charges the references to the baked shapes plus the points of freehand strokes, which only
+     * the command keeps alive once they are baked. The image is part of the scene and not charged.
+     *
+     * @return The approximate size of the command in bytes.
+     */
+    @Override
+    public long getMemorySize() {
+        long size = 32 + 8L * shapes.length;
+        for (model.Shape shape : shapes) {
+            if (shape instanceof model.FreehandShape) {
+                size += 8L * ((model.FreehandShape) shape).getPointCount();
+            }
+        }
+        return size;
+    }
+}
@@ -108,4 +108,14 @@ public class ButtonController {
      * Constant for deleting a drawing.
      */
     public static final int DeleteDrawing = 20;
+
+    /**
+     * Constant for redoing the last undone action.
+     */
+    public static final int Redo = 21;
+
+    /**
+     * Constant for grouping the shapes inside a dragged rectangle.
+     */
+    public static final int Group = 22;
 }
@@ -7,15 +7,29 @@ import javax.json.JsonObjectBuilder;
 
 import javax.swing.*;
 
+import java.awt.AlphaComposite;
 import java.awt.Color;
+import java.awt.Composite;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
 import java.awt.Cursor;
 import java.awt.Graphics2D;
 import java.awt.Graphics;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Area;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
 
 import model.Oval;
 import model.Shape;
+import model.ShapeSnapshot;
+import model.StyleRegistry;
 import view.VectorDrawingApp;
 
 import static controller.ButtonController.*;
@@ -26,36 +40,92 @@ import static utils.ColorMapping.getColorAsString;
  */
 public class CanvasPanelController extends JPanel {
     private static final int DEFAULT_INDEX = 0;
-    private static final int MAX_NUMS_OF_SHAPES = 10000;
     private static final int DEFAULT_STROKE_WIDTH = 3;
     private static final Color DEFAULT_BACKGROUND_COLOR = java.awt.Color.WHITE;
     private static final Color DEFAULT_SHAPE_COLOR = java.awt.Color.BLACK;
-
-
-    private final GraphicController graphic;
-    private model.Shape[] shapeArray = new model.Shape[MAX_NUMS_OF_SHAPES];
-    private int shapeIndex = DEFAULT_INDEX;
+    // Zoom factor of one step of the mouse wheel or the zoom menu items
+    private static final double ZOOM_STEP = 1.25;
+    // Free space kept around the drawing when fitting it into the window
+    private static final int FIT_MARGIN = 20;
+    // Number of old strokes that have to pile up before they are baked automatically
+    public static final int DEFAULT_AUTO_BAKE_STROKES = 256;
+
+
+    // The layers of the drawing, bottommost first; all edits go to the active layer. Every layer keeps a
+    // retained raster of its committed shapes as tiles, rendered off the event dispatch thread from snapshots;
+    // only the in-progress and selected shapes and tiles that are not rendered yet are drawn live
+    private final List<Layer> layers = new ArrayList<>();
+    private Layer activeLayer;
+    // The tile memory and the render thread shared by all layers
+    private final TileCache.Pool tilePool = new TileCache.Pool();
+    private final SceneRenderer sceneRenderer = new SceneRenderer(this::repaint);
+    // Number of layers created so far, used to name new layers
+    private int layerNumber = 0;
+    // The scene of the active layer
+    private GraphicController graphic;
+    // Drops redundant samples from freehand strokes while they are drawn
+    private final StrokeSimplifier strokeSimplifier = new StrokeSimplifier();
+    // Undo and redo stacks of the edits made on the canvas
+    private final CommandHistory history = new CommandHistory();
+    // Whether the last edit came from a control that is still being dragged
+    private boolean adjustingControl = false;
+    // The shape the current tool will draw next
+    private model.Shape pendingShape;
     private int strokeWidth = DEFAULT_STROKE_WIDTH;
     private static Color backgroundColor = DEFAULT_BACKGROUND_COLOR;
     private static Color shapeColor = DEFAULT_SHAPE_COLOR;
     private int currentCursor = Cursor.CROSSHAIR_CURSOR;
     private int currentTool = ButtonController.Curve;
     private model.Shape currentSelectedShape;
+    // The selected shape once it is edited: it is left out of the committed tiles and drawn in the overlay
+    // until it is deselected, so that editing it never invalidates the tiles again
+    private model.Shape liftedShape;
     private int previousX;
     private int previousY;
     public static boolean resizingShape = false;
 
+    // Applies coalesced drags, repaints and status updates once per display frame
+    private final FrameScheduler frameScheduler = new FrameScheduler(this, VectorDrawingApp::setMouseStateTable);
+
+    // Maps canvas coordinates, in which shapes are stored, to the screen
+    private final Viewport viewport = new Viewport();
+    private boolean panning = false;
+    private int lastPanX;
+    private int lastPanY;
+    // Corner the rectangle of the Group tool was started at, and the area it spans while it is dragged
+    private int bandStartX;
+    private int bandStartY;
+    private java.awt.Rectangle groupBand;
+
+    // Rasterized images of the selected shape, so that dragging it only moves an image
+    private final SpriteCache spriteCache = new SpriteCache();
+    private boolean spriteCacheEnabled = true;
+    // Retained raster of the freehand stroke being drawn, extended by one segment per sample
+    private final StrokeLayer strokeLayer = new StrokeLayer();
+    // Device scale of the last paint, which the stroke layer is rasterized at
+    private double lastDeviceScale = 1.0;
+    // Freehand strokes older than this many milliseconds are baked automatically, never if negative
+    private long autoBakeAge = -1;
+    private int autoBakeMinStrokes = DEFAULT_AUTO_BAKE_STROKES;
+
+    // Diagnostics of the last paint: committed shapes drawn live and skipped for lying outside the clip
+    private int lastDrawnCount = 0;
+    private int lastCulledCount = 0;
+    // Committed shapes hidden behind opaque filled shapes in the last paint
+    private int lastOccludedCount = 0;
 
     /**
      * Creates a new `CanvasPanelController` instance.
      */
     public CanvasPanelController() {
-        graphic = new GraphicController();
+        addLayer();
         setCursor(Cursor.getPredefinedCursor(currentCursor));
         setBackground(backgroundColor);
         setLayout(null);
-        addMouseListener(new MouseEventListener());
-        addMouseMotionListener(new MouseEventListener());
+        MouseEventListener mouseListener = new MouseEventListener();
+        addMouseListener(mouseListener);
+        addMouseMotionListener(mouseListener);
+        addMouseWheelListener(mouseListener);
         prepareNewShape();
     }
 
@@ -65,22 +135,545 @@ public class CanvasPanelController extends JPanel {
 
         // Convert to Graphics2D for advanced drawing features.
         final Graphics2D g2D = (Graphics2D) g;
+        // Match the device scale so that the cached tiles stay sharp on HiDPI screens.
+        double deviceScale = g2D.getTransform().getScaleX();
+        lastDeviceScale = deviceScale;
+        AffineTransform screenTransform = g2D.getTransform();
+        // Everything below is drawn in canvas coordinates.
+        g2D.transform(viewport.getTransform());
+
+        // Only the damaged area needs to be redrawn; Java2D clips the tile blits to it as well.
+        java.awt.Rectangle clip = g2D.getClipBounds();
+        if (clip == null) {
+            clip = viewport.toCanvas(new java.awt.Rectangle(0, 0, getWidth(), getHeight())).getBounds();
+        }
+
+        double scale = viewport.getZoom() * deviceScale;
+        int level = TileCache.levelFor(scale);
+        reserveTiles(level);
+        int drawn = 0;
+        int culled = 0;
+        int occluded = 0;
+        for (Layer layer : layers) {
+            // Hidden layers are neither drawn nor rendered.
+            if (!layer.isVisible()) {
+                layer.getProgressivePainter().release();
+                continue;
+            }
+            Composite composite = g2D.getComposite();
+            if (layer.getOpacity() < 1.0f) {
+                g2D.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, layer.getOpacity()));
+            }
+            // A lifted shape with shapes above it is drawn live between them, so the cached shapes are left
+            // out around it.
+            java.awt.Rectangle liftedArea = layer == activeLayer ? getCoveredLiftedArea(clip) : null;
+            java.awt.Shape layerClip = g2D.getClip();
+            if (liftedArea != null) {
+                Area outside = new Area(clip);
+                outside.subtract(new Area(liftedArea));
+                g2D.clip(outside);
+            }
+            layer.syncTiles();
+            Area missing = drawCachedTiles(g2D, layer, clip, level);
+
+            // Draw the committed shapes where no tile is rendered yet, skipping those outside that area.
+            culled += layer.getScene().getShapeCount();
+            if (!missing.isEmpty()) {
+                drawn += paintProgressively(g2D, layer, screenTransform, missing, deviceScale);
+                culled -= layer.getProgressivePainter().getQueuedCount();
+                occluded += layer.getOccludedCount();
+            } else if (layer.getProgressivePainter().isComplete()) {
+                // The tiles cover the clip and nothing is left to draw, so the full-canvas buffer is not
+                // needed until tiles are dropped again.
+                layer.getProgressivePainter().release();
+            }
+
+            if (liftedArea != null) {
+                g2D.setClip(layerClip);
+                g2D.clip(liftedArea);
+                drawn += paintInPlace(g2D, layer, liftedArea, scale);
+                g2D.setClip(layerClip);
+            }
+
+            // The overlay shows shapes of the active layer, so the layers above cover it like its committed shapes.
+            if (layer == activeLayer) {
+                paintOverlay(g2D, screenTransform, clip, deviceScale, liftedArea != null);
+            }
+            g2D.setComposite(composite);
+        }
+        lastDrawnCount = drawn;
+        lastCulledCount = culled;
+        lastOccludedCount = occluded;
+    }
+
+    /**
+     * Gets the area of the canvas in which the lifted shape has to be drawn between the committed shapes,
+     * because shapes above it overlap it. A lifted shape that nothing covers is simply drawn in the overlay.
+     *
+     * @param clip The area to draw, in canvas coordinates.
+     * @return The bounds of the lifted shape, or null if it is not covered or not in the clip.
+     */
+    private java.awt.Rectangle getCoveredLiftedArea(java.awt.Rectangle clip) {
+        if (liftedShape == null || !graphic.containsShape(liftedShape)) {
+            return null;
+        }
+        java.awt.Rectangle area = liftedShape.getBounds();
+        // Allow for the antialiased edges of the shape.
+        area.grow(1, 1);
+        if (!area.intersects(clip)) {
+            return null;
+        }
+        List<model.Shape> shapes = graphic.getShapesIn(area);
+        return shapes.get(0) != liftedShape ? area : null;
+    }
+
+    /**
+     * Draws the committed shapes of a layer in an area live and in paint order, including the lifted shape,
+     * so that it stays below the shapes above it while it is edited.
+     *
+     * @param g2D   The Graphics2D context in canvas coordinates, clipped to the area.
+     * @param layer The layer to draw.
+     * @param area  The area to draw, in canvas coordinates.
+     * @param scale The scale from canvas coordinates to device pixels.
+     * @return The number of shapes drawn.
+     */
+    private int paintInPlace(Graphics2D g2D, Layer layer, java.awt.Rectangle area, double scale) {
+        List<model.Shape> shapes = layer.getScene().getShapesIn(area);
+        DetailRenderer detail = new DetailRenderer(g2D, scale);
+        // The spatial index returns the topmost shape first, so take them in reverse.
+        for (int i = shapes.size() - 1; i >= 0; i--) {
+            ShapeSnapshot snapshot = shapes.get(i).snapshot();
+            if (snapshot != null) {
+                detail.draw(snapshot);
+            }
+        }
+        detail.flush();
+        return shapes.size();
+    }
+
+    /**
+     * Draws the transient overlay on top of the committed layer: the shape being drawn, the shape being
+     * edited and the selection border. Nothing here is part of the tiles, so changes to the overlay only
+     * repaint their area, which blits the cached tiles again but never renders them.
+     *
+     * @param g2D             The Graphics2D context in canvas coordinates.
+     * @param screenTransform The transform of the context before the viewport was applied.
+     * @param clip            The area to draw, in canvas coordinates.
+     * @param deviceScale     The scale from screen coordinates to device pixels.
+     * @param liftedInPlace   Whether the lifted shape has already been drawn between the committed shapes.
+     */
+    private void paintOverlay(Graphics2D g2D, AffineTransform screenTransform, java.awt.Rectangle clip,
+                              double deviceScale, boolean liftedInPlace) {
+        // Draw the shape that is being drawn. A freehand stroke is blitted from the layer it is rasterized
+        // into sample by sample, unless the view has changed since it began.
+        if (pendingShape instanceof model.FreehandShape && strokeLayer.isShowing(getDeviceTransform(deviceScale),
+                getDeviceWidth(deviceScale), getDeviceHeight(deviceScale))) {
+            AffineTransform canvasTransform = g2D.getTransform();
+            g2D.setTransform(screenTransform);
+            g2D.drawImage(strokeLayer.getBuffer(), 0, 0, getWidth(), getHeight(), null);
+            g2D.setTransform(canvasTransform);
+        } else if (pendingShape != null && pendingShape != currentSelectedShape
+                && clip.intersects(pendingShape.getBounds())) {
+            pendingShape.draw(g2D);
+        }
+        // Draw the rectangle the Group tool is dragging.
+        if (groupBand != null && clip.intersects(groupBand)) {
+            g2D.setPaint(Color.LIGHT_GRAY);
+            g2D.setStroke(StyleRegistry.BORDER_STROKE);
+            g2D.draw(groupBand);
+        }
+
+        if (currentSelectedShape == null || !clip.intersects(currentSelectedShape.getBounds())) {
+            return;
+        }
+        if (currentSelectedShape != liftedShape || liftedInPlace) {
+            // The shape itself is in the tiles or drawn in its place; only its selection border is transient.
+            currentSelectedShape.drawBorder(g2D);
+        } else if (spriteCacheEnabled && !resizingShape) {
+            // While the edited shape is only moved, its sprite is blitted.
+            spriteCache.draw(g2D, currentSelectedShape);
+        } else {
+            // Resizing changes the shape on every event, so it is drawn.
+            currentSelectedShape.draw(g2D);
+        }
+    }
+
+    /**
+     * Makes the shared tile pool large enough for the tiles of all visible layers on screen, so that
+     * rendering one of them never drops another that is still shown.
+     *
+     * @param level The tile level matching the current zoom.
+     */
+    private void reserveTiles(int level) {
+        int visibleLayers = 0;
+        for (Layer layer : layers) {
+            if (layer.isVisible()) {
+                visibleLayers++;
+            }
+        }
+        int span = TileCache.tileSpan(level);
+        java.awt.Rectangle view = viewport.toCanvas(new java.awt.Rectangle(0, 0, getWidth(), getHeight())).getBounds();
+        long columns = Math.floorDiv(view.x + view.width - 1, span) - Math.floorDiv(view.x, span) + 1;
+        long rows = Math.floorDiv(view.y + view.height - 1, span) - Math.floorDiv(view.y, span) + 1;
+        tilePool.reserve((int) Math.min(Integer.MAX_VALUE, columns * rows * visibleLayers));
+    }
+
+    /**
+     * Blits the cached tiles of a layer that overlap the clip and requests the missing ones from its renderer.
+     *
+     * @param g2D   The Graphics2D context in canvas coordinates.
+     * @param layer The layer to draw.
+     * @param clip  The area to draw, in canvas coordinates.
+     * @param level The tile level matching the current zoom.
+     * @return The part of the clip not covered by a cached tile, which has to be drawn live.
+     */
+    private Area drawCachedTiles(Graphics2D g2D, Layer layer, java.awt.Rectangle clip, int level) {
+        int span = TileCache.tileSpan(level);
+        Area missing = new Area();
+        List<Long> missingTiles = new ArrayList<>();
+        for (int row = Math.floorDiv(clip.y, span); row <= Math.floorDiv(clip.y + clip.height - 1, span); row++) {
+            for (int column = Math.floorDiv(clip.x, span); column <= Math.floorDiv(clip.x + clip.width - 1, span); column++) {
+                long key = TileCache.key(level, column, row);
+                BufferedImage tile = layer.getTiles().get(key);
+                if (tile != null) {
+                    g2D.drawImage(tile, column * span, row * span, span, span, null);
+                } else {
+                    missingTiles.add(key);
+                    missing.add(new Area(TileCache.getTileArea(key)));
+                }
+            }
+        }
+        if (!missingTiles.isEmpty()) {
+            requestTiles(layer, missingTiles);
+            missing.intersect(new Area(clip));
+        }
+        return missing;
+    }
+
+    /**
+     * Draws the committed shapes of a layer in an area that has no rendered tiles into the progressive buffer
+     * of the layer, spending at most one frame budget, and shows the buffer. If shapes are left over, another
+     * frame is scheduled to continue where this one stopped, so a big scene never blocks input for long.
+     *
+     * @param g2D             The Graphics2D context in canvas coordinates.
+     * @param layer           The layer to draw.
+     * @param screenTransform The transform of the context before the viewport was applied.
+     * @param missing         The area without tiles, in canvas coordinates.
+     * @param deviceScale     The scale from screen coordinates to device pixels.
+     * @return The number of shapes drawn in this frame.
+     */
+    private int paintProgressively(Graphics2D g2D, Layer layer, AffineTransform screenTransform, Area missing,
+                                   double deviceScale) {
+        int width = getDeviceWidth(deviceScale);
+        int height = getDeviceHeight(deviceScale);
+        AffineTransform bufferTransform = getDeviceTransform(deviceScale);
+        int generation = layer.getTiles().getGeneration();
+        ProgressivePainter progressivePainter = layer.getProgressivePainter();
+        if (!progressivePainter.canContinue(generation, bufferTransform, width, height, missing)) {
+            List<ShapeSnapshot> shapes = snapshotShapesIn(layer.getScene(), missing.getBounds());
+            List<ShapeSnapshot> visible = OcclusionCuller.cull(shapes);
+            layer.setOccludedCount(shapes.size() - visible.size());
+            progressivePainter.begin(generation, bufferTransform, width, height, missing,
+                    visible, viewport.getZoom() * deviceScale);
+        }
+        // An export has to show everything, however long it takes.
+        long budget = isPaintingForPrint() ? Long.MAX_VALUE : ProgressivePainter.DEFAULT_BUDGET_NANOS;
+        int drawn = progressivePainter.advance(budget);
+        if (!progressivePainter.isComplete()) {
+            repaintCanvas(missing.getBounds());
+        }
+
+        // The buffer is in device pixels, so it is blitted without the viewport transform.
+        java.awt.Shape oldClip = g2D.getClip();
+        AffineTransform canvasTransform = g2D.getTransform();
+        g2D.clip(missing);
+        g2D.setTransform(screenTransform);
+        g2D.drawImage(progressivePainter.getBuffer(), 0, 0, getWidth(), getHeight(), null);
+        g2D.setTransform(canvasTransform);
+        g2D.setClip(oldClip);
+        return drawn;
+    }
+
+    /**
+     * Gets the transform from canvas coordinates to the device pixels of the canvas, which buffers
+     * covering the whole canvas are drawn with.
+     *
+     * @param deviceScale The scale from screen coordinates to device pixels.
+     * @return A new transform applying the device scale and the viewport.
+     */
+    private AffineTransform getDeviceTransform(double deviceScale) {
+        AffineTransform transform = AffineTransform.getScaleInstance(deviceScale, deviceScale);
+        transform.concatenate(viewport.getTransform());
+        return transform;
+    }
+
+    private int getDeviceWidth(double deviceScale) { return (int) Math.ceil(getWidth() * deviceScale); }
+    private int getDeviceHeight(double deviceScale) { return (int) Math.ceil(getHeight() * deviceScale); }
+
+    /**
+     * Takes snapshots of the committed shapes of a scene overlapping an area, bottom first, leaving out
+     * the edited shape.
+     *
+     * @param scene The scene of a layer.
+     * @param area  The area in canvas coordinates.
+     * @return The snapshots in drawing order.
+     */
+    private List<ShapeSnapshot> snapshotShapesIn(GraphicController scene, java.awt.Rectangle area) {
+        List<model.Shape> visible = scene.getShapesIn(area);
+        List<ShapeSnapshot> shapes = new ArrayList<>(visible.size());
+        // The spatial index returns the topmost shape first, so take them in reverse.
+        for (int i = visible.size() - 1; i >= 0; i--) {
+            model.Shape shape = visible.get(i);
+            ShapeSnapshot snapshot = shape == liftedShape ? null : shape.snapshot();
+            if (snapshot != null) {
+                shapes.add(snapshot);
+            }
+        }
+        return shapes;
+    }
+
+    /**
+     * Hands a snapshot of the shapes under the given tiles to the background renderer of a layer,
+     * unless the same tiles of its current scene have already been requested.
+     *
+     * @param layer The layer the tiles belong to.
+     * @param tiles The keys of the tiles to render.
+     */
+    private void requestTiles(Layer layer, List<Long> tiles) {
+        if (layer.isRequested(tiles)) {
+            return;
+        }
+
+        java.awt.Rectangle area = TileCache.getTileArea(tiles.get(0));
+        for (long key : tiles) {
+            area.add(TileCache.getTileArea(key));
+        }
+
+        // Shapes outside the requested tiles never reach them and hidden shapes never show,
+        // so they are left out of the snapshot.
+        layer.requestTiles(tiles, OcclusionCuller.cull(snapshotShapesIn(layer.getScene(), area)));
+    }
+
+    /**
+     * Gets the number of committed shapes the last paint drew live, i.e. not from cached tiles.
+     *
+     * @return The number of shapes drawn live in the last paint.
+     */
+    public int getLastDrawnCount() { return lastDrawnCount; }
+
+    /**
+     * Gets the number of committed shapes the last paint skipped because they were outside the clip,
+     * only under cached tiles or hidden behind opaque shapes.
+     *
+     * @return The number of shapes culled in the last paint.
+     */
+    public int getLastCulledCount() { return lastCulledCount; }
+
+    /**
+     * Gets the number of committed shapes the last paint skipped because opaque filled shapes above
+     * them hid them completely. These are included in {@link #getLastCulledCount()}.
+     *
+     * @return The number of shapes hidden in the last paint.
+     */
+    public int getLastOccludedCount() { return lastOccludedCount; }
+
+    /**
+     * Repaints only the area covered by a shape before and after it was changed.
+     *
+     * @param shape      The shape that has changed.
+     * @param oldBounds  The bounds of the shape before the change, or null if it was not visible.
+     */
+    private void repaintShape(model.Shape shape, java.awt.Rectangle oldBounds) {
+        repaintCanvas(unionBounds(oldBounds, shape));
+    }
+
+    /**
+     * Repaints the part of the screen showing an area of the canvas at the next frame.
+     *
+     * @param area The area in canvas coordinates, or null to repaint everything.
+     */
+    private void repaintCanvas(java.awt.Rectangle area) {
+        if (area == null) {
+            frameScheduler.repaint();
+            return;
+        }
+        java.awt.Rectangle screenArea = viewport.toScreen(area);
+        // Allow for rounding of the scaled edges.
+        screenArea.grow(1, 1);
+        frameScheduler.repaint(screenArea);
+    }
+
+    /**
+     * Adds the bounds of a shape to a damage rectangle.
+     *
+     * @param damage The damage collected so far, or null if there is none yet.
+     * @param shape  The shape whose bounds are added, may be null.
+     * @return The combined damage rectangle, or null if there is still no damage.
+     */
+    private static java.awt.Rectangle unionBounds(java.awt.Rectangle damage, model.Shape shape) {
+        if (shape == null) {
+            return damage;
+        }
+        java.awt.Rectangle bounds = shape.getBounds();
+        if (damage == null) {
+            return bounds;
+        }
+        damage.add(bounds);
+        return damage;
+    }
+
+    /**
+     * Marks the committed raster of the active layer as stale so that it is rebuilt on the next paint.
+     * Must be called whenever a shape that may already be rasterized into the raster changes.
+     */
+    private void invalidateCommittedLayer() {
+        activeLayer.getTiles().clear();
+    }
+
+    /**
+     * Marks the part of the committed layer under a shape as stale, e.g. when the shape moves out of
+     * or into the layer.
+     *
+     * @param shape The shape whose area is stale.
+     */
+    private void invalidateCommittedLayer(model.Shape shape) {
+        activeLayer.getTiles().invalidate(shape.getBounds());
+    }
+
+    /**
+     * Moves the selected shape out of the committed layer into the overlay before it is edited.
+     * Only the first edit after selecting a shape invalidates the tiles under it.
+     */
+    private void liftSelectedShape() {
+        if (currentSelectedShape == null || currentSelectedShape == liftedShape) {
+            return;
+        }
+        dropLiftedShape();
+        liftedShape = currentSelectedShape;
+        invalidateCommittedLayer(liftedShape);
+    }
 
-        // Draw all Shape objects.
-        for (int i = 0; i <= shapeIndex; i++) {
-            if (shapeArray[i] != null) { // Added a null check
-                shapeArray[i].draw(g2D);
+    /**
+     * Puts the edited shape back into the committed layer, e.g. when it is deselected.
+     */
+    private void dropLiftedShape() {
+        if (liftedShape != null) {
+            invalidateCommittedLayer(liftedShape);
+            liftedShape = null;
+        }
+    }
+
+    /**
+     * Maps the coordinates of a mouse event from the screen to the canvas.
+     *
+     * @param e The MouseEvent in screen coordinates.
+     * @return The event in canvas coordinates, or the event itself if the view is not zoomed or panned.
+     */
+    private MouseEvent toCanvasEvent(MouseEvent e) {
+        if (viewport.isIdentity()) {
+            return e;
+        }
+        Point2D point = viewport.toCanvas(e.getX(), e.getY());
+        return new MouseEvent(e.getComponent(), e.getID(), e.getWhen(), e.getModifiersEx(),
+                (int) Math.floor(point.getX()), (int) Math.floor(point.getY()),
+                e.getXOnScreen(), e.getYOnScreen(), e.getClickCount(), e.isPopupTrigger(), e.getButton());
+    }
+
+    /**
+     * Zooms the view by a factor around the center of the canvas.
+     *
+     * @param factor The factor to multiply the zoom by; values below 1 zoom out.
+     */
+    public void zoomBy(double factor) {
+        viewport.zoomAt(factor, getWidth() / 2.0, getHeight() / 2.0);
+        repaint();
+    }
+
+    /**
+     * Zooms in by one step around the center of the canvas.
+     */
+    public void zoomIn() { zoomBy(ZOOM_STEP); }
+
+    /**
+     * Zooms out by one step around the center of the canvas.
+     */
+    public void zoomOut() { zoomBy(1 / ZOOM_STEP); }
+
+    /**
+     * Zooms and pans the view so that all shapes are visible.
+     */
+    public void fitToContent() {
+        java.awt.Rectangle content = null;
+        for (Layer layer : layers) {
+            if (!layer.isVisible()) {
+                continue;
             }
+            for (int i = DEFAULT_INDEX; i < layer.getScene().getShapeCount(); i++) {
+                content = unionBounds(content, layer.getScene().getShape(i));
+            }
+        }
+        if (content == null) {
+            viewport.reset();
+        } else {
+            viewport.fitTo(content, getWidth(), getHeight(), FIT_MARGIN);
         }
+        repaint();
     }
 
+    /**
+     * Shows the canvas unzoomed and unpanned.
+     */
+    public void resetZoom() {
+        viewport.reset();
+        repaint();
+    }
+
+    /**
+     * Turns the sprite cache for the selected shape on or off. With the cache, a shape that is only
+     * dragged is blitted from an image instead of being drawn again on every event.
+     *
+     * @param enabled true to blit the selected shape from cached sprites, false to always draw it.
+     */
+    public void setSpriteCacheEnabled(boolean enabled) {
+        spriteCacheEnabled = enabled;
+        if (!enabled) {
+            spriteCache.clear();
+        }
+    }
+
+    /**
+     * Gets the cache of rendered tiles of the committed shapes of the active layer.
+     *
+     * @return The tile cache.
+     */
+    public TileCache getTileCache() { return activeLayer.getTiles(); }
+
+    /**
+     * Gets the cache of rasterized images of the selected shape.
+     *
+     * @return The sprite cache.
+     */
+    public SpriteCache getSpriteCache() { return spriteCache; }
+
+    /**
+     * Gets the transform between canvas and screen coordinates.
+     *
+     * @return The viewport of the canvas.
+     */
+    public Viewport getViewport() { return viewport; }
+
     /**
      * Resets the canvas to its default state.
      */
     public void resetCanvas() {
-        shapeIndex = DEFAULT_INDEX; // Reset the index to zero
-        shapeArray = new model.Shape[MAX_NUMS_OF_SHAPES]; // Reinitialize the shapes array
-        graphic.getShapes().clear(); // Clear the shapes collection in the graphic object
+        clearSelection(); // The selected shape is removed with its layer
+        for (Layer layer : layers) {
+            layer.dispose(); // Stop rendering the removed layers
+        }
+        layers.clear();
+        layerNumber = 0;
+        addLayer(); // Start over with one empty layer
+        history.clear(); // The recorded edits refer to the removed shapes
         setCursor(Cursor.getPredefinedCursor(currentCursor)); // Set the default cursor shape
         setCurrentTool(ButtonController.Curve); // Set the default tool to curve
         setBackgroundColor(DEFAULT_BACKGROUND_COLOR); // Set the default background color
@@ -104,6 +697,7 @@ public class CanvasPanelController extends JPanel {
     public void setBackgroundColor(Color color) {
         backgroundColor = color;
         setBackground(backgroundColor);
+        // The tiles are transparent and erasing removes geometry, so the cached raster stays valid.
         repaint();
     }
 
@@ -120,10 +714,13 @@ public class CanvasPanelController extends JPanel {
      * @param color The new shape color to set.
      */
     public void setShapeColor(Color color) {
-        Color newColor = new Color(color.getRed(), color.getGreen(), color.getBlue(), color.getAlpha());
+        Color newColor = StyleRegistry.getColor(color);
         shapeColor = newColor;
         if (currentSelectedShape != null) {
+            liftSelectedShape();
+            StyleCommand command = new StyleCommand(graphic, currentSelectedShape);
             currentSelectedShape.setShapeColor(newColor);
+            recordAction(command.captureNewStyle());
         } else {
             // If no shape is selected, prepare a new shape.
             prepareNewShape();
@@ -138,16 +735,45 @@ public class CanvasPanelController extends JPanel {
      */
     public void setCurrentTool(int tool) { currentTool = tool; }
 
+    /**
+     * Sets how far in pixels a freehand stroke may deviate from the raw mouse samples when it is simplified.
+     *
+     * @param tolerance The simplification tolerance, 0 to only drop collinear samples.
+     */
+    public void setStrokeTolerance(double tolerance) { strokeSimplifier.setTolerance(tolerance); }
+
+    /**
+     * Gets how far in pixels a freehand stroke may deviate from the raw mouse samples when it is simplified.
+     *
+     * @return The simplification tolerance.
+     */
+    public double getStrokeTolerance() { return strokeSimplifier.getTolerance(); }
+
     /**
      * Sets the current stroke width for drawing.
      *
      * @param newStroke The new stroke width to set.
      */
-    public void setCurrentStroke(int newStroke) {
+    public void setCurrentStroke(int newStroke) { setCurrentStroke(newStroke, false); }
+
+    /**
+     * Sets the current stroke width for drawing while a control such as a slider may still be dragged.
+     * All changes made until the control is let go are undone in one step.
+     *
+     * @param newStroke The new stroke width to set.
+     * @param adjusting true while the control is still being dragged, false for its final value.
+     */
+    public void setCurrentStroke(int newStroke, boolean adjusting) {
         strokeWidth = newStroke;
-        shapeArray[shapeIndex].setStrokeWidth(strokeWidth);
+        if (pendingShape != null) {
+            pendingShape.setStrokeWidth(strokeWidth);
+        }
         if (currentSelectedShape != null) {
+            liftSelectedShape();
+            StyleCommand command = new StyleCommand(graphic, currentSelectedShape);
             currentSelectedShape.setStrokeWidth(newStroke);
+            graphic.updateShape(currentSelectedShape);
+            recordAdjustment(command.captureNewStyle(), adjusting);
             repaint();
         }
     }
@@ -170,20 +796,378 @@ public class CanvasPanelController extends JPanel {
         if (newShape != null) {
             newShape.setShapeColor(shapeColor);
             newShape.setStrokeWidth(strokeWidth);
-            shapeArray[shapeIndex] = newShape;
+            pendingShape = newShape;
         }
     }
 
     /**
-     * Undoes the last drawing action.
+     * Undoes the last edit: drawing, importing, moving, resizing, rotating or restyling a shape.
      */
     public void undo() {
-        if (shapeIndex > 0)
-            shapeIndex--;
-        prepareNewShape();
+        Command command = history.peekUndo();
+        if (command == null) {
+            return;
+        }
+        Layer layer = beforeHistoryChange(command);
+        java.awt.Rectangle before = command.getBounds();
+        history.undo();
+        refreshAfterHistoryChange(layer, command, before);
+    }
+
+    /**
+     * Redoes the last undone edit.
+     */
+    public void redo() {
+        Command command = history.peekRedo();
+        if (command == null) {
+            return;
+        }
+        Layer layer = beforeHistoryChange(command);
+        java.awt.Rectangle before = command.getBounds();
+        history.redo();
+        refreshAfterHistoryChange(layer, command, before);
+    }
+
+    /**
+     * Records an edit made by a menu, dialog or button as an undo step of its own. Such edits are not part of
+     * a mouse gesture, so they are never merged with the edits before or after them.
+     *
+     * @param command The applied edit.
+     */
+    private void recordAction(Command command) {
+        history.endGesture();
+        history.record(command);
+        history.endGesture();
+    }
+
+    /**
+     * Records an edit made by dragging a control such as a slider. The edits of one drag, up to and including
+     * the one made when the control is let go, are merged into a single undo step of their own.
+     *
+     * @param command   The applied edit.
+     * @param adjusting true while the control is still being dragged, false for its final value.
+     */
+    private void recordAdjustment(Command command, boolean adjusting) {
+        if (!adjustingControl) {
+            history.endGesture();
+        }
+        history.record(command);
+        adjustingControl = adjusting;
+        if (!adjusting) {
+            history.endGesture();
+        }
+    }
+
+    /**
+     * Sets how many undo steps are kept and how much memory they may use.
+     *
+     * @param maxDepth     The maximum number of undo steps.
+     * @param memoryBudget The maximum estimated memory of the undo history in bytes.
+     */
+    public void setHistoryLimits(int maxDepth, long memoryBudget) { history.setLimits(maxDepth, memoryBudget); }
+
+    /**
+     * Gets how many undo steps are kept at most.
+     *
+     * @return The maximum number of undo steps.
+     */
+    public int getHistoryDepth() { return history.getMaxDepth(); }
+
+    /**
+     * Finds the layer an undo or redo is about to change and brings its tiles up to date with the
+     * edits made before it, so that afterwards only the area of the command needs to be invalidated.
+     *
+     * @param command The command about to be undone or redone.
+     * @return The layer holding the scene of the command, or null if the layer has been deleted.
+     */
+    private Layer beforeHistoryChange(Command command) {
+        for (Layer layer : layers) {
+            if (layer.getScene() == command.getScene()) {
+                layer.syncTiles();
+                return layer;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Brings the canvas up to date after an undo or redo has changed the scene of a layer.
+     *
+     * @param layer   The layer of the command, or null if it is no longer shown.
+     * @param command The command that was undone or redone.
+     * @param before  The area the command covered before it was undone or redone.
+     */
+    private void refreshAfterHistoryChange(Layer layer, Command command, java.awt.Rectangle before) {
+        // A shape removed from the scene must no longer be selectable.
+        if (currentSelectedShape != null && !graphic.containsShape(currentSelectedShape)) {
+            currentSelectedShape.setSelected(false);
+            currentSelectedShape = null;
+            liftedShape = null;
+        }
+        if (layer != null) {
+            // Only the shapes of the command changed, both where they were and where they are now.
+            layer.markSynced();
+            java.awt.Rectangle after = command.getBounds();
+            if (before != null) {
+                layer.getTiles().invalidate(before);
+            }
+            if (after != null) {
+                layer.getTiles().invalidate(after);
+            }
+        }
+        repaint();
+    }
+
+    /**
+     * Deselects the selected shape, putting it back into the committed layer if it was edited.
+     */
+    private void clearSelection() {
+        if (currentSelectedShape == null) {
+            return;
+        }
+        currentSelectedShape.setSelected(false);
+        if (currentSelectedShape == liftedShape) {
+            dropLiftedShape();
+        }
+        currentSelectedShape = null;
+        repaint();
+    }
+
+    /**
+     * Adds an empty layer above the active layer and makes it the active layer.
+     *
+     * @return The new layer.
+     */
+    public Layer addLayer() {
+        layerNumber++;
+        Layer layer = new Layer("Layer " + layerNumber, tilePool, sceneRenderer);
+        layers.add(activeLayer == null ? layers.size() : layers.indexOf(activeLayer) + 1, layer);
+        activateLayer(layer);
+        return layer;
+    }
+
+    /**
+     * Removes the active layer with its shapes and makes the layer below it active.
+     * The last remaining layer is never removed.
+     */
+    public void removeActiveLayer() {
+        if (layers.size() == 1) {
+            return;
+        }
+        int index = layers.indexOf(activeLayer);
+        clearSelection();
+        Layer removed = layers.remove(index);
+        removed.dispose();
+        history.clear(); // The recorded edits may refer to the removed shapes
+        activateLayer(layers.get(Math.max(index - 1, 0)));
+    }
+
+    /**
+     * Makes a layer the one that shapes are drawn on, selected in and edited in.
+     *
+     * @param index The position of the layer, 0 being the bottommost layer.
+     */
+    public void setActiveLayer(int index) {
+        Layer layer = layers.get(index);
+        if (layer != activeLayer) {
+            clearSelection();
+            activateLayer(layer);
+        }
+    }
+
+    /**
+     * Switches the edits to a layer.
+     *
+     * @param layer The layer to activate.
+     */
+    private void activateLayer(Layer layer) {
+        activeLayer = layer;
+        graphic = layer.getScene();
+        repaint();
+    }
+
+    /**
+     * Shows or hides a layer. Hidden layers are neither drawn nor hit-tested, and cannot be edited.
+     *
+     * @param index   The position of the layer.
+     * @param visible true to show the layer, false to hide it.
+     */
+    public void setLayerVisible(int index, boolean visible) {
+        Layer layer = layers.get(index);
+        layer.setVisible(visible);
+        if (layer == activeLayer && !visible) {
+            clearSelection();
+        }
+        // The tiles of the layer are kept, so showing it again blits them right away.
+        repaint();
+    }
+
+    /**
+     * Locks or unlocks a layer. The shapes of a locked layer are drawn but cannot be selected or edited.
+     *
+     * @param index  The position of the layer.
+     * @param locked true to lock the layer, false to unlock it.
+     */
+    public void setLayerLocked(int index, boolean locked) {
+        Layer layer = layers.get(index);
+        layer.setLocked(locked);
+        if (layer == activeLayer && locked) {
+            clearSelection();
+        }
+    }
+
+    /**
+     * Sets how opaque a layer is composited onto the layers below. Only the compositing changes,
+     * so the cached tiles of the layer are kept.
+     *
+     * @param index   The position of the layer.
+     * @param opacity The opacity from 0, transparent, to 1, opaque.
+     */
+    public void setLayerOpacity(int index, float opacity) {
+        layers.get(index).setOpacity(opacity);
+        repaint();
+    }
+
+    /**
+     * Bakes all shapes of the active layer into a single image, which keeps the picture but can no longer
+     * be edited. A layer that is already a single image is left as it is.
+     */
+    public void bakeActiveLayer() {
+        if (graphic.getShapeCount() == 1 && graphic.getShape(0) instanceof model.ImageShape) {
+            return;
+        }
+        clearSelection();
+        bakeShapes(DEFAULT_INDEX, graphic.getShapeCount());
+    }
+
+    /**
+     * Sets when freehand strokes are baked automatically. Whenever a stroke is drawn, the strokes at the bottom
+     * of the active layer that are older than the given age are baked, once there are enough of them.
+     *
+     * @param ageMillis  The age in milliseconds after which strokes are baked, or a negative value to never
+     *                   bake them automatically.
+     * @param minStrokes The number of old strokes that are baked together.
+     */
+    public void setAutoBake(long ageMillis, int minStrokes) {
+        if (minStrokes < 1) {
+            throw new IllegalArgumentException("At least one stroke must be baked at a time");
+        }
+        autoBakeAge = ageMillis;
+        autoBakeMinStrokes = minStrokes;
+    }
+
+    /**
+     * Bakes the run of old strokes at the bottom of the active layer if it is long enough.
+     */
+    private void bakeOldStrokes() {
+        if (autoBakeAge < 0) {
+            return;
+        }
+        int[] run = ShapeBaker.findOldStrokes(graphic, System.currentTimeMillis() - autoBakeAge, currentSelectedShape);
+        if (run[1] - run[0] >= autoBakeMinStrokes) {
+            bakeShapes(run[0], run[1]);
+        }
+    }
+
+    /**
+     * Bakes a run of shapes of the active layer into an image as one undo step.
+     *
+     * @param from The position of the first shape of the run.
+     * @param to   The position after the last shape of the run.
+     */
+    private void bakeShapes(int from, int to) {
+        activeLayer.syncTiles();
+        // At least the resolution of the unzoomed canvas, so that the image stays sharp when zooming back in.
+        double scale = Math.max(1.0, viewport.getZoom()) * lastDeviceScale;
+        BakeCommand command = ShapeBaker.bake(graphic, from, to, scale);
+        if (command == null) {
+            return;
+        }
+        recordAction(command);
+        activeLayer.markSynced();
+        activeLayer.getTiles().invalidate(command.getImage().getBounds());
+        repaint();
+    }
+
+    /**
+     * Groups the shapes of the active layer that lie entirely in an area as one undo step.
+     * The group takes the place of the topmost of them in paint order.
+     *
+     * @param area The area in canvas coordinates.
+     * @return true if a group was made, false if fewer than two shapes lie in the area.
+     */
+    public boolean groupShapesIn(java.awt.Rectangle area) {
+        if (!activeLayer.isEditable()) {
+            return false;
+        }
+        Set<model.Shape> inside = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (model.Shape shape : graphic.getShapesIn(area)) {
+            if (area.contains(shape.getBounds())) {
+                inside.add(shape);
+            }
+        }
+        if (inside.size() < 2) {
+            return false;
+        }
+        clearSelection();
+        // Collect the members in paint order in one pass over the scene.
+        int[] positions = new int[inside.size()];
+        model.Shape[] members = new model.Shape[positions.length];
+        int found = 0;
+        for (int i = 0; i < graphic.getShapeCount() && found < positions.length; i++) {
+            if (inside.contains(graphic.getShape(i))) {
+                positions[found] = i;
+                members[found] = graphic.getShape(i);
+                found++;
+            }
+        }
+        model.GroupShape group = new model.GroupShape(members);
+        applyGroupCommand(new GroupCommand(graphic, positions, members, group, true));
+        return true;
+    }
+
+    /**
+     * Takes the selected group apart as one undo step, putting its children in its place in paint order.
+     *
+     * @return true if the selected shape was a group, false otherwise.
+     */
+    public boolean ungroupSelectedShape() {
+        if (!(currentSelectedShape instanceof model.GroupShape group) || !activeLayer.isEditable()) {
+            return false;
+        }
+        clearSelection();
+        int position = 0;
+        while (graphic.getShape(position) != group) {
+            position++;
+        }
+        model.Shape[] children = group.getChildren();
+        int[] positions = new int[children.length];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = position + i;
+        }
+        applyGroupCommand(new GroupCommand(graphic, positions, children, group, false));
+        return true;
+    }
+
+    /**
+     * Applies a grouping or ungrouping to the active layer and records it.
+     *
+     * @param command The command, not applied yet.
+     */
+    private void applyGroupCommand(GroupCommand command) {
+        activeLayer.syncTiles();
+        command.redo();
+        recordAction(command);
+        activeLayer.markSynced();
+        activeLayer.getTiles().invalidate(command.getGroup().getBounds());
         repaint();
     }
 
+    public int getLayerCount() { return layers.size(); }
+    public Layer getLayer(int index) { return layers.get(index); }
+    public Layer getActiveLayer() { return activeLayer; }
+    public int getActiveLayerIndex() { return layers.indexOf(activeLayer); }
+
 
     /**
      * Fills the selected shape with a chosen color.
@@ -194,8 +1178,11 @@ public class CanvasPanelController extends JPanel {
             Color chosenColor = JColorChooser.showDialog(this, "Choose a color", currentSelectedShape.getFillColor());
             if (chosenColor != null) {
                 // Apply the chosen color to the selected shape.
+                liftSelectedShape();
+                StyleCommand command = new StyleCommand(graphic, currentSelectedShape);
                 currentSelectedShape.setFillColor(chosenColor);
                 currentSelectedShape.setFilled(true);
+                history.record(command.captureNewStyle());
                 repaint();
             }
         } else {
@@ -218,7 +1205,7 @@ public class CanvasPanelController extends JPanel {
         @Override
         public void mouseEntered(MouseEvent e) {
             // Update mouse state and coordinates when the mouse enters the canvas.
-            updateMouseStateWithCoordinates("enters", e);
+            updateMouseStateWithCoordinates("enters", toCanvasEvent(e));
         }
 
         /**
@@ -229,7 +1216,7 @@ public class CanvasPanelController extends JPanel {
         @Override
         public void mouseExited(MouseEvent e) {
             // Update mouse state and coordinates when the mouse exits the canvas.
-            updateMouseStateWithCoordinates("exits", e);
+            updateMouseStateWithCoordinates("exits", toCanvasEvent(e));
         }
 
         /**
@@ -240,7 +1227,7 @@ public class CanvasPanelController extends JPanel {
         @Override
         public void mouseMoved(MouseEvent e) {
             // Update mouse state and coordinates when the mouse is moved.
-            updateMouseStateWithCoordinates("is moved", e);
+            updateMouseStateWithCoordinates("is moved", toCanvasEvent(e));
         }
 
         /**
@@ -250,12 +1237,32 @@ public class CanvasPanelController extends JPanel {
          */
         @Override
         public void mousePressed(MouseEvent e) {
+            if (SwingUtilities.isMiddleMouseButton(e)) {
+                // The middle button pans the view instead of using the current tool.
+                panning = true;
+                lastPanX = e.getX();
+                lastPanY = e.getY();
+                return;
+            }
+            if (!activeLayer.isEditable()) {
+                // Nothing can be drawn on or selected in a hidden or locked layer.
+                return;
+            }
+            e = toCanvasEvent(e);
+            frameScheduler.flushWork();
             // Update mouse state and coordinates when the mouse is pressed.
             updateMouseStateWithCoordinates("is pressed", e);
+            // A new gesture starts a new undo step.
+            history.endGesture();
             // Initialize a new shape based on the current tool.
             initializeNewShapeWithCoordinates(e.getX(), e.getY());
 
-            if (currentTool == Resize) {
+            if (currentTool == Group) {
+                // Start the rectangle of the shapes to group at the pressed point.
+                bandStartX = e.getX();
+                bandStartY = e.getY();
+                groupBand = new java.awt.Rectangle(bandStartX, bandStartY, 0, 0);
+            } else if (currentTool == Resize) {
                 // Handle resizing when the Resize tool is selected.
                 selectShapeAtCoordinates(e.getX(), e.getY());
                 if (currentSelectedShape != null) {
@@ -263,9 +1270,15 @@ public class CanvasPanelController extends JPanel {
                     previousX = e.getX();
                     previousY = e.getY();
                 }
-            } else if (isDrawingWithTool(currentTool)) {
-                // Prepare for a new shape drawing when using drawing tools (Eraser or Curve).
-                prepareForNewShape();
+            } else if (isDrawingWithTool(currentTool) && pendingShape instanceof model.FreehandShape) {
+                // Start a new stroke at the pressed point when using drawing tools (Eraser or Curve).
+                model.FreehandShape stroke = (model.FreehandShape) pendingShape;
+                strokeSimplifier.begin(stroke, e.getX(), e.getY());
+                ShapeSnapshot snapshot = stroke.snapshot();
+                strokeLayer.begin(getDeviceTransform(lastDeviceScale), getDeviceWidth(lastDeviceScale),
+                        getDeviceHeight(lastDeviceScale), snapshot.getStrokeColor(), snapshot.getStroke(),
+                        e.getX(), e.getY());
+                repaintCanvas(stroke.getLastSegmentBounds());
             }
         }
 
@@ -276,6 +1289,16 @@ public class CanvasPanelController extends JPanel {
          */
         @Override
         public void mouseReleased(MouseEvent e) {
+            if (SwingUtilities.isMiddleMouseButton(e)) {
+                panning = false;
+                return;
+            }
+            if (!activeLayer.isEditable()) {
+                return;
+            }
+            e = toCanvasEvent(e);
+            // Apply the last coalesced drag before the gesture ends.
+            frameScheduler.flushWork();
             resizingShape = false;
             // Update mouse state and coordinates when the mouse is released.
             updateMouseStateWithCoordinates("is released", e);
@@ -296,11 +1319,18 @@ public class CanvasPanelController extends JPanel {
                     // Handle resizing when the Resize tool is active.
                     selectShapeAtCoordinates(x, y);
                     break;
+                case Group:
+                    // Group the shapes inside the dragged rectangle when the Group tool is active.
+                    finishGroupBand();
+                    break;
                 default:
                     // Finalize drawing when using other tools.
                     finalizeDrawing(x, y);
                     break;
             }
+
+            // Edits made after the mouse is released belong to the next undo step.
+            history.endGesture();
         }
 
         /**
@@ -310,11 +1340,44 @@ public class CanvasPanelController extends JPanel {
          */
         @Override
         public void mouseDragged(MouseEvent e) {
+            if (panning) {
+                viewport.panBy(e.getX() - lastPanX, e.getY() - lastPanY);
+                lastPanX = e.getX();
+                lastPanY = e.getY();
+                frameScheduler.repaint();
+                return;
+            }
+            if (!activeLayer.isEditable()) {
+                return;
+            }
+            MouseEvent event = toCanvasEvent(e);
+            if (!resizingShape && isDrawingWithTool(currentTool) && pendingShape instanceof model.FreehandShape) {
+                // Every sample of a freehand stroke is recorded; only the repaint waits for the next frame.
+                applyDrag(event);
+            } else {
+                // Only the latest position of other drags matters, so they are applied once per frame.
+                frameScheduler.post(() -> applyDrag(event));
+            }
+        }
+
+        /**
+         * Applies a mouse drag to the shape being drawn, moved or resized.
+         *
+         * @param e The MouseEvent in canvas coordinates.
+         */
+        private void applyDrag(MouseEvent e) {
+            if (currentTool == Group) {
+                dragGroupBand(e.getX(), e.getY());
+                return;
+            }
             if (currentSelectedShape != null && resizingShape) {
                 // Handle shape resizing when dragging.
                 // Calculate the mouse drag distance.
                 int deltaX = e.getX() - previousX;
                 int deltaY = e.getY() - previousY;
+                liftSelectedShape();
+                java.awt.Rectangle oldBounds = currentSelectedShape.getBounds();
+                int[] oldGeometry = currentSelectedShape.saveGeometry();
 
                 // Check the type of the selected shape and call its resize method.
                 if (currentSelectedShape instanceof model.Rectangle) {
@@ -345,13 +1408,17 @@ public class CanvasPanelController extends JPanel {
                 previousX = e.getX();
                 previousY = e.getY();
 
-                // Repaint the canvas to reflect changes.
-                repaint();
+                // Re-index the shape and repaint the area covered by it before and after resizing.
+                graphic.updateShape(currentSelectedShape);
+                history.record(new GeometryCommand(graphic, currentSelectedShape, oldGeometry));
+                repaintShape(currentSelectedShape, oldBounds);
                 return;
             } else if(currentTool != Resize) {
                 // Handle shape drawing or resizing (when not in Resize mode).
                 isShiftDown = e.isShiftDown();
-                model.Shape currentShape = shapeArray[shapeIndex];
+                model.Shape currentShape = pendingShape;
+                // A freehand stroke only damages its newest segment, which drawWithTool repaints.
+                java.awt.Rectangle damage = currentShape instanceof model.FreehandShape ? null : unionBounds(null, currentShape);
 
                 if (currentShape instanceof Oval) {
                     // Handle Oval shape drawing.
@@ -407,17 +1474,65 @@ public class CanvasPanelController extends JPanel {
                 updateMouseStateWithCoordinates("is dragged", e);
                 int x = e.getX();
                 int y = e.getY();
+                if (damage != null) {
+                    damage = unionBounds(damage, currentShape);
+                }
 
                 if (currentTool == ButtonController.Select) {
                     // Drag the selected shape when the Select tool is active.
-                    dragSelectedShape(x, y);
+                    dragSelectedShape(x, y, damage);
                 }  else {
                     // Draw with the current tool.
-                    drawWithTool(x, y);
+                    drawWithTool(x, y, damage);
                 }
             }
         }
 
+        /**
+         * Stretches the rectangle of the Group tool from its start corner to the mouse.
+         *
+         * @param x The x-coordinate of the mouse.
+         * @param y The y-coordinate of the mouse.
+         */
+        private void dragGroupBand(int x, int y) {
+            if (groupBand == null) {
+                return;
+            }
+            java.awt.Rectangle damage = new java.awt.Rectangle(groupBand);
+            groupBand = new java.awt.Rectangle(Math.min(bandStartX, x), Math.min(bandStartY, y),
+                    Math.abs(x - bandStartX), Math.abs(y - bandStartY));
+            damage.add(groupBand);
+            // Allow for the width of the border stroke.
+            damage.grow(2, 2);
+            repaintCanvas(damage);
+        }
+
+        /**
+         * Groups the shapes that lie entirely inside the rectangle of the Group tool and removes the rectangle.
+         */
+        private void finishGroupBand() {
+            if (groupBand == null) {
+                return;
+            }
+            java.awt.Rectangle area = groupBand;
+            groupBand = null;
+            java.awt.Rectangle damage = new java.awt.Rectangle(area);
+            damage.grow(2, 2);
+            repaintCanvas(damage);
+            groupShapesIn(area);
+        }
+
+        /**
+         * Invoked when the mouse wheel is rotated over the canvas; zooms around the mouse position.
+         *
+         * @param e The MouseWheelEvent that occurred.
+         */
+        @Override
+        public void mouseWheelMoved(MouseWheelEvent e) {
+            viewport.zoomAt(Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation()), e.getX(), e.getY());
+            frameScheduler.repaint();
+        }
+
         /**
          * Update the mouse state table with the specified mouse action and coordinates.
          *
@@ -425,7 +1540,7 @@ public class CanvasPanelController extends JPanel {
          * @param e           The MouseEvent containing mouse coordinates.
          */
         private void updateMouseStateWithCoordinates(String mouseAction, MouseEvent e) {
-            VectorDrawingApp.setMouseStateTable(String.format("Mouse %s at：[%d,%d]", mouseAction, e.getX(), e.getY()));
+            frameScheduler.setStatus(String.format("Mouse %s at：[%d,%d]", mouseAction, e.getX(), e.getY()));
         }
 
         /**
@@ -435,9 +1550,9 @@ public class CanvasPanelController extends JPanel {
          * @param y The y-coordinate to set for the new shape.
          */
         private void initializeNewShapeWithCoordinates(int x, int y) {
-            if (shapeArray[shapeIndex] != null) {
-            shapeArray[shapeIndex].setCoordinateA(x, y);
-            shapeArray[shapeIndex].setCoordinateB(x, y);
+            if (pendingShape != null) {
+            pendingShape.setCoordinateA(x, y);
+            pendingShape.setCoordinateB(x, y);
         }}
 
 
@@ -451,14 +1566,6 @@ public class CanvasPanelController extends JPanel {
             return state == ButtonController.Eraser || state == ButtonController.Curve;
         }
 
-        /**
-         * Prepare for a new shape by incrementing the shape index and creating a new shape.
-         */
-        private void prepareForNewShape() {
-            shapeIndex++;
-            prepareNewShape();
-        }
-
         /**
          * Select a shape at the specified coordinates, if one exists, and handle selection logic.
          *
@@ -468,39 +1575,51 @@ public class CanvasPanelController extends JPanel {
         private void selectShapeAtCoordinates(int x, int y) {
             boolean shapeSelected = false;
 
-            for (model.Shape shape : graphic.getShapes()) {
-                if (shape.isClickPointInShape(new model.Point(x, y))) {
+            // The spatial index only returns shapes whose bounds contain the point, topmost first.
+            model.Point clickPoint = new model.Point(x, y);
+            for (model.Shape shape : graphic.getShapesAt(x, y)) {
+                if (shape.isClickPointInShape(clickPoint)) {
                     if (currentSelectedShape != null && currentSelectedShape == shape) {
                         // If the same shape is clicked again, deselect and exit
-                        currentSelectedShape.setSelected(false);
-                        currentSelectedShape = null;
-                        repaint();
+                        deselectShape();
                         return;
                     }
 
                     if (currentSelectedShape != null) {
-                        currentSelectedShape.setSelected(false);
+                        deselectShape();
                     }
 
+                    // Selecting only adds the border in the overlay; the tiles stay valid.
                     currentSelectedShape = shape;
                     currentSelectedShape.setSelected(true);
                     shapeSelected = true;
 
                     previousX = x;
                     previousY = y;
-                    repaint();
+                    repaintCanvas(currentSelectedShape.getBounds());
                     break;
                 }
             }
 
             if (!shapeSelected && currentSelectedShape != null) {
                 // If no shape is selected and a shape was previously selected, deselect the previous shape
-                currentSelectedShape.setSelected(false);
-                currentSelectedShape = null;
-                repaint();
+                deselectShape();
             }
         }
 
+        /**
+         * Deselects the selected shape, putting it back into the committed layer if it was edited,
+         * and repaints the area of its selection border.
+         */
+        private void deselectShape() {
+            currentSelectedShape.setSelected(false);
+            repaintCanvas(currentSelectedShape.getBounds());
+            if (currentSelectedShape == liftedShape) {
+                dropLiftedShape();
+            }
+            currentSelectedShape = null;
+        }
+
         /**
          * Finalize the drawing of the current shape with the specified ending coordinates.
          *
@@ -508,60 +1627,105 @@ public class CanvasPanelController extends JPanel {
          * @param y The y-coordinate of the ending point.
          */
         private void finalizeDrawing(int x, int y) {
-            model.Shape currentShape = shapeArray[shapeIndex];
-            if (isDrawingWithTool(currentTool)) {
-                currentShape.setCoordinateA(x, y);
+            model.Shape currentShape = pendingShape;
+            if (currentShape instanceof model.FreehandShape) {
+                strokeSimplifier.finish(x, y);
+                // The finished stroke is drawn from the committed tiles from now on.
+                strokeLayer.end();
+            } else {
+                currentShape.setCoordinateB(x, y);
             }
-            currentShape.setCoordinateB(x, y);
 
-            graphic.addShape(currentShape);
+            if (currentShape instanceof model.Eraser) {
+                eraseShapesUnder(currentShape);
+            } else if (!graphic.containsShape(currentShape)) {
+                // Old strokes are baked before the new one is recorded, so that undo still removes the new one first.
+                bakeOldStrokes();
+                graphic.addShape(currentShape);
+                history.record(new AddShapesCommand(graphic, currentShape));
+            }
             repaint();
 
-            shapeIndex++;
             prepareNewShape();
         }
 
+        /**
+         * Erases the area swept by a finished eraser stroke from the shapes under it.
+         * The stroke itself is not added to the scene.
+         *
+         * @param eraser The finished eraser stroke.
+         */
+        private void eraseShapesUnder(model.Shape eraser) {
+            ShapeSnapshot snapshot = eraser.snapshot();
+            if (snapshot == null) {
+                return;
+            }
+            java.awt.Shape swept = snapshot.getStrokeArea();
+            java.awt.Rectangle sweptBounds = swept.getBounds();
+            // The selected shape may be replaced by its remains, so it is deselected first.
+            if (currentSelectedShape != null && currentSelectedShape.getBounds().intersects(sweptBounds)) {
+                deselectShape();
+            }
+            activeLayer.syncTiles();
+            EraseCommand command = ShapeEraser.erase(graphic, swept);
+            if (command != null) {
+                history.record(command);
+                activeLayer.markSynced();
+                activeLayer.getTiles().invalidate(sweptBounds);
+            }
+        }
+
         /**
          * Drag the currently selected shape to the specified coordinates.
          *
-         * @param x The x-coordinate to which the shape should be dragged.
-         * @param y The y-coordinate to which the shape should be dragged.
+         * @param x      The x-coordinate to which the shape should be dragged.
+         * @param y      The y-coordinate to which the shape should be dragged.
+         * @param damage The area already damaged by this mouse event, may be null.
          */
-        private void dragSelectedShape(int x, int y) {
+        private void dragSelectedShape(int x, int y, java.awt.Rectangle damage) {
 
             if (currentSelectedShape != null) {
+                liftSelectedShape();
+                damage = unionBounds(damage, currentSelectedShape);
+                history.record(new TranslateCommand(graphic, currentSelectedShape, x - previousX, y - previousY));
                 if(currentSelectedShape instanceof model.Triangle){
                     model.Triangle triangle = (model.Triangle) currentSelectedShape;
                     triangle.setShouldRecalculateC(true);
                     currentSelectedShape.translate(x - previousX, y - previousY);
                     updatePreviousCoordinates(x, y);
-                    repaint();
                 }
                 currentSelectedShape.translate(x - previousX, y - previousY);
                 updatePreviousCoordinates(x, y);
-                repaint();
+                graphic.updateShape(currentSelectedShape);
+                repaintCanvas(unionBounds(damage, currentSelectedShape));
+            } else if (damage != null) {
+                repaintCanvas(damage);
             }
         }
 
         /**
          * Draw with the current tool at the specified coordinates.
          *
-         * @param x The x-coordinate at which to draw.
-         * @param y The y-coordinate at which to draw.
+         * @param x      The x-coordinate at which to draw.
+         * @param y      The y-coordinate at which to draw.
+         * @param damage The area already damaged by this mouse event, may be null.
          */
-        private void drawWithTool(int x, int y) {
-            if (isDrawingWithTool(currentTool)) {
-                shapeArray[shapeIndex].setCoordinateA(x, y);
-                shapeArray[shapeIndex].setCoordinateB(x, y);
-                if (shapeIndex > 0) {
-                    shapeArray[shapeIndex - 1].setCoordinateA(x, y);
-                }
-                shapeIndex++;
-                prepareNewShape();
+        private void drawWithTool(int x, int y, java.awt.Rectangle damage) {
+            if (pendingShape instanceof model.FreehandShape) {
+                // The whole drag gesture extends a single stroke; moving its tail damages the old and new last segment.
+                model.FreehandShape stroke = (model.FreehandShape) pendingShape;
+                damage = stroke.getLastSegmentBounds();
+                strokeSimplifier.add(x, y);
+                // Only the new segment is rasterized; the rest of the stroke is already in the layer.
+                strokeLayer.addSegment(x, y);
+                damage.add(stroke.getLastSegmentBounds());
             } else {
-                shapeArray[shapeIndex].setCoordinateB(x, y);
+                pendingShape.setCoordinateB(x, y);
+                damage = unionBounds(damage, pendingShape);
+            }
+            if (damage != null) {
+                repaintCanvas(damage);
             }
-            repaint();
         }
 
         /**
@@ -582,10 +1746,24 @@ public class CanvasPanelController extends JPanel {
      *
      * @param rotationAngle The angle (in degrees) by which to rotate the selected shape.
      */
-    public void rotateSelectedShape(int rotationAngle) {
+    public void rotateSelectedShape(int rotationAngle) { rotateSelectedShape(rotationAngle, false); }
+
+    /**
+     * Rotates the selected shape while a control such as a slider may still be dragged.
+     * All rotations made until the control is let go are undone in one step.
+     *
+     * @param rotationAngle The angle to rotate the shape to.
+     * @param adjusting     true while the control is still being dragged, false for its final value.
+     */
+    public void rotateSelectedShape(int rotationAngle, boolean adjusting) {
         if (currentSelectedShape != null) {
+            liftSelectedShape();
+            java.awt.Rectangle oldBounds = currentSelectedShape.getBounds();
+            int[] oldGeometry = currentSelectedShape.saveGeometry();
             currentSelectedShape.rotate(rotationAngle);
-            repaint();
+            graphic.updateShape(currentSelectedShape);
+            recordAdjustment(new GeometryCommand(graphic, currentSelectedShape, oldGeometry), adjusting);
+            repaintShape(currentSelectedShape, oldBounds);
         }
     }
 
@@ -597,6 +1775,7 @@ public class CanvasPanelController extends JPanel {
      * @param jsonArray JSON array containing shape information.
      */
     public void drawShapesFromJson(JsonArray jsonArray) {
+        int firstImported = graphic.getShapeCount();
         for (int i = 0; i < jsonArray.size(); i++) {
             JsonObject jsonDrawing = jsonArray.getJsonObject(i);
             JsonObject properties = jsonDrawing.getJsonObject("properties");
@@ -609,16 +1788,16 @@ public class CanvasPanelController extends JPanel {
                     int width = properties.getInt("width");
                     int height = properties.getInt("height");
 
-                    Color fillColor = new Color(0, 0, 0, 0);
-                    Color lineColor = new Color(0, 0, 0, 0);
-                    Color borderColor = new Color(0, 0, 0, 0);
+                    Color fillColor = StyleRegistry.TRANSPARENT;
+                    Color lineColor = StyleRegistry.TRANSPARENT;
+                    Color borderColor = StyleRegistry.TRANSPARENT;
                     int borderWidth;
 
                     // Create and add a rectangle to the canvas
                     model.Rectangle rect = new model.Rectangle();
 
                     if (properties.containsKey("lineColor")) {
-                        fillColor = new Color(0, 0, 0, 0);
+                        fillColor = StyleRegistry.TRANSPARENT;
                         lineColor = getColorFromString(properties.getString("lineColor"));
 
                         rect.setCoordinateA(x,y);
@@ -629,7 +1808,6 @@ public class CanvasPanelController extends JPanel {
                         rect.setFilled(true);
                         rect.setFillColor(fillColor);
                         rect.setShapeColor(lineColor);
-                        addShapeToCanvas(rect);// Add the rectangle to the canvas
                         graphic.addShape(rect);
                     }
 
@@ -653,7 +1831,6 @@ public class CanvasPanelController extends JPanel {
                         rect.setShapeColor(borderColor);
                         rect.setRotationAngle(rotationAngle);
 
-                        addShapeToCanvas(rect); // Add the rectangle to the canvas
                         graphic.addShape(rect);
                     }
                 } catch (Exception e) {
@@ -668,15 +1845,15 @@ public class CanvasPanelController extends JPanel {
                     int width = properties.getInt("width");
                     int height = properties.getInt("height");
 
-                    Color fillColor = new Color(0, 0, 0, 0);
-                    Color lineColor = new Color(0, 0, 0, 0);
-                    Color borderColor = new Color(0, 0, 0, 0);
+                    Color fillColor = StyleRegistry.TRANSPARENT;
+                    Color lineColor = StyleRegistry.TRANSPARENT;
+                    Color borderColor = StyleRegistry.TRANSPARENT;
                     int borderWidth;
 
                     model.Oval oval = new model.Oval();
 
                     if (properties.containsKey("lineColor")) {
-                        fillColor = new Color(0, 0, 0, 0);
+                        fillColor = StyleRegistry.TRANSPARENT;
                         lineColor = getColorFromString(properties.getString("lineColor"));
 
                         oval.setCoordinateA(x,y);
@@ -687,7 +1864,6 @@ public class CanvasPanelController extends JPanel {
                         oval.setFilled(true);
                         oval.setFillColor(fillColor);
                         oval.setShapeColor(lineColor);
-                        addShapeToCanvas(oval);
                         graphic.addShape(oval);
                     }
 
@@ -711,7 +1887,6 @@ public class CanvasPanelController extends JPanel {
                         oval.setShapeColor(borderColor);
                         oval.setRotationAngle(rotationAngle);
 
-                        addShapeToCanvas(oval);
                         graphic.addShape(oval);
                     }
                 } catch (Exception e) {
@@ -744,7 +1919,6 @@ public class CanvasPanelController extends JPanel {
                     triangle.setFillColor(fillColor);
                     triangle.setShapeColor(borderColor);
                     triangle.setRotationAngle(rotationAngle);
-                    addShapeToCanvas(triangle);
                     graphic.addShape(triangle);
                 } catch (Exception e) {
                     System.out.println("Error processing JSON object: " + e.getMessage());
@@ -767,38 +1941,28 @@ public class CanvasPanelController extends JPanel {
                     line.setCoordinateB(x2, y2);
                     line.setStrokeWidth(lineWidth);
                     line.setShapeColor(lineColor);
-                    addShapeToCanvas(line);
                     graphic.addShape(line);
                 }catch (Exception e) {
                     System.out.println("Error processing JSON object: " + e.getMessage());
                 }
             }
         }
-        repaint(); // Repaint the canvas to display newly drawn shapes
-    }
-
-    /**
-     * Adds a shape to the canvas if the shape array is not full.
-     *
-     * @param shape The shape to add to the canvas.
-     */
-    private void addShapeToCanvas(Shape shape) {
 
-        // Check if the array is already full
-        if (shapeIndex >= MAX_NUMS_OF_SHAPES) {
-            // If the array is full, print a message or handle this situation as needed
-            System.out.println("Shape array is full, cannot add more shapes.");
-            return;
+        // The whole import is undone in a single step.
+        model.Shape[] importedShapes = new model.Shape[graphic.getShapeCount() - firstImported];
+        for (int i = 0; i < importedShapes.length; i++) {
+            importedShapes[i] = graphic.getShape(firstImported + i);
         }
-
-        // Add the new shape to the array at the current index
-        shapeArray[shapeIndex] = shape;
-
-        // Update the index to prepare for the next shape
-        shapeIndex = shapeIndex + 1;
+        if (importedShapes.length > 0) {
+            history.endGesture();
+            history.record(new AddShapesCommand(graphic, importedShapes));
+            history.endGesture();
+        }
+        repaint(); // Repaint the canvas to display newly drawn shapes
     }
 
 
+
     /**
      * Sets the currently selected shape.
      *
@@ -806,6 +1970,8 @@ public class CanvasPanelController extends JPanel {
      */
     private void setCurrentSelectedShape(Shape shape) {
         this.currentSelectedShape = shape;
+        liftedShape = null;
+        invalidateCommittedLayer();
     }
 
     /**
@@ -830,8 +1996,8 @@ public class CanvasPanelController extends JPanel {
             case "gray": return Color.GRAY;
             case "darkgray": return Color.DARK_GRAY;
             case "lightgray": return Color.LIGHT_GRAY;
-            case "purple": return new Color(128, 0, 128);
-            case "brown": return new Color(165, 42, 42);
+            case "purple": return StyleRegistry.getColor(128, 0, 128);
+            case "brown": return StyleRegistry.getColor(165, 42, 42);
             default:
                 // Check if it's a complex color format
                 if (colorStr.startsWith("java.awt.color")) {
@@ -853,7 +2019,7 @@ public class CanvasPanelController extends JPanel {
             int r = Integer.parseInt(parts[2]); // Red
             int g = Integer.parseInt(parts[4]); // Green
             int b = Integer.parseInt(parts[6]); // Blue
-            return new Color(r, g, b);
+            return StyleRegistry.getColor(r, g, b);
         } catch (Exception e) {
             e.printStackTrace();
             return Color.BLACK; // Return default color in case of an error
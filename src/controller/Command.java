@@ -0,0 +1,72 @@
+package controller;
+
+/**
+ * The `Command` interface represents an undoable edit of the scene.
+ * Commands store only what the edit changed, not copies of the shapes involved.
+ */
+public interface Command {
+
+    /**
+     * Reverts the edit.
+     */
+    void undo();
+
+    /**
+     * Applies the edit again after it has been undone.
+     */
+    void redo();
+
+    /**
+     * Estimates the memory held by the command, used to keep the history within its budget.
+     *
+     * @return The approximate size of the command in bytes.
+     */
+    long getMemorySize();
+
+    /**
+     * Gets the scene the command edits.
+     *
+     * @return The scene.
+     */
+    GraphicController getScene();
+
+    /**
+     * Gets the area the shapes touched by the edit currently paint into. The areas taken before and after
+     * an undo or redo together cover everything it changed, so only they have to be drawn again.
+     *
+     * @return The area in canvas coordinates, or null if the edit touches no shape.
+     */
+    java.awt.Rectangle getBounds();
+
+    /**
+     * Tries to absorb a command that directly follows this one, so that e.g. all mouse events of
+     * a drag become a single undo step.
+     *
+     * @param next The command recorded after this one.
+     * @return true if this command now also covers {@code next}, false otherwise.
+     */
+    default boolean mergeWith(Command next) {
+        return false;
+    }
+
+    /**
+     * Gets the area a list of shapes paints into.
+     *
+     * @param shapes The shapes, some of which may be null.
+     * @return The union of the bounds of the shapes, or null if there are none.
+     */
+    static java.awt.Rectangle boundsOf(model.Shape... shapes) {
+        java.awt.Rectangle bounds = null;
+        for (model.Shape shape : shapes) {
+            if (shape == null) {
+                continue;
+            }
+            if (bounds == null) {
+                bounds = shape.getBounds();
+            } else {
+                bounds.add(shape.getBounds());
+            }
+        }
+        return bounds;
+    }
+}
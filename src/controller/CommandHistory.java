@@ -0,0 +1,192 @@
+package controller;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * The `CommandHistory` class keeps the undo and redo stacks of the canvas.
+ * The history is bounded both by the number of undo steps and by the estimated memory of the
+ * recorded commands; once either limit is exceeded the oldest steps are discarded.
+ */
+public class CommandHistory {
+    public static final int DEFAULT_MAX_DEPTH = 200;
+    public static final long DEFAULT_MEMORY_BUDGET = 4L * 1024 * 1024;
+
+    private final Deque<Command> undoStack = new ArrayDeque<>();
+    private final Deque<Command> redoStack = new ArrayDeque<>();
+    private int maxDepth;
+    private long memoryBudget;
+    private long memoryUsed = 0;
+    // Whether the next recorded command may be merged into the last one
+    private boolean coalescing = false;
+
+    /**
+     * Creates a new `CommandHistory` with the default depth and memory budget.
+     */
+    public CommandHistory() {
+        this(DEFAULT_MAX_DEPTH, DEFAULT_MEMORY_BUDGET);
+    }
+
+    /**
+     * Creates a new `CommandHistory` with the given limits.
+     *
+     * @param maxDepth     The maximum number of undo steps.
+     * @param memoryBudget The maximum estimated memory of all recorded commands in bytes.
+     */
+    public CommandHistory(int maxDepth, long memoryBudget) {
+        setLimits(maxDepth, memoryBudget);
+    }
+
+    /**
+     * Changes the limits of the history, discarding the oldest steps if they are now exceeded.
+     *
+     * @param maxDepth     The maximum number of undo steps.
+     * @param memoryBudget The maximum estimated memory of all recorded commands in bytes.
+     */
+    public void setLimits(int maxDepth, long memoryBudget) {
+        if (maxDepth < 0 || memoryBudget < 0) {
+            throw new IllegalArgumentException("History limits must not be negative: " + maxDepth + ", " + memoryBudget);
+        }
+        this.maxDepth = maxDepth;
+        this.memoryBudget = memoryBudget;
+        trim();
+    }
+
+    /**
+     * Records a command that has already been applied.
+     * The command is merged into the previous one if both belong to the same gesture.
+     * Recording a command discards everything that could be redone.
+     *
+     * @param command The applied command.
+     */
+    public void record(Command command) {
+        clearRedo();
+        Command last = undoStack.peekLast();
+        if (coalescing && last != null) {
+            long sizeBefore = last.getMemorySize();
+            if (last.mergeWith(command)) {
+                memoryUsed += last.getMemorySize() - sizeBefore;
+                trim();
+                return;
+            }
+        }
+        undoStack.addLast(command);
+        memoryUsed += command.getMemorySize();
+        coalescing = true;
+        trim();
+    }
+
+    /**
+     * Ends the current gesture, so that the next recorded command starts a new undo step.
+     */
+    public void endGesture() {
+        coalescing = false;
+    }
+
+    /**
+     * Undoes the most recent command.
+     *
+     * @return true if a command was undone, false if there was nothing to undo.
+     */
+    public boolean undo() {
+        Command command = undoStack.pollLast();
+        if (command == null) {
+            return false;
+        }
+        coalescing = false;
+        command.undo();
+        redoStack.addLast(command);
+        return true;
+    }
+
+    /**
+     * Redoes the most recently undone command.
+     *
+     * @return true if a command was redone, false if there was nothing to redo.
+     */
+    public boolean redo() {
+        Command command = redoStack.pollLast();
+        if (command == null) {
+            return false;
+        }
+        coalescing = false;
+        command.redo();
+        undoStack.addLast(command);
+        return true;
+    }
+
+    /**
+     * Gets the command the next undo would revert, without undoing it.
+     *
+     * @return The most recent command, or null if there is nothing to undo.
+     */
+    public Command peekUndo() { return undoStack.peekLast(); }
+
+    /**
+     * Gets the command the next redo would reapply, without redoing it.
+     *
+     * @return The most recently undone command, or null if there is nothing to redo.
+     */
+    public Command peekRedo() { return redoStack.peekLast(); }
+
+    /**
+     * Checks if there is a command to undo.
+     *
+     * @return true if undo is possible, false otherwise.
+     */
+    public boolean canUndo() { return !undoStack.isEmpty(); }
+
+    /**
+     * Checks if there is a command to redo.
+     *
+     * @return true if redo is possible, false otherwise.
+     */
+    public boolean canRedo() { return !redoStack.isEmpty(); }
+
+    /**
+     * Gets the maximum number of undo steps.
+     *
+     * @return The depth limit of the history.
+     */
+    public int getMaxDepth() { return maxDepth; }
+
+    /**
+     * Gets the estimated memory held by all recorded commands.
+     *
+     * @return The approximate size of the history in bytes.
+     */
+    public long getMemoryUsed() { return memoryUsed; }
+
+    /**
+     * Removes all commands from the history.
+     */
+    public void clear() {
+        undoStack.clear();
+        redoStack.clear();
+        memoryUsed = 0;
+        coalescing = false;
+    }
+
+    /**
+     * Removes all commands that could be redone.
+     */
+    private void clearRedo() {
+        for (Command command : redoStack) {
+            memoryUsed -= command.getMemorySize();
+        }
+        redoStack.clear();
+    }
+
+    /**
+     * Discards steps until the history fits its limits again. Over the memory budget, the steps furthest from
+     * being redone go first, as they are the least likely to be needed, and then the oldest undo steps.
+     */
+    private void trim() {
+        while (!redoStack.isEmpty() && memoryUsed > memoryBudget) {
+            memoryUsed -= redoStack.pollFirst().getMemorySize();
+        }
+        while (!undoStack.isEmpty() && (undoStack.size() > maxDepth || memoryUsed > memoryBudget)) {
+            memoryUsed -= undoStack.pollFirst().getMemorySize();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package controller;
+
+import model.ShapeSnapshot;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The `DetailRenderer` class draws shape snapshots with no more detail than is visible at the current scale.
+ * Shapes smaller than a couple of device pixels become single pixels, and each pixel is painted at most once
+ * per color until something else is drawn over it, so dense clusters cost no more than the pixels they
+ * cover. Small closed shapes are drawn as their bounding box and small freehand strokes with fewer points.
+ * Runs of consecutive unfilled outlines with the same opaque stroke and color are merged into one path and
+ * drawn with a single call, which saves most of the per-shape overhead of Java2D on freehand-heavy drawings.
+ * Groups are opened up and only their children overlapping the clip are drawn, each with its own detail.
+ * One instance is used for a single paint or tile render, and {@link #flush()} must be called at its end.
+ */
+public class DetailRenderer {
+    // Shapes smaller than this many device pixels are drawn as a single pixel
+    public static final double DOT_SIZE = 2;
+    // Closed shapes smaller than this many device pixels are drawn as their bounding box
+    public static final double BOX_SIZE = 8;
+    // Freehand strokes keep only points at least this many device pixels apart
+    private static final double DECIMATION_TOLERANCE = 1;
+
+    private final Graphics2D g2D;
+    private final double scale;
+    // Colors of the single pixels drawn since the last other shape, by device pixel
+    private final Map<Long, Color> dots = new HashMap<>();
+    // Outlines waiting to be drawn together, and the color and stroke they share
+    private final Path2D.Float batch = new Path2D.Float();
+    private Color batchColor;
+    private BasicStroke batchStroke;
+    private int batchSize = 0;
+    // Offset of the groups currently being drawn, which the context is translated by
+    private int offsetX = 0;
+    private int offsetY = 0;
+
+    private int dotCount = 0;
+    private int mergedCount = 0;
+    private int boxCount = 0;
+    private int detailCount = 0;
+    private int batchedCount = 0;
+    private int batchCount = 0;
+
+    /**
+     * Creates a renderer for one pass.
+     *
+     * @param g2D   The Graphics2D context to draw on, in canvas coordinates.
+     * @param scale The scale from canvas coordinates to device pixels.
+     */
+    public DetailRenderer(Graphics2D g2D, double scale) {
+        this.g2D = g2D;
+        this.scale = scale;
+    }
+
+    /**
+     * Draws a snapshot with the level of detail matching its size on screen.
+     *
+     * @param shape The snapshot to draw.
+     */
+    public void draw(ShapeSnapshot shape) {
+        double screenSize = shape.getSize() * scale;
+        if (shape.getKind() == ShapeSnapshot.IMAGE) {
+            // Images are drawn at any size; scaling them down already averages their pixels.
+            flush();
+            dots.clear();
+            shape.draw(g2D);
+            detailCount++;
+        } else if (shape.getKind() == ShapeSnapshot.GROUP) {
+            drawGroup(shape);
+        } else if (screenSize < DOT_SIZE) {
+            flush();
+            drawDot(shape);
+        } else if (screenSize < BOX_SIZE && shape.getKind() == ShapeSnapshot.CLOSED) {
+            flush();
+            dots.clear();
+            shape.drawBox(g2D);
+            boxCount++;
+        } else if (shape.isBatchable()) {
+            startBatch(shape);
+            dots.clear();
+            if (shape.getKind() == ShapeSnapshot.POLYLINE) {
+                shape.appendSimplifiedTo(batch, DECIMATION_TOLERANCE / scale);
+            } else {
+                shape.appendTo(batch);
+            }
+            batchSize++;
+            detailCount++;
+        } else {
+            flush();
+            dots.clear();
+            if (shape.getKind() == ShapeSnapshot.POLYLINE) {
+                shape.drawSimplified(g2D, DECIMATION_TOLERANCE / scale);
+            } else {
+                shape.draw(g2D);
+            }
+            detailCount++;
+        }
+    }
+
+    /**
+     * Draws the children of a group that overlap the clip, moved by the offset of the group.
+     *
+     * @param group The group snapshot to draw.
+     */
+    private void drawGroup(ShapeSnapshot group) {
+        flush();
+        g2D.translate(group.getOffsetX(), group.getOffsetY());
+        offsetX += group.getOffsetX();
+        offsetY += group.getOffsetY();
+        java.awt.Rectangle clip = g2D.getClipBounds();
+        for (ShapeSnapshot child : clip == null ? group.getChildren() : group.getChildrenIn(clip)) {
+            if (child != null) {
+                draw(child);
+            }
+        }
+        flush();
+        offsetX -= group.getOffsetX();
+        offsetY -= group.getOffsetY();
+        g2D.translate(-group.getOffsetX(), -group.getOffsetY());
+    }
+
+    /**
+     * Makes sure the batch collects outlines with the color and stroke of a shape, drawing the outlines
+     * collected so far if they differ.
+     *
+     * @param shape The batchable snapshot to add next.
+     */
+    private void startBatch(ShapeSnapshot shape) {
+        if (batchSize > 0 && (!shape.getStrokeColor().equals(batchColor) || !shape.getStroke().equals(batchStroke))) {
+            flush();
+        }
+        batchColor = shape.getStrokeColor();
+        batchStroke = shape.getStroke();
+    }
+
+    /**
+     * Draws the outlines collected in the batch with a single call.
+     * Called before anything else is drawn, so that the stacking order is kept, and at the end of a pass.
+     */
+    public void flush() {
+        if (batchSize == 0) {
+            return;
+        }
+        g2D.setPaint(batchColor);
+        g2D.setStroke(batchStroke);
+        g2D.draw(batch);
+        batch.reset();
+        batchedCount += batchSize;
+        batchCount++;
+        batchSize = 0;
+    }
+
+    /**
+     * Draws a shape as the device pixel under its center, unless that pixel already has the same color.
+     * Any other shape may paint over the pixels, so the colors are only trusted until one is drawn.
+     *
+     * @param shape The snapshot to draw.
+     */
+    private void drawDot(ShapeSnapshot shape) {
+        Point2D center = shape.getCenter();
+        long pixelX = (long) Math.floor((center.getX() + offsetX) * scale);
+        long pixelY = (long) Math.floor((center.getY() + offsetY) * scale);
+        Color color = shape.getDotColor();
+        if (color.equals(dots.put((pixelX << 32) ^ (pixelY & 0xFFFFFFFFL), color))) {
+            mergedCount++;
+            return;
+        }
+        g2D.setPaint(color);
+        g2D.fill(new Rectangle2D.Double(pixelX / scale - offsetX, pixelY / scale - offsetY, 1 / scale, 1 / scale));
+        dotCount++;
+    }
+
+    public int getDotCount() { return dotCount; }
+    public int getMergedCount() { return mergedCount; }
+    public int getBoxCount() { return boxCount; }
+    public int getDetailCount() { return detailCount; }
+    public int getBatchedCount() { return batchedCount; }
+    public int getBatchCount() { return batchCount; }
+}
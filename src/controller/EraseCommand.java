@@ -0,0 +1,106 @@
+package controller;
+
+/**
+ * The `EraseCommand` class records shapes that an eraser stroke removed or clipped.
+ * For each affected shape it keeps its position in paint order, the shape itself and what is left of it,
+ * which is null if the shape was erased completely.
+ */
+public class EraseCommand implements Command {
+    private final GraphicController scene;
+    // Positions before the erase, in ascending order
+    private final int[] positions;
+    private final model.Shape[] oldShapes;
+    private final model.Shape[] newShapes;
+
+    /**
+     * Creates a command for an erase that has not been applied yet.
+     *
+     * @param scene     The scene containing the shapes.
+     * @param positions The positions of the affected shapes in paint order, in ascending order.
+     * @param oldShapes The affected shapes.
+     * @param newShapes What is left of each shape, or null where a shape is removed.
+     */
+    public EraseCommand(GraphicController scene, int[] positions, model.Shape[] oldShapes, model.Shape[] newShapes) {
+        this.scene = scene;
+        this.positions = positions;
+        this.oldShapes = oldShapes;
+        this.newShapes = newShapes;
+    }
+
+    /**
+     * Puts the original shapes back at their positions, inserting the removed ones bottom up.
+     */
+    @Override
+    public void undo() {
+        for (int i = 0; i < positions.length; i++) {
+            if (newShapes[i] == null) {
+                scene.insertShape(positions[i], oldShapes[i]);
+            } else {
+                scene.setShape(positions[i], oldShapes[i]);
+            }
+        }
+    }
+
+    /**
+     * Replaces the shapes by their remains, removing the erased ones top down so that the positions
+     * of the shapes below stay valid.
+     */
+    @Override
+    public void redo() {
+        for (int i = positions.length - 1; i >= 0; i--) {
+            if (newShapes[i] == null) {
+                scene.removeShape(positions[i]);
+            } else {
+                scene.setShape(positions[i], newShapes[i]);
+            }
+        }
+    }
+
+    @Override
+    public GraphicController getScene() { return scene; }
+
+    /**
+     * Covers the original shapes together with their remains, as either may be in the scene.
+     *
+     * @return The area the original shapes and their remains paint into.
+     */
+    @Override
+    public java.awt.Rectangle getBounds() {
+        java.awt.Rectangle bounds = Command.boundsOf(oldShapes);
+        java.awt.Rectangle remains = Command.boundsOf(newShapes);
+        if (remains != null) {
+            bounds.add(remains);
+        }
+        return bounds;
+    }
+
+    /**
+     * Gets the number of shapes the erase affected.
+     *
+     * @return The number of removed or clipped shapes.
+     */
+    public int getAffectedCount() {
+        return positions.length;
+    }
+
+    /**
+     * Charges the positions and references plus the geometry of the clipped remains, the pixels of
+     * erased images and the child references of rebuilt groups, whose original only the command keeps.
+     *
+     * @return The approximate size of the command in bytes.
+     */
+    @Override
+    public long getMemorySize() {
+        long size = 48 + 20L * positions.length;
+        for (model.Shape shape : newShapes) {
+            if (shape instanceof model.ClippedShape) {
+                size += 32L * ((model.ClippedShape) shape).getSegmentCount();
+            } else if (shape instanceof model.ImageShape) {
+                size += ((model.ImageShape) shape).getMemorySize();
+            } else if (shape instanceof model.GroupShape) {
+                size += 16L * ((model.GroupShape) shape).getChildCount();
+            }
+        }
+        return size;
+    }
+}
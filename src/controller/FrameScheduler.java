@@ -0,0 +1,152 @@
+package controller;
+
+import javax.swing.JComponent;
+import javax.swing.Timer;
+import java.awt.DisplayMode;
+import java.awt.GraphicsEnvironment;
+import java.util.function.Consumer;
+
+/**
+ * The `FrameScheduler` class paces the updates of a component to the refresh rate of the display.
+ * Input handlers post their work, damage and status text here instead of applying them right away;
+ * once per frame a Swing timer runs the latest posted work, issues a single repaint of the accumulated
+ * damage and shows the latest status. The timer stops as soon as a frame has nothing to do.
+ */
+public class FrameScheduler {
+    private static final int DEFAULT_REFRESH_RATE = 60;
+    private static final int MILLIS_PER_SECOND = 1000;
+
+    private final JComponent component;
+    private final Consumer<String> statusSink;
+    private final Timer timer;
+
+    // Work, damage and status accumulated since the last frame
+    private Runnable pendingWork;
+    private java.awt.Rectangle damage;
+    private boolean fullRepaint = false;
+    private String status;
+
+    /**
+     * Creates a scheduler paced to the refresh rate of the default screen.
+     *
+     * @param component  The component to repaint.
+     * @param statusSink Receives the latest status text once per frame.
+     */
+    public FrameScheduler(JComponent component, Consumer<String> statusSink) {
+        this(component, statusSink, MILLIS_PER_SECOND / getRefreshRate());
+    }
+
+    /**
+     * Creates a scheduler with a given frame interval.
+     *
+     * @param component     The component to repaint.
+     * @param statusSink    Receives the latest status text once per frame.
+     * @param frameInterval The time between two frames in milliseconds.
+     */
+    public FrameScheduler(JComponent component, Consumer<String> statusSink, int frameInterval) {
+        this.component = component;
+        this.statusSink = statusSink;
+        this.timer = new Timer(Math.max(1, frameInterval), e -> runFrame());
+        this.timer.setCoalesce(true);
+    }
+
+    /**
+     * Gets the refresh rate of the default screen.
+     *
+     * @return The refresh rate in Hz, or 60 if it cannot be determined.
+     */
+    private static int getRefreshRate() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return DEFAULT_REFRESH_RATE;
+        }
+        int rate = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDisplayMode().getRefreshRate();
+        return rate == DisplayMode.REFRESH_RATE_UNKNOWN || rate <= 0 ? DEFAULT_REFRESH_RATE : rate;
+    }
+
+    /**
+     * Posts work to run at the next frame, replacing work posted earlier in the same frame.
+     * Used for input where only the latest state matters, such as the position of a drag.
+     *
+     * @param work The work to run.
+     */
+    public void post(Runnable work) {
+        pendingWork = work;
+        timer.start();
+    }
+
+    /**
+     * Runs the posted work right away, e.g. before the mouse button is released.
+     */
+    public void flushWork() {
+        Runnable work = pendingWork;
+        pendingWork = null;
+        if (work != null) {
+            work.run();
+        }
+    }
+
+    /**
+     * Repaints the whole component at the next frame.
+     */
+    public void repaint() {
+        fullRepaint = true;
+        timer.start();
+    }
+
+    /**
+     * Repaints an area of the component at the next frame.
+     *
+     * @param area The damaged area in component coordinates.
+     */
+    public void repaint(java.awt.Rectangle area) {
+        if (damage == null) {
+            damage = new java.awt.Rectangle(area);
+        } else {
+            damage.add(area);
+        }
+        timer.start();
+    }
+
+    /**
+     * Shows a status text at the next frame, replacing text set earlier in the same frame.
+     *
+     * @param text The status text.
+     */
+    public void setStatus(String text) {
+        status = text;
+        timer.start();
+    }
+
+    /**
+     * Applies everything accumulated since the last frame, or stops the timer if there is nothing to do.
+     * Called by the frame timer.
+     */
+    public void runFrame() {
+        if (pendingWork == null && damage == null && !fullRepaint && status == null) {
+            timer.stop();
+            return;
+        }
+        flushWork();
+        if (fullRepaint) {
+            component.repaint();
+        } else if (damage != null) {
+            component.repaint(damage);
+        }
+        fullRepaint = false;
+        damage = null;
+        if (status != null) {
+            statusSink.accept(status);
+            status = null;
+        }
+    }
+
+    /**
+     * Checks whether the scheduler is waiting for the next frame.
+     *
+     * @return true if the frame timer is running, false otherwise.
+     */
+    public boolean isRunning() {
+        return timer.isRunning();
+    }
+}
@@ -0,0 +1,59 @@
+package controller;
+
+/**
+ * The `GeometryCommand` class records a resize or rotation of a shape as its compact geometry
+ * before and after the edit. Consecutive edits of the same shape within one drag are merged by
+ * keeping the oldest geometry and the newest one.
+ */
+public class GeometryCommand implements Command {
+    private final GraphicController scene;
+    private final model.Shape shape;
+    private final int[] oldGeometry;
+    private int[] newGeometry;
+
+    /**
+     * Creates a command for a shape whose geometry has just been changed.
+     *
+     * @param scene       The scene containing the shape.
+     * @param shape       The changed shape.
+     * @param oldGeometry The geometry saved by {@link model.Shape#saveGeometry()} before the change.
+     */
+    public GeometryCommand(GraphicController scene, model.Shape shape, int[] oldGeometry) {
+        this.scene = scene;
+        this.shape = shape;
+        this.oldGeometry = oldGeometry;
+        this.newGeometry = shape.saveGeometry();
+    }
+
+    @Override
+    public void undo() {
+        shape.restoreGeometry(oldGeometry);
+        scene.updateShape(shape);
+    }
+
+    @Override
+    public void redo() {
+        shape.restoreGeometry(newGeometry);
+        scene.updateShape(shape);
+    }
+
+    @Override
+    public GraphicController getScene() { return scene; }
+
+    @Override
+    public java.awt.Rectangle getBounds() { return shape.getBounds(); }
+
+    @Override
+    public long getMemorySize() {
+        return 48 + 4L * (oldGeometry.length + newGeometry.length);
+    }
+
+    @Override
+    public boolean mergeWith(Command next) {
+        if (next instanceof GeometryCommand && ((GeometryCommand) next).shape == shape) {
+            newGeometry = ((GeometryCommand) next).newGeometry;
+            return true;
+        }
+        return false;
+    }
+}
@@ -1,13 +1,25 @@
 package controller;
 
-import java.util.ArrayList;
+import java.util.List;
 
 /**
- * The `GraphicController` class manages a collection of graphic shapes.
+ * The `GraphicController` class is the scene model of the canvas.
+ * It owns the shapes in paint order together with the spatial index used to find shapes by position,
+ * so that every change to the scene updates both at once. Between any two calls the scene keeps this contract:
+ * <ul>
+ *     <li>the store and the index hold the same shapes, each of them once and none of them null;</li>
+ *     <li>the index returns the shapes in the reverse of their order in the store, topmost first, however
+ *     they got there: every method that puts a shape at a position tells the index which shapes are its
+ *     neighbours there.</li>
+ * </ul>
+ * Neither the {@link ShapeStore} nor the {@link SpatialIndex} of a scene is ever changed other than through
+ * this class.
  */
 public class GraphicController {
-    // An ArrayList to store graphic shapes.
-    private static final ArrayList<model.Shape> shapes = new ArrayList<model.Shape>();
+    // The shapes in paint order, bottommost first.
+    private final ShapeStore shapes = new ShapeStore();
+    // A spatial index over the bounds of the shapes, used for hit-testing.
+    private final SpatialIndex index = new SpatialIndex();
 
 
     /**
@@ -16,18 +28,140 @@ public class GraphicController {
     public GraphicController() {}
 
     /**
-     * Gets the list of graphic shapes.
+     * Gets the number of shapes in the scene.
      *
-     * @return The list of graphic shapes.
+     * @return The number of shapes.
      */
-    public static ArrayList<model.Shape> getShapes() {return shapes;}
+    public int getShapeCount() {return shapes.size();}
 
     /**
-     * Adds a graphic shape to the list.
+     * Gets a shape by its position in paint order.
+     *
+     * @param index The position of the shape, 0 being the bottommost shape.
+     * @return The shape at the position.
+     */
+    public model.Shape getShape(int index) {return shapes.get(index);}
+
+    /**
+     * Checks if a shape is part of the scene.
+     *
+     * @param shape The shape to check.
+     * @return true if the shape is in the scene, false otherwise.
+     */
+    public boolean containsShape(model.Shape shape) {return index.contains(shape);}
+
+    /**
+     * Adds a graphic shape on top of the scene.
+     * A shape that is already in the scene is not added a second time.
      *
      * @param shape The graphic shape to add.
      */
-    public static void addShape(model.Shape shape) {shapes.add(shape);}
+    public void addShape(model.Shape shape) {
+        if (shape == null || index.contains(shape)) {
+            return;
+        }
+        shapes.add(shape);
+        index.add(shape);
+    }
 
+    /**
+     * Removes the topmost shape of the scene.
+     *
+     * @return The removed shape, or null if the scene is empty.
+     */
+    public model.Shape removeLastShape() {
+        model.Shape shape = shapes.removeLast();
+        if (shape != null) {
+            index.remove(shape);
+        }
+        return shape;
+    }
 
+    /**
+     * Replaces a shape with another one at the same position in paint order.
+     *
+     * @param index The position of the shape.
+     * @param shape The shape to put there.
+     * @throws IllegalArgumentException If the shape is null or already elsewhere in the scene.
+     */
+    public void setShape(int index, model.Shape shape) {
+        if (shape != shapes.get(index)) {
+            checkNewShape(shape);
+        }
+        this.index.replace(shapes.get(index), shape);
+        shapes.set(index, shape);
+    }
+
+    /**
+     * Inserts a shape at a position in paint order.
+     *
+     * @param index The position to insert at, 0 being below all shapes.
+     * @param shape The shape to insert.
+     * @throws IllegalArgumentException If the shape is null or already in the scene.
+     */
+    public void insertShape(int index, model.Shape shape) {
+        checkNewShape(shape);
+        model.Shape below = index > 0 ? shapes.get(index - 1) : null;
+        model.Shape above = index < shapes.size() ? shapes.get(index) : null;
+        shapes.insert(index, shape);
+        this.index.insert(shape, below, above);
+    }
+
+    /**
+     * Makes sure that putting a shape at a position keeps every shape in the scene once.
+     *
+     * @param shape The shape to put into the scene.
+     */
+    private void checkNewShape(model.Shape shape) {
+        if (shape == null) {
+            throw new IllegalArgumentException("Shape must not be null");
+        }
+        if (index.contains(shape)) {
+            throw new IllegalArgumentException("Shape is already in the scene");
+        }
+    }
+
+    /**
+     * Removes the shape at a position in paint order.
+     *
+     * @param index The position of the shape.
+     * @return The removed shape.
+     */
+    public model.Shape removeShape(int index) {
+        model.Shape shape = shapes.remove(index);
+        this.index.remove(shape);
+        return shape;
+    }
+
+    /**
+     * Updates the spatial index after a shape has been translated, resized or rotated.
+     *
+     * @param shape The graphic shape whose geometry has changed.
+     */
+    public void updateShape(model.Shape shape) {index.update(shape);}
+
+    /**
+     * Removes all graphic shapes.
+     */
+    public void clearShapes() {
+        shapes.clear();
+        index.clear();
+    }
+
+    /**
+     * Gets the shapes whose bounds contain a point.
+     *
+     * @param x The x-coordinate of the point.
+     * @param y The y-coordinate of the point.
+     * @return The shapes at the point, topmost first.
+     */
+    public List<model.Shape> getShapesAt(int x, int y) {return index.queryPoint(x, y);}
+
+    /**
+     * Gets the shapes whose bounds intersect a rectangle.
+     *
+     * @param area The rectangle to query.
+     * @return The shapes in the rectangle, topmost first.
+     */
+    public List<model.Shape> getShapesIn(java.awt.Rectangle area) {return index.queryRect(area);}
 }
@@ -0,0 +1,127 @@
+package controller;
+
+/**
+ * The `GroupCommand` class records shapes that were put into a group or taken out of one.
+ * The group takes the place of its topmost member in paint order, and ungrouping puts the children back
+ * in its place, so no shape moves above or below shapes that are not part of the group.
+ */
+public class GroupCommand implements Command {
+    private final GraphicController scene;
+    // Positions of the members in paint order while they are not grouped
+    private final int[] positions;
+    private final model.Shape[] members;
+    private final model.GroupShape group;
+    private final boolean grouping;
+    // Offset of the group, which the members are moved by while they are not grouped
+    private final int offsetX;
+    private final int offsetY;
+
+    /**
+     * Creates a command for a grouping or ungrouping that has not been applied yet.
+     *
+     * @param scene     The scene containing the shapes.
+     * @param positions The ascending positions of the members while they are not grouped.
+     * @param members   The members at those positions, which are the children of the group.
+     * @param group     The group of the members.
+     * @param grouping  true if the members are grouped, false if the group is taken apart.
+     */
+    public GroupCommand(GraphicController scene, int[] positions, model.Shape[] members, model.GroupShape group,
+                        boolean grouping) {
+        this.scene = scene;
+        this.positions = positions;
+        this.members = members;
+        this.group = group;
+        this.grouping = grouping;
+        this.offsetX = group.getOffsetX();
+        this.offsetY = group.getOffsetY();
+    }
+
+    /**
+     * Reverts the grouping or ungrouping.
+     */
+    @Override
+    public void undo() {
+        if (grouping) {
+            scatter();
+        } else {
+            gather();
+        }
+    }
+
+    /**
+     * Applies the grouping or ungrouping.
+     */
+    @Override
+    public void redo() {
+        if (grouping) {
+            gather();
+        } else {
+            scatter();
+        }
+    }
+
+    /**
+     * Replaces the members by the group, removing them top down.
+     */
+    private void gather() {
+        for (int i = positions.length - 1; i >= 0; i--) {
+            scene.removeShape(positions[i]);
+            members[i].translate(-offsetX, -offsetY);
+        }
+        scene.insertShape(getGroupPosition(), group);
+    }
+
+    /**
+     * Replaces the group by its members, moved by the offset of the group.
+     */
+    private void scatter() {
+        scene.removeShape(getGroupPosition());
+        for (int i = 0; i < positions.length; i++) {
+            members[i].translate(offsetX, offsetY);
+            scene.insertShape(positions[i], members[i]);
+        }
+    }
+
+    /**
+     * Gets the position of the group, which is that of the topmost member once the others are removed.
+     *
+     * @return The position of the group in paint order.
+     */
+    private int getGroupPosition() {
+        return positions[positions.length - 1] - (positions.length - 1);
+    }
+
+    @Override
+    public GraphicController getScene() { return scene; }
+
+    /**
+     * Covers the group together with its members, as either may be in the scene.
+     *
+     * @return The area the group and its members paint into.
+     */
+    @Override
+    public java.awt.Rectangle getBounds() {
+        java.awt.Rectangle bounds = group.getBounds();
+        bounds.add(Command.boundsOf(members));
+        return bounds;
+    }
+
+    /**
+     * Gets the group the members are put into or taken out of.
+     *
+     * @return The group.
+     */
+    public model.GroupShape getGroup() {
+        return group;
+    }
+
+    /**
+     * Charges the references to the members and their positions; the shapes themselves are part of the scene.
+     *
+     * @return The approximate size of the command in bytes.
+     */
+    @Override
+    public long getMemorySize() {
+        return 48 + 12L * members.length;
+    }
+}
@@ -0,0 +1,148 @@
+package controller;
+
+import model.ShapeSnapshot;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The `Layer` class is one layer of the drawing: its own scene with the raster cache of its shapes, and how
+ * the layer is composited onto the layers below it. Every layer caches its tiles separately, so editing the
+ * active layer only renders that layer again while the others are blitted from their caches. The layers of
+ * a drawing keep their tiles in one shared {@link TileCache.Pool} and are rendered by one shared
+ * {@link SceneRenderer}, so adding layers adds neither tile memory nor threads. Opacity and visibility are
+ * applied when the tiles are composited, so changing them never renders anything.
+ */
+public class Layer {
+    private String name;
+    private final GraphicController scene = new GraphicController();
+    // Tiles of the shapes of this layer, rendered in the background
+    private final TileCache tiles;
+    private final SceneRenderer renderer;
+    // Draws the shapes of this layer under tiles that are not rendered yet across several frames
+    private final ProgressivePainter progressivePainter = new ProgressivePainter();
+    private float opacity = 1.0f;
+    private boolean visible = true;
+    private boolean locked = false;
+
+    // Number of shapes whose area the tiles were last brought up to date for
+    private int committedCount = 0;
+    private int requestedGeneration = -1;
+    private Set<Long> requestedTiles = new HashSet<>();
+    // Shapes hidden behind opaque filled shapes in the progressive buffer
+    private int occludedCount = 0;
+
+    /**
+     * Creates an empty, visible and unlocked layer sharing its tile memory and renderer with other layers.
+     *
+     * @param name     The name of the layer.
+     * @param pool     The pool the tiles of the layer are kept in.
+     * @param renderer The renderer the tiles of the layer are rendered by.
+     */
+    public Layer(String name, TileCache.Pool pool, SceneRenderer renderer) {
+        this.name = name;
+        this.tiles = new TileCache(pool);
+        this.renderer = renderer;
+    }
+
+    /**
+     * Drops the cached tiles under shapes added since the last call, or all tiles if shapes were removed.
+     */
+    public void syncTiles() {
+        int count = scene.getShapeCount();
+        if (count < committedCount) {
+            tiles.clear();
+        } else {
+            for (int i = committedCount; i < count; i++) {
+                tiles.invalidate(scene.getShape(i).getBounds());
+            }
+        }
+        committedCount = count;
+    }
+
+    /**
+     * Accepts the current shapes as they are, after the caller has invalidated the tiles an edit changed itself.
+     */
+    public void markSynced() {
+        committedCount = scene.getShapeCount();
+    }
+
+    /**
+     * Checks whether the given tiles of the current scene have already been handed to the renderer.
+     * A tile whose area has been invalidated since, or that the pool has dropped to make room, has to be
+     * requested again.
+     *
+     * @param keys The keys of the tiles.
+     * @return true if all of them are requested and still current, false otherwise.
+     */
+    public boolean isRequested(List<Long> keys) {
+        requestedTiles.removeAll(tiles.takeEvicted());
+        for (long key : keys) {
+            if (!requestedTiles.contains(key) || !tiles.isCurrent(key, requestedGeneration)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hands a snapshot of the shapes under some tiles to the background renderer of the layer.
+     *
+     * @param keys   The keys of the tiles to render.
+     * @param shapes The snapshots of the shapes overlapping the tiles, in drawing order.
+     */
+    public void requestTiles(List<Long> keys, List<ShapeSnapshot> shapes) {
+        long[] tileKeys = new long[keys.size()];
+        for (int i = 0; i < tileKeys.length; i++) {
+            tileKeys[i] = keys.get(i);
+        }
+        requestedGeneration = tiles.getGeneration();
+        requestedTiles = new HashSet<>(keys);
+        renderer.submit(tiles, new SceneSnapshot(requestedGeneration, shapes, tileKeys));
+    }
+
+    /**
+     * Releases what a layer that has been removed holds: its tiles, its progressive buffer and its
+     * pending render request. The shared renderer keeps serving the other layers.
+     */
+    public void dispose() {
+        renderer.cancel(tiles);
+        tiles.clear();
+        progressivePainter.release();
+    }
+
+    /**
+     * Checks whether shapes of the layer can be drawn, selected and edited.
+     *
+     * @return true if the layer is visible and not locked, false otherwise.
+     */
+    public boolean isEditable() {
+        return visible && !locked;
+    }
+
+    /**
+     * Sets how opaque the layer is composited onto the layers below.
+     *
+     * @param opacity The opacity from 0, transparent, to 1, opaque.
+     */
+    public void setOpacity(float opacity) {
+        if (opacity < 0 || opacity > 1) {
+            throw new IllegalArgumentException("Layer opacity must be between 0 and 1");
+        }
+        this.opacity = opacity;
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public GraphicController getScene() { return scene; }
+    public TileCache getTiles() { return tiles; }
+    public ProgressivePainter getProgressivePainter() { return progressivePainter; }
+    public float getOpacity() { return opacity; }
+    public boolean isVisible() { return visible; }
+    public void setVisible(boolean visible) { this.visible = visible; }
+    public boolean isLocked() { return locked; }
+    public void setLocked(boolean locked) { this.locked = locked; }
+    public int getOccludedCount() { return occludedCount; }
+    public void setOccludedCount(int occludedCount) { this.occludedCount = occludedCount; }
+}
@@ -0,0 +1,91 @@
+package controller;
+
+import model.ShapeSnapshot;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The `OcclusionCuller` class removes shapes that are completely hidden behind opaque filled shapes above them.
+ * The shapes are walked from the top of the stacking order down; every opaque rectangle seen so far hides
+ * the shapes below whose bounds lie entirely inside it. Only the largest rectangles are kept, so the pass
+ * stays linear in the number of shapes.
+ */
+public class OcclusionCuller {
+    // Number of opaque rectangles tested against each shape
+    private static final int MAX_OCCLUDERS = 16;
+
+    /**
+     * Removes the hidden shapes from a list.
+     *
+     * @param shapes The shapes in drawing order, bottom first.
+     * @return The visible shapes in drawing order; the number of removed shapes is the difference in size.
+     */
+    public static List<ShapeSnapshot> cull(List<ShapeSnapshot> shapes) {
+        List<Rectangle2D> occluders = new ArrayList<>(MAX_OCCLUDERS);
+        List<ShapeSnapshot> visible = new ArrayList<>(shapes.size());
+        for (int i = shapes.size() - 1; i >= 0; i--) {
+            ShapeSnapshot shape = shapes.get(i);
+            if (isHidden(shape.getBounds(), occluders)) {
+                continue;
+            }
+            visible.add(shape);
+            Rectangle2D occluder = shape.getOccluder();
+            if (occluder != null) {
+                addOccluder(occluders, occluder);
+            }
+        }
+        Collections.reverse(visible);
+        return visible;
+    }
+
+    /**
+     * Checks whether an area lies entirely inside one of the opaque rectangles.
+     *
+     * @param bounds    The area to check.
+     * @param occluders The opaque rectangles.
+     * @return true if the area is hidden, false otherwise.
+     */
+    private static boolean isHidden(java.awt.Rectangle bounds, List<Rectangle2D> occluders) {
+        for (Rectangle2D occluder : occluders) {
+            if (occluder.contains(bounds)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds an opaque rectangle, replacing the smallest one once the list is full.
+     *
+     * @param occluders The opaque rectangles.
+     * @param occluder  The rectangle to add.
+     */
+    private static void addOccluder(List<Rectangle2D> occluders, Rectangle2D occluder) {
+        if (occluders.size() < MAX_OCCLUDERS) {
+            occluders.add(occluder);
+            return;
+        }
+        int smallest = 0;
+        for (int i = 1; i < occluders.size(); i++) {
+            if (areaOf(occluders.get(i)) < areaOf(occluders.get(smallest))) {
+                smallest = i;
+            }
+        }
+        if (areaOf(occluder) > areaOf(occluders.get(smallest))) {
+            occluders.set(smallest, occluder);
+        }
+    }
+
+    /**
+     * Gets the area of a rectangle.
+     *
+     * @param rectangle The rectangle.
+     * @return The width times the height.
+     */
+    private static double areaOf(Rectangle2D rectangle) {
+        return rectangle.getWidth() * rectangle.getHeight();
+    }
+}
@@ -0,0 +1,144 @@
+package controller;
+
+import model.ShapeSnapshot;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Area;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+/**
+ * The `ProgressivePainter` class draws a long list of shapes into a retained buffer across several frames.
+ * Each frame draws as many shapes as fit into a time budget and shows what has been drawn so far, so the
+ * event dispatch thread stays responsive while a big scene is drawn for the first time.
+ * Shapes are drawn in their stacking order, so the partially drawn buffer never shows a wrong overlap.
+ */
+public class ProgressivePainter {
+    // Default time spent drawing per frame, about half of a 60 Hz frame
+    public static final long DEFAULT_BUDGET_NANOS = 8_000_000L;
+    // Number of shapes drawn between two looks at the clock
+    private static final int CHECK_INTERVAL = 64;
+
+    private BufferedImage buffer;
+    private int generation;
+    private AffineTransform transform;
+    private Area area;
+    private double scale;
+    private List<ShapeSnapshot> queue = List.of();
+    private int next = 0;
+
+    /**
+     * Checks whether the buffer can be continued for the given scene, view and area.
+     *
+     * @param generation The generation of the scene.
+     * @param transform  The transform from canvas coordinates to buffer pixels.
+     * @param width      The width of the buffer in device pixels.
+     * @param height     The height of the buffer in device pixels.
+     * @param area       The area that has to be drawn, in canvas coordinates.
+     * @return true if the buffer was started for the same scene and view and covers the area.
+     */
+    public boolean canContinue(int generation, AffineTransform transform, int width, int height, Area area) {
+        if (buffer == null || this.generation != generation || !this.transform.equals(transform)
+                || buffer.getWidth() != width || buffer.getHeight() != height) {
+            return false;
+        }
+        Area uncovered = new Area(area);
+        uncovered.subtract(this.area);
+        return uncovered.isEmpty();
+    }
+
+    /**
+     * Drops the buffer, for a layer whose tiles now cover everything it shows or that is no longer shown.
+     * The next call to {@link #begin} allocates a new one.
+     */
+    public void release() {
+        buffer = null;
+        queue = List.of();
+        next = 0;
+    }
+
+    /**
+     * Starts drawing a new list of shapes into a cleared buffer.
+     *
+     * @param generation The generation of the scene.
+     * @param transform  The transform from canvas coordinates to buffer pixels.
+     * @param width      The width of the buffer in device pixels.
+     * @param height     The height of the buffer in device pixels.
+     * @param area       The area to draw, in canvas coordinates; drawing is clipped to it.
+     * @param shapes     The shapes to draw, in stacking order.
+     * @param scale      The scale from canvas coordinates to device pixels.
+     */
+    public void begin(int generation, AffineTransform transform, int width, int height, Area area,
+                      List<ShapeSnapshot> shapes, double scale) {
+        if (buffer == null || buffer.getWidth() != width || buffer.getHeight() != height) {
+            buffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        } else {
+            Graphics2D g2D = buffer.createGraphics();
+            g2D.setComposite(AlphaComposite.Clear);
+            g2D.fillRect(0, 0, width, height);
+            g2D.dispose();
+        }
+        this.generation = generation;
+        this.transform = new AffineTransform(transform);
+        this.area = new Area(area);
+        this.queue = List.copyOf(shapes);
+        this.scale = scale;
+        this.next = 0;
+    }
+
+    /**
+     * Draws the next shapes into the buffer until all are drawn or the time budget is used up.
+     *
+     * @param budgetNanos The time to spend, in nanoseconds.
+     * @return The number of shapes drawn.
+     */
+    public int advance(long budgetNanos) {
+        if (isComplete()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        Graphics2D g2D = buffer.createGraphics();
+        g2D.transform(transform);
+        g2D.clip(area);
+        DetailRenderer detail = new DetailRenderer(g2D, scale);
+        int first = next;
+        while (next < queue.size()) {
+            detail.draw(queue.get(next++));
+            if ((next - first) % CHECK_INTERVAL == 0 && System.nanoTime() - start > budgetNanos) {
+                break;
+            }
+        }
+        detail.flush();
+        g2D.dispose();
+        return next - first;
+    }
+
+    /**
+     * Checks whether all shapes have been drawn.
+     *
+     * @return true if nothing is left to draw, false otherwise.
+     */
+    public boolean isComplete() {
+        return next >= queue.size();
+    }
+
+    /**
+     * Gets the number of shapes the buffer was started with.
+     *
+     * @return The number of queued shapes, drawn or not.
+     */
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    /**
+     * Gets the buffer with the shapes drawn so far.
+     *
+     * @return The buffer in device pixels, or null if nothing has been started.
+     */
+    public BufferedImage getBuffer() {
+        return buffer;
+    }
+}
@@ -0,0 +1,143 @@
+package controller;
+
+import model.ShapeSnapshot;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The `SceneRenderer` class rasterizes the tiles of scene snapshots on a background thread and stores
+ * them in a {@link TileCache}. The event dispatch thread only blits finished tiles, so a heavy scene never
+ * blocks input handling. One renderer can serve the caches of several layers with a single thread; every
+ * cache has at most one pending snapshot, and a snapshot submitted while another one for the same cache is
+ * rendered replaces it, so only the newest request of each cache is worked on.
+ */
+public class SceneRenderer {
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "scene-renderer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // The newest snapshot to render for each cache, in the order the caches first asked; guarded by itself
+    private final Map<TileCache, SceneSnapshot> pending = new LinkedHashMap<>();
+    private boolean scheduled = false;
+    private final Runnable onTileReady;
+
+    /**
+     * Creates a renderer shared by several caches, each snapshot being submitted with the cache it is for.
+     *
+     * @param onTileReady Called on the render thread whenever a tile has been stored.
+     */
+    public SceneRenderer(Runnable onTileReady) {
+        this.onTileReady = onTileReady;
+    }
+
+    /**
+     * Schedules the tiles of a snapshot to be rendered into a cache, replacing any request for that cache
+     * that has not been finished yet.
+     *
+     * @param target The cache the tiles are stored in.
+     * @param scene  The snapshot to render.
+     */
+    public void submit(TileCache target, SceneSnapshot scene) {
+        synchronized (pending) {
+            pending.put(target, scene);
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+        }
+        executor.execute(this::renderPending);
+    }
+
+    /**
+     * Drops the request of a cache that is no longer shown.
+     *
+     * @param target The cache whose request is dropped.
+     */
+    public void cancel(TileCache target) {
+        synchronized (pending) {
+            pending.remove(target);
+        }
+    }
+
+    /**
+     * Stops the render thread; snapshots that have not been rendered yet are dropped.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Renders the pending snapshots one cache after the other. A snapshot is rendered until a newer one
+     * for the same cache arrives, leaving out the tiles whose area has been invalidated since it was taken.
+     */
+    private void renderPending() {
+        while (true) {
+            TileCache target;
+            SceneSnapshot scene;
+            synchronized (pending) {
+                Iterator<Map.Entry<TileCache, SceneSnapshot>> next = pending.entrySet().iterator();
+                if (!next.hasNext()) {
+                    scheduled = false;
+                    return;
+                }
+                Map.Entry<TileCache, SceneSnapshot> entry = next.next();
+                next.remove();
+                target = entry.getKey();
+                scene = entry.getValue();
+            }
+            for (int i = 0; i < scene.getTileCount() && !hasPending(target); i++) {
+                long key = scene.getTile(i);
+                // Tiles under an edit made since the snapshot was taken are skipped; the others are still current.
+                if (target.isCurrent(key, scene.getGeneration())
+                        && target.put(key, renderTile(scene, key), scene.getGeneration())) {
+                    onTileReady.run();
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether a newer snapshot has been submitted for a cache.
+     *
+     * @param target The cache.
+     * @return true if a snapshot for the cache is waiting, false otherwise.
+     */
+    private boolean hasPending(TileCache target) {
+        synchronized (pending) {
+            return pending.containsKey(target);
+        }
+    }
+
+    /**
+     * Rasterizes the shapes of a snapshot that overlap a tile.
+     *
+     * @param scene The snapshot to render.
+     * @param key   The key of the tile.
+     * @return The rendered tile.
+     */
+    static BufferedImage renderTile(SceneSnapshot scene, long key) {
+        java.awt.Rectangle area = TileCache.getTileArea(key);
+        double scale = (double) TileCache.TILE_SIZE / area.width;
+        BufferedImage tile = new BufferedImage(TileCache.TILE_SIZE, TileCache.TILE_SIZE, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2D = tile.createGraphics();
+        g2D.scale(scale, scale);
+        g2D.translate(-area.x, -area.y);
+        g2D.clip(area);
+        DetailRenderer detail = new DetailRenderer(g2D, scale);
+        for (ShapeSnapshot shape : scene.getShapes()) {
+            if (shape.getBounds().intersects(area)) {
+                detail.draw(shape);
+            }
+        }
+        detail.flush();
+        g2D.dispose();
+        return tile;
+    }
+}
@@ -0,0 +1,41 @@
+package controller;
+
+import model.ShapeSnapshot;
+
+import java.util.List;
+
+/**
+ * The `SceneSnapshot` class is an immutable copy of the committed shapes of the canvas, together with the
+ * tiles that should be rendered from them. It is created on the event dispatch thread and handed to the
+ * {@link SceneRenderer}.
+ */
+public final class SceneSnapshot {
+    private final int generation;
+    private final List<ShapeSnapshot> shapes;
+    private final long[] tiles;
+
+    /**
+     * Creates a snapshot of the scene.
+     *
+     * @param generation The generation of the tile cache when the snapshot was taken.
+     * @param shapes     The snapshots of the shapes to render, in drawing order.
+     * @param tiles      The keys of the tiles to render.
+     */
+    public SceneSnapshot(int generation, List<ShapeSnapshot> shapes, long[] tiles) {
+        this.generation = generation;
+        this.shapes = List.copyOf(shapes);
+        this.tiles = tiles.clone();
+    }
+
+    public int getGeneration() { return generation; }
+    public List<ShapeSnapshot> getShapes() { return shapes; }
+    public int getTileCount() { return tiles.length; }
+
+    /**
+     * Gets the key of one of the tiles to render.
+     *
+     * @param index The index of the tile.
+     * @return The key of the tile.
+     */
+    public long getTile(int index) { return tiles[index]; }
+}
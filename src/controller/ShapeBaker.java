@@ -0,0 +1,88 @@
+package controller;
+
+import model.ShapeSnapshot;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * The `ShapeBaker` class flattens runs of shapes into a single {@link model.ImageShape}.
+ * Baked shapes leave the scene and the spatial index, so long sessions with thousands of strokes that are
+ * never edited again only cost one image to paint, hit-test and keep in memory. The shapes are rendered
+ * the same way the tiles are, so the picture does not change when they are baked.
+ */
+public class ShapeBaker {
+    // Most pixels of a baked image, 16 M pixels or 64 MB of ARGB
+    public static final long MAX_PIXELS = 16L << 20;
+
+    /**
+     * Bakes a run of consecutive shapes into an image at their position in paint order.
+     * The image is rasterized at the given scale, or coarser if it would exceed {@link #MAX_PIXELS}.
+     *
+     * @param scene The scene containing the shapes.
+     * @param from  The position of the first shape of the run.
+     * @param to    The position after the last shape of the run.
+     * @param scale The number of image pixels per canvas unit.
+     * @return The applied bake, or null if the run is empty.
+     */
+    public static BakeCommand bake(GraphicController scene, int from, int to, double scale) {
+        if (from >= to) {
+            return null;
+        }
+        model.Shape[] shapes = new model.Shape[to - from];
+        java.awt.Rectangle area = null;
+        for (int i = 0; i < shapes.length; i++) {
+            shapes[i] = scene.getShape(from + i);
+            if (area == null) {
+                area = shapes[i].getBounds();
+            } else {
+                area.add(shapes[i].getBounds());
+            }
+        }
+
+        double pixelScale = Math.min(scale, Math.sqrt((double) MAX_PIXELS / ((double) area.width * area.height)));
+        int width = Math.max(1, (int) Math.ceil(area.width * pixelScale));
+        int height = Math.max(1, (int) Math.ceil(area.height * pixelScale));
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2D = image.createGraphics();
+        g2D.scale((double) width / area.width, (double) height / area.height);
+        g2D.translate(-area.x, -area.y);
+        DetailRenderer detail = new DetailRenderer(g2D, pixelScale);
+        for (model.Shape shape : shapes) {
+            ShapeSnapshot snapshot = shape.snapshot();
+            if (snapshot != null) {
+                detail.draw(snapshot);
+            }
+        }
+        detail.flush();
+        g2D.dispose();
+
+        BakeCommand command = new BakeCommand(scene, from, shapes, new model.ImageShape(image, area));
+        command.redo();
+        return command;
+    }
+
+    /**
+     * Finds the run of freehand strokes at the bottom of a scene that were started before a point in time.
+     * Images at the very bottom are skipped, so that baking again adds a new image above the earlier ones
+     * instead of resampling them.
+     *
+     * @param scene         The scene to search.
+     * @param createdBefore The time the strokes must be older than, in milliseconds since the epoch.
+     * @param excluded      A shape that must not be baked, e.g. the selected one, or null.
+     * @return The position of the first stroke of the run and the position after its last one.
+     */
+    public static int[] findOldStrokes(GraphicController scene, long createdBefore, model.Shape excluded) {
+        int from = 0;
+        while (from < scene.getShapeCount() && scene.getShape(from) instanceof model.ImageShape) {
+            from++;
+        }
+        int to = from;
+        while (to < scene.getShapeCount() && scene.getShape(to) != excluded
+                && scene.getShape(to) instanceof model.FreehandShape stroke
+                && stroke.getCreationTime() < createdBefore) {
+            to++;
+        }
+        return new int[] {from, to};
+    }
+}
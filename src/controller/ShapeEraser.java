@@ -0,0 +1,147 @@
+package controller;
+
+import model.ShapeSnapshot;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Area;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The `ShapeEraser` class erases the area swept by an eraser stroke from the shapes under it.
+ * Shapes the stroke covers completely are removed, shapes it crosses are replaced by a
+ * {@link model.ClippedShape} holding what is left of their fill and stroke, baked images get the area
+ * cleared in a copy of their pixels, groups are rebuilt from what is left of the children the stroke
+ * touches, and all other shapes are kept,
+ * so erasing makes the scene smaller instead of adding strokes in the background color.
+ */
+public class ShapeEraser {
+
+    /**
+     * Erases an area from the scene.
+     *
+     * @param scene The scene to erase from.
+     * @param swept The area swept by the eraser, in canvas coordinates.
+     * @return The applied erase, or null if the area touched no shape.
+     */
+    public static EraseCommand erase(GraphicController scene, java.awt.Shape swept) {
+        Area sweptArea = new Area(swept);
+        List<model.Shape> candidates = scene.getShapesIn(sweptArea.getBounds());
+        Map<model.Shape, model.Shape> affected = new IdentityHashMap<>();
+        for (model.Shape shape : candidates) {
+            model.Shape remains = clip(shape, sweptArea);
+            if (remains != shape) {
+                affected.put(shape, remains);
+            }
+        }
+        if (affected.isEmpty()) {
+            return null;
+        }
+
+        // Collect the positions in paint order in one pass over the scene.
+        int[] positions = new int[affected.size()];
+        model.Shape[] oldShapes = new model.Shape[positions.length];
+        model.Shape[] newShapes = new model.Shape[positions.length];
+        int found = 0;
+        for (int i = 0; i < scene.getShapeCount() && found < positions.length; i++) {
+            model.Shape shape = scene.getShape(i);
+            if (affected.containsKey(shape)) {
+                positions[found] = i;
+                oldShapes[found] = shape;
+                newShapes[found] = affected.get(shape);
+                found++;
+            }
+        }
+        EraseCommand command = new EraseCommand(scene, positions, oldShapes, newShapes);
+        command.redo();
+        return command;
+    }
+
+    /**
+     * Erases an area from one shape.
+     *
+     * @param shape The shape to erase from.
+     * @param swept The area swept by the eraser, in the coordinates of the shape.
+     * @return The shape itself if the area does not touch it, null if the area covers it, and what is left
+     * of it otherwise.
+     */
+    private static model.Shape clip(model.Shape shape, Area swept) {
+        if (shape instanceof model.ImageShape image) {
+            // Baked images have their pixels cleared instead.
+            model.ImageShape erased = image.erased(swept);
+            return erased != null ? erased : shape;
+        }
+        if (shape instanceof model.GroupShape group) {
+            return clipGroup(group, swept);
+        }
+        ShapeSnapshot snapshot = shape.snapshot();
+        if (snapshot == null) {
+            return shape;
+        }
+        Area fill = snapshot.getFillColor() == null ? null : new Area(snapshot.getOutline());
+        Area stroke = new Area(snapshot.getStrokeArea());
+        if (!intersects(stroke, swept) && (fill == null || !intersects(fill, swept))) {
+            return shape;
+        }
+        stroke.subtract(swept);
+        if (fill != null) {
+            fill.subtract(swept);
+        }
+        if (stroke.isEmpty() && (fill == null || fill.isEmpty())) {
+            return null;
+        }
+        return new model.ClippedShape(fill == null || fill.isEmpty() ? null : fill, stroke,
+                shape.getShapeColor(), shape.getFillColor(), shape.getStrokeWidth());
+    }
+
+    /**
+     * Erases an area from the children of a group, only visiting those whose bounds overlap it.
+     *
+     * @param group The group to erase from.
+     * @param swept The area swept by the eraser, in the coordinates of the group.
+     * @return The group itself if the area touches none of its children, null if no child is left,
+     * and a new group with the same offset holding what is left otherwise.
+     */
+    private static model.Shape clipGroup(model.GroupShape group, Area swept) {
+        Area local = swept.createTransformedArea(
+                AffineTransform.getTranslateInstance(-group.getOffsetX(), -group.getOffsetY()));
+        model.Shape[] children = group.getChildren();
+        boolean changed = false;
+        for (int i : group.getChildrenIn(local.getBounds())) {
+            model.Shape remains = clip(children[i], local);
+            if (remains != children[i]) {
+                children[i] = remains;
+                changed = true;
+            }
+        }
+        if (!changed) {
+            return group;
+        }
+        model.Shape[] left = Arrays.stream(children).filter(Objects::nonNull).toArray(model.Shape[]::new);
+        if (left.length == 0) {
+            return null;
+        }
+        model.GroupShape remains = new model.GroupShape(left);
+        remains.translate(group.getOffsetX(), group.getOffsetY());
+        return remains;
+    }
+
+    /**
+     * Checks whether two areas overlap.
+     *
+     * @param area  The first area.
+     * @param other The second area.
+     * @return true if the areas have any part in common, false otherwise.
+     */
+    private static boolean intersects(Area area, Area other) {
+        if (!area.getBounds2D().intersects(other.getBounds2D())) {
+            return false;
+        }
+        Area common = new Area(area);
+        common.intersect(other);
+        return !common.isEmpty();
+    }
+}
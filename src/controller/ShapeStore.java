@@ -0,0 +1,136 @@
+package controller;
+
+import java.util.Arrays;
+
+/**
+ * The `ShapeStore` class holds the committed shapes of the canvas in paint order.
+ * It is a growable array: capacity doubles when it runs out, so there is no upper limit on the
+ * number of shapes, and it shrinks again as shapes are removed.
+ * The store itself accepts any sequence of shapes. Within a scene it is only changed by the
+ * {@link GraphicController}, which keeps its {@link SpatialIndex} in the same order.
+ */
+public class ShapeStore {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private model.Shape[] shapes = new model.Shape[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * Appends a shape on top of all stored shapes.
+     *
+     * @param shape The shape to add.
+     */
+    public void add(model.Shape shape) {
+        if (size == shapes.length) {
+            shapes = Arrays.copyOf(shapes, shapes.length * 2);
+        }
+        shapes[size++] = shape;
+    }
+
+    /**
+     * Gets the shape at a position in paint order.
+     *
+     * @param index The position of the shape, 0 being the bottommost shape.
+     * @return The shape at the position.
+     */
+    public model.Shape get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return shapes[index];
+    }
+
+    /**
+     * Replaces the shape at a position in paint order.
+     *
+     * @param index The position of the shape.
+     * @param shape The shape to put there.
+     */
+    public void set(int index, model.Shape shape) {
+        get(index);
+        shapes[index] = shape;
+    }
+
+    /**
+     * Inserts a shape at a position in paint order, moving the shapes from there on up by one.
+     *
+     * @param index The position to insert at, from 0 to the number of shapes.
+     * @param shape The shape to insert.
+     */
+    public void insert(int index, model.Shape shape) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (size == shapes.length) {
+            shapes = Arrays.copyOf(shapes, shapes.length * 2);
+        }
+        System.arraycopy(shapes, index, shapes, index + 1, size - index);
+        shapes[index] = shape;
+        size++;
+    }
+
+    /**
+     * Removes the shape at a position in paint order, moving the shapes above it down by one.
+     *
+     * @param index The position of the shape.
+     * @return The removed shape.
+     */
+    public model.Shape remove(int index) {
+        model.Shape shape = get(index);
+        System.arraycopy(shapes, index + 1, shapes, index, size - index - 1);
+        shapes[--size] = null;
+        shrink();
+        return shape;
+    }
+
+    /**
+     * Removes the topmost shape.
+     *
+     * @return The removed shape, or null if the store is empty.
+     */
+    public model.Shape removeLast() {
+        if (size == 0) {
+            return null;
+        }
+        model.Shape shape = shapes[--size];
+        shapes[size] = null;
+        shrink();
+        return shape;
+    }
+
+    /**
+     * Gives memory back once most of the capacity is unused, halving it so that adding and removing
+     * around the threshold does not copy the array every time.
+     */
+    private void shrink() {
+        if (shapes.length > INITIAL_CAPACITY && size < shapes.length / 4) {
+            shapes = Arrays.copyOf(shapes, shapes.length / 2);
+        }
+    }
+
+    /**
+     * Gets the number of stored shapes.
+     *
+     * @return The number of shapes.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of shapes the store can hold before it has to grow.
+     *
+     * @return The capacity of the store.
+     */
+    public int getCapacity() {
+        return shapes.length;
+    }
+
+    /**
+     * Removes all shapes and releases the memory they were using.
+     */
+    public void clear() {
+        shapes = new model.Shape[INITIAL_CAPACITY];
+        size = 0;
+    }
+}
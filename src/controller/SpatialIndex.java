@@ -0,0 +1,375 @@
+package controller;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The `SpatialIndex` class is a uniform grid over the bounding boxes of shapes.
+ * It answers point and rectangle queries by visiting only the grid cells that overlap the query,
+ * and returns its results topmost-first, i.e. in the reverse order of painting.
+ * The paint order of every shape is kept as a number; shapes are numbered with gaps between them, so that
+ * a shape can be put between two others without renumbering the rest in all but rare cases.
+ */
+public class SpatialIndex {
+    private static final int DEFAULT_CELL_SIZE = 128;
+    // Shapes spanning more cells than this are kept in a separate list instead of the grid
+    private static final int MAX_CELLS_PER_SHAPE = 64;
+    // Distance between the paint orders of shapes added on top, leaving room for shapes inserted between them
+    private static final long ORDER_GAP = 1L << 16;
+
+    private final int cellSize;
+    private final Map<Long, List<Entry>> cells = new HashMap<>();
+    private final List<Entry> oversized = new ArrayList<>();
+    private final Map<model.Shape, Entry> entries = new IdentityHashMap<>();
+    private long nextOrder = 0;
+    private int queryStamp = 0;
+
+    /**
+     * An indexed shape together with its paint order and the bounds it was indexed with.
+     */
+    private static final class Entry {
+        private final model.Shape shape;
+        private long order;
+        private Rectangle bounds;
+        private boolean isOversized;
+        private int visitedStamp;
+
+        private Entry(model.Shape shape, long order) {
+            this.shape = shape;
+            this.order = order;
+        }
+    }
+
+    /**
+     * Creates a new `SpatialIndex` with the default cell size.
+     */
+    public SpatialIndex() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Creates a new `SpatialIndex` with the given cell size.
+     *
+     * @param cellSize The width and height of a grid cell in pixels.
+     */
+    public SpatialIndex(int cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Adds a shape on top of all shapes already in the index.
+     * Adding a shape that is already indexed moves it to the top.
+     *
+     * @param shape The shape to add.
+     */
+    public void add(model.Shape shape) {
+        Entry entry = entries.get(shape);
+        if (entry == null) {
+            entry = new Entry(shape, nextOrder);
+            entries.put(shape, entry);
+        } else {
+            unlink(entry);
+            entry.order = nextOrder;
+        }
+        nextOrder += ORDER_GAP;
+        link(entry, shape.getBounds());
+    }
+
+    /**
+     * Adds a shape directly above one indexed shape and below another, so that queries return it
+     * between the two. Adding a shape that is already indexed moves it there.
+     *
+     * @param shape The shape to add.
+     * @param below The indexed shape right below it in paint order, or null if it is the bottommost shape.
+     * @param above The indexed shape right above it in paint order, or null if it is the topmost shape.
+     */
+    public void insert(model.Shape shape, model.Shape below, model.Shape above) {
+        remove(shape);
+        if (above == null) {
+            add(shape);
+            return;
+        }
+        if (below != null && orderOf(above) - orderOf(below) < 2) {
+            renumber();
+        }
+        long order = below == null ? orderOf(above) - ORDER_GAP : (orderOf(below) + orderOf(above)) / 2;
+        Entry entry = new Entry(shape, order);
+        entries.put(shape, entry);
+        link(entry, shape.getBounds());
+    }
+
+    /**
+     * Replaces an indexed shape by another one that takes over its paint order.
+     *
+     * @param oldShape The indexed shape to replace.
+     * @param newShape The shape to put in its place.
+     */
+    public void replace(model.Shape oldShape, model.Shape newShape) {
+        long order = orderOf(oldShape);
+        remove(oldShape);
+        remove(newShape);
+        Entry entry = new Entry(newShape, order);
+        entries.put(newShape, entry);
+        link(entry, newShape.getBounds());
+    }
+
+    /**
+     * Gets the paint order of an indexed shape.
+     *
+     * @param shape The shape.
+     * @return The paint order, higher being painted later.
+     */
+    private long orderOf(model.Shape shape) {
+        Entry entry = entries.get(shape);
+        if (entry == null) {
+            throw new IllegalArgumentException("Shape is not indexed");
+        }
+        return entry.order;
+    }
+
+    /**
+     * Spreads the paint orders of all shapes evenly again, keeping their sequence, once there is no room
+     * left between two neighbours.
+     */
+    private void renumber() {
+        List<Entry> sorted = new ArrayList<>(entries.values());
+        sorted.sort((first, second) -> Long.compare(first.order, second.order));
+        nextOrder = 0;
+        for (Entry entry : sorted) {
+            entry.order = nextOrder;
+            nextOrder += ORDER_GAP;
+        }
+    }
+
+    /**
+     * Re-indexes a shape after it has been translated, resized or rotated.
+     * The paint order of the shape is kept.
+     *
+     * @param shape The shape whose geometry has changed.
+     */
+    public void update(model.Shape shape) {
+        Entry entry = entries.get(shape);
+        if (entry == null) {
+            return;
+        }
+        Rectangle bounds = shape.getBounds();
+        if (bounds.equals(entry.bounds)) {
+            return;
+        }
+        unlink(entry);
+        link(entry, bounds);
+    }
+
+    /**
+     * Removes a shape from the index.
+     *
+     * @param shape The shape to remove.
+     * @return true if the shape was indexed, false otherwise.
+     */
+    public boolean remove(model.Shape shape) {
+        Entry entry = entries.remove(shape);
+        if (entry == null) {
+            return false;
+        }
+        unlink(entry);
+        return true;
+    }
+
+    /**
+     * Removes all shapes from the index.
+     */
+    public void clear() {
+        cells.clear();
+        oversized.clear();
+        entries.clear();
+    }
+
+    /**
+     * Checks if a shape is in the index.
+     *
+     * @param shape The shape to check.
+     * @return true if the shape is indexed, false otherwise.
+     */
+    public boolean contains(model.Shape shape) {
+        return entries.containsKey(shape);
+    }
+
+    /**
+     * Gets the number of indexed shapes.
+     *
+     * @return The number of shapes in the index.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Finds the shapes whose bounds contain a point.
+     *
+     * @param x The x-coordinate of the point.
+     * @param y The y-coordinate of the point.
+     * @return The matching shapes, topmost first.
+     */
+    public List<model.Shape> queryPoint(int x, int y) {
+        List<Entry> found = new ArrayList<>();
+        collect(cells.get(cellKey(cellOf(x), cellOf(y))), null, x, y, found);
+        collect(oversized, null, x, y, found);
+        return sortTopmostFirst(found);
+    }
+
+    /**
+     * Finds the shapes whose bounds intersect a rectangle.
+     *
+     * @param area The rectangle to query.
+     * @return The matching shapes, topmost first.
+     */
+    public List<model.Shape> queryRect(Rectangle area) {
+        if (area.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Entry> found = new ArrayList<>();
+        queryStamp++;
+        int minCellX = cellOf(area.x);
+        int minCellY = cellOf(area.y);
+        int maxCellX = cellOf(area.x + area.width - 1);
+        int maxCellY = cellOf(area.y + area.height - 1);
+
+        // Visit whichever is smaller: the cells covered by the query or the occupied cells.
+        long coveredCells = (long) (maxCellX - minCellX + 1) * (maxCellY - minCellY + 1);
+        if (coveredCells <= cells.size()) {
+            for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+                for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                    collect(cells.get(cellKey(cellX, cellY)), area, 0, 0, found);
+                }
+            }
+        } else {
+            for (List<Entry> cell : cells.values()) {
+                collect(cell, area, 0, 0, found);
+            }
+        }
+        collect(oversized, area, 0, 0, found);
+        return sortTopmostFirst(found);
+    }
+
+    /**
+     * Adds the entries of a cell that match a query to the result list, skipping duplicates.
+     *
+     * @param cell  The entries of the cell, may be null.
+     * @param area  The rectangle to match, or null to match the point (x, y).
+     * @param x     The x-coordinate of the point to match.
+     * @param y     The y-coordinate of the point to match.
+     * @param found The list collecting the matches.
+     */
+    private void collect(List<Entry> cell, Rectangle area, int x, int y, List<Entry> found) {
+        if (cell == null) {
+            return;
+        }
+        for (Entry entry : cell) {
+            if (area == null) {
+                // A point lies in exactly one grid cell, so there can be no duplicates.
+                if (entry.bounds.contains(x, y)) {
+                    found.add(entry);
+                }
+            } else if (entry.visitedStamp != queryStamp) {
+                entry.visitedStamp = queryStamp;
+                if (entry.bounds.intersects(area)) {
+                    found.add(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sorts query results so that the shape painted last comes first.
+     *
+     * @param found The matching entries.
+     * @return The matching shapes, topmost first.
+     */
+    private static List<model.Shape> sortTopmostFirst(List<Entry> found) {
+        found.sort((first, second) -> Long.compare(second.order, first.order));
+        List<model.Shape> shapes = new ArrayList<>(found.size());
+        for (Entry entry : found) {
+            shapes.add(entry.shape);
+        }
+        return shapes;
+    }
+
+    /**
+     * Stores an entry in every grid cell its bounds overlap.
+     *
+     * @param entry  The entry to store.
+     * @param bounds The bounds to index the entry with.
+     */
+    private void link(Entry entry, Rectangle bounds) {
+        entry.bounds = bounds;
+        int minCellX = cellOf(bounds.x);
+        int minCellY = cellOf(bounds.y);
+        int maxCellX = cellOf(bounds.x + bounds.width - 1);
+        int maxCellY = cellOf(bounds.y + bounds.height - 1);
+        long cellCount = (long) (maxCellX - minCellX + 1) * (maxCellY - minCellY + 1);
+
+        entry.isOversized = cellCount > MAX_CELLS_PER_SHAPE;
+        if (entry.isOversized) {
+            oversized.add(entry);
+            return;
+        }
+        for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+            for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                cells.computeIfAbsent(cellKey(cellX, cellY), key -> new ArrayList<>()).add(entry);
+            }
+        }
+    }
+
+    /**
+     * Removes an entry from every grid cell it was stored in.
+     *
+     * @param entry The entry to remove.
+     */
+    private void unlink(Entry entry) {
+        if (entry.isOversized) {
+            oversized.remove(entry);
+            return;
+        }
+        Rectangle bounds = entry.bounds;
+        for (int cellY = cellOf(bounds.y); cellY <= cellOf(bounds.y + bounds.height - 1); cellY++) {
+            for (int cellX = cellOf(bounds.x); cellX <= cellOf(bounds.x + bounds.width - 1); cellX++) {
+                long key = cellKey(cellX, cellY);
+                List<Entry> cell = cells.get(key);
+                if (cell != null) {
+                    cell.remove(entry);
+                    if (cell.isEmpty()) {
+                        cells.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts a canvas coordinate into a grid cell coordinate.
+     *
+     * @param coordinate The canvas coordinate.
+     * @return The grid cell coordinate.
+     */
+    private int cellOf(int coordinate) {
+        return Math.floorDiv(coordinate, cellSize);
+    }
+
+    /**
+     * Packs two grid cell coordinates into a single map key.
+     *
+     * @param cellX The x-coordinate of the cell.
+     * @param cellY The y-coordinate of the cell.
+     * @return The key of the cell.
+     */
+    private static long cellKey(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+}
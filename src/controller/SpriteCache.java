@@ -0,0 +1,239 @@
+package controller;
+
+import model.ShapeSnapshot;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.PathIterator;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The `SpriteCache` class keeps rasterized images of shapes so that a shape that has only been moved is
+ * blitted instead of drawn again. Sprites are keyed on everything that decides how a shape looks except its
+ * position: the geometry relative to its bounds, the style, the selection, the scale and the sub-pixel offset
+ * on the device. The least recently used sprites are dropped once their pixels exceed a memory budget.
+ */
+public class SpriteCache {
+    // 32 MB of ARGB pixels
+    private static final long DEFAULT_BUDGET_BYTES = 32L << 20;
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final long budgetBytes;
+    private final Map<SpriteKey, BufferedImage> sprites = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes = 0;
+
+    private int hitCount = 0;
+    private int missCount = 0;
+
+    /**
+     * Creates a cache with the default memory budget.
+     */
+    public SpriteCache() {
+        this(DEFAULT_BUDGET_BYTES);
+    }
+
+    /**
+     * Creates a cache holding at most a given number of bytes of pixels.
+     *
+     * @param budgetBytes The memory budget in bytes.
+     */
+    public SpriteCache(long budgetBytes) {
+        if (budgetBytes <= 0) {
+            throw new IllegalArgumentException("Sprite cache budget must be positive");
+        }
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Draws a shape from its sprite, rasterizing the sprite first if it is not cached.
+     * Shapes are drawn directly when the context is rotated or sheared, or when the sprite would take
+     * more than a quarter of the budget.
+     *
+     * @param g2D   The Graphics2D context to draw on, in canvas coordinates.
+     * @param shape The shape to draw.
+     */
+    public void draw(Graphics2D g2D, model.Shape shape) {
+        AffineTransform transform = g2D.getTransform();
+        ShapeSnapshot snapshot = shape.snapshot();
+        java.awt.Shape outline = snapshot == null ? null : snapshot.getOutline();
+        if (outline == null || (transform.getType() & ~(AffineTransform.TYPE_TRANSLATION
+                | AffineTransform.TYPE_UNIFORM_SCALE)) != 0 || transform.getScaleX() <= 0) {
+            shape.draw(g2D);
+            return;
+        }
+
+        double scale = transform.getScaleX();
+        java.awt.Rectangle bounds = shape.getBounds();
+        double deviceX = bounds.x * scale + transform.getTranslateX();
+        double deviceY = bounds.y * scale + transform.getTranslateY();
+        int originX = (int) Math.floor(deviceX);
+        int originY = (int) Math.floor(deviceY);
+        double phaseX = deviceX - originX;
+        double phaseY = deviceY - originY;
+        int width = (int) Math.ceil(bounds.width * scale + phaseX);
+        int height = (int) Math.ceil(bounds.height * scale + phaseY);
+        if (width <= 0 || height <= 0 || (long) width * height * BYTES_PER_PIXEL > budgetBytes / 4) {
+            shape.draw(g2D);
+            return;
+        }
+
+        SpriteKey key = new SpriteKey(shape, snapshot, bounds, scale, phaseX, phaseY);
+        BufferedImage sprite = sprites.get(key);
+        if (sprite == null) {
+            missCount++;
+            sprite = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D spriteGraphics = sprite.createGraphics();
+            spriteGraphics.setRenderingHints(g2D.getRenderingHints());
+            spriteGraphics.translate(phaseX, phaseY);
+            spriteGraphics.scale(scale, scale);
+            spriteGraphics.translate(-bounds.x, -bounds.y);
+            shape.draw(spriteGraphics);
+            spriteGraphics.dispose();
+            put(key, sprite);
+        } else {
+            hitCount++;
+        }
+
+        // The sprite is in device pixels, so it is blitted without the scale.
+        g2D.setTransform(AffineTransform.getTranslateInstance(originX, originY));
+        g2D.drawImage(sprite, 0, 0, null);
+        g2D.setTransform(transform);
+    }
+
+    /**
+     * Stores a sprite and drops the least recently used ones until the cache is within its budget.
+     *
+     * @param key    The key of the sprite.
+     * @param sprite The rasterized sprite.
+     */
+    private void put(SpriteKey key, BufferedImage sprite) {
+        sprites.put(key, sprite);
+        usedBytes += bytesOf(sprite);
+        Iterator<BufferedImage> eldest = sprites.values().iterator();
+        while (usedBytes > budgetBytes && eldest.hasNext()) {
+            usedBytes -= bytesOf(eldest.next());
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Gets the memory taken by the pixels of a sprite.
+     *
+     * @param sprite The sprite.
+     * @return The size of the pixels in bytes.
+     */
+    private static long bytesOf(BufferedImage sprite) {
+        return (long) sprite.getWidth() * sprite.getHeight() * BYTES_PER_PIXEL;
+    }
+
+    /**
+     * Drops all sprites.
+     */
+    public void clear() {
+        sprites.clear();
+        usedBytes = 0;
+    }
+
+    public int size() { return sprites.size(); }
+    public long getUsedBytes() { return usedBytes; }
+    public int getHitCount() { return hitCount; }
+    public int getMissCount() { return missCount; }
+
+    /**
+     * Everything that decides how a shape is rasterized, apart from its position.
+     */
+    private static final class SpriteKey {
+        private final Class<?> type;
+        private final float[] geometry;
+        // The children of a group, compared by identity since they never change, or null
+        private final Object content;
+        private final int strokeWidth;
+        private final Color strokeColor;
+        private final Color fillColor;
+        private final boolean selected;
+        private final double scale;
+        private final double phaseX;
+        private final double phaseY;
+        private final int hash;
+
+        /**
+         * Creates the key of a shape as it would be drawn now.
+         *
+         * @param shape    The shape.
+         * @param snapshot The snapshot of the shape as it looks now.
+         * @param bounds   The area the shape paints into, which the geometry is stored relative to.
+         * @param scale    The scale from canvas coordinates to device pixels.
+         * @param phaseX   The sub-pixel offset of the sprite on the device along the x-axis.
+         * @param phaseY   The sub-pixel offset of the sprite on the device along the y-axis.
+         */
+        SpriteKey(model.Shape shape, ShapeSnapshot snapshot, java.awt.Rectangle bounds,
+                  double scale, double phaseX, double phaseY) {
+            this.type = shape.getClass();
+            this.geometry = relativeGeometry(snapshot.getOutline(), bounds);
+            this.content = snapshot.getChildren();
+            this.strokeWidth = shape.getStrokeWidth();
+            this.strokeColor = snapshot.getStrokeColor();
+            this.fillColor = shape.isFilled() ? shape.getFillColor() : null;
+            this.selected = shape.isSelected();
+            this.scale = scale;
+            this.phaseX = phaseX;
+            this.phaseY = phaseY;
+            this.hash = Objects.hash(type, Arrays.hashCode(geometry), System.identityHashCode(content), strokeWidth,
+                    strokeColor, fillColor, selected, scale, phaseX, phaseY);
+        }
+
+        /**
+         * Flattens the segments of an outline into an array, with the coordinates relative to a corner.
+         *
+         * @param outline The outline.
+         * @param bounds  The area whose top left corner the coordinates are relative to.
+         * @return The segment types and coordinates.
+         */
+        private static float[] relativeGeometry(java.awt.Shape outline, java.awt.Rectangle bounds) {
+            float[] geometry = new float[64];
+            int size = 0;
+            float[] coordinates = new float[6];
+            for (PathIterator iterator = outline.getPathIterator(null); !iterator.isDone(); iterator.next()) {
+                if (size + 7 > geometry.length) {
+                    geometry = Arrays.copyOf(geometry, geometry.length * 2);
+                }
+                int type = iterator.currentSegment(coordinates);
+                geometry[size++] = type;
+                // Only the points the segment uses are set; the rest of the array is left over from earlier ones.
+                int used = type == PathIterator.SEG_CLOSE ? 0 : type == PathIterator.SEG_QUADTO ? 4
+                        : type == PathIterator.SEG_CUBICTO ? 6 : 2;
+                for (int i = 0; i < used; i += 2) {
+                    geometry[size++] = coordinates[i] - bounds.x;
+                    geometry[size++] = coordinates[i + 1] - bounds.y;
+                }
+            }
+            return Arrays.copyOf(geometry, size);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof SpriteKey key)) {
+                return false;
+            }
+            return hash == key.hash && type == key.type && strokeWidth == key.strokeWidth
+                    && selected == key.selected && scale == key.scale && phaseX == key.phaseX && phaseY == key.phaseY
+                    && content == key.content && Objects.equals(strokeColor, key.strokeColor)
+                    && Objects.equals(fillColor, key.fillColor)
+                    && Arrays.equals(geometry, key.geometry);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
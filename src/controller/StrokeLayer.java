@@ -0,0 +1,122 @@
+package controller;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Line2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * The `StrokeLayer` class is a retained image of the freehand stroke that is being drawn.
+ * Every new mouse sample only rasterizes the segment from the previous sample into the image, and painting
+ * blits the damaged part of the image, so the cost of a sample does not grow with the length of the stroke
+ * or the number of shapes on the canvas. The segments are drawn with round caps, which join them the same
+ * way the round joins of the finished stroke do; this only holds for opaque colors, so translucent strokes
+ * are not drawn here.
+ */
+public class StrokeLayer {
+    private BufferedImage buffer;
+    private AffineTransform transform;
+    private Color color;
+    private BasicStroke stroke;
+    private boolean active = false;
+    private float lastX;
+    private float lastY;
+    // Part of the buffer drawn into since it was last cleared, in device pixels
+    private java.awt.Rectangle dirty;
+
+    /**
+     * Starts a new stroke, clearing what is left of the previous one.
+     *
+     * @param transform The transform from canvas coordinates to buffer pixels.
+     * @param width     The width of the buffer in device pixels.
+     * @param height    The height of the buffer in device pixels.
+     * @param color     The color of the stroke.
+     * @param stroke    The stroke the segments are drawn with.
+     * @param x         The x-coordinate of the first sample.
+     * @param y         The y-coordinate of the first sample.
+     * @return true if the stroke is drawn in the layer, false if its color is translucent.
+     */
+    public boolean begin(AffineTransform transform, int width, int height, Color color, BasicStroke stroke,
+                         float x, float y) {
+        active = false;
+        if (color.getAlpha() != 255 || width <= 0 || height <= 0) {
+            return false;
+        }
+        if (buffer == null || buffer.getWidth() != width || buffer.getHeight() != height) {
+            buffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        } else if (dirty != null) {
+            Graphics2D g2D = buffer.createGraphics();
+            g2D.setComposite(AlphaComposite.Clear);
+            g2D.fill(dirty);
+            g2D.dispose();
+        }
+        dirty = null;
+        this.transform = new AffineTransform(transform);
+        this.color = color;
+        this.stroke = stroke;
+        this.lastX = x;
+        this.lastY = y;
+        active = true;
+        return true;
+    }
+
+    /**
+     * Rasterizes the segment from the previous sample to a new one.
+     *
+     * @param x The x-coordinate of the new sample.
+     * @param y The y-coordinate of the new sample.
+     */
+    public void addSegment(float x, float y) {
+        if (!active) {
+            return;
+        }
+        Line2D.Float segment = new Line2D.Float(lastX, lastY, x, y);
+        Graphics2D g2D = buffer.createGraphics();
+        g2D.transform(transform);
+        g2D.setPaint(color);
+        g2D.setStroke(stroke);
+        g2D.draw(segment);
+        g2D.dispose();
+
+        java.awt.Rectangle segmentBounds = transform.createTransformedShape(stroke.createStrokedShape(segment)).getBounds();
+        segmentBounds.grow(1, 1);
+        if (dirty == null) {
+            dirty = segmentBounds;
+        } else {
+            dirty.add(segmentBounds);
+        }
+        lastX = x;
+        lastY = y;
+    }
+
+    /**
+     * Ends the stroke; the layer is not shown until the next one begins.
+     */
+    public void end() {
+        active = false;
+    }
+
+    /**
+     * Checks whether the layer shows the current stroke for a view.
+     *
+     * @param transform The transform from canvas coordinates to buffer pixels of the view.
+     * @param width     The width of the view in device pixels.
+     * @param height    The height of the view in device pixels.
+     * @return true if a stroke is being drawn in the layer and the view has not changed since it began.
+     */
+    public boolean isShowing(AffineTransform transform, int width, int height) {
+        return active && this.transform.equals(transform) && buffer.getWidth() == width && buffer.getHeight() == height;
+    }
+
+    /**
+     * Gets the image the stroke is drawn into.
+     *
+     * @return The buffer in device pixels, or null if no stroke has begun yet.
+     */
+    public BufferedImage getBuffer() {
+        return buffer;
+    }
+}
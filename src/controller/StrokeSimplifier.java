@@ -0,0 +1,141 @@
+package controller;
+
+import java.awt.geom.Line2D;
+
+/**
+ * The `StrokeSimplifier` class reduces the number of points of a freehand stroke while it is being drawn.
+ * It is a streaming variant of the Ramer-Douglas-Peucker algorithm: the raw samples after the last kept
+ * point are buffered, and as long as all of them stay within the tolerance of the segment from the
+ * last kept point to the newest sample, the newest sample only moves the tail of the stroke.
+ * Once a sample would leave the tolerance band, the previous sample becomes a permanent point.
+ */
+public class StrokeSimplifier {
+    public static final double DEFAULT_TOLERANCE = 1.5;
+    // Limits the work per sample; a run this long is kept as a straight segment anyway
+    private static final int MAX_PENDING_POINTS = 64;
+
+    private double tolerance;
+    private model.FreehandShape stroke;
+    private int anchorX;
+    private int anchorY;
+    // Interleaved x and y coordinates of the raw samples after the anchor
+    private final int[] pending = new int[MAX_PENDING_POINTS * 2];
+    private int pendingCount = 0;
+
+    /**
+     * Creates a new `StrokeSimplifier` with the default tolerance.
+     */
+    public StrokeSimplifier() {
+        this(DEFAULT_TOLERANCE);
+    }
+
+    /**
+     * Creates a new `StrokeSimplifier` with the given tolerance.
+     *
+     * @param tolerance The maximum distance in pixels a dropped sample may be from the simplified stroke.
+     */
+    public StrokeSimplifier(double tolerance) {
+        setTolerance(tolerance);
+    }
+
+    /**
+     * Gets the tolerance of the simplifier.
+     *
+     * @return The maximum distance in pixels a dropped sample may be from the simplified stroke.
+     */
+    public double getTolerance() { return tolerance; }
+
+    /**
+     * Sets the tolerance of the simplifier. A tolerance of 0 only drops exactly collinear samples.
+     *
+     * @param tolerance The maximum distance in pixels a dropped sample may be from the simplified stroke.
+     */
+    public void setTolerance(double tolerance) {
+        if (tolerance < 0 || Double.isNaN(tolerance)) {
+            throw new IllegalArgumentException("Tolerance must not be negative: " + tolerance);
+        }
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Starts simplifying a new stroke at its first point.
+     *
+     * @param newStroke The stroke receiving the simplified points.
+     * @param x         The x-coordinate of the first point.
+     * @param y         The y-coordinate of the first point.
+     */
+    public void begin(model.FreehandShape newStroke, int x, int y) {
+        stroke = newStroke;
+        stroke.addPoint(x, y);
+        anchorX = x;
+        anchorY = y;
+        pendingCount = 0;
+    }
+
+    /**
+     * Feeds a raw sample of the stroke into the simplifier.
+     *
+     * @param x The x-coordinate of the sample.
+     * @param y The y-coordinate of the sample.
+     */
+    public void add(int x, int y) {
+        if (stroke == null) {
+            return;
+        }
+        if (pendingCount > 0) {
+            int lastX = pending[pendingCount * 2 - 2];
+            int lastY = pending[pendingCount * 2 - 1];
+            if (lastX == x && lastY == y) {
+                return;
+            }
+            if (pendingCount == MAX_PENDING_POINTS || !isWithinTolerance(x, y)) {
+                // The previous sample is the last one the segment from the anchor can reach.
+                stroke.addPoint(lastX, lastY);
+                anchorX = lastX;
+                anchorY = lastY;
+                pendingCount = 0;
+            }
+        } else if (anchorX == x && anchorY == y) {
+            return;
+        }
+        pending[pendingCount * 2] = x;
+        pending[pendingCount * 2 + 1] = y;
+        pendingCount++;
+        stroke.setTail(x, y);
+    }
+
+    /**
+     * Feeds the last sample of the stroke and keeps it as a permanent point.
+     *
+     * @param x The x-coordinate of the last sample.
+     * @param y The y-coordinate of the last sample.
+     */
+    public void finish(int x, int y) {
+        if (stroke == null) {
+            return;
+        }
+        add(x, y);
+        stroke.commitTail();
+        stroke.trimToSize();
+        stroke = null;
+        pendingCount = 0;
+    }
+
+    /**
+     * Checks whether all pending samples lie close enough to the segment from the anchor to a new sample.
+     *
+     * @param x The x-coordinate of the new sample.
+     * @param y The y-coordinate of the new sample.
+     * @return True if the new sample can replace the tail without exceeding the tolerance.
+     */
+    private boolean isWithinTolerance(int x, int y) {
+        double toleranceSq = tolerance * tolerance;
+        for (int i = 0; i < pendingCount; i++) {
+            double distanceSq = Line2D.ptSegDistSq(anchorX, anchorY, x, y, pending[i * 2], pending[i * 2 + 1]);
+            if (distanceSq > toleranceSq) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,100 @@
+package controller;
+
+import java.awt.Color;
+
+/**
+ * The `StyleCommand` class records a change of the line color, fill or stroke width of a shape
+ * as the old and new values of those attributes.
+ */
+public class StyleCommand implements Command {
+    private final GraphicController scene;
+    private final model.Shape shape;
+    private final Color oldShapeColor;
+    private final Color oldFillColor;
+    private final boolean oldFilled;
+    private final int oldStrokeWidth;
+    private Color newShapeColor;
+    private Color newFillColor;
+    private boolean newFilled;
+    private int newStrokeWidth;
+
+    /**
+     * Creates a command that captures the current style of a shape.
+     * Call {@link #captureNewStyle()} once the shape has been changed.
+     *
+     * @param scene The scene containing the shape.
+     * @param shape The shape about to be changed.
+     */
+    public StyleCommand(GraphicController scene, model.Shape shape) {
+        this.scene = scene;
+        this.shape = shape;
+        oldShapeColor = shape.getShapeColor();
+        oldFillColor = shape.getFillColor();
+        oldFilled = shape.isFilled();
+        oldStrokeWidth = shape.getStrokeWidth();
+        captureNewStyle();
+    }
+
+    /**
+     * Captures the style of the shape after the change.
+     *
+     * @return This command.
+     */
+    public StyleCommand captureNewStyle() {
+        newShapeColor = shape.getShapeColor();
+        newFillColor = shape.getFillColor();
+        newFilled = shape.isFilled();
+        newStrokeWidth = shape.getStrokeWidth();
+        return this;
+    }
+
+    @Override
+    public void undo() {
+        apply(oldShapeColor, oldFillColor, oldFilled, oldStrokeWidth);
+    }
+
+    @Override
+    public void redo() {
+        apply(newShapeColor, newFillColor, newFilled, newStrokeWidth);
+    }
+
+    @Override
+    public long getMemorySize() {
+        return 64;
+    }
+
+    @Override
+    public boolean mergeWith(Command next) {
+        if (next instanceof StyleCommand && ((StyleCommand) next).shape == shape) {
+            StyleCommand style = (StyleCommand) next;
+            newShapeColor = style.newShapeColor;
+            newFillColor = style.newFillColor;
+            newFilled = style.newFilled;
+            newStrokeWidth = style.newStrokeWidth;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public GraphicController getScene() { return scene; }
+
+    @Override
+    public java.awt.Rectangle getBounds() { return shape.getBounds(); }
+
+    /**
+     * Applies a style to the shape. The stroke width changes the bounds, so the shape is re-indexed.
+     *
+     * @param shapeColor  The line color to apply.
+     * @param fillColor   The fill color to apply.
+     * @param filled      Whether the shape is filled.
+     * @param strokeWidth The stroke width to apply.
+     */
+    private void apply(Color shapeColor, Color fillColor, boolean filled, int strokeWidth) {
+        shape.setShapeColor(shapeColor);
+        shape.setFillColor(fillColor);
+        shape.setFilled(filled);
+        shape.setStrokeWidth(strokeWidth);
+        scene.updateShape(shape);
+    }
+}
@@ -0,0 +1,393 @@
+package controller;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The `TileCache` class holds rasterized square tiles of the committed shapes at several zoom levels.
+ * At level L a tile is rendered at scale 2^L and covers {@code TILE_SIZE / 2^L} canvas units, so the
+ * tiles of one level form a grid over the canvas and panning only needs the newly exposed tiles.
+ * The tiles are kept in a {@link Pool}, which several caches, one per layer, can share: the least recently
+ * used tiles of all of them are dropped once the pool is full, so the tile memory of the drawing is bounded
+ * however many layers it has. The canvas can reserve room for the tiles it shows, so that tiles still on
+ * screen are not dropped; each cache remembers which of its tiles were dropped for room, so that they are
+ * rendered again.
+ * Every invalidation starts a new generation, and a tile rendered from an older scene is only stored if
+ * none of the areas invalidated since then overlaps it, so small edits do not waste the tiles in flight.
+ * Tiles are stored by the render thread and read by the event dispatch thread, so all access is synchronized
+ * on the pool.
+ */
+public class TileCache {
+    public static final int TILE_SIZE = 256;
+    public static final int MIN_LEVEL = -5;
+    public static final int MAX_LEVEL = 5;
+    // 192 tiles of 256x256 ARGB pixels take 48 MB
+    private static final int DEFAULT_MAX_TILES = 192;
+    // Number of recent invalidations remembered to decide whether an older tile is still current
+    private static final int MAX_INVALIDATIONS = 64;
+    private static final int COORDINATE_BITS = 29;
+    private static final long COORDINATE_MASK = (1L << COORDINATE_BITS) - 1;
+
+    private final Pool pool;
+    // Changes on every invalidation, so that tiles rendered from an older scene are not stored
+    private int generation = 0;
+    // Stands for an invalidation that dropped all tiles
+    private static final java.awt.Rectangle EVERYTHING = new java.awt.Rectangle();
+    // The areas invalidated by the most recent generations, oldest first
+    private final ArrayDeque<java.awt.Rectangle> invalidations = new ArrayDeque<>();
+    // Tiles the pool dropped to make room since they were last asked for
+    private final Set<Long> evicted = new HashSet<>();
+
+    /**
+     * Creates a cache with a pool of the default capacity of its own.
+     */
+    public TileCache() {
+        this(new Pool());
+    }
+
+    /**
+     * Creates a cache with a pool of its own holding at most a given number of tiles.
+     *
+     * @param maxTiles The maximum number of tiles to keep.
+     */
+    public TileCache(int maxTiles) {
+        this(new Pool(maxTiles));
+    }
+
+    /**
+     * Creates a cache keeping its tiles in a pool that may be shared with other caches.
+     *
+     * @param pool The pool the tiles are kept in.
+     */
+    public TileCache(Pool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Gets the level whose tiles are rendered at the smallest scale that is still at least the given one.
+     *
+     * @param scale The scale from canvas coordinates to device pixels.
+     * @return The tile level for the scale.
+     */
+    public static int levelFor(double scale) {
+        int level = (int) Math.ceil(Math.log(scale) / Math.log(2) - 1e-9);
+        return Math.max(MIN_LEVEL, Math.min(MAX_LEVEL, level));
+    }
+
+    /**
+     * Gets the scale tiles of a level are rendered at.
+     *
+     * @param level The tile level.
+     * @return The scale from canvas coordinates to tile pixels.
+     */
+    public static double scaleOf(int level) {
+        return Math.scalb(1.0, level);
+    }
+
+    /**
+     * Gets the size of the canvas area covered by one tile of a level.
+     *
+     * @param level The tile level.
+     * @return The width and height of a tile in canvas units.
+     */
+    public static int tileSpan(int level) {
+        return (int) (TILE_SIZE / scaleOf(level));
+    }
+
+    /**
+     * Packs the level, column and row of a tile into a key.
+     *
+     * @param level  The tile level.
+     * @param column The column of the tile in the grid of its level.
+     * @param row    The row of the tile in the grid of its level.
+     * @return The key of the tile.
+     */
+    public static long key(int level, int column, int row) {
+        return ((long) (level - MIN_LEVEL) << (2 * COORDINATE_BITS))
+                | ((column & COORDINATE_MASK) << COORDINATE_BITS) | (row & COORDINATE_MASK);
+    }
+
+    /**
+     * Gets the area of the canvas covered by a tile.
+     *
+     * @param key The key of the tile.
+     * @return The area covered by the tile, in canvas coordinates.
+     */
+    public static java.awt.Rectangle getTileArea(long key) {
+        int level = (int) (key >>> (2 * COORDINATE_BITS)) + MIN_LEVEL;
+        int column = signExtend(key >>> COORDINATE_BITS);
+        int row = signExtend(key);
+        int span = tileSpan(level);
+        return new java.awt.Rectangle(column * span, row * span, span, span);
+    }
+
+    /**
+     * Restores a signed grid coordinate from the low bits of a key.
+     *
+     * @param bits The key shifted so that the coordinate is in its low bits.
+     * @return The grid coordinate.
+     */
+    private static int signExtend(long bits) {
+        return (int) ((bits & COORDINATE_MASK) << (64 - COORDINATE_BITS) >> (64 - COORDINATE_BITS));
+    }
+
+    /**
+     * Gets a cached tile.
+     *
+     * @param key The key of the tile.
+     * @return The tile, or null if it is not cached.
+     */
+    public BufferedImage get(long key) {
+        synchronized (pool) {
+            return pool.tiles.get(new TileKey(this, key));
+        }
+    }
+
+    /**
+     * Stores a rendered tile, unless the cache has been invalidated since rendering started.
+     *
+     * @param key        The key of the tile.
+     * @param tile       The rendered tile.
+     * @param generation The generation of the cache when the scene the tile shows was captured.
+     * @return true if the tile was stored, false if it is out of date.
+     */
+    public boolean put(long key, BufferedImage tile, int generation) {
+        synchronized (pool) {
+            if (!isCurrent(key, generation)) {
+                return false;
+            }
+            evicted.remove(key);
+            pool.tiles.put(new TileKey(this, key), tile);
+            return true;
+        }
+    }
+
+    /**
+     * Checks whether a tile rendered from the scene of an older generation still shows the current scene.
+     *
+     * @param key        The key of the tile.
+     * @param generation The generation of the cache when the scene was captured.
+     * @return true if nothing overlapping the tile has been invalidated since, false otherwise.
+     */
+    public boolean isCurrent(long key, int generation) {
+        synchronized (pool) {
+            int changes = this.generation - generation;
+            if (changes == 0) {
+                return true;
+            }
+            if (changes < 0 || changes > invalidations.size()) {
+                return false;
+            }
+            java.awt.Rectangle area = getTileArea(key);
+            Iterator<java.awt.Rectangle> areas = invalidations.descendingIterator();
+            for (int i = 0; i < changes; i++) {
+                java.awt.Rectangle invalidated = areas.next();
+                if (invalidated == EVERYTHING || invalidated.intersects(area)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Gets the tiles the pool has dropped to make room since the last call, which have to be rendered again
+     * if they are still shown.
+     *
+     * @return The keys of the dropped tiles.
+     */
+    public Set<Long> takeEvicted() {
+        synchronized (pool) {
+            if (evicted.isEmpty()) {
+                return Set.of();
+            }
+            Set<Long> keys = new HashSet<>(evicted);
+            evicted.clear();
+            return keys;
+        }
+    }
+
+    /**
+     * Starts a new generation after an area has been invalidated.
+     *
+     * @param area The invalidated area, or null if all tiles were dropped.
+     */
+    private void advance(java.awt.Rectangle area) {
+        generation++;
+        invalidations.addLast(area == null ? EVERYTHING : new java.awt.Rectangle(area));
+        if (invalidations.size() > MAX_INVALIDATIONS) {
+            invalidations.removeFirst();
+        }
+    }
+
+    /**
+     * Gets the current generation of the cache.
+     *
+     * @return The generation, which changes on every invalidation.
+     */
+    public int getGeneration() {
+        synchronized (pool) {
+            return generation;
+        }
+    }
+
+    /**
+     * Drops the tiles of all levels that overlap an area of the canvas.
+     *
+     * @param area The changed area, in canvas coordinates.
+     */
+    public void invalidate(java.awt.Rectangle area) {
+        synchronized (pool) {
+            advance(area);
+            Iterator<TileKey> keys = pool.tiles.keySet().iterator();
+            while (keys.hasNext()) {
+                TileKey key = keys.next();
+                if (key.cache == this && getTileArea(key.key).intersects(area)) {
+                    keys.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops all tiles of this cache.
+     */
+    public void clear() {
+        synchronized (pool) {
+            advance(null);
+            evicted.clear();
+            pool.tiles.keySet().removeIf(key -> key.cache == this);
+        }
+    }
+
+    /**
+     * Gets the number of cached tiles.
+     *
+     * @return The number of tiles of this cache.
+     */
+    public int size() {
+        synchronized (pool) {
+            int size = 0;
+            for (TileKey key : pool.tiles.keySet()) {
+                if (key.cache == this) {
+                    size++;
+                }
+            }
+            return size;
+        }
+    }
+
+    /**
+     * The memory the tiles of one or more caches are kept in, dropping the least recently used tile of any
+     * of them once it holds a given number of tiles. The limit is raised while more tiles are on screen.
+     */
+    public static final class Pool {
+        private final int minTiles;
+        private int maxTiles;
+        private final Map<TileKey, BufferedImage> tiles;
+
+        /**
+         * Creates a pool with the default capacity.
+         */
+        public Pool() {
+            this(DEFAULT_MAX_TILES);
+        }
+
+        /**
+         * Creates a pool holding at most a given number of tiles.
+         *
+         * @param maxTiles The maximum number of tiles to keep.
+         */
+        public Pool(int maxTiles) {
+            if (maxTiles <= 0) {
+                throw new IllegalArgumentException("Tile cache capacity must be positive");
+            }
+            this.minTiles = maxTiles;
+            this.maxTiles = maxTiles;
+            this.tiles = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<TileKey, BufferedImage> eldest) {
+                    if (size() <= Pool.this.maxTiles) {
+                        return false;
+                    }
+                    eldest.getKey().evict();
+                    return true;
+                }
+            };
+        }
+
+        /**
+         * Makes room for the tiles shown at once, so that none of them is dropped while it is still on screen.
+         * The pool never holds fewer tiles than it was created for, and shrinks back once fewer are shown.
+         *
+         * @param shownTiles The number of tiles of all caches that are on screen at once.
+         */
+        public void reserve(int shownTiles) {
+            synchronized (this) {
+                maxTiles = Math.max(minTiles, shownTiles);
+                Iterator<TileKey> keys = tiles.keySet().iterator();
+                while (tiles.size() > maxTiles && keys.hasNext()) {
+                    keys.next().evict();
+                    keys.remove();
+                }
+            }
+        }
+
+        /**
+         * Gets the number of tiles the pool holds at most.
+         *
+         * @return The current capacity.
+         */
+        public int getCapacity() {
+            synchronized (this) {
+                return maxTiles;
+            }
+        }
+
+        /**
+         * Gets the number of tiles in the pool.
+         *
+         * @return The number of tiles of all caches sharing the pool.
+         */
+        public int size() {
+            synchronized (this) {
+                return tiles.size();
+            }
+        }
+    }
+
+    /**
+     * A tile of a cache, identifying it within a shared pool.
+     */
+    private static final class TileKey {
+        private final TileCache cache;
+        private final long key;
+
+        TileKey(TileCache cache, long key) {
+            this.cache = cache;
+            this.key = key;
+        }
+
+        /**
+         * Tells the cache of the tile that the pool drops it to make room.
+         */
+        void evict() {
+            cache.evicted.add(key);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof TileKey tile && tile.cache == cache && tile.key == key;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(cache) * 31 + Long.hashCode(key);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package controller;
+
+/**
+ * The `TranslateCommand` class records a shape being moved by a delta.
+ * Consecutive moves of the same shape within one drag are merged by adding up their deltas.
+ */
+public class TranslateCommand implements Command {
+    private final GraphicController scene;
+    private final model.Shape shape;
+    private int deltaX;
+    private int deltaY;
+
+    /**
+     * Creates a command for a shape that has just been moved.
+     *
+     * @param scene  The scene containing the shape.
+     * @param shape  The moved shape.
+     * @param deltaX The distance moved along the x-axis.
+     * @param deltaY The distance moved along the y-axis.
+     */
+    public TranslateCommand(GraphicController scene, model.Shape shape, int deltaX, int deltaY) {
+        this.scene = scene;
+        this.shape = shape;
+        this.deltaX = deltaX;
+        this.deltaY = deltaY;
+    }
+
+    @Override
+    public void undo() {
+        shape.translate(-deltaX, -deltaY);
+        scene.updateShape(shape);
+    }
+
+    @Override
+    public void redo() {
+        shape.translate(deltaX, deltaY);
+        scene.updateShape(shape);
+    }
+
+    @Override
+    public GraphicController getScene() { return scene; }
+
+    @Override
+    public java.awt.Rectangle getBounds() { return shape.getBounds(); }
+
+    @Override
+    public long getMemorySize() {
+        return 32;
+    }
+
+    @Override
+    public boolean mergeWith(Command next) {
+        if (next instanceof TranslateCommand && ((TranslateCommand) next).shape == shape) {
+            deltaX += ((TranslateCommand) next).deltaX;
+            deltaY += ((TranslateCommand) next).deltaY;
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,132 @@
+package controller;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * The `Viewport` class maps canvas coordinates, in which shapes are stored, to screen coordinates.
+ * A canvas point p is shown at {@code p * zoom + pan}.
+ */
+public class Viewport {
+    public static final double MIN_ZOOM = 1.0 / 16;
+    public static final double MAX_ZOOM = 16;
+
+    private double zoom = 1.0;
+    private double panX = 0;
+    private double panY = 0;
+
+    public double getZoom() { return zoom; }
+    public double getPanX() { return panX; }
+    public double getPanY() { return panY; }
+
+    /**
+     * Checks whether canvas and screen coordinates are the same.
+     *
+     * @return true if the viewport is neither zoomed nor panned, false otherwise.
+     */
+    public boolean isIdentity() {
+        return zoom == 1.0 && panX == 0 && panY == 0;
+    }
+
+    /**
+     * Gets the transform from canvas to screen coordinates.
+     *
+     * @return A new transform applying the pan and the zoom.
+     */
+    public AffineTransform getTransform() {
+        AffineTransform transform = AffineTransform.getTranslateInstance(panX, panY);
+        transform.scale(zoom, zoom);
+        return transform;
+    }
+
+    /**
+     * Maps a point on the screen back to the canvas.
+     *
+     * @param x The x-coordinate on the screen.
+     * @param y The y-coordinate on the screen.
+     * @return The point on the canvas.
+     */
+    public Point2D toCanvas(double x, double y) {
+        return new Point2D.Double((x - panX) / zoom, (y - panY) / zoom);
+    }
+
+    /**
+     * Maps an area of the screen back to the canvas.
+     *
+     * @param area The area on the screen.
+     * @return The area on the canvas.
+     */
+    public Rectangle2D toCanvas(Rectangle2D area) {
+        return new Rectangle2D.Double((area.getX() - panX) / zoom, (area.getY() - panY) / zoom,
+                area.getWidth() / zoom, area.getHeight() / zoom);
+    }
+
+    /**
+     * Maps an area of the canvas to the smallest enclosing pixel rectangle on the screen.
+     *
+     * @param area The area on the canvas.
+     * @return The area on the screen.
+     */
+    public java.awt.Rectangle toScreen(Rectangle2D area) {
+        int x = (int) Math.floor(area.getX() * zoom + panX);
+        int y = (int) Math.floor(area.getY() * zoom + panY);
+        int maxX = (int) Math.ceil(area.getMaxX() * zoom + panX);
+        int maxY = (int) Math.ceil(area.getMaxY() * zoom + panY);
+        return new java.awt.Rectangle(x, y, maxX - x, maxY - y);
+    }
+
+    /**
+     * Moves the view by a distance on the screen.
+     *
+     * @param deltaX The distance along the x-axis, in screen pixels.
+     * @param deltaY The distance along the y-axis, in screen pixels.
+     */
+    public void panBy(double deltaX, double deltaY) {
+        panX += deltaX;
+        panY += deltaY;
+    }
+
+    /**
+     * Zooms by a factor while keeping the canvas point under a screen position in place.
+     * The zoom is kept between {@link #MIN_ZOOM} and {@link #MAX_ZOOM}.
+     *
+     * @param factor The factor to multiply the zoom by.
+     * @param x      The x-coordinate of the fixed screen position.
+     * @param y      The y-coordinate of the fixed screen position.
+     */
+    public void zoomAt(double factor, double x, double y) {
+        double newZoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom * factor));
+        Point2D anchor = toCanvas(x, y);
+        zoom = newZoom;
+        panX = x - anchor.getX() * zoom;
+        panY = y - anchor.getY() * zoom;
+    }
+
+    /**
+     * Zooms and pans so that an area of the canvas fills the screen, centered with a margin.
+     *
+     * @param content The area of the canvas to show.
+     * @param width   The width of the screen area.
+     * @param height  The height of the screen area.
+     * @param margin  The free space to keep on each side, in screen pixels.
+     */
+    public void fitTo(Rectangle2D content, int width, int height, int margin) {
+        if (content.isEmpty() || width <= 2 * margin || height <= 2 * margin) {
+            return;
+        }
+        double fit = Math.min((width - 2.0 * margin) / content.getWidth(), (height - 2.0 * margin) / content.getHeight());
+        zoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, fit));
+        panX = width / 2.0 - content.getCenterX() * zoom;
+        panY = height / 2.0 - content.getCenterY() * zoom;
+    }
+
+    /**
+     * Shows the canvas unzoomed with its origin in the top left corner.
+     */
+    public void reset() {
+        zoom = 1.0;
+        panX = 0;
+        panY = 0;
+    }
+}
@@ -0,0 +1,148 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * A static bounding-volume hierarchy over the bounds of the children of a group.
+ * Every node stores the box enclosing its subtree, so a query rejects a whole subtree with one test.
+ * The tree is built once by splitting the children at the median along the longer side of the node,
+ * which keeps it balanced; it is never updated, since the children of a group do not change.
+ */
+final class BoundingVolumeTree {
+    // Children per leaf, below which splitting costs more than testing them one by one
+    private static final int LEAF_SIZE = 4;
+
+    private final java.awt.Rectangle[] bounds;
+    private final Node root;
+
+    /**
+     * Builds the tree over a list of boxes.
+     *
+     * @param bounds The boxes; their positions in the array are what queries return.
+     */
+    BoundingVolumeTree(java.awt.Rectangle[] bounds) {
+        this.bounds = bounds.clone();
+        Integer[] items = new Integer[bounds.length];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = i;
+        }
+        root = bounds.length == 0 ? null : build(bounds, items, 0, items.length);
+    }
+
+    /**
+     * Builds the subtree over a range of items, sorting the range along the longer side of its box.
+     *
+     * @param bounds The boxes of all items.
+     * @param items  The item positions, of which the range is reordered.
+     * @param from   The first item of the range.
+     * @param to     The end of the range.
+     * @return The root of the subtree.
+     */
+    private static Node build(java.awt.Rectangle[] bounds, Integer[] items, int from, int to) {
+        java.awt.Rectangle box = new java.awt.Rectangle(bounds[items[from]]);
+        for (int i = from + 1; i < to; i++) {
+            box.add(bounds[items[i]]);
+        }
+        if (to - from <= LEAF_SIZE) {
+            int[] leafItems = new int[to - from];
+            for (int i = 0; i < leafItems.length; i++) {
+                leafItems[i] = items[from + i];
+            }
+            return new Node(box, null, null, leafItems);
+        }
+        Comparator<Integer> order = box.width >= box.height
+                ? Comparator.comparingDouble(item -> bounds[item].getCenterX())
+                : Comparator.comparingDouble(item -> bounds[item].getCenterY());
+        Arrays.sort(items, from, to, order);
+        int middle = (from + to) >>> 1;
+        return new Node(box, build(bounds, items, from, middle), build(bounds, items, middle, to), null);
+    }
+
+    /**
+     * Finds the items whose boxes overlap an area.
+     *
+     * @param area The area to search.
+     * @return The positions of the items, in ascending order.
+     */
+    int[] query(java.awt.Rectangle area) {
+        ItemList hits = new ItemList();
+        if (root != null) {
+            collect(root, bounds, area, hits);
+        }
+        return hits.toSortedArray();
+    }
+
+    /**
+     * Finds the items whose boxes contain a point.
+     *
+     * @param x The x-coordinate of the point.
+     * @param y The y-coordinate of the point.
+     * @return The positions of the items, in ascending order.
+     */
+    int[] query(int x, int y) {
+        return query(new java.awt.Rectangle(x, y, 1, 1));
+    }
+
+    /**
+     * Adds the items of a subtree that overlap an area, skipping the subtree if its box does not.
+     *
+     * @param node   The root of the subtree.
+     * @param bounds The boxes of all items.
+     * @param area   The area to search.
+     * @param hits   The items found so far.
+     */
+    private static void collect(Node node, java.awt.Rectangle[] bounds, java.awt.Rectangle area, ItemList hits) {
+        if (!node.bounds.intersects(area)) {
+            return;
+        }
+        if (node.items != null) {
+            for (int item : node.items) {
+                if (bounds[item].intersects(area)) {
+                    hits.add(item);
+                }
+            }
+            return;
+        }
+        collect(node.left, bounds, area, hits);
+        collect(node.right, bounds, area, hits);
+    }
+
+    /**
+     * A node of the tree: either two subtrees or, at a leaf, a few items.
+     */
+    private static final class Node {
+        private final java.awt.Rectangle bounds;
+        private final Node left;
+        private final Node right;
+        private final int[] items;
+
+        Node(java.awt.Rectangle bounds, Node left, Node right, int[] items) {
+            this.bounds = bounds;
+            this.left = left;
+            this.right = right;
+            this.items = items;
+        }
+    }
+
+    /**
+     * A growable list of item positions.
+     */
+    private static final class ItemList {
+        private int[] items = new int[16];
+        private int size = 0;
+
+        void add(int item) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = item;
+        }
+
+        int[] toSortedArray() {
+            int[] sorted = Arrays.copyOf(items, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
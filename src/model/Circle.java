@@ -1,8 +1,8 @@
 package model;
 
-import java.awt.Color;
 import java.awt.Graphics2D;
-import java.awt.BasicStroke;
+import java.awt.geom.Ellipse2D;
+import java.util.Arrays;
 
 /**
  * Represents a Circle shape that can be drawn on a canvas.
@@ -44,6 +44,18 @@ public class Circle extends model.Shape{
         } else {
             this.radius = radius;
         }
+        invalidateGeometry();
+    }
+
+    /**
+     * Returns the box the circle is drawn into.
+     *
+     * @return The frame of the circle.
+     */
+    @Override
+    protected java.awt.Rectangle getFrame() {
+        return new java.awt.Rectangle(Math.min(coordinateA.getX(), coordinateB.getX()),
+                Math.min(coordinateA.getY(), coordinateB.getY()), radius * 2, radius * 2);
     }
 
     /**
@@ -54,7 +66,14 @@ public class Circle extends model.Shape{
      */
     @Override
     public void draw(Graphics2D g2D) {
+        drawOutline(g2D);
+    }
 
+    /**
+     * Recomputes the vertices of the circle from its coordinates and size.
+     */
+    @Override
+    protected void updateGeometry() {
         // Update the coordinates of the bounding rectangle vertices
         vertex[0].setX(Math.min(coordinateA.getX(), coordinateB.getX()));
         vertex[0].setY(Math.min(coordinateA.getY(), coordinateB.getY()));
@@ -64,23 +83,16 @@ public class Circle extends model.Shape{
         vertex[2].setY(vertex[1].getY() + radius*2);
         vertex[3].setX(vertex[0].getX());
         vertex[3].setY(vertex[2].getY());
+    }
 
-        // Set the stroke properties
-        g2D.setStroke(new BasicStroke(strokeWidth,BasicStroke.CAP_ROUND,BasicStroke.JOIN_BEVEL));
-
-        if (isFilled) {
-            g2D.setPaint(fillColor);
-            g2D.fillOval(vertex[0].getX(), vertex[0].getY(), radius*2, radius*2);
-            g2D.setPaint(shapeColor);
-            g2D.drawOval(vertex[0].getX(), vertex[0].getY(), radius*2, radius*2);
-        } else {
-            g2D.setPaint(shapeColor);
-            g2D.drawOval(vertex[0].getX(), vertex[0].getY(), radius*2, radius*2);
-        }
-
-        if (isSelected) {
-            drawBorder(g2D);
-        }
+    /**
+     * Builds the outline of the circle from its current position and radius.
+     *
+     * @return The outline of the circle.
+     */
+    @Override
+    protected java.awt.Shape createOutline() {
+        return new Ellipse2D.Float(vertex[0].getX(), vertex[0].getY(), radius * 2, radius * 2);
     }
 
     /**
@@ -92,6 +104,7 @@ public class Circle extends model.Shape{
      */
     @Override
     public boolean isClickPointInShape(Point point) {
+        validateGeometry();
         return vertex[0].getX() < point.getX() && point.getX() < vertex[1].getX()
                 && vertex[0].getY() < point.getY() && point.getY() < vertex[3].getY();
     }
@@ -104,10 +117,7 @@ public class Circle extends model.Shape{
      */
     @Override
     public void drawBorder(Graphics2D g2D) {
-        g2D.setPaint(Color.LIGHT_GRAY);
-        g2D.setStroke(new BasicStroke(3, BasicStroke.CAP_ROUND, BasicStroke.JOIN_BEVEL,
-                10, new float[]{10, 10}, 0));
-        g2D.drawRect(vertex[0].getX(), vertex[0].getY(), radius*2, radius*2);
+        drawCachedBorder(g2D);
     }
 
     /**
@@ -134,6 +144,7 @@ public class Circle extends model.Shape{
 
         // Update the coordinates of the bounding rectangle vertices
         updateVertexCoordinates();
+        invalidateGeometry();
     }
 
     /**
@@ -154,4 +165,28 @@ public class Circle extends model.Shape{
         vertex[3].setX(centerX - radius); // Bottom-left
         vertex[3].setY(centerY + radius);
     }
+
+    /**
+     * Captures the geometry of the circle including its size.
+     *
+     * @return The coordinates, rotation and size of the circle.
+     */
+    @Override
+    public int[] saveGeometry() {
+        int[] geometry = Arrays.copyOf(super.saveGeometry(), GEOMETRY_SIZE + 1);
+        geometry[GEOMETRY_SIZE] = radius;
+        return geometry;
+    }
+
+    /**
+     * Restores geometry captured by {@link #saveGeometry()}.
+     *
+     * @param geometry The coordinates, rotation and size of the circle.
+     */
+    @Override
+    public void restoreGeometry(int[] geometry) {
+        super.restoreGeometry(geometry);
+        radius = geometry[GEOMETRY_SIZE];
+        updateVertexCoordinates();
+    }
 }
@@ -0,0 +1,196 @@
+package model;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Area;
+import java.awt.geom.PathIterator;
+
+/**
+ * Represents what is left of a shape after part of it has been erased.
+ * The remaining fill and stroke are kept as areas relative to the top left corner of the shape, so the
+ * shape can still be moved, rotated and restyled like any other shape; its outline can no longer be resized.
+ */
+public class ClippedShape extends model.Shape {
+    // The remaining geometry, relative to coordinate A
+    private final Area fillArea;
+    private final Area strokeArea;
+
+    // The geometry placed at the current position, built on demand
+    private java.awt.Shape placedFill;
+    private java.awt.Shape placedStroke;
+
+    /**
+     * Creates the remains of a shape.
+     *
+     * @param fillArea    The remaining filled area in canvas coordinates, or null if the shape is not filled.
+     * @param strokeArea  The remaining area of the stroke in canvas coordinates.
+     * @param shapeColor  The color of the stroke.
+     * @param fillColor   The color of the fill.
+     * @param strokeWidth The stroke width the shape was drawn with.
+     */
+    public ClippedShape(Area fillArea, Area strokeArea, Color shapeColor, Color fillColor, int strokeWidth) {
+        java.awt.Rectangle frame = strokeArea.getBounds();
+        if (fillArea != null) {
+            frame.add(fillArea.getBounds());
+        }
+        AffineTransform toOrigin = AffineTransform.getTranslateInstance(-frame.x, -frame.y);
+        this.strokeArea = strokeArea.createTransformedArea(toOrigin);
+        this.fillArea = fillArea == null ? null : fillArea.createTransformedArea(toOrigin);
+        setCoordinateA(frame.x, frame.y);
+        setCoordinateB(frame.x + frame.width, frame.y + frame.height);
+        setShapeColor(shapeColor);
+        setFillColor(fillColor);
+        setFilled(fillArea != null);
+        this.strokeWidth = strokeWidth;
+    }
+
+    /**
+     * Drops the placed geometry along with the cached geometry of the base shape.
+     */
+    @Override
+    protected void invalidateGeometry() {
+        super.invalidateGeometry();
+        placedFill = null;
+        placedStroke = null;
+    }
+
+    /**
+     * Moves and rotates a piece of the remaining geometry to the current position of the shape.
+     *
+     * @param geometry The geometry relative to coordinate A.
+     * @return The geometry in canvas coordinates.
+     */
+    private java.awt.Shape place(Area geometry) {
+        AffineTransform toPosition = AffineTransform.getTranslateInstance(coordinateA.getX(), coordinateA.getY());
+        return rotated(toPosition.createTransformedShape(geometry));
+    }
+
+    /**
+     * Gets the remaining fill at the current position, placing it if necessary.
+     *
+     * @return The placed fill, or null if the shape has no fill.
+     */
+    private java.awt.Shape getPlacedFill() {
+        if (placedFill == null && fillArea != null) {
+            placedFill = place(fillArea);
+        }
+        return placedFill;
+    }
+
+    /**
+     * Gets the remaining stroke at the current position, placing it if necessary.
+     *
+     * @return The placed stroke.
+     */
+    private java.awt.Shape getPlacedStroke() {
+        if (placedStroke == null) {
+            placedStroke = place(strokeArea);
+        }
+        return placedStroke;
+    }
+
+    /**
+     * Builds the outline of the remains before rotation: the fill if there is one, the stroke otherwise.
+     *
+     * @return The unrotated outline.
+     */
+    @Override
+    protected java.awt.Shape createOutline() {
+        AffineTransform toPosition = AffineTransform.getTranslateInstance(coordinateA.getX(), coordinateA.getY());
+        return toPosition.createTransformedShape(fillArea != null ? fillArea : strokeArea);
+    }
+
+    /**
+     * Only remains with a fill enclose an area.
+     *
+     * @return true if the shape is filled, false otherwise.
+     */
+    @Override
+    protected boolean isClosed() {
+        return fillArea != null;
+    }
+
+    /**
+     * Draws the remaining fill and stroke, and the border if the shape is selected.
+     *
+     * @param g2D The Graphics2D context to use for drawing.
+     */
+    @Override
+    public void draw(Graphics2D g2D) {
+        if (isFilled && fillArea != null) {
+            g2D.setPaint(fillColor);
+            g2D.fill(getPlacedFill());
+        }
+        g2D.setPaint(shapeColor);
+        g2D.fill(getPlacedStroke());
+        if (isSelected) {
+            drawBorder(g2D);
+        }
+    }
+
+    /**
+     * Captures the remains as a snapshot whose stroke is the remaining stroke area.
+     *
+     * @return The snapshot of the remains.
+     */
+    @Override
+    public ShapeSnapshot snapshot() {
+        java.awt.Shape outline = getOutline();
+        Color fill = isFilled && fillArea != null ? fillColor : null;
+        int kind = isClosed() ? ShapeSnapshot.CLOSED : ShapeSnapshot.OPEN;
+        return new ShapeSnapshot(kind, outline, fill, shapeColor, null, getPlacedStroke(), getBounds());
+    }
+
+    /**
+     * Checks whether a point lies on the remaining fill or stroke.
+     *
+     * @param point The point to check.
+     * @return true if the point is on the remains, false otherwise.
+     */
+    @Override
+    public boolean isClickPointInShape(Point point) {
+        java.awt.Shape fill = getPlacedFill();
+        return (fill != null && fill.contains(point.getX(), point.getY()))
+                || getPlacedStroke().contains(point.getX(), point.getY());
+    }
+
+    /**
+     * Draws a border around the remains.
+     * Invoked when the shape is selected.
+     *
+     * @param g2D The Graphics2D context to use for drawing the border.
+     */
+    @Override
+    public void drawBorder(Graphics2D g2D) {
+        drawCachedBorder(g2D);
+    }
+
+    /**
+     * Rotates the remains around the center of their frame.
+     *
+     * @param angle The rotation angle in degrees.
+     */
+    @Override
+    public void rotate(int angle) {
+        setRotationAngle(angle);
+    }
+
+    /**
+     * Counts the path segments of the remaining geometry, a measure of its memory use.
+     *
+     * @return The number of segments.
+     */
+    public int getSegmentCount() {
+        int count = 0;
+        for (Area area : new Area[] {fillArea, strokeArea}) {
+            if (area == null) {
+                continue;
+            }
+            for (PathIterator iterator = area.getPathIterator(null); !iterator.isDone(); iterator.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -1,9 +1,7 @@
 package model;
 
-import java.awt.Color;
 import java.awt.Graphics2D;
-import java.awt.BasicStroke;
-import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
 
 /**
  * Represents a Cube shape that can be drawn on a canvas.
@@ -23,6 +21,26 @@ public class Cube extends model.Shape{
 
     private void setEdge(int edge)   { this.edge = edge; }
 
+    /**
+     * The cube is rotated around the center of its front and back faces.
+     *
+     * @return The x-coordinate of the rotation center.
+     */
+    @Override
+    protected int getRotationCenterX() {
+        return (coordinateA.getX() + coordinateB.getX()) / 2;
+    }
+
+    /**
+     * The cube is rotated around the center of its front and back faces.
+     *
+     * @return The y-coordinate of the rotation center.
+     */
+    @Override
+    protected int getRotationCenterY() {
+        return (coordinateA.getY() + coordinateB.getY()) / 2;
+    }
+
     /**
      * Draws the cube on the canvas using the provided Graphics2D context.
      * This method handles the rotation, size adjustment, and actual drawing of the cube.
@@ -30,17 +48,14 @@ public class Cube extends model.Shape{
      */
     @Override
     public void draw(Graphics2D g2D) {
+        drawOutline(g2D);
+    }
 
-        AffineTransform oldTransform = g2D.getTransform();
-
-        // Calculate the rotation center (the 2D center of the cube)
-        int centerX = (a1.getX() + b3.getX()) / 2;
-        int centerY = (a1.getY() + b3.getY()) / 2;
-
-        // Apply rotation transformation
-        g2D.rotate(Math.toRadians(rotationAngle), centerX, centerY);
-
-
+    /**
+     * Recomputes the vertices of the cube from its coordinates and size.
+     */
+    @Override
+    protected void updateGeometry() {
         // Update the edge length
         int deltaX = coordinateB.getX() - coordinateA.getX();
         int deltaY = coordinateB.getY() - coordinateA.getY();
@@ -64,33 +79,58 @@ public class Cube extends model.Shape{
         b1.setY(b4.getY() - edge);
         b2.setX(b3.getX());
         b2.setY(b1.getY());
+    }
 
-        g2D.setPaint(shapeColor);
-        g2D.setStroke(new BasicStroke(strokeWidth,BasicStroke.CAP_ROUND,BasicStroke.JOIN_BEVEL));
-
-        // Draw the cube's edges
-        g2D.drawLine(a1.getX(), a1.getY(), a2.getX(), a2.getY());
-        g2D.drawLine(a2.getX(), a2.getY(), a3.getX(), a3.getY());
-        g2D.drawLine(a3.getX(), a3.getY(), a4.getX(), a4.getY());
-        g2D.drawLine(a4.getX(), a4.getY(), a1.getX(), a1.getY());
-
-        g2D.drawLine(a1.getX(), a1.getY(), b1.getX(), b1.getY());
-        g2D.drawLine(a2.getX(), a2.getY(), b2.getX(), b2.getY());
-        g2D.drawLine(a3.getX(), a3.getY(), b3.getX(), b3.getY());
-        g2D.drawLine(a4.getX(), a4.getY(), b4.getX(), b4.getY());
-
-        g2D.drawLine(b1.getX(), b1.getY(), b2.getX(), b2.getY());
-        g2D.drawLine(b2.getX(), b2.getY(), b3.getX(), b3.getY());
-        g2D.drawLine(b3.getX(), b3.getY(), b4.getX(), b4.getY());
-        g2D.drawLine(b4.getX(), b4.getY(), b1.getX(), b1.getY());
-
-        // Draw border if selected
-        if (isSelected) {
-            drawBorder(g2D);
-        }
+    /**
+     * Builds the twelve edges of the cube as a single path.
+     *
+     * @return The unrotated outline of the cube.
+     */
+    @Override
+    protected java.awt.Shape createOutline() {
+        Path2D.Float outline = new Path2D.Float();
+        addEdge(outline, a1, a2);
+        addEdge(outline, a2, a3);
+        addEdge(outline, a3, a4);
+        addEdge(outline, a4, a1);
+
+        addEdge(outline, a1, b1);
+        addEdge(outline, a2, b2);
+        addEdge(outline, a3, b3);
+        addEdge(outline, a4, b4);
+
+        addEdge(outline, b1, b2);
+        addEdge(outline, b2, b3);
+        addEdge(outline, b3, b4);
+        addEdge(outline, b4, b1);
+        return outline;
+    }
 
-        // Restore the original transformation
-        g2D.setTransform(oldTransform);
+    /**
+     * The selection border follows the edges of the cube, with the first front edge pushed outwards.
+     *
+     * @return The unrotated selection border.
+     */
+    @Override
+    protected java.awt.Shape createBorder() {
+        Path2D.Float border = new Path2D.Float();
+        border.moveTo(a1.getX() - 2, a1.getY() - 2);
+        border.lineTo(a2.getX() + 2, a2.getY() + 2);
+        border.moveTo(a2.getX() + 2, a2.getY() + 2);
+        border.lineTo(a3.getX(), a3.getY());
+        addEdge(border, a3, a4);
+        addEdge(border, a4, a1);
+
+        addEdge(border, a1, b1);
+        addEdge(border, a2, b2);
+        addEdge(border, a3, b3);
+        addEdge(border, a4, b4);
+
+        addEdge(border, b1, b2);
+        addEdge(border, b2, b3);
+        addEdge(border, b3, b4);
+        addEdge(border, b4, b1);
+        return border;
     }
 
     /**
@@ -100,6 +140,7 @@ public class Cube extends model.Shape{
      */
     @Override
     public boolean isClickPointInShape(Point point) {
+        validateGeometry();
         return a1.getX() < point.getX() && point.getX() < b3.getX()
                 && a1.getY() < point.getY() && point.getY() < b3.getY();
     }
@@ -111,23 +152,7 @@ public class Cube extends model.Shape{
      */
     @Override
     public void drawBorder(Graphics2D g2D) {
-        g2D.setPaint(Color.LIGHT_GRAY);
-        g2D.setStroke(new BasicStroke(3, BasicStroke.CAP_ROUND, BasicStroke.JOIN_BEVEL,
-                10, new float[]{10, 10}, 0));
-        g2D.drawLine(a1.getX() - 2, a1.getY() - 2, a2.getX() + 2, a2.getY() + 2);
-        g2D.drawLine(a2.getX() + 2, a2.getY() + 2, a3.getX(), a3.getY());
-        g2D.drawLine(a3.getX(), a3.getY(), a4.getX(), a4.getY());
-        g2D.drawLine(a4.getX(), a4.getY(), a1.getX(), a1.getY());
-
-        g2D.drawLine(a1.getX(), a1.getY(), b1.getX(), b1.getY());
-        g2D.drawLine(a2.getX(), a2.getY(), b2.getX(), b2.getY());
-        g2D.drawLine(a3.getX(), a3.getY(), b3.getX(), b3.getY());
-        g2D.drawLine(a4.getX(), a4.getY(), b4.getX(), b4.getY());
-
-        g2D.drawLine(b1.getX(), b1.getY(), b2.getX(), b2.getY());
-        g2D.drawLine(b2.getX(), b2.getY(), b3.getX(), b3.getY());
-        g2D.drawLine(b3.getX(), b3.getY(), b4.getX(), b4.getY());
-        g2D.drawLine(b4.getX(), b4.getY(), b1.getX(), b1.getY());
+        drawCachedBorder(g2D);
     }
 
     /**
@@ -150,6 +175,7 @@ public class Cube extends model.Shape{
 
         // Update the coordinates of the cube
         updateVertices();
+        invalidateGeometry();
     }
 
     /**
@@ -173,8 +199,20 @@ public class Cube extends model.Shape{
         b2.setX(b3.getX());
     }
 
+    /**
+     * Adds a straight edge between two vertices to a path.
+     *
+     * @param path The path to add the edge to.
+     * @param from The vertex the edge starts at.
+     * @param to   The vertex the edge ends at.
+     */
+    private static void addEdge(Path2D.Float path, Point from, Point to) {
+        path.moveTo(from.getX(), from.getY());
+        path.lineTo(to.getX(), to.getY());
+    }
+
     @Override
     public void rotate(int angle) {
-        this.rotationAngle = angle;
+        setRotationAngle(angle);
     }
 }
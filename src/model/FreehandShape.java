@@ -0,0 +1,266 @@
+package model;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.BasicStroke;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.util.Arrays;
+
+/**
+ * Abstract base class for freehand strokes such as curves and eraser strokes.
+ * A whole press-drag-release gesture is stored as a single shape: the sampled points are kept in a
+ * growable primitive buffer and rendered as one polyline path.
+ * While a stroke is being drawn it may also have a tail, a provisional last point that can still be
+ * moved without rebuilding the path.
+ */
+public abstract class FreehandShape extends model.Shape {
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Interleaved x and y coordinates of the sampled points
+    private int[] points = new int[INITIAL_CAPACITY * 2];
+    private int pointCount = 0;
+
+    // Polyline through the sampled points, extended as points are added
+    private final Path2D.Float path = new Path2D.Float();
+    // Copy of the polyline handed out to snapshots, dropped whenever the stroke changes
+    private Path2D.Float snapshotPath;
+
+    // Provisional last point of a stroke that is still being drawn
+    private boolean hasTail = false;
+    private int tailX;
+    private int tailY;
+
+    // When the stroke was started, in milliseconds since the epoch
+    private final long creationTime = System.currentTimeMillis();
+
+    // Bounding box of the sampled points
+    private int minX;
+    private int minY;
+    private int maxX;
+    private int maxY;
+
+    /**
+     * Gets the color the stroke is painted with.
+     *
+     * @return The paint color of the stroke.
+     */
+    protected abstract Color getStrokeColor();
+
+    /**
+     * Appends a sampled point to the stroke, replacing the tail if there is one.
+     * Consecutive duplicates are ignored since they would not change the drawn polyline.
+     *
+     * @param x The x-coordinate of the point.
+     * @param y The y-coordinate of the point.
+     */
+    public void addPoint(int x, int y) {
+        hasTail = false;
+        snapshotPath = null;
+        if (pointCount == 0) {
+            minX = maxX = x;
+            minY = maxY = y;
+            setCoordinateA(x, y);
+            // A zero-length segment makes a single click paint a dot with the round cap.
+            path.moveTo(x, y);
+        } else if (getPointX(pointCount - 1) == x && getPointY(pointCount - 1) == y) {
+            setCoordinateB(x, y);
+            return;
+        } else {
+            includeInFrame(x, y);
+        }
+        path.lineTo(x, y);
+
+        if (pointCount * 2 == points.length) {
+            points = Arrays.copyOf(points, points.length * 2);
+        }
+        points[pointCount * 2] = x;
+        points[pointCount * 2 + 1] = y;
+        pointCount++;
+        setCoordinateB(x, y);
+    }
+
+    /**
+     * Sets or moves the provisional last point of the stroke.
+     * The stroke must already have a first point.
+     *
+     * @param x The x-coordinate of the tail.
+     * @param y The y-coordinate of the tail.
+     */
+    public void setTail(int x, int y) {
+        if (pointCount == 0) {
+            throw new IllegalStateException("A stroke needs a first point before its tail can be set");
+        }
+        hasTail = true;
+        snapshotPath = null;
+        tailX = x;
+        tailY = y;
+        // The frame only grows while drawing, which keeps it a valid bound for any earlier tail as well.
+        includeInFrame(x, y);
+        setCoordinateB(x, y);
+    }
+
+    /**
+     * Turns the tail, if there is one, into a regular point of the stroke.
+     */
+    public void commitTail() {
+        if (hasTail) {
+            addPoint(tailX, tailY);
+        }
+    }
+
+    /**
+     * Gets the number of points in the stroke, including the tail.
+     *
+     * @return The number of sampled points.
+     */
+    public int getPointCount() { return hasTail ? pointCount + 1 : pointCount; }
+
+    /**
+     * Gets when the stroke was started, which decides when it is old enough to be baked.
+     *
+     * @return The creation time in milliseconds since the epoch.
+     */
+    public long getCreationTime() { return creationTime; }
+
+    /**
+     * Gets the x-coordinate of a point of the stroke.
+     *
+     * @param index The index of the point.
+     * @return The x-coordinate of the point.
+     */
+    public int getPointX(int index) { return index == pointCount ? tailX : points[index * 2]; }
+
+    /**
+     * Gets the y-coordinate of a point of the stroke.
+     *
+     * @param index The index of the point.
+     * @return The y-coordinate of the point.
+     */
+    public int getPointY(int index) { return index == pointCount ? tailY : points[index * 2 + 1]; }
+
+    /**
+     * Releases the unused capacity of the point buffer once the stroke is complete.
+     */
+    public void trimToSize() {
+        if (points.length > pointCount * 2) {
+            points = Arrays.copyOf(points, Math.max(pointCount * 2, 2));
+        }
+    }
+
+    /**
+     * Returns the area touched by the most recently added segment, including the stroke width.
+     * Repainting this area is enough to show a newly added point.
+     *
+     * @return The bounds of the last segment.
+     */
+    public java.awt.Rectangle getLastSegmentBounds() {
+        if (pointCount == 0) {
+            return getBounds();
+        }
+        int last = getPointCount() - 1;
+        int previous = Math.max(last - 1, 0);
+        java.awt.Rectangle bounds = new java.awt.Rectangle(getPointX(last), getPointY(last), 0, 0);
+        bounds.add(getPointX(previous), getPointY(previous));
+        int padding = strokeWidth / 2 + 2;
+        bounds.grow(padding, padding);
+        return bounds;
+    }
+
+    /**
+     * Draws the stroke as a single polyline using the provided Graphics2D context.
+     *
+     * @param g2D The Graphics2D context to use for drawing.
+     */
+    @Override
+    public void draw(Graphics2D g2D) {
+        if (pointCount == 0) {
+            return;
+        }
+        g2D.setPaint(getStrokeColor());
+        g2D.setStroke(StyleRegistry.getStroke(strokeWidth, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+        g2D.draw(path);
+        if (hasTail) {
+            g2D.drawLine(points[pointCount * 2 - 2], points[pointCount * 2 - 1], tailX, tailY);
+        }
+    }
+
+    /**
+     * Captures the stroke as an immutable snapshot.
+     * The polyline is copied, since the path of the stroke keeps growing while it is drawn.
+     *
+     * @return The snapshot of the stroke, or null if it has no points.
+     */
+    @Override
+    public ShapeSnapshot snapshot() {
+        if (pointCount == 0) {
+            return null;
+        }
+        if (snapshotPath == null) {
+            snapshotPath = new Path2D.Float(path);
+            if (hasTail) {
+                snapshotPath.lineTo(tailX, tailY);
+            }
+        }
+        return new ShapeSnapshot(ShapeSnapshot.POLYLINE, snapshotPath, null, getStrokeColor(),
+                StyleRegistry.getStroke(strokeWidth, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND), null, getBounds());
+    }
+
+    /**
+     * Returns the box enclosing all sampled points.
+     *
+     * @return The frame of the stroke.
+     */
+    @Override
+    protected java.awt.Rectangle getFrame() {
+        if (pointCount == 0) {
+            return super.getFrame();
+        }
+        return new java.awt.Rectangle(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    /**
+     * Translates every point of the stroke by the specified amounts.
+     *
+     * @param x The amount to translate in the x-direction.
+     * @param y The amount to translate in the y-direction.
+     */
+    @Override
+    public void translate(int x, int y) {
+        super.translate(x, y);
+        for (int i = 0; i < pointCount; i++) {
+            points[i * 2] += x;
+            points[i * 2 + 1] += y;
+        }
+        tailX += x;
+        tailY += y;
+        minX += x;
+        maxX += x;
+        minY += y;
+        maxY += y;
+        path.transform(AffineTransform.getTranslateInstance(x, y));
+        snapshotPath = null;
+    }
+
+    /**
+     * Grows the bounding box of the stroke to include a point.
+     *
+     * @param x The x-coordinate of the point.
+     * @param y The y-coordinate of the point.
+     */
+    private void includeInFrame(int x, int y) {
+        minX = Math.min(minX, x);
+        minY = Math.min(minY, y);
+        maxX = Math.max(maxX, x);
+        maxY = Math.max(maxY, y);
+    }
+
+    @Override
+    public boolean isClickPointInShape(Point point) {
+        return false;
+    }
+
+    @Override
+    public void drawBorder(Graphics2D g2D) {
+    }
+}
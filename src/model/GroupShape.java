@@ -0,0 +1,188 @@
+package model;
+
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents a group of shapes that is moved, selected and drawn as one shape.
+ * The children keep the coordinates they had when they were grouped; moving the group only changes its
+ * offset, so translating a group of any size or depth costs the same. The bounds of the children are kept
+ * in a {@link BoundingVolumeTree}, so drawing and hit-testing reject whole subtrees that are outside the
+ * clip or the point. The children are not edited while they are grouped, so their snapshots and the tree
+ * are built once.
+ */
+public class GroupShape extends model.Shape {
+    private final model.Shape[] children;
+    private final BoundingVolumeTree tree;
+    // Snapshots of the children in paint order, null for children that draw nothing
+    private final List<ShapeSnapshot> childSnapshots;
+    // The offset of the group from where its children were grouped
+    private int offsetX = 0;
+    private int offsetY = 0;
+
+    /**
+     * Groups shapes. The shapes must not be edited until they are ungrouped.
+     *
+     * @param children The shapes of the group in paint order, at least one.
+     */
+    public GroupShape(model.Shape... children) {
+        if (children.length == 0) {
+            throw new IllegalArgumentException("A group needs at least one shape");
+        }
+        // Copied into a plain array of shapes, so that a child can be replaced by any kind of shape
+        this.children = Arrays.copyOf(children, children.length, model.Shape[].class);
+        java.awt.Rectangle[] bounds = new java.awt.Rectangle[children.length];
+        ShapeSnapshot[] snapshots = new ShapeSnapshot[children.length];
+        java.awt.Rectangle frame = children[0].getBounds();
+        for (int i = 0; i < children.length; i++) {
+            bounds[i] = children[i].getBounds();
+            snapshots[i] = children[i].snapshot();
+            frame.add(bounds[i]);
+        }
+        this.tree = new BoundingVolumeTree(bounds);
+        this.childSnapshots = Collections.unmodifiableList(Arrays.asList(snapshots));
+        setCoordinateA(frame.x, frame.y);
+        setCoordinateB(frame.x + frame.width, frame.y + frame.height);
+    }
+
+    /**
+     * Moves the group by changing its offset; the children are not touched.
+     *
+     * @param x The amount to translate in the x-direction.
+     * @param y The amount to translate in the y-direction.
+     */
+    @Override
+    public void translate(int x, int y) {
+        super.translate(x, y);
+        offsetX += x;
+        offsetY += y;
+    }
+
+    /**
+     * Draws the children that overlap the clip, and the border if the group is selected.
+     *
+     * @param g2D The Graphics2D context to use for drawing.
+     */
+    @Override
+    public void draw(Graphics2D g2D) {
+        AffineTransform transform = g2D.getTransform();
+        g2D.translate(offsetX, offsetY);
+        java.awt.Rectangle clip = g2D.getClipBounds();
+        if (clip == null) {
+            for (model.Shape child : children) {
+                child.draw(g2D);
+            }
+        } else {
+            for (int i : tree.query(clip)) {
+                children[i].draw(g2D);
+            }
+        }
+        g2D.setTransform(transform);
+        if (isSelected) {
+            drawBorder(g2D);
+        }
+    }
+
+    /**
+     * The frame enclosing the children is the outline of the group.
+     *
+     * @return The frame of the group.
+     */
+    @Override
+    protected java.awt.Shape createOutline() {
+        return getFrame();
+    }
+
+    /**
+     * Captures the group as a snapshot of its children and its offset.
+     *
+     * @return The snapshot of the group.
+     */
+    @Override
+    public ShapeSnapshot snapshot() {
+        return new ShapeSnapshot(childSnapshots, tree, offsetX, offsetY, getFrame(), getBounds());
+    }
+
+    /**
+     * Checks whether a point lies on one of the children, testing only those whose bounds contain it.
+     *
+     * @param point The point to check.
+     * @return true if the point is on a child, false otherwise.
+     */
+    @Override
+    public boolean isClickPointInShape(Point point) {
+        if (!getFrame().contains(point.getX(), point.getY())) {
+            return false;
+        }
+        Point localPoint = new Point(point.getX() - offsetX, point.getY() - offsetY);
+        int[] candidates = tree.query(localPoint.getX(), localPoint.getY());
+        for (int i = candidates.length - 1; i >= 0; i--) {
+            if (children[candidates[i]].isClickPointInShape(localPoint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Draws a border around the group.
+     * Invoked when the group is selected.
+     *
+     * @param g2D The Graphics2D context to use for drawing the border.
+     */
+    @Override
+    public void drawBorder(Graphics2D g2D) {
+        drawCachedBorder(g2D);
+    }
+
+    /**
+     * Captures the frame together with the offset of the children.
+     *
+     * @return The coordinates, rotation and offset of the group.
+     */
+    @Override
+    public int[] saveGeometry() {
+        int[] geometry = Arrays.copyOf(super.saveGeometry(), GEOMETRY_SIZE + 2);
+        geometry[GEOMETRY_SIZE] = offsetX;
+        geometry[GEOMETRY_SIZE + 1] = offsetY;
+        return geometry;
+    }
+
+    /**
+     * Restores geometry captured by {@link #saveGeometry()}.
+     *
+     * @param geometry The coordinates, rotation and offset of the group.
+     */
+    @Override
+    public void restoreGeometry(int[] geometry) {
+        offsetX = geometry[GEOMETRY_SIZE];
+        offsetY = geometry[GEOMETRY_SIZE + 1];
+        super.restoreGeometry(geometry);
+    }
+
+    /**
+     * Finds the children whose bounds overlap an area, rejecting whole subtrees at once.
+     *
+     * @param area The area in the coordinates of the children, that is without the offset of the group.
+     * @return The positions of the children in paint order.
+     */
+    public int[] getChildrenIn(java.awt.Rectangle area) {
+        return tree.query(area);
+    }
+
+    /**
+     * Gets the shapes of the group at the coordinates they had when they were grouped.
+     *
+     * @return The children in paint order.
+     */
+    public model.Shape[] getChildren() {
+        return children.clone();
+    }
+
+    public int getChildCount() { return children.length; }
+    public int getOffsetX() { return offsetX; }
+    public int getOffsetY() { return offsetY; }
+}
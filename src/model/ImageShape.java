@@ -0,0 +1,105 @@
+package model;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+/**
+ * Represents shapes that have been baked into a single image.
+ * The image is stretched over a fixed area of the canvas and cannot be selected or edited; it only
+ * keeps the picture of the baked shapes at a fixed cost, however many shapes went into it.
+ */
+public class ImageShape extends model.Shape {
+    private final BufferedImage image;
+    // The snapshot never changes, since neither the image nor its frame do
+    private ShapeSnapshot cachedSnapshot;
+
+    /**
+     * Creates an image shape. The image must not be modified afterwards.
+     *
+     * @param image The pixels of the image.
+     * @param frame The area of the canvas the image is stretched over.
+     */
+    public ImageShape(BufferedImage image, java.awt.Rectangle frame) {
+        this.image = image;
+        setCoordinateA(frame.x, frame.y);
+        setCoordinateB(frame.x + frame.width, frame.y + frame.height);
+    }
+
+    /**
+     * Draws the image over its frame.
+     *
+     * @param g2D The Graphics2D context to use for drawing.
+     */
+    @Override
+    public void draw(Graphics2D g2D) {
+        snapshot().draw(g2D);
+    }
+
+    /**
+     * Captures the image as a snapshot.
+     *
+     * @return The snapshot of the image.
+     */
+    @Override
+    public ShapeSnapshot snapshot() {
+        if (cachedSnapshot == null) {
+            cachedSnapshot = new ShapeSnapshot(image, getFrame(), getBounds());
+        }
+        return cachedSnapshot;
+    }
+
+    /**
+     * Baked shapes cannot be selected, so no point is ever on the image.
+     *
+     * @param point The point to check.
+     * @return false.
+     */
+    @Override
+    public boolean isClickPointInShape(Point point) {
+        return false;
+    }
+
+    /**
+     * Does nothing, since the image is never selected.
+     *
+     * @param g2D The Graphics2D context to use for drawing the border.
+     */
+    @Override
+    public void drawBorder(Graphics2D g2D) {
+    }
+
+    /**
+     * Creates a copy of the image with an area cleared to transparent.
+     *
+     * @param area The area to clear, in canvas coordinates.
+     * @return The new image shape, or null if the area does not touch the image.
+     */
+    public ImageShape erased(java.awt.Shape area) {
+        java.awt.Rectangle frame = getFrame();
+        if (!area.intersects(frame)) {
+            return null;
+        }
+        BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2D = copy.createGraphics();
+        g2D.drawImage(image, 0, 0, null);
+        g2D.setComposite(AlphaComposite.Clear);
+        g2D.scale((double) image.getWidth() / frame.width, (double) image.getHeight() / frame.height);
+        g2D.transform(AffineTransform.getTranslateInstance(-frame.x, -frame.y));
+        g2D.fill(area);
+        g2D.dispose();
+        return new ImageShape(copy, frame);
+    }
+
+    /**
+     * Gets the memory taken by the pixels of the image.
+     *
+     * @return The size of the pixels in bytes.
+     */
+    public long getMemorySize() {
+        return 4L * image.getWidth() * image.getHeight();
+    }
+
+    public BufferedImage getImage() { return image; }
+}
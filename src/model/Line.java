@@ -1,8 +1,7 @@
 package model;
 
 import java.awt.Graphics2D;
-import java.awt.BasicStroke;
-import java.awt.geom.AffineTransform;
+import java.awt.geom.Line2D;
 
 /**
  * Represents a Line shape that can be drawn on a canvas.
@@ -23,33 +22,27 @@ public class Line extends model.Shape{
      */
     @Override
     public void draw(Graphics2D g2D) {
+        drawOutline(g2D);
+    }
 
-        // Save the original transformation
-        AffineTransform oldTransform = g2D.getTransform();
-
-        // Calculate the rotation center (the midpoint of the line)
-        int centerX = (coordinateA.getX() + coordinateB.getX()) / 2;
-        int centerY = (coordinateA.getY() + coordinateB.getY()) / 2;
-
-        // Apply rotation transformation
-        g2D.rotate(Math.toRadians(rotationAngle), centerX, centerY);
-
-        g2D.setPaint(shapeColor);
-
-        // Define the stroke properties for the line
-        float lineThickness = strokeWidth; // Use the strokeWidth for the line thickness
-        int capStyle = BasicStroke.CAP_ROUND; // Use rounded caps for the stroke
-        int joinStyle = BasicStroke.JOIN_BEVEL; // Use a bevel join for the stroke
-
-        // Create and set the stroke using the defined properties
-        BasicStroke solidStroke = new BasicStroke(lineThickness, capStyle, joinStyle);
-        g2D.setStroke(solidStroke);
-
-        // Draw the line between coordinateA and coordinateB
-        g2D.drawLine(coordinateA.getX(), coordinateA.getY(), coordinateB.getX(), coordinateB.getY());
+    /**
+     * The line is rotated around its midpoint.
+     *
+     * @return The x-coordinate of the midpoint.
+     */
+    @Override
+    protected int getRotationCenterX() {
+        return (coordinateA.getX() + coordinateB.getX()) / 2;
+    }
 
-        // Restore the original transformation
-        g2D.setTransform(oldTransform);
+    /**
+     * The line is rotated around its midpoint.
+     *
+     * @return The y-coordinate of the midpoint.
+     */
+    @Override
+    protected int getRotationCenterY() {
+        return (coordinateA.getY() + coordinateB.getY()) / 2;
     }
 
     /**
@@ -82,6 +75,26 @@ public class Line extends model.Shape{
         return lowerBound < pointCoord && pointCoord < upperBound;
     }
 
+    /**
+     * Builds the outline of the line segment between its two coordinates.
+     *
+     * @return The unrotated outline of the line.
+     */
+    @Override
+    protected java.awt.Shape createOutline() {
+        return new Line2D.Float(coordinateA.getX(), coordinateA.getY(), coordinateB.getX(), coordinateB.getY());
+    }
+
+    /**
+     * A line encloses no area, so it is never replaced by its bounding box.
+     *
+     * @return false.
+     */
+    @Override
+    protected boolean isClosed() {
+        return false;
+    }
+
     @Override
     public void drawBorder(Graphics2D g2D) {//can not use this method
     }
@@ -94,6 +107,6 @@ public class Line extends model.Shape{
      */
     @Override
     public void rotate(int angle) {
-        this.rotationAngle = angle;
+        setRotationAngle(angle);
     }
 }
@@ -1,9 +1,8 @@
 package model;
 
-import java.awt.Color;
 import java.awt.Graphics2D;
-import java.awt.BasicStroke;
-import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.util.Arrays;
 
 /**
  * Represents an Oval shape that can be drawn on a canvas.
@@ -15,8 +14,8 @@ public class Oval extends model.Shape{
     private int width;  // Width of the oval (x-axis diameter)
     private int height; // Height of the oval (y-axis diameter)
 
-    public void setWidth(int width)  { this.width = width; }
-    public void setHeight(int height) { this.height = height; }
+    public void setWidth(int width)  { this.width = width; invalidateGeometry(); }
+    public void setHeight(int height) { this.height = height; invalidateGeometry(); }
 
     // Vertices for the bounding box of the oval
     private final Point[] vertex = new Point[4];
@@ -38,6 +37,17 @@ public class Oval extends model.Shape{
         return this.height;
     }
 
+    /**
+     * Returns the unrotated box the oval is drawn into.
+     *
+     * @return The frame of the oval.
+     */
+    @Override
+    protected java.awt.Rectangle getFrame() {
+        return new java.awt.Rectangle(Math.min(coordinateA.getX(), coordinateB.getX()),
+                Math.min(coordinateA.getY(), coordinateB.getY()), width, height);
+    }
+
     /**
      * Draws the oval on the canvas using the provided Graphics2D context.
      * Handles both filled and non-filled drawing, as well as rotation and drawing a border if selected.
@@ -46,48 +56,27 @@ public class Oval extends model.Shape{
      */
     @Override
     public void draw(Graphics2D g2D) {
-        // Save the original transformation
-        AffineTransform oldTransform = g2D.getTransform();
-
-        // Calculate rotation center
-        int centerX = vertex[0].getX() + width / 2;
-        int centerY = vertex[0].getY() + height / 2;
-
-        // Update vertex coordinates and apply rotation transformation
-        g2D.rotate(Math.toRadians(rotationAngle), centerX, centerY);
-
-        vertex[0].setX(Math.min(coordinateA.getX(), coordinateB.getX()));
-        vertex[0].setY(Math.min(coordinateA.getY(), coordinateB.getY()));
-        vertex[1].setX(vertex[0].getX() + width);
-        vertex[1].setY(vertex[0].getY());
-        vertex[2].setX(vertex[1].getX());
-        vertex[2].setY(vertex[1].getY() + height);
-        vertex[3].setX(vertex[0].getX());
-        vertex[3].setY(vertex[2].getY());
-
-        // Set stroke properties and draw the oval
-        g2D.setStroke(new BasicStroke(strokeWidth,BasicStroke.CAP_ROUND,BasicStroke.JOIN_BEVEL));
-
-        if (isFilled) {
-            g2D.setPaint(fillColor);
-            g2D.fillOval(vertex[0].getX(), vertex[0].getY(), width, height);
-            g2D.setPaint(shapeColor);
-            g2D.drawOval(vertex[0].getX(), vertex[0].getY(), width, height);
-        } else {
-            g2D.setPaint(shapeColor);
-            g2D.drawOval(vertex[0].getX(), vertex[0].getY(), width, height);
-        }
-
+        drawOutline(g2D);
+    }
 
-        // Draw border if the oval is selected
-        if (isSelected) {
-            drawBorder(g2D);
-        }
 
-        // Restore the original transformation
-        g2D.setTransform(oldTransform);
+    /**
+     * Recomputes the vertices of the oval from its coordinates and size.
+     */
+    @Override
+    protected void updateGeometry() {
+        updateVertexCoordinates();
     }
 
+    /**
+     * Builds the outline of the oval from its current position and size.
+     *
+     * @return The unrotated outline of the oval.
+     */
+    @Override
+    protected java.awt.Shape createOutline() {
+        return new Ellipse2D.Float(vertex[0].getX(), vertex[0].getY(), width, height);
+    }
 
     /**
      * Determines if a given point is within the shape of the oval.
@@ -97,6 +86,7 @@ public class Oval extends model.Shape{
      */
     @Override
     public boolean isClickPointInShape(Point point) {
+        validateGeometry();
         return vertex[0].getX() < point.getX() && point.getX() < vertex[1].getX()
                 && vertex[0].getY() < point.getY() && point.getY() < vertex[3].getY();
     }
@@ -109,10 +99,7 @@ public class Oval extends model.Shape{
      */
     @Override
     public void drawBorder(Graphics2D g2D) {
-        g2D.setPaint(Color.LIGHT_GRAY);
-        g2D.setStroke(new BasicStroke(3, BasicStroke.CAP_ROUND, BasicStroke.JOIN_BEVEL,
-                10, new float[]{10, 10}, 0));
-        g2D.drawRect(vertex[0].getX(), vertex[0].getY(), width, height);
+        drawCachedBorder(g2D);
     }
 
     /**
@@ -132,6 +119,7 @@ public class Oval extends model.Shape{
             this.height = 0;
         }
         updateVertexCoordinates();
+        invalidateGeometry();
     }
 
     /**
@@ -156,6 +144,32 @@ public class Oval extends model.Shape{
      */
     @Override
     public void rotate(int angle) {
-        this.rotationAngle = angle;
+        setRotationAngle(angle);
+    }
+
+    /**
+     * Captures the geometry of the oval including its size.
+     *
+     * @return The coordinates, rotation and size of the oval.
+     */
+    @Override
+    public int[] saveGeometry() {
+        int[] geometry = Arrays.copyOf(super.saveGeometry(), GEOMETRY_SIZE + 2);
+        geometry[GEOMETRY_SIZE] = width;
+        geometry[GEOMETRY_SIZE + 1] = height;
+        return geometry;
+    }
+
+    /**
+     * Restores geometry captured by {@link #saveGeometry()}.
+     *
+     * @param geometry The coordinates, rotation and size of the oval.
+     */
+    @Override
+    public void restoreGeometry(int[] geometry) {
+        super.restoreGeometry(geometry);
+        width = geometry[GEOMETRY_SIZE];
+        height = geometry[GEOMETRY_SIZE + 1];
+        updateVertexCoordinates();
     }
 }
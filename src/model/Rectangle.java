@@ -1,9 +1,8 @@
 package model;
 
-import java.awt.Color;
 import java.awt.Graphics2D;
-import java.awt.BasicStroke;
-import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
 
 /**
  * Represents a Rectangle shape that can be drawn on a canvas.
@@ -35,8 +34,19 @@ public class Rectangle extends model.Shape{
         return this.height;
     }
 
-    public void setWidth(int width)  { this.width = width; }
-    public void setHeight(int height) { this.height = height; }
+    public void setWidth(int width)  { this.width = width; invalidateGeometry(); }
+    public void setHeight(int height) { this.height = height; invalidateGeometry(); }
+
+    /**
+     * Returns the unrotated box the rectangle is drawn into.
+     *
+     * @return The frame of the rectangle.
+     */
+    @Override
+    protected java.awt.Rectangle getFrame() {
+        return new java.awt.Rectangle(Math.min(coordinateA.getX(), coordinateB.getX()),
+                Math.min(coordinateA.getY(), coordinateB.getY()), width, height);
+    }
 
     /**
      * Draws the rectangle on the canvas using the provided Graphics2D context.
@@ -46,44 +56,25 @@ public class Rectangle extends model.Shape{
      */
     @Override
     public void draw(Graphics2D g2D) {
+        drawOutline(g2D);
+    }
 
-        // Save the original transformation
-        AffineTransform oldTransform = g2D.getTransform();
-
-        // Calculate rotation center, apply rotation transformation, and update vertex coordinates
-        int centerX = vertex[0].getX() + width / 2;
-        int centerY = vertex[0].getY() + height / 2;
-
-        g2D.rotate(Math.toRadians(rotationAngle), centerX, centerY);
-
-        vertex[0].setX(Math.min(coordinateA.getX(), coordinateB.getX()));
-        vertex[0].setY(Math.min(coordinateA.getY(), coordinateB.getY()));
-        vertex[1].setX(vertex[0].getX() + width);
-        vertex[1].setY(vertex[0].getY());
-        vertex[2].setX(vertex[1].getX());
-        vertex[2].setY(vertex[1].getY() + height);
-        vertex[3].setX(vertex[0].getX());
-        vertex[3].setY(vertex[2].getY());
-
-        // Set stroke properties and draw the rectangle
-        g2D.setStroke(new BasicStroke(strokeWidth, BasicStroke.CAP_ROUND, BasicStroke.JOIN_BEVEL));
-
-        if (isFilled) {
-            g2D.setPaint(fillColor);
-            g2D.fillRect(vertex[0].getX(), vertex[0].getY(), width, height);
-            g2D.setPaint(shapeColor);
-            g2D.drawRect(vertex[0].getX(), vertex[0].getY(), width, height);
-        } else {
-            g2D.setPaint(shapeColor);
-            g2D.drawRect(vertex[0].getX(), vertex[0].getY(), width, height);
-        }
-
-        // Draw border if the rectangle is selected
-        if (isSelected)
-            drawBorder(g2D);
+    /**
+     * Recomputes the vertices of the rectangle from its coordinates and size.
+     */
+    @Override
+    protected void updateGeometry() {
+        updateVertexCoordinates();
+    }
 
-        // Restore the original transformation
-        g2D.setTransform(oldTransform);
+    /**
+     * Builds the outline of the rectangle from its current position and size.
+     *
+     * @return The unrotated outline of the rectangle.
+     */
+    @Override
+    protected java.awt.Shape createOutline() {
+        return new Rectangle2D.Float(vertex[0].getX(), vertex[0].getY(), width, height);
     }
 
     /**
@@ -94,6 +85,7 @@ public class Rectangle extends model.Shape{
      */
     @Override
     public boolean isClickPointInShape(Point point) {
+        validateGeometry();
         return vertex[0].getX() < point.getX() && point.getX() < vertex[1].getX()
                 && vertex[0].getY() < point.getY() && point.getY() < vertex[3].getY();
     }
@@ -106,10 +98,7 @@ public class Rectangle extends model.Shape{
      */
     @Override
     public void drawBorder(Graphics2D g2D) {
-        g2D.setPaint(Color.LIGHT_GRAY);
-        g2D.setStroke(new BasicStroke(3, BasicStroke.CAP_ROUND, BasicStroke.JOIN_BEVEL,
-                10, new float[]{10, 10}, 0));
-        g2D.drawRect(vertex[0].getX(), vertex[0].getY(), width, height);
+        drawCachedBorder(g2D);
     }
 
     /**
@@ -130,6 +119,7 @@ public class Rectangle extends model.Shape{
         }
 
         updateVertexCoordinates();
+        invalidateGeometry();
     }
 
     /**
@@ -154,6 +144,32 @@ public class Rectangle extends model.Shape{
      */
     @Override
     public void rotate(int angle) {
-        this.rotationAngle = angle;
+        setRotationAngle(angle);
+    }
+
+    /**
+     * Captures the geometry of the rectangle including its size.
+     *
+     * @return The coordinates, rotation and size of the rectangle.
+     */
+    @Override
+    public int[] saveGeometry() {
+        int[] geometry = Arrays.copyOf(super.saveGeometry(), GEOMETRY_SIZE + 2);
+        geometry[GEOMETRY_SIZE] = width;
+        geometry[GEOMETRY_SIZE + 1] = height;
+        return geometry;
+    }
+
+    /**
+     * Restores geometry captured by {@link #saveGeometry()}.
+     *
+     * @param geometry The coordinates, rotation and size of the rectangle.
+     */
+    @Override
+    public void restoreGeometry(int[] geometry) {
+        super.restoreGeometry(geometry);
+        width = geometry[GEOMETRY_SIZE];
+        height = geometry[GEOMETRY_SIZE + 1];
+        updateVertexCoordinates();
     }
 }
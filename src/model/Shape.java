@@ -1,7 +1,11 @@
 package model;
 
+import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RectangularShape;
 
 /**
  * Abstract base class for all shape types that can be drawn on a canvas.
@@ -10,37 +14,59 @@ import java.awt.Graphics2D;
  */
 public abstract class Shape {
 
+    // Stroke width of the dashed border drawn around selected shapes
+    protected static final int BORDER_STROKE_WIDTH = 3;
+    // Extra margin for antialiasing and the offset of the cube's selection border
+    private static final int BOUNDS_MARGIN = 3;
+    // Number of values saveGeometry stores for the base shape: A, B and the rotation angle
+    protected static final int GEOMETRY_SIZE = 5;
+    // Margin kept between the opaque rectangle of a filled shape and its edge, in canvas units
+    private static final double OCCLUDER_INSET = 1;
+    // Share of each side between the frame of an ellipse and the rectangle inscribed in it, (1 - 1/sqrt(2)) / 2
+    private static final double ELLIPSE_INSET = (1 - Math.sqrt(0.5)) / 2;
+    // From this width on, the stroked outline is cached and filled instead of stroking the outline on every paint
+    private static final int THICK_STROKE_WIDTH = 4;
+
     // Base coordinates for the shape
     protected final Point coordinateA = new Point(0, 0);
     protected final Point coordinateB = new Point(0, 0);
 
     // Attributes of the shape
     protected Color shapeColor = Color.BLACK;
-    protected Color fillColor = new Color(255, 255, 255, 0);
+    protected Color fillColor = StyleRegistry.getColor(255, 255, 255, 0);
 
     protected int strokeWidth = 1;
     protected boolean isSelected = false;
     protected boolean isFilled = false;
     int rotationAngle = 0;
 
+    // Geometry built on demand and reused until the shape changes
+    private boolean geometryValid = false;
+    private java.awt.Shape cachedOutline;
+    private java.awt.Shape cachedStrokedOutline;
+    private java.awt.Shape cachedBorder;
+    private java.awt.Rectangle cachedBounds;
+
     // Getters and setters for coordinates, color, stroke width, etc.
     public Point getCoordinateA() { return coordinateA; }
-    public void setCoordinateA(int x, int y) { coordinateA.setX(x); coordinateA.setY(y); }
+    public void setCoordinateA(int x, int y) { coordinateA.setX(x); coordinateA.setY(y); invalidateGeometry(); }
 
     public Point getCoordinateB() { return coordinateB; }
-    public void setCoordinateB(int x, int y) { coordinateB.setX(x); coordinateB.setY(y); }
+    public void setCoordinateB(int x, int y) { coordinateB.setX(x); coordinateB.setY(y); invalidateGeometry(); }
     public Color getShapeColor() { return shapeColor; }
-    public void setShapeColor(Color newColor) { this.shapeColor = newColor; }
+    public void setShapeColor(Color newColor) { this.shapeColor = StyleRegistry.getColor(newColor); }
     public Color getFillColor() { return fillColor; }
-    public void setFillColor(Color newColor) { this.fillColor = newColor; }
+    public void setFillColor(Color newColor) { this.fillColor = StyleRegistry.getColor(newColor); }
     public int getStrokeWidth() { return strokeWidth; }
-    public void setStrokeWidth(int newStroke) { this.strokeWidth = newStroke; }
+    public void setStrokeWidth(int newStroke) { this.strokeWidth = newStroke; cachedStrokedOutline = null; cachedBounds = null; }
     public void setSelected(boolean bool) { isSelected = bool; }
+    public boolean isSelected() { return isSelected; }
     public void setFilled(boolean bool) { isFilled = bool; }
+    public boolean isFilled() { return isFilled; }
     public int getRotationAngle() {
         return this.rotationAngle;
     }
-    public void setRotationAngle(int angle) { this.rotationAngle = angle; }
+    public void setRotationAngle(int angle) { this.rotationAngle = angle; invalidateGeometry(); }
 
     /**
      * Abstract method for drawing the shape using a Graphics2D context.
@@ -67,6 +93,267 @@ public abstract class Shape {
      */
     public abstract void drawBorder(Graphics2D g2D);
 
+    /**
+     * Recomputes the derived geometry of the shape, such as its vertices, from its coordinates and size.
+     * Called only when the cached geometry has been invalidated, before the outline is built.
+     */
+    protected void updateGeometry() {
+    }
+
+    /**
+     * Brings the derived geometry of the shape up to date.
+     * Hit-testing and drawing call this instead of relying on a previous paint having done it.
+     */
+    protected final void validateGeometry() {
+        if (!geometryValid) {
+            updateGeometry();
+            geometryValid = true;
+        }
+    }
+
+    /**
+     * Builds the outline of the shape in canvas coordinates, before rotation.
+     * Called only when the cached geometry has been invalidated, after {@link #updateGeometry()}.
+     * Shapes that draw themselves without an outline return null.
+     *
+     * @return The unrotated outline of the shape, or null.
+     */
+    protected java.awt.Shape createOutline() {
+        return null;
+    }
+
+    /**
+     * Builds the dashed border drawn around the shape when it is selected, before rotation.
+     * By default this is the frame of the shape.
+     *
+     * @return The unrotated selection border, or null if the shape has none.
+     */
+    protected java.awt.Shape createBorder() {
+        return getFrame();
+    }
+
+    /**
+     * Drops the cached geometry. Must be called whenever a coordinate, size or the rotation changes.
+     */
+    protected void invalidateGeometry() {
+        geometryValid = false;
+        cachedOutline = null;
+        cachedStrokedOutline = null;
+        cachedBorder = null;
+        cachedBounds = null;
+    }
+
+    /**
+     * Gets the outline of the shape with the rotation already applied, building it if necessary.
+     *
+     * @return The rotated outline of the shape, or null.
+     */
+    public java.awt.Shape getOutline() {
+        if (cachedOutline == null) {
+            validateGeometry();
+            cachedOutline = rotated(createOutline());
+        }
+        return cachedOutline;
+    }
+
+    /**
+     * Gets the selection border with the rotation already applied, building it if necessary.
+     *
+     * @return The rotated selection border, or null.
+     */
+    protected java.awt.Shape getBorder() {
+        if (cachedBorder == null) {
+            validateGeometry();
+            cachedBorder = rotated(createBorder());
+        }
+        return cachedBorder;
+    }
+
+    /**
+     * Paints the cached outline: the fill if the shape is filled, the stroke and the selection border.
+     *
+     * @param g2D The Graphics2D context to use for drawing.
+     */
+    protected void drawOutline(Graphics2D g2D) {
+        java.awt.Shape outline = getOutline();
+        if (outline == null) {
+            return;
+        }
+        if (isFilled) {
+            g2D.setPaint(fillColor);
+            g2D.fill(outline);
+        }
+        g2D.setPaint(shapeColor);
+        java.awt.Shape strokedOutline = getStrokedOutline();
+        if (strokedOutline != null) {
+            g2D.fill(strokedOutline);
+        } else {
+            g2D.setStroke(StyleRegistry.getStroke(strokeWidth, BasicStroke.CAP_ROUND, BasicStroke.JOIN_BEVEL));
+            g2D.draw(outline);
+        }
+        if (isSelected) {
+            drawBorder(g2D);
+        }
+    }
+
+    /**
+     * Gets the cached area covered by the stroke of a thick outline, building it if necessary.
+     *
+     * @return The stroked outline, or null if the stroke is thin enough to be drawn directly.
+     */
+    private java.awt.Shape getStrokedOutline() {
+        if (strokeWidth < THICK_STROKE_WIDTH) {
+            return null;
+        }
+        if (cachedStrokedOutline == null) {
+            cachedStrokedOutline = StyleRegistry.getStroke(strokeWidth, BasicStroke.CAP_ROUND,
+                    BasicStroke.JOIN_BEVEL).createStrokedShape(getOutline());
+        }
+        return cachedStrokedOutline;
+    }
+
+    /**
+     * Tells whether the outline of the shape encloses an area, so that its bounding box is a fair
+     * stand-in when the shape is too small on screen to show any detail.
+     *
+     * @return true if the shape is closed, false otherwise.
+     */
+    protected boolean isClosed() {
+        return true;
+    }
+
+    /**
+     * Captures how the shape currently looks as an immutable snapshot that can be rendered on
+     * another thread while the shape keeps being edited. The selection border is not part of it.
+     *
+     * @return The snapshot of the shape, or null if the shape draws nothing.
+     */
+    public ShapeSnapshot snapshot() {
+        java.awt.Shape outline = getOutline();
+        if (outline == null) {
+            return null;
+        }
+        Color fill = isFilled ? fillColor : null;
+        int kind = isClosed() ? ShapeSnapshot.CLOSED : ShapeSnapshot.OPEN;
+        java.awt.Shape strokedOutline = getStrokedOutline();
+        Rectangle2D occluder = getOccluder(outline);
+        if (strokedOutline != null) {
+            return new ShapeSnapshot(kind, outline, fill, shapeColor, null, strokedOutline, getBounds(), occluder);
+        }
+        return new ShapeSnapshot(kind, outline, fill, shapeColor,
+                StyleRegistry.getStroke(strokeWidth, BasicStroke.CAP_ROUND, BasicStroke.JOIN_BEVEL), null,
+                getBounds(), occluder);
+    }
+
+    /**
+     * Finds a rectangle that an unrotated shape with an opaque fill covers completely. Rectangles cover
+     * their whole frame; ovals and rounded rectangles the rectangle inscribed in their ellipse.
+     * The rectangle is shrunk by a canvas unit so that partly covered edge pixels never count as hidden.
+     *
+     * @param outline The outline of the shape.
+     * @return The opaque rectangle, or null if the shape is not filled opaquely, rotated or of another kind.
+     */
+    private Rectangle2D getOccluder(java.awt.Shape outline) {
+        if (!isFilled || fillColor.getAlpha() != 255 || rotationAngle % 360 != 0
+                || !(outline instanceof RectangularShape frame)) {
+            return null;
+        }
+        double insetX = OCCLUDER_INSET;
+        double insetY = OCCLUDER_INSET;
+        if (!(outline instanceof Rectangle2D)) {
+            insetX += frame.getWidth() * ELLIPSE_INSET;
+            insetY += frame.getHeight() * ELLIPSE_INSET;
+        }
+        Rectangle2D occluder = new Rectangle2D.Double(frame.getX() + insetX, frame.getY() + insetY,
+                frame.getWidth() - 2 * insetX, frame.getHeight() - 2 * insetY);
+        return occluder.isEmpty() || !outline.contains(occluder) ? null : occluder;
+    }
+
+    /**
+     * Draws the cached selection border.
+     *
+     * @param g2D The Graphics2D context to use for drawing.
+     */
+    protected void drawCachedBorder(Graphics2D g2D) {
+        java.awt.Shape border = getBorder();
+        if (border != null) {
+            g2D.setPaint(Color.LIGHT_GRAY);
+            g2D.setStroke(StyleRegistry.BORDER_STROKE);
+            g2D.draw(border);
+        }
+    }
+
+    /**
+     * Applies the rotation of the shape to a piece of its geometry.
+     *
+     * @param geometry The unrotated geometry, may be null.
+     * @return The rotated geometry, or the geometry itself if the shape is not rotated.
+     */
+    protected java.awt.Shape rotated(java.awt.Shape geometry) {
+        if (geometry == null || rotationAngle % 360 == 0) {
+            return geometry;
+        }
+        return AffineTransform.getRotateInstance(Math.toRadians(rotationAngle), getRotationCenterX(), getRotationCenterY())
+                .createTransformedShape(geometry);
+    }
+
+    /**
+     * Returns the axis-aligned box of the shape's geometry before rotation and stroke are applied.
+     * Subclasses override this with the box they actually draw into.
+     *
+     * @return The unrotated frame of the shape.
+     */
+    protected java.awt.Rectangle getFrame() {
+        int x = Math.min(coordinateA.getX(), coordinateB.getX());
+        int y = Math.min(coordinateA.getY(), coordinateB.getY());
+        return new java.awt.Rectangle(x, y,
+                Math.abs(coordinateB.getX() - coordinateA.getX()),
+                Math.abs(coordinateB.getY() - coordinateA.getY()));
+    }
+
+    /**
+     * Returns the x-coordinate of the point the shape is rotated around.
+     *
+     * @return The x-coordinate of the rotation center.
+     */
+    protected int getRotationCenterX() {
+        java.awt.Rectangle frame = getFrame();
+        return frame.x + frame.width / 2;
+    }
+
+    /**
+     * Returns the y-coordinate of the point the shape is rotated around.
+     *
+     * @return The y-coordinate of the rotation center.
+     */
+    protected int getRotationCenterY() {
+        java.awt.Rectangle frame = getFrame();
+        return frame.y + frame.height / 2;
+    }
+
+    /**
+     * Returns the area of the canvas this shape may paint into.
+     * The bounds take the rotation, the stroke width and the selection border into account,
+     * so repainting them is enough to fully erase or redraw the shape.
+     *
+     * @return The damage bounds of the shape.
+     */
+    public java.awt.Rectangle getBounds() {
+        if (cachedBounds != null) {
+            return new java.awt.Rectangle(cachedBounds);
+        }
+        java.awt.Rectangle bounds = getFrame();
+        if (rotationAngle % 360 != 0) {
+            AffineTransform rotation = AffineTransform.getRotateInstance(
+                    Math.toRadians(rotationAngle), getRotationCenterX(), getRotationCenterY());
+            bounds = rotation.createTransformedShape(bounds).getBounds();
+        }
+        int padding = Math.max(strokeWidth, BORDER_STROKE_WIDTH) / 2 + BOUNDS_MARGIN;
+        bounds.grow(padding, padding);
+        cachedBounds = bounds;
+        return new java.awt.Rectangle(bounds);
+    }
+
     /**
      * Translates the shape by the specified amounts in x and y directions.
      * This method adjusts the coordinates of the shape by the given delta values.
@@ -77,6 +364,7 @@ public abstract class Shape {
     public void translate(int x, int y) {
         translatePoint(coordinateA, x, y);
         translatePoint(coordinateB, x, y);
+        invalidateGeometry();
     }
 
     // Private helper method to translate a single point
@@ -106,4 +394,26 @@ public abstract class Shape {
     public void rotate(int angle) {
 
     }
+
+    /**
+     * Captures the geometry of the shape as a compact array, so that an edit can be undone without
+     * copying the whole shape. Subclasses with extra size attributes append them after the base values.
+     *
+     * @return The coordinates, rotation and size of the shape.
+     */
+    public int[] saveGeometry() {
+        return new int[] {coordinateA.getX(), coordinateA.getY(), coordinateB.getX(), coordinateB.getY(), rotationAngle};
+    }
+
+    /**
+     * Restores geometry captured by {@link #saveGeometry()}.
+     *
+     * @param geometry The coordinates, rotation and size of the shape.
+     */
+    public void restoreGeometry(int[] geometry) {
+        setCoordinateA(geometry[0], geometry[1]);
+        setCoordinateB(geometry[2], geometry[3]);
+        rotationAngle = geometry[4];
+        invalidateGeometry();
+    }
 }
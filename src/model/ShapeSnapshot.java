@@ -0,0 +1,427 @@
+package model;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The `ShapeSnapshot` class is an immutable copy of everything needed to draw a shape at one point in time.
+ * Snapshots never change after they are created, so they can be rendered on a background thread while
+ * the shapes they were taken from keep being edited on the event dispatch thread.
+ */
+public final class ShapeSnapshot {
+    // Kinds of geometry, which decide how a snapshot may be simplified when it is small on screen
+    public static final int CLOSED = 0;
+    public static final int OPEN = 1;
+    public static final int POLYLINE = 2;
+    public static final int IMAGE = 3;
+    public static final int GROUP = 4;
+
+    private final int kind;
+    private final java.awt.Shape outline;
+    private final Color fillColor;
+    private final Color strokeColor;
+    private final BasicStroke stroke;
+    private final java.awt.Shape strokedOutline;
+    private final java.awt.Rectangle bounds;
+    private final Rectangle2D outlineBounds;
+    // Area the shape paints fully opaque, hiding everything below it, or null
+    private final Rectangle2D occluder;
+    // Pixels stretched over the outline of an image snapshot, or null
+    private final BufferedImage image;
+    // Snapshots of the children of a group snapshot, the tree over their bounds and their offset, or null
+    private final List<ShapeSnapshot> children;
+    private final BoundingVolumeTree tree;
+    private final int offsetX;
+    private final int offsetY;
+
+    /**
+     * Creates a snapshot. The geometry passed in must not be modified afterwards.
+     *
+     * @param kind           The kind of geometry, one of {@link #CLOSED}, {@link #OPEN} and {@link #POLYLINE}.
+     * @param outline        The rotated outline of the shape.
+     * @param fillColor      The color the outline is filled with, or null if it is not filled.
+     * @param strokeColor    The color of the stroke.
+     * @param stroke         The stroke the outline is drawn with, or null if the stroked outline is given.
+     * @param strokedOutline The area covered by the stroke, or null if the outline is drawn with the stroke.
+     * @param bounds         The area the shape paints into.
+     */
+    ShapeSnapshot(int kind, java.awt.Shape outline, Color fillColor, Color strokeColor,
+                  BasicStroke stroke, java.awt.Shape strokedOutline, java.awt.Rectangle bounds) {
+        this(kind, outline, fillColor, strokeColor, stroke, strokedOutline, bounds, null);
+    }
+
+    /**
+     * Creates a snapshot of a shape that hides part of what is below it. The geometry passed in must not be
+     * modified afterwards.
+     *
+     * @param kind           The kind of geometry, one of {@link #CLOSED}, {@link #OPEN} and {@link #POLYLINE}.
+     * @param outline        The rotated outline of the shape.
+     * @param fillColor      The color the outline is filled with, or null if it is not filled.
+     * @param strokeColor    The color of the stroke.
+     * @param stroke         The stroke the outline is drawn with, or null if the stroked outline is given.
+     * @param strokedOutline The area covered by the stroke, or null if the outline is drawn with the stroke.
+     * @param bounds         The area the shape paints into.
+     * @param occluder       A rectangle the shape paints fully opaque, or null.
+     */
+    ShapeSnapshot(int kind, java.awt.Shape outline, Color fillColor, Color strokeColor,
+                  BasicStroke stroke, java.awt.Shape strokedOutline, java.awt.Rectangle bounds, Rectangle2D occluder) {
+        this.kind = kind;
+        this.outline = outline;
+        this.outlineBounds = outline.getBounds2D();
+        this.fillColor = fillColor;
+        this.strokeColor = strokeColor;
+        this.stroke = stroke;
+        this.strokedOutline = strokedOutline;
+        this.bounds = bounds;
+        this.occluder = occluder;
+        this.image = null;
+        this.children = null;
+        this.tree = null;
+        this.offsetX = 0;
+        this.offsetY = 0;
+    }
+
+    /**
+     * Creates a snapshot of an image. The image must not be modified afterwards.
+     *
+     * @param image  The pixels of the image.
+     * @param frame  The area of the canvas the image is stretched over.
+     * @param bounds The area the shape paints into.
+     */
+    ShapeSnapshot(BufferedImage image, java.awt.Rectangle frame, java.awt.Rectangle bounds) {
+        this.kind = IMAGE;
+        this.outline = frame;
+        this.outlineBounds = frame.getBounds2D();
+        this.fillColor = null;
+        this.strokeColor = null;
+        this.stroke = null;
+        this.strokedOutline = null;
+        this.bounds = bounds;
+        this.occluder = null;
+        this.image = image;
+        this.children = null;
+        this.tree = null;
+        this.offsetX = 0;
+        this.offsetY = 0;
+    }
+
+    /**
+     * Creates a snapshot of a group. The children and the tree must not be modified afterwards.
+     *
+     * @param children The snapshots of the children in paint order, null for children that draw nothing.
+     * @param tree     The tree over the bounds of the children.
+     * @param offsetX  The offset of the children along the x-axis.
+     * @param offsetY  The offset of the children along the y-axis.
+     * @param frame    The area of the canvas the children cover, offset included.
+     * @param bounds   The area the group paints into.
+     */
+    ShapeSnapshot(List<ShapeSnapshot> children, BoundingVolumeTree tree, int offsetX, int offsetY,
+                  java.awt.Rectangle frame, java.awt.Rectangle bounds) {
+        this.kind = GROUP;
+        this.outline = frame;
+        this.outlineBounds = frame.getBounds2D();
+        this.fillColor = null;
+        this.strokeColor = null;
+        this.stroke = null;
+        this.strokedOutline = null;
+        this.bounds = bounds;
+        this.occluder = null;
+        this.image = null;
+        this.children = children;
+        this.tree = tree;
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+    }
+
+    /**
+     * Draws the snapshot using the provided Graphics2D context.
+     *
+     * @param g2D The Graphics2D context to use for drawing.
+     */
+    public void draw(Graphics2D g2D) {
+        if (image != null) {
+            drawImage(g2D);
+            return;
+        }
+        if (children != null) {
+            g2D.translate(offsetX, offsetY);
+            for (ShapeSnapshot child : children) {
+                if (child != null) {
+                    child.draw(g2D);
+                }
+            }
+            g2D.translate(-offsetX, -offsetY);
+            return;
+        }
+        if (fillColor != null) {
+            g2D.setPaint(fillColor);
+            g2D.fill(outline);
+        }
+        g2D.setPaint(strokeColor);
+        if (strokedOutline != null) {
+            g2D.fill(strokedOutline);
+        } else {
+            g2D.setStroke(stroke);
+            g2D.draw(outline);
+        }
+    }
+
+    /**
+     * Stretches the image over its frame, interpolating between the pixels so that it looks the same
+     * at scales other than the one it was rasterized at.
+     *
+     * @param g2D The Graphics2D context to use for drawing.
+     */
+    private void drawImage(Graphics2D g2D) {
+        Object interpolation = g2D.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+        g2D.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        java.awt.Rectangle frame = (java.awt.Rectangle) outline;
+        g2D.drawImage(image, frame.x, frame.y, frame.width, frame.height, null);
+        g2D.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation != null ? interpolation
+                : RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+    }
+
+    /**
+     * Gets the outline of the shape at the time the snapshot was taken.
+     *
+     * @return The rotated outline.
+     */
+    public java.awt.Shape getOutline() {
+        return outline;
+    }
+
+    /**
+     * Gets the area the shape paints into at the time the snapshot was taken.
+     *
+     * @return A copy of the damage bounds of the shape.
+     */
+    public java.awt.Rectangle getBounds() {
+        return new java.awt.Rectangle(bounds);
+    }
+
+    /**
+     * Gets a rectangle inside the shape that it paints fully opaque, so that shapes lying entirely
+     * within it are hidden and need not be drawn.
+     *
+     * @return The opaque rectangle in canvas coordinates, or null if the shape hides nothing.
+     */
+    public Rectangle2D getOccluder() {
+        return occluder;
+    }
+
+    /**
+     * Gets the kind of geometry of the snapshot.
+     *
+     * @return One of {@link #CLOSED}, {@link #OPEN}, {@link #POLYLINE}, {@link #IMAGE} and {@link #GROUP}.
+     */
+    public int getKind() {
+        return kind;
+    }
+
+    /**
+     * Gets the children of a group snapshot whose bounds overlap an area, rejecting whole subtrees of the
+     * group at once.
+     *
+     * @param area The area in the coordinates of the children, that is without the offset of the group.
+     * @return The snapshots of the children in paint order.
+     */
+    public List<ShapeSnapshot> getChildrenIn(java.awt.Rectangle area) {
+        int[] hits = tree.query(area);
+        List<ShapeSnapshot> found = new ArrayList<>(hits.length);
+        for (int i : hits) {
+            if (children.get(i) != null) {
+                found.add(children.get(i));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Gets the snapshots of all children of a group snapshot.
+     *
+     * @return The snapshots in paint order, null for children that draw nothing.
+     */
+    public List<ShapeSnapshot> getChildren() {
+        return children;
+    }
+
+    public int getOffsetX() { return offsetX; }
+    public int getOffsetY() { return offsetY; }
+
+    /**
+     * Gets the larger side of the box enclosing the outline.
+     *
+     * @return The size of the shape in canvas units, without the stroke.
+     */
+    public double getSize() {
+        return Math.max(outlineBounds.getWidth(), outlineBounds.getHeight());
+    }
+
+    /**
+     * Gets the color that represents the shape best when it is reduced to a single pixel.
+     *
+     * @return The fill color if the shape is filled, the stroke color otherwise.
+     */
+    public Color getDotColor() {
+        return fillColor != null ? fillColor : strokeColor;
+    }
+
+    /**
+     * Gets the center of the box enclosing the outline.
+     *
+     * @return The center of the shape.
+     */
+    public Point2D getCenter() {
+        return new Point2D.Double(outlineBounds.getCenterX(), outlineBounds.getCenterY());
+    }
+
+    /**
+     * Draws the box enclosing the outline instead of the outline itself, with the thinnest possible line.
+     *
+     * @param g2D The Graphics2D context to use for drawing.
+     */
+    public void drawBox(Graphics2D g2D) {
+        if (fillColor != null) {
+            g2D.setPaint(fillColor);
+            g2D.fill(outlineBounds);
+        }
+        g2D.setPaint(strokeColor);
+        g2D.setStroke(StyleRegistry.getStroke(0, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER));
+        g2D.draw(outlineBounds);
+    }
+
+    /**
+     * Draws a polyline with only the points that are at least a given distance from the previously kept one.
+     * The last point of every subpath is always kept, so the ends of a stroke do not move.
+     *
+     * @param g2D       The Graphics2D context to use for drawing.
+     * @param tolerance The smallest distance between kept points, in canvas units.
+     */
+    public void drawSimplified(Graphics2D g2D, double tolerance) {
+        g2D.setPaint(strokeColor);
+        g2D.setStroke(stroke);
+        g2D.draw(simplify(tolerance));
+    }
+
+    /**
+     * Checks whether the snapshot may be drawn together with other shapes of the same stroke and color as one
+     * path. This is only the case for unfilled outlines drawn with an opaque, solid stroke: they paint all their
+     * pixels in one color exactly once, so merging them changes neither the result nor the stacking order.
+     *
+     * @return true if the snapshot can be batched, false otherwise.
+     */
+    public boolean isBatchable() {
+        return fillColor == null && stroke != null && stroke.getDashArray() == null && strokeColor.getAlpha() == 255;
+    }
+
+    /**
+     * Gets the color of the stroke.
+     *
+     * @return The stroke color.
+     */
+    public Color getStrokeColor() {
+        return strokeColor;
+    }
+
+    /**
+     * Gets the color the outline is filled with.
+     *
+     * @return The fill color, or null if the shape is not filled.
+     */
+    public Color getFillColor() {
+        return fillColor;
+    }
+
+    /**
+     * Gets the area covered by the stroke of the outline.
+     *
+     * @return The stroked outline.
+     */
+    public java.awt.Shape getStrokeArea() {
+        return strokedOutline != null ? strokedOutline : stroke.createStrokedShape(outline);
+    }
+
+    /**
+     * Gets the stroke the outline is drawn with.
+     *
+     * @return The stroke, or null if the stroked outline is filled instead.
+     */
+    public BasicStroke getStroke() {
+        return stroke;
+    }
+
+    /**
+     * Adds the outline to a batch of outlines that are drawn with one call.
+     *
+     * @param batch The path collecting the outlines.
+     */
+    public void appendTo(Path2D batch) {
+        batch.append(outline, false);
+    }
+
+    /**
+     * Adds the polyline with only the points at least a given distance apart to a batch of outlines.
+     *
+     * @param batch     The path collecting the outlines.
+     * @param tolerance The smallest distance between kept points, in canvas units.
+     */
+    public void appendSimplifiedTo(Path2D batch, double tolerance) {
+        batch.append(simplify(tolerance), false);
+    }
+
+    /**
+     * Builds a polyline with only the points that are at least a given distance from the previously kept one,
+     * always keeping the last point of every subpath.
+     *
+     * @param tolerance The smallest distance between kept points, in canvas units.
+     * @return The simplified polyline.
+     */
+    private Path2D.Float simplify(double tolerance) {
+        Path2D.Float simplified = new Path2D.Float();
+        double toleranceSquared = tolerance * tolerance;
+        float[] coordinates = new float[6];
+        float lastX = 0;
+        float lastY = 0;
+        boolean hasSkipped = false;
+        float skippedX = 0;
+        float skippedY = 0;
+        for (PathIterator iterator = outline.getPathIterator(null); !iterator.isDone(); iterator.next()) {
+            int type = iterator.currentSegment(coordinates);
+            if (type == PathIterator.SEG_MOVETO) {
+                if (hasSkipped) {
+                    simplified.lineTo(skippedX, skippedY);
+                    hasSkipped = false;
+                }
+                simplified.moveTo(coordinates[0], coordinates[1]);
+                lastX = coordinates[0];
+                lastY = coordinates[1];
+            } else if (type == PathIterator.SEG_LINETO) {
+                float dx = coordinates[0] - lastX;
+                float dy = coordinates[1] - lastY;
+                if (dx * dx + dy * dy >= toleranceSquared) {
+                    simplified.lineTo(coordinates[0], coordinates[1]);
+                    lastX = coordinates[0];
+                    lastY = coordinates[1];
+                    hasSkipped = false;
+                } else {
+                    hasSkipped = true;
+                    skippedX = coordinates[0];
+                    skippedY = coordinates[1];
+                }
+            }
+        }
+        if (hasSkipped) {
+            simplified.lineTo(skippedX, skippedY);
+        }
+        return simplified;
+    }
+}
@@ -1,9 +1,8 @@
 package model;
 
-import java.awt.Color;
 import java.awt.Graphics2D;
-import java.awt.BasicStroke;
-import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
 
 /**
  * Represents a Square shape that can be drawn on a canvas.
@@ -18,7 +17,7 @@ public class Square extends model.Shape{
 
     // Getters and setters for the side length
     public int getSide() {return this.side;}
-    public void setSide(int side) { this.side = side; }
+    public void setSide(int side) { this.side = side; invalidateGeometry(); }
 
 
     /**
@@ -31,6 +30,17 @@ public class Square extends model.Shape{
         }
     }
 
+    /**
+     * Returns the unrotated box the square is drawn into.
+     *
+     * @return The frame of the square.
+     */
+    @Override
+    protected java.awt.Rectangle getFrame() {
+        return new java.awt.Rectangle(Math.min(coordinateA.getX(), coordinateB.getX()),
+                Math.min(coordinateA.getY(), coordinateB.getY()), side, side);
+    }
+
     /**
      * Draws the square on the canvas using the provided Graphics2D context.
      * Handles both filled and non-filled drawing, as well as rotation and drawing a border if selected.
@@ -39,43 +49,25 @@ public class Square extends model.Shape{
      */
     @Override
     public void draw(Graphics2D g2D) {
-        // Save the original transformation
-        AffineTransform oldTransform = g2D.getTransform();
-
-        // Calculate rotation center, apply rotation transformation, and update vertex coordinates
-        int centerX = vertex[0].getX() + side / 2;
-        int centerY = vertex[0].getY() + side / 2;
-        g2D.rotate(Math.toRadians(rotationAngle), centerX, centerY);
-
-        vertex[0].setX(Math.min(coordinateA.getX(), coordinateB.getX()));
-        vertex[0].setY(Math.min(coordinateA.getY(), coordinateB.getY()));
-        vertex[1].setX(vertex[0].getX() + side);
-        vertex[1].setY(vertex[0].getY());
-        vertex[2].setX(vertex[1].getX());
-        vertex[2].setY(vertex[1].getY() + side);
-        vertex[3].setX(vertex[0].getX());
-        vertex[3].setY(vertex[2].getY());
-
-
-        // Set stroke properties and draw the square
-        g2D.setStroke(new BasicStroke(strokeWidth,BasicStroke.CAP_ROUND,BasicStroke.JOIN_BEVEL));
-
-        if (isFilled) {
-            g2D.setPaint(fillColor);
-            g2D.fillRect(vertex[0].getX(), vertex[0].getY(), side, side);
-            g2D.setPaint(shapeColor);
-            g2D.drawRect(vertex[0].getX(), vertex[0].getY(), side, side);
-        } else {
-            g2D.setPaint(shapeColor);
-            g2D.drawRect(vertex[0].getX(), vertex[0].getY(), side, side);
-        }
+        drawOutline(g2D);
+    }
 
-        // Draw border if the square is selected
-        if (isSelected)
-            drawBorder(g2D);
+    /**
+     * Recomputes the vertices of the square from its coordinates and size.
+     */
+    @Override
+    protected void updateGeometry() {
+        updateVertexCoordinates();
+    }
 
-        // Restore the original transformation
-        g2D.setTransform(oldTransform);
+    /**
+     * Builds the outline of the square from its current position and size.
+     *
+     * @return The unrotated outline of the square.
+     */
+    @Override
+    protected java.awt.Shape createOutline() {
+        return new Rectangle2D.Float(vertex[0].getX(), vertex[0].getY(), side, side);
     }
 
     /**
@@ -86,6 +78,7 @@ public class Square extends model.Shape{
      */
     @Override
     public boolean isClickPointInShape(Point point) {
+        validateGeometry();
 
         return vertex[0].getX() < point.getX() && point.getX() < vertex[1].getX()
                 && vertex[0].getY() < point.getY() && point.getY() < vertex[3].getY();
@@ -99,10 +92,7 @@ public class Square extends model.Shape{
      */
     @Override
     public void drawBorder(Graphics2D g2D) {
-        g2D.setPaint(Color.LIGHT_GRAY);
-        g2D.setStroke(new BasicStroke(3, BasicStroke.CAP_ROUND, BasicStroke.JOIN_BEVEL,
-                10, new float[]{10, 10}, 0));
-        g2D.drawRect(vertex[0].getX(), vertex[0].getY(), side, side);
+        drawCachedBorder(g2D);
     }
 
     /**
@@ -127,6 +117,7 @@ public class Square extends model.Shape{
         setSide(newSide);
 
         updateVertexCoordinates();
+        invalidateGeometry();
     }
 
     /**
@@ -151,6 +142,30 @@ public class Square extends model.Shape{
      */
     @Override
     public void rotate(int angle) {
-        this.rotationAngle = angle;
+        setRotationAngle(angle);
+    }
+
+    /**
+     * Captures the geometry of the square including its size.
+     *
+     * @return The coordinates, rotation and size of the square.
+     */
+    @Override
+    public int[] saveGeometry() {
+        int[] geometry = Arrays.copyOf(super.saveGeometry(), GEOMETRY_SIZE + 1);
+        geometry[GEOMETRY_SIZE] = side;
+        return geometry;
+    }
+
+    /**
+     * Restores geometry captured by {@link #saveGeometry()}.
+     *
+     * @param geometry The coordinates, rotation and size of the square.
+     */
+    @Override
+    public void restoreGeometry(int[] geometry) {
+        super.restoreGeometry(geometry);
+        side = geometry[GEOMETRY_SIZE];
+        updateVertexCoordinates();
     }
 }
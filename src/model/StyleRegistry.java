@@ -0,0 +1,112 @@
+package model;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The `StyleRegistry` class interns the immutable stroke and color objects used to draw shapes,
+ * so that shapes with the same style share one instance and drawing does not allocate.
+ */
+public final class StyleRegistry {
+    // Upper bound on the number of interned values, in case styles come from unbounded input
+    private static final int MAX_ENTRIES = 4096;
+
+    private static final Map<Long, BasicStroke> strokes = new ConcurrentHashMap<>();
+    private static final Map<Integer, Color> colors = new ConcurrentHashMap<>();
+
+    /**
+     * The dashed stroke of the border drawn around selected shapes.
+     */
+    public static final BasicStroke BORDER_STROKE = new BasicStroke(Shape.BORDER_STROKE_WIDTH,
+            BasicStroke.CAP_ROUND, BasicStroke.JOIN_BEVEL, 10, new float[]{10, 10}, 0);
+
+    /**
+     * A fully transparent color.
+     */
+    public static final Color TRANSPARENT = getColor(0, 0, 0, 0);
+
+    private StyleRegistry() {}
+
+    /**
+     * Gets the shared solid stroke for a width and cap and join style.
+     *
+     * @param width The line width of the stroke.
+     * @param cap   The cap style, one of the {@code BasicStroke.CAP_*} constants.
+     * @param join  The join style, one of the {@code BasicStroke.JOIN_*} constants.
+     * @return The shared stroke.
+     */
+    public static BasicStroke getStroke(float width, int cap, int join) {
+        long key = ((long) Float.floatToIntBits(width) << 32) | ((long) cap << 8) | join;
+        BasicStroke stroke = strokes.get(key);
+        if (stroke == null) {
+            stroke = new BasicStroke(width, cap, join);
+            if (strokes.size() < MAX_ENTRIES) {
+                BasicStroke existing = strokes.putIfAbsent(key, stroke);
+                if (existing != null) {
+                    stroke = existing;
+                }
+            }
+        }
+        return stroke;
+    }
+
+    /**
+     * Gets the shared color for the given components.
+     *
+     * @param red   The red component, 0-255.
+     * @param green The green component, 0-255.
+     * @param blue  The blue component, 0-255.
+     * @param alpha The alpha component, 0-255.
+     * @return The shared color.
+     */
+    public static Color getColor(int red, int green, int blue, int alpha) {
+        if (((red | green | blue | alpha) & ~0xFF) != 0) {
+            throw new IllegalArgumentException("Color component outside of range 0-255");
+        }
+        return getColor((alpha << 24) | (red << 16) | (green << 8) | blue);
+    }
+
+    /**
+     * Gets the shared color for the given components with full opacity.
+     *
+     * @param red   The red component, 0-255.
+     * @param green The green component, 0-255.
+     * @param blue  The blue component, 0-255.
+     * @return The shared color.
+     */
+    public static Color getColor(int red, int green, int blue) {
+        return getColor(red, green, blue, 255);
+    }
+
+    /**
+     * Gets the shared color equal to a given color.
+     *
+     * @param color The color to intern.
+     * @return The shared color.
+     */
+    public static Color getColor(Color color) {
+        return color == null ? null : getColor(color.getRGB());
+    }
+
+    /**
+     * Gets the shared color for a packed ARGB value.
+     *
+     * @param argb The color as alpha, red, green and blue packed into an int.
+     * @return The shared color.
+     */
+    private static Color getColor(int argb) {
+        Color color = colors.get(argb);
+        if (color == null) {
+            color = new Color(argb, true);
+            if (colors.size() < MAX_ENTRIES) {
+                Color existing = colors.putIfAbsent(argb, color);
+                if (existing != null) {
+                    color = existing;
+                }
+            }
+        }
+        return color;
+    }
+}
@@ -1,10 +1,8 @@
 package model;
 
-import java.awt.Color;
 import java.awt.Graphics2D;
-import java.awt.BasicStroke;
-import java.awt.Polygon;
-import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.util.Arrays;
 
 /**
  * Represents a Triangle shape that can be drawn on a canvas.
@@ -41,10 +39,64 @@ public class Triangle extends model.Shape{
         c.setX(x);
         c.setY(y);
         shouldRecalculateC = false; // 设置 C 点后不再重新计算
+        invalidateGeometry();
     }
 
     public void setShouldRecalculateC(boolean b) {
         this.shouldRecalculateC = b;
+        invalidateGeometry();
+    }
+
+    /**
+     * Returns the x-coordinate of vertex C as it will be drawn.
+     * Vertex C mirrors vertex B around vertex A unless it has been set explicitly.
+     *
+     * @return The x-coordinate of vertex C.
+     */
+    private int getEffectiveCX() {
+        return shouldRecalculateC ? coordinateA.getX() - (coordinateB.getX() - coordinateA.getX()) : c.getX();
+    }
+
+    /**
+     * Returns the y-coordinate of vertex C as it will be drawn.
+     *
+     * @return The y-coordinate of vertex C.
+     */
+    private int getEffectiveCY() {
+        return shouldRecalculateC ? coordinateB.getY() : c.getY();
+    }
+
+    /**
+     * Returns the box enclosing all three vertices of the triangle.
+     *
+     * @return The frame of the triangle.
+     */
+    @Override
+    protected java.awt.Rectangle getFrame() {
+        java.awt.Rectangle frame = new java.awt.Rectangle(coordinateA.getX(), coordinateA.getY(), 0, 0);
+        frame.add(coordinateB.getX(), coordinateB.getY());
+        frame.add(getEffectiveCX(), getEffectiveCY());
+        return frame;
+    }
+
+    /**
+     * The triangle is rotated around its centroid.
+     *
+     * @return The x-coordinate of the centroid.
+     */
+    @Override
+    protected int getRotationCenterX() {
+        return (coordinateA.getX() + coordinateB.getX() + getEffectiveCX()) / 3;
+    }
+
+    /**
+     * The triangle is rotated around its centroid.
+     *
+     * @return The y-coordinate of the centroid.
+     */
+    @Override
+    protected int getRotationCenterY() {
+        return (coordinateA.getY() + coordinateB.getY() + getEffectiveCY()) / 3;
     }
 
     /**
@@ -55,56 +107,45 @@ public class Triangle extends model.Shape{
      */
     @Override
     public void draw(Graphics2D g2D) {
+        drawOutline(g2D);
+    }
 
-        // Save the original transformation
-        AffineTransform oldTransform = g2D.getTransform();
-
-        // Calculate rotation center, apply rotation transformation, and update vertex coordinates
-        int centerX = (coordinateA.getX() + coordinateB.getX() + c.getX()) / 3;
-        int centerY = (coordinateA.getY() + coordinateB.getY() + c.getY()) / 3;
-
-        g2D.rotate(Math.toRadians(rotationAngle), centerX, centerY);
-
+    /**
+     * Recomputes the vertices of the triangle from its coordinates and size.
+     */
+    @Override
+    protected void updateGeometry() {
         if (shouldRecalculateC) {
-            c.setX(coordinateA.getX() - (coordinateB.getX() - coordinateA.getX()));
-            c.setY(coordinateB.getY());
-        }
-
-        vertex[0].setX(Math.min(coordinateB.getX(), c.getX()));
-        vertex[0].setY(Math.min(coordinateA.getY(), coordinateB.getY()));
-        vertex[1].setX(Math.max(coordinateB.getX(), c.getX()));
-        vertex[1].setY(vertex[0].getY());
-        vertex[2].setX(vertex[1].getX());
-        vertex[2].setY(Math.max(coordinateA.getY(), coordinateB.getY()));
-        vertex[3].setX(vertex[0].getX());
-        vertex[3].setY(vertex[2].getY());
-
-
-        // Create a polygon to represent the triangle and set stroke properties
-        Polygon polygon = new Polygon();
-        polygon.addPoint(coordinateA.getX(), coordinateA.getY());
-        polygon.addPoint(coordinateB.getX(), coordinateB.getY());
-        polygon.addPoint(c.getX(), c.getY());
-
-        g2D.setStroke(new BasicStroke(strokeWidth, BasicStroke.CAP_ROUND, BasicStroke.JOIN_BEVEL));
-
-        // Draw the triangle (filled or non-filled)
-        if (isFilled) {
-            g2D.setPaint(fillColor);
-            g2D.fillPolygon(polygon);
-            g2D.setPaint(shapeColor);
-            g2D.drawPolygon(polygon);
-        } else {
-            g2D.setPaint(shapeColor);
-            g2D.drawPolygon(polygon);
+            c.setX(getEffectiveCX());
+            c.setY(getEffectiveCY());
         }
+        updateVertexCoordinates();
+    }
 
-        // Draw border if the triangle is selected
-        if (isSelected)
-            drawBorder(g2D);
+    /**
+     * Builds the closed outline through the three vertices of the triangle.
+     *
+     * @return The unrotated outline of the triangle.
+     */
+    @Override
+    protected java.awt.Shape createOutline() {
+        Path2D.Float outline = new Path2D.Float();
+        outline.moveTo(coordinateA.getX(), coordinateA.getY());
+        outline.lineTo(coordinateB.getX(), coordinateB.getY());
+        outline.lineTo(c.getX(), c.getY());
+        outline.closePath();
+        return outline;
+    }
 
-        // Restore the original transformation
-        g2D.setTransform(oldTransform);
+    /**
+     * The selection border is the box spanned by the vertices of the triangle.
+     *
+     * @return The unrotated selection border.
+     */
+    @Override
+    protected java.awt.Shape createBorder() {
+        return new java.awt.Rectangle(vertex[0].getX(), vertex[0].getY(),
+                vertex[1].getX() - vertex[0].getX(), vertex[3].getY() - vertex[0].getY());
     }
 
     /**
@@ -115,6 +156,7 @@ public class Triangle extends model.Shape{
      */
     @Override
     public boolean isClickPointInShape(Point point) {
+        validateGeometry();
         return vertex[0].getX() < point.getX() && point.getX() < vertex[1].getX()
                 && vertex[0].getY() < point.getY() && point.getY() < vertex[3].getY();
     }
@@ -127,12 +169,7 @@ public class Triangle extends model.Shape{
      */
     @Override
     public void drawBorder(Graphics2D g2D) {
-        g2D.setPaint(Color.LIGHT_GRAY);
-        g2D.setStroke(new BasicStroke(3, BasicStroke.CAP_ROUND, BasicStroke.JOIN_BEVEL,
-                10, new float[]{10, 10}, 0));
-        g2D.drawRect(vertex[0].getX(), vertex[0].getY(),
-                vertex[1].getX() - vertex[0].getX(), vertex[3].getY() - vertex[0].getY());
-
+        drawCachedBorder(g2D);
     }
 
     /**
@@ -153,6 +190,7 @@ public class Triangle extends model.Shape{
         c.setY(newBY);
 
         updateVertexCoordinates();
+        invalidateGeometry();
     }
 
     /**
@@ -177,7 +215,34 @@ public class Triangle extends model.Shape{
      */
     @Override
     public void rotate(int angle) {
+        setRotationAngle(angle);
+    }
+
+    /**
+     * Captures the geometry of the triangle including its size.
+     *
+     * @return The coordinates, rotation and size of the triangle.
+     */
+    @Override
+    public int[] saveGeometry() {
+        int[] geometry = Arrays.copyOf(super.saveGeometry(), GEOMETRY_SIZE + 3);
+        geometry[GEOMETRY_SIZE] = c.getX();
+        geometry[GEOMETRY_SIZE + 1] = c.getY();
+        geometry[GEOMETRY_SIZE + 2] = shouldRecalculateC ? 1 : 0;
+        return geometry;
+    }
 
-        this.rotationAngle = angle;
+    /**
+     * Restores geometry captured by {@link #saveGeometry()}.
+     *
+     * @param geometry The coordinates, rotation and size of the triangle.
+     */
+    @Override
+    public void restoreGeometry(int[] geometry) {
+        super.restoreGeometry(geometry);
+        c.setX(geometry[GEOMETRY_SIZE]);
+        c.setY(geometry[GEOMETRY_SIZE + 1]);
+        shouldRecalculateC = geometry[GEOMETRY_SIZE + 2] != 0;
+        updateVertexCoordinates();
     }
 }
@@ -5,7 +5,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import javax.json.Json;
+import javax.json.JsonObject;
+
 import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.awt.event.MouseMotionListener;
+import java.awt.image.BufferedImage;
 
 /**
  * Test class for CanvasPanelController.
@@ -52,4 +60,550 @@ public class CanvasPanelControllerTest {
         canvasController.setShapeColor(newColor);
         assertEquals(newColor, CanvasPanelController.getShapeColor(), "Shape color should be set to red");
     }
+
+    /**
+     * Tests that undoing a shape which is already cached in the committed layer removes it from the canvas.
+     */
+    @Test
+    public void testUndoRemovesCommittedShape() {
+        canvasController.setBackgroundColor(Color.WHITE);
+        canvasController.setSize(200, 200);
+        canvasController.drawShapesFromJson(Json.createArrayBuilder()
+                .add(createRectangleJson(10, 10, "red"))
+                .add(createRectangleJson(100, 100, "blue"))
+                .build());
+
+        BufferedImage image = paintCanvas();
+        assertEquals(Color.RED.getRGB(), image.getRGB(30, 30), "First rectangle should be painted");
+        assertEquals(Color.BLUE.getRGB(), image.getRGB(120, 120), "Second rectangle should be painted");
+
+        canvasController.undo();
+        canvasController.undo();
+        image = paintCanvas();
+        assertEquals(Color.WHITE.getRGB(), image.getRGB(30, 30), "First rectangle should be removed by undo");
+        assertEquals(Color.WHITE.getRGB(), image.getRGB(120, 120), "Second rectangle should be removed by undo");
+    }
+
+    /**
+     * Tests that shapes outside the clip are culled and counted instead of being drawn.
+     */
+    @Test
+    public void testShapesOutsideClipAreCulled() {
+        canvasController.setSize(200, 200);
+        canvasController.drawShapesFromJson(Json.createArrayBuilder()
+                .add(createRectangleJson(10, 10, "red"))
+                .add(createRectangleJson(120, 120, "blue"))
+                .add(createRectangleJson(500, 500, "green"))
+                .build());
+
+        BufferedImage image = new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2D = image.createGraphics();
+        g2D.setClip(0, 0, 80, 80);
+        canvasController.paint(g2D);
+        g2D.dispose();
+
+        assertEquals(1, canvasController.getLastDrawnCount(), "Only the shape inside the clip should be drawn");
+        assertEquals(2, canvasController.getLastCulledCount(), "The shapes outside the clip should be culled");
+    }
+
+    /**
+     * Tests that a shape hidden behind an opaque filled shape is culled and counted.
+     */
+    @Test
+    public void testHiddenShapesAreCulled() {
+        canvasController.setSize(200, 200);
+        canvasController.drawShapesFromJson(Json.createArrayBuilder()
+                .add(createRectangleJson(20, 20, "red"))
+                .add(createRectangleJson(0, 0, 150, "blue"))
+                .build());
+
+        BufferedImage image = paintCanvas();
+        assertEquals(1, canvasController.getLastDrawnCount(), "Only the covering shape should be drawn");
+        assertEquals(1, canvasController.getLastOccludedCount(), "The hidden shape should be counted");
+        assertEquals(1, canvasController.getLastCulledCount(), "The hidden shape should be culled");
+        assertEquals(Color.BLUE.getRGB(), image.getRGB(45, 45), "The covering shape should be visible");
+    }
+
+    /**
+     * Tests that shapes are painted through the zoom of the viewport.
+     */
+    @Test
+    public void testZoomedCanvasIsPainted() {
+        canvasController.setBackgroundColor(Color.WHITE);
+        canvasController.setSize(200, 200);
+        canvasController.drawShapesFromJson(Json.createArrayBuilder()
+                .add(createRectangleJson(10, 10, "red"))
+                .build());
+        canvasController.getViewport().zoomAt(2, 0, 0);
+
+        BufferedImage image = paintCanvas();
+        assertEquals(Color.RED.getRGB(), image.getRGB(100, 100), "The zoomed rectangle should cover (100, 100)");
+        assertEquals(Color.WHITE.getRGB(), image.getRGB(140, 140), "The zoomed rectangle should end at (120, 120)");
+    }
+
+    /**
+     * Tests that selecting and deselecting a shape keeps the rendered tiles, and that only the first edit
+     * of the selection and its deselection invalidate them.
+     */
+    @Test
+    public void testSelectionDoesNotInvalidateTiles() {
+        canvasController.setSize(200, 200);
+        canvasController.drawShapesFromJson(Json.createArrayBuilder()
+                .add(createRectangleJson(10, 10, "red"))
+                .build());
+        canvasController.setCurrentTool(ButtonController.Select);
+        paintCanvas();
+        TileCache tileCache = canvasController.getTileCache();
+        int generation = tileCache.getGeneration();
+
+        releaseMouse(30, 30);
+        paintCanvas();
+        assertEquals(generation, tileCache.getGeneration(), "Selecting a shape should keep the tiles");
+
+        canvasController.rotateSelectedShape(10);
+        int editedGeneration = tileCache.getGeneration();
+        assertNotEquals(generation, editedGeneration, "Editing the selection should take it out of the tiles");
+        canvasController.rotateSelectedShape(20);
+        assertEquals(editedGeneration, tileCache.getGeneration(), "Further edits should keep the tiles");
+
+        releaseMouse(190, 190);
+        assertNotEquals(editedGeneration, tileCache.getGeneration(), "Deselecting should put the shape back");
+    }
+
+    /**
+     * Tests that separate rotations and style changes of the same shape are undone one at a time.
+     */
+    @Test
+    public void testDiscreteEditsAreSeparateUndoSteps() {
+        canvasController.setSize(200, 200);
+        canvasController.drawShapesFromJson(Json.createArrayBuilder()
+                .add(createRectangleJson(10, 10, "red"))
+                .build());
+        canvasController.setCurrentTool(ButtonController.Select);
+        releaseMouse(30, 30);
+        model.Shape shape = canvasController.getActiveLayer().getScene().getShape(0);
+
+        canvasController.rotateSelectedShape(10);
+        int firstAngle = shape.getRotationAngle();
+        canvasController.rotateSelectedShape(20);
+        canvasController.setShapeColor(Color.GREEN);
+        canvasController.setShapeColor(Color.BLUE);
+        canvasController.setCurrentStroke(5);
+        canvasController.setCurrentStroke(9);
+
+        canvasController.undo();
+        assertEquals(5, shape.getStrokeWidth(), "Only the last stroke change should be undone");
+        canvasController.undo();
+        canvasController.undo();
+        assertEquals(Color.GREEN, shape.getShapeColor(), "Only the last color change should be undone");
+        canvasController.undo();
+        canvasController.undo();
+        assertEquals(firstAngle, shape.getRotationAngle(), "Only the last rotation should be undone");
+    }
+
+    /**
+     * Tests that all the values a slider passes through while it is dragged are undone in one step.
+     */
+    @Test
+    public void testSliderDragIsOneUndoStep() {
+        canvasController.setSize(200, 200);
+        canvasController.drawShapesFromJson(Json.createArrayBuilder()
+                .add(createRectangleJson(10, 10, "red"))
+                .build());
+        canvasController.setCurrentTool(ButtonController.Select);
+        releaseMouse(30, 30);
+        model.Shape shape = canvasController.getActiveLayer().getScene().getShape(0);
+        int angle = shape.getRotationAngle();
+        int stroke = shape.getStrokeWidth();
+
+        for (int i = 1; i <= 300; i++) {
+            canvasController.rotateSelectedShape(i, true);
+        }
+        canvasController.rotateSelectedShape(300, false);
+        int rotatedAngle = shape.getRotationAngle();
+        for (int i = 4; i <= 20; i++) {
+            canvasController.setCurrentStroke(i, true);
+        }
+        canvasController.setCurrentStroke(20, false);
+
+        canvasController.undo();
+        assertEquals(stroke, shape.getStrokeWidth(), "The whole stroke drag should be undone at once");
+        assertEquals(rotatedAngle, shape.getRotationAngle(), "The rotation drag should be a step of its own");
+        canvasController.undo();
+        assertEquals(angle, shape.getRotationAngle(), "The whole rotation drag should be undone at once");
+        canvasController.undo();
+        assertEquals(0, canvasController.getActiveLayer().getScene().getShapeCount(),
+                "The drags should not have pushed the drawing of the shape out of the history");
+    }
+
+    /**
+     * Tests that layers are composited in order with their visibility and opacity, and that editing
+     * one layer keeps the tiles of the others.
+     */
+    @Test
+    public void testLayersAreComposited() {
+        canvasController.setBackgroundColor(Color.WHITE);
+        canvasController.setSize(200, 200);
+        canvasController.drawShapesFromJson(Json.createArrayBuilder()
+                .add(createRectangleJson(10, 10, 100, "red"))
+                .build());
+        TileCache bottomTiles = canvasController.getTileCache();
+        paintCanvas();
+        int generation = bottomTiles.getGeneration();
+
+        canvasController.addLayer();
+        assertEquals(2, canvasController.getLayerCount());
+        assertEquals(1, canvasController.getActiveLayerIndex(), "The new layer should be active");
+        canvasController.drawShapesFromJson(Json.createArrayBuilder()
+                .add(createRectangleJson(60, 60, 100, "blue"))
+                .build());
+        BufferedImage image = paintCanvas();
+        assertEquals(generation, bottomTiles.getGeneration(), "Editing the top layer should keep the bottom tiles");
+        assertEquals(Color.RED.getRGB(), image.getRGB(30, 30));
+        assertEquals(Color.BLUE.getRGB(), image.getRGB(80, 80), "The top layer should cover the bottom layer");
+
+        canvasController.setLayerVisible(1, false);
+        image = paintCanvas();
+        assertEquals(Color.RED.getRGB(), image.getRGB(80, 80), "A hidden layer should not be drawn");
+        assertEquals(Color.WHITE.getRGB(), image.getRGB(140, 140));
+
+        canvasController.setLayerVisible(1, true);
+        canvasController.setLayerOpacity(1, 0.5f);
+        image = paintCanvas();
+        Color blended = new Color(image.getRGB(80, 80));
+        assertTrue(blended.getRed() > 100 && blended.getBlue() > 100, "A translucent layer should show the layer below");
+        assertEquals(generation, bottomTiles.getGeneration(), "Compositing changes should keep the tiles");
+    }
+
+    /**
+     * Tests that undoing and redoing an edit of one layer keeps the tiles of the other layer.
+     */
+    @Test
+    public void testUndoKeepsTilesOfOtherLayers() {
+        canvasController.setBackgroundColor(Color.WHITE);
+        canvasController.setSize(200, 200);
+        canvasController.drawShapesFromJson(Json.createArrayBuilder()
+                .add(createRectangleJson(10, 10, 100, "red"))
+                .build());
+        TileCache bottomTiles = canvasController.getTileCache();
+        canvasController.addLayer();
+        canvasController.drawShapesFromJson(Json.createArrayBuilder()
+                .add(createRectangleJson(60, 60, 100, "blue"))
+                .build());
+        TileCache topTiles = canvasController.getTileCache();
+        paintCanvas();
+        int bottomGeneration = bottomTiles.getGeneration();
+
+        canvasController.undo();
+        BufferedImage image = paintCanvas();
+        assertEquals(bottomGeneration, bottomTiles.getGeneration(), "Undoing on the top layer should keep the bottom tiles");
+        assertEquals(Color.RED.getRGB(), image.getRGB(80, 80), "The undone shape should be gone");
+
+        canvasController.redo();
+        image = paintCanvas();
+        assertEquals(bottomGeneration, bottomTiles.getGeneration(), "Redoing on the top layer should keep the bottom tiles");
+        assertEquals(Color.BLUE.getRGB(), image.getRGB(80, 80), "The redone shape should be back");
+
+        canvasController.undo();
+        int topGeneration = topTiles.getGeneration();
+        canvasController.undo();
+        image = paintCanvas();
+        assertEquals(topGeneration, topTiles.getGeneration(), "Undoing on the bottom layer should keep the top tiles");
+        assertEquals(Color.WHITE.getRGB(), image.getRGB(30, 30), "The undone shape of the inactive layer should be gone");
+    }
+
+    /**
+     * Tests that the tiles of all visible layers stay cached together, even when they are more than the
+     * pool holds by default, so that no layer keeps being painted live.
+     */
+    @Test
+    public void testVisibleTilesOfAllLayersStayCached() throws InterruptedException {
+        canvasController.setSize(2048, 1536);
+        for (int i = 0; i < 5; i++) {
+            if (i > 0) {
+                canvasController.addLayer();
+            }
+            canvasController.drawShapesFromJson(Json.createArrayBuilder()
+                    .add(createRectangleJson(100 * i, 100 * i, 1000, "red"))
+                    .build());
+        }
+        // 8 x 6 tiles of each of the 5 layers are on screen, more than the 192 the pool holds by default.
+        int shownTiles = 8 * 6;
+        long deadline = System.currentTimeMillis() + 20000;
+        while (!allTilesCached(shownTiles) && System.currentTimeMillis() < deadline) {
+            paintCanvas();
+            Thread.sleep(10);
+        }
+        for (int i = 0; i < canvasController.getLayerCount(); i++) {
+            assertEquals(shownTiles, canvasController.getLayer(i).getTiles().size(), "All tiles on screen should be cached");
+        }
+        paintCanvas();
+        assertEquals(0, canvasController.getLastDrawnCount(), "Nothing should be painted live once the tiles are cached");
+    }
+
+    /**
+     * Checks whether every layer has a given number of cached tiles.
+     *
+     * @param count The number of tiles.
+     * @return true if all layers have that many tiles, false otherwise.
+     */
+    private boolean allTilesCached(int count) {
+        for (int i = 0; i < canvasController.getLayerCount(); i++) {
+            if (canvasController.getLayer(i).getTiles().size() != count) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tests that shapes on a locked or hidden layer cannot be selected.
+     */
+    @Test
+    public void testLockedLayerIsNotEditable() {
+        canvasController.setSize(200, 200);
+        canvasController.drawShapesFromJson(Json.createArrayBuilder()
+                .add(createRectangleJson(10, 10, "red"))
+                .build());
+        canvasController.setCurrentTool(ButtonController.Select);
+
+        canvasController.setLayerLocked(0, true);
+        releaseMouse(30, 30);
+        assertEquals("No shape selected", canvasController.getSelectedShapeJson(), "A locked layer should not be selectable");
+
+        canvasController.setLayerLocked(0, false);
+        releaseMouse(30, 30);
+        assertNotEquals("No shape selected", canvasController.getSelectedShapeJson());
+
+        canvasController.setLayerVisible(0, false);
+        assertEquals("No shape selected", canvasController.getSelectedShapeJson(), "Hiding the layer should deselect");
+    }
+
+    /**
+     * Tests that a shape being edited stays below the shapes above it instead of being drawn on top.
+     */
+    @Test
+    public void testLiftedShapeKeepsStackingOrder() {
+        canvasController.setBackgroundColor(Color.WHITE);
+        canvasController.setSize(200, 200);
+        canvasController.drawShapesFromJson(Json.createArrayBuilder()
+                .add(createRectangleJson(10, 10, 100, "red"))
+                .add(createRectangleJson(60, 60, 100, "blue"))
+                .build());
+        canvasController.setCurrentTool(ButtonController.Select);
+        releaseMouse(30, 30);
+        canvasController.setCurrentStroke(5);
+
+        BufferedImage image = paintCanvas();
+        assertEquals(Color.RED.getRGB(), image.getRGB(30, 30), "The edited shape should be drawn");
+        assertEquals(Color.BLUE.getRGB(), image.getRGB(100, 100), "The shape above should still cover the edited shape");
+        assertEquals(Color.BLUE.getRGB(), image.getRGB(150, 150));
+
+        releaseMouse(190, 190);
+        image = paintCanvas();
+        assertEquals(Color.BLUE.getRGB(), image.getRGB(100, 100), "The deselected shape should stay below");
+    }
+
+    /**
+     * Tests that a shape clipped by the eraser stays below the shapes that covered it, also after undo.
+     */
+    @Test
+    public void testErasingKeepsStackingOrder() {
+        canvasController.setBackgroundColor(Color.WHITE);
+        canvasController.setSize(200, 200);
+        canvasController.drawShapesFromJson(Json.createArrayBuilder()
+                .add(createRectangleJson(10, 10, 100, "red"))
+                .add(createRectangleJson(60, 60, 100, "blue"))
+                .build());
+        canvasController.setCurrentTool(ButtonController.Eraser);
+        canvasController.setCurrentStroke(10);
+        canvasController.prepareNewShape();
+
+        pressMouse(15, 15);
+        dragMouse(25, 15);
+        releaseMouse(25, 15);
+        assertInstanceOf(model.ClippedShape.class, canvasController.getActiveLayer().getScene().getShape(0),
+                "The corner of the red rectangle should be erased");
+        BufferedImage image = paintCanvas();
+        assertEquals(Color.WHITE.getRGB(), image.getRGB(15, 15), "The erased corner should be gone");
+        assertEquals(Color.BLUE.getRGB(), image.getRGB(80, 80), "The clipped shape should stay below");
+
+        canvasController.undo();
+        image = paintCanvas();
+        assertEquals(Color.RED.getRGB(), image.getRGB(15, 15), "Undo should restore the corner");
+        assertEquals(Color.BLUE.getRGB(), image.getRGB(80, 80), "The restored shape should stay below");
+    }
+
+    /**
+     * Tests that baking a layer keeps the picture and can be undone.
+     */
+    @Test
+    public void testBakeActiveLayer() {
+        canvasController.setBackgroundColor(Color.WHITE);
+        canvasController.setSize(200, 200);
+        canvasController.drawShapesFromJson(Json.createArrayBuilder()
+                .add(createRectangleJson(10, 10, "red"))
+                .add(createRectangleJson(100, 100, "blue"))
+                .build());
+
+        canvasController.bakeActiveLayer();
+        assertEquals(1, canvasController.getActiveLayer().getScene().getShapeCount(), "The layer should be one image");
+        BufferedImage image = paintCanvas();
+        assertEquals(Color.RED.getRGB(), image.getRGB(30, 30), "The baked layer should look the same");
+        assertEquals(Color.BLUE.getRGB(), image.getRGB(120, 120));
+
+        canvasController.undo();
+        assertEquals(2, canvasController.getActiveLayer().getScene().getShapeCount(), "Undo should restore the shapes");
+    }
+
+    /**
+     * Tests that automatically baking the old strokes at the bottom keeps newer shapes above the image.
+     */
+    @Test
+    public void testAutoBakeKeepsNewerShapesOnTop() throws InterruptedException {
+        canvasController.setBackgroundColor(Color.WHITE);
+        canvasController.setSize(200, 200);
+        canvasController.setShapeColor(Color.RED);
+        canvasController.setCurrentTool(ButtonController.Curve);
+        canvasController.setCurrentStroke(20);
+        canvasController.prepareNewShape();
+        pressMouse(20, 50);
+        dragMouse(180, 50);
+        releaseMouse(180, 50);
+        canvasController.drawShapesFromJson(Json.createArrayBuilder()
+                .add(createRectangleJson(60, 30, 40, "blue"))
+                .build());
+        Thread.sleep(5);
+
+        canvasController.setAutoBake(0, 1);
+        pressMouse(20, 150);
+        dragMouse(180, 150);
+        releaseMouse(180, 150);
+        GraphicController scene = canvasController.getActiveLayer().getScene();
+        assertInstanceOf(model.ImageShape.class, scene.getShape(0), "The old stroke should be baked");
+        BufferedImage image = paintCanvas();
+        assertEquals(Color.RED.getRGB(), image.getRGB(30, 50), "The baked stroke should still be drawn");
+        assertEquals(Color.BLUE.getRGB(), image.getRGB(80, 50), "The newer rectangle should stay above the image");
+    }
+
+    /**
+     * Tests that the shapes inside the rectangle dragged with the Group tool are grouped in place and that
+     * undo takes the group apart.
+     */
+    @Test
+    public void testGroupShapesInRectangle() {
+        canvasController.setBackgroundColor(Color.WHITE);
+        canvasController.setSize(200, 200);
+        canvasController.drawShapesFromJson(Json.createArrayBuilder()
+                .add(createRectangleJson(10, 10, "red"))
+                .add(createRectangleJson(100, 100, "blue"))
+                .add(createRectangleJson(140, 10, "red"))
+                .build());
+        canvasController.setCurrentTool(ButtonController.Group);
+
+        pressMouse(165, 165);
+        dragMouse(5, 5);
+        releaseMouse(5, 5);
+        GraphicController scene = canvasController.getActiveLayer().getScene();
+        assertEquals(2, scene.getShapeCount(), "Only the two shapes inside the rectangle should be grouped");
+        assertInstanceOf(model.GroupShape.class, scene.getShape(0));
+        BufferedImage image = paintCanvas();
+        assertEquals(Color.RED.getRGB(), image.getRGB(30, 30), "The group should look like its children");
+        assertEquals(Color.BLUE.getRGB(), image.getRGB(120, 120));
+
+        canvasController.undo();
+        assertEquals(3, scene.getShapeCount(), "Undo should take the group apart");
+        assertFalse(canvasController.ungroupSelectedShape(), "Nothing is selected");
+    }
+
+    /**
+     * Sends a press of the left mouse button to the canvas.
+     *
+     * @param x The x-coordinate of the mouse.
+     * @param y The y-coordinate of the mouse.
+     */
+    private void pressMouse(int x, int y) {
+        MouseEvent press = new MouseEvent(canvasController, MouseEvent.MOUSE_PRESSED, 0, MouseEvent.BUTTON1_DOWN_MASK,
+                x, y, 1, false, MouseEvent.BUTTON1);
+        for (MouseListener listener : canvasController.getMouseListeners()) {
+            listener.mousePressed(press);
+        }
+    }
+
+    /**
+     * Sends a drag with the left mouse button to the canvas.
+     *
+     * @param x The x-coordinate of the mouse.
+     * @param y The y-coordinate of the mouse.
+     */
+    private void dragMouse(int x, int y) {
+        MouseEvent drag = new MouseEvent(canvasController, MouseEvent.MOUSE_DRAGGED, 0, MouseEvent.BUTTON1_DOWN_MASK,
+                x, y, 0, false, MouseEvent.BUTTON1);
+        for (MouseMotionListener listener : canvasController.getMouseMotionListeners()) {
+            listener.mouseDragged(drag);
+        }
+    }
+
+    /**
+     * Sends a release of the left mouse button to the canvas.
+     *
+     * @param x The x-coordinate of the mouse.
+     * @param y The y-coordinate of the mouse.
+     */
+    private void releaseMouse(int x, int y) {
+        MouseEvent release = new MouseEvent(canvasController, MouseEvent.MOUSE_RELEASED, 0, 0, x, y, 1, false,
+                MouseEvent.BUTTON1);
+        for (MouseListener listener : canvasController.getMouseListeners()) {
+            listener.mouseReleased(release);
+        }
+    }
+
+    /**
+     * Paints the canvas into an image, the same way the canvas is exported.
+     *
+     * @return The painted image.
+     */
+    private BufferedImage paintCanvas() {
+        BufferedImage image = new BufferedImage(canvasController.getWidth(), canvasController.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2D = image.createGraphics();
+        canvasController.paint(g2D);
+        g2D.dispose();
+        return image;
+    }
+
+    /**
+     * Creates the JSON description of a filled 50x50 rectangle.
+     *
+     * @param x     The x-coordinate of the rectangle.
+     * @param y     The y-coordinate of the rectangle.
+     * @param color The fill and border color of the rectangle.
+     * @return The JSON description of the rectangle.
+     */
+    private JsonObject createRectangleJson(int x, int y, String color) {
+        return createRectangleJson(x, y, 50, color);
+    }
+
+    /**
+     * Creates the JSON description of a filled square rectangle.
+     *
+     * @param x     The x-coordinate of the rectangle.
+     * @param y     The y-coordinate of the rectangle.
+     * @param size  The width and height of the rectangle.
+     * @param color The fill and border color of the rectangle.
+     * @return The JSON description of the rectangle.
+     */
+    private JsonObject createRectangleJson(int x, int y, int size, String color) {
+        return Json.createObjectBuilder()
+                .add("type", "rectangle")
+                .add("x", x)
+                .add("y", y)
+                .add("properties", Json.createObjectBuilder()
+                        .add("width", size)
+                        .add("height", size)
+                        .add("rotation", 0)
+                        .add("borderColor", color)
+                        .add("borderWidth", 1)
+                        .add("fillColor", color))
+                .build();
+    }
 }
@@ -0,0 +1,119 @@
+package test;
+
+import controller.AddShapesCommand;
+import controller.CommandHistory;
+import controller.GeometryCommand;
+import controller.GraphicController;
+import controller.TranslateCommand;
+import model.Rectangle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the CommandHistory.
+ * Contains unit tests to verify undo and redo of recorded edits, merging of drag steps
+ * and the limits of the history.
+ */
+public class CommandHistoryTest {
+
+    private CommandHistory history;
+    private GraphicController graphic;
+    private Rectangle rectangle;
+
+    /**
+     * Sets up a scene with one rectangle and an empty history before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        history = new CommandHistory();
+        graphic = new GraphicController();
+        rectangle = new Rectangle();
+        rectangle.setCoordinateA(10, 10);
+        rectangle.setCoordinateB(10, 10);
+        rectangle.setWidth(20);
+        rectangle.setHeight(20);
+        graphic.addShape(rectangle);
+    }
+
+    /**
+     * Tests that the moves of one drag are undone in a single step and can be redone.
+     */
+    @Test
+    public void testDragIsUndoneInOneStep() {
+        for (int i = 0; i < 5; i++) {
+            rectangle.translate(2, 3);
+            history.record(new TranslateCommand(graphic, rectangle, 2, 3));
+        }
+        history.endGesture();
+
+        assertTrue(history.undo(), "The drag should be undoable");
+        assertEquals(10, rectangle.getCoordinateA().getX(), "Undo should move the rectangle back");
+        assertEquals(10, rectangle.getCoordinateA().getY(), "Undo should move the rectangle back");
+        assertFalse(history.canUndo(), "The whole drag should be a single step");
+
+        assertTrue(history.redo(), "The drag should be redoable");
+        assertEquals(20, rectangle.getCoordinateA().getX(), "Redo should move the rectangle again");
+        assertEquals(25, rectangle.getCoordinateA().getY(), "Redo should move the rectangle again");
+    }
+
+    /**
+     * Tests that a resize is undone by restoring the old size and that a new edit discards redo.
+     */
+    @Test
+    public void testResizeUndoAndRedoDiscarded() {
+        int[] oldGeometry = rectangle.saveGeometry();
+        rectangle.resize(15, 5);
+        history.record(new GeometryCommand(graphic, rectangle, oldGeometry));
+        history.endGesture();
+
+        history.undo();
+        assertEquals(20, rectangle.getWidth(), "Undo should restore the width");
+        assertEquals(20, rectangle.getHeight(), "Undo should restore the height");
+
+        rectangle.translate(1, 1);
+        history.record(new TranslateCommand(graphic, rectangle, 1, 1));
+        assertFalse(history.canRedo(), "A new edit should discard the undone resize");
+    }
+
+    /**
+     * Tests that undoing an added shape removes it from the scene and that the depth limit is kept.
+     */
+    @Test
+    public void testAddUndoAndDepthLimit() {
+        history.setLimits(2, CommandHistory.DEFAULT_MEMORY_BUDGET);
+        for (int i = 0; i < 3; i++) {
+            Rectangle added = new Rectangle();
+            graphic.addShape(added);
+            history.record(new AddShapesCommand(graphic, added));
+            history.endGesture();
+        }
+
+        assertTrue(history.undo(), "The last add should be undoable");
+        assertEquals(3, graphic.getShapeCount(), "Undo should remove the added shape from the scene");
+        assertTrue(history.undo(), "The second add should be undoable");
+        assertFalse(history.undo(), "Only two steps should be kept");
+        assertEquals(2, graphic.getShapeCount(), "The oldest add should stay in the scene");
+    }
+
+    /**
+     * Tests that lowering the memory budget discards what could be redone before any undo step.
+     */
+    @Test
+    public void testRedoStepsAreTrimmedFirst() {
+        for (int i = 0; i < 3; i++) {
+            rectangle.translate(1, 1);
+            history.record(new TranslateCommand(graphic, rectangle, 1, 1));
+            history.endGesture();
+        }
+        history.undo();
+        history.undo();
+        long oneStep = history.getMemoryUsed() / 3;
+
+        history.setLimits(CommandHistory.DEFAULT_MAX_DEPTH, oneStep);
+        assertFalse(history.canRedo(), "The undone steps should be discarded to fit the budget");
+        assertTrue(history.canUndo(), "The undo step should be kept as it fits the budget");
+        assertEquals(oneStep, history.getMemoryUsed());
+    }
+}
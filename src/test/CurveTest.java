@@ -56,4 +56,22 @@ public class CurveTest {
     public void testIsClickPointInShape() {
         assertFalse(curve.isClickPointInShape(new Point(5, 5)), "isClickPointInShape should always return false");
     }
+
+    /**
+     * Tests that the points of a stroke are collected in a single curve and that its bounds cover them.
+     */
+    @Test
+    public void testAddPointBuildsSingleStroke() {
+        curve.addPoint(10, 20);
+        curve.addPoint(10, 20);
+        curve.addPoint(50, 60);
+        curve.addPoint(30, 5);
+
+        assertEquals(3, curve.getPointCount(), "Consecutive duplicate points should be ignored");
+        assertEquals(50, curve.getPointX(1), "X coordinate of the second point should be 50");
+        assertEquals(5, curve.getPointY(2), "Y coordinate of the third point should be 5");
+        assertEquals(10, curve.getCoordinateA().getX(), "Point A should be the first point of the stroke");
+        assertEquals(30, curve.getCoordinateB().getX(), "Point B should be the last point of the stroke");
+        assertTrue(curve.getBounds().contains(new java.awt.Rectangle(10, 5, 40, 55)), "Bounds should cover every point");
+    }
 }
@@ -0,0 +1,175 @@
+package test;
+
+import controller.DetailRenderer;
+import model.Circle;
+import model.Curve;
+import model.Rectangle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the DetailRenderer.
+ * Contains unit tests to verify that shapes are drawn as pixels, boxes or in full detail
+ * depending on their size on screen.
+ */
+public class DetailRendererTest {
+
+    private BufferedImage image;
+    private Graphics2D g2D;
+
+    /**
+     * Sets up an empty image to draw on before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+        g2D = image.createGraphics();
+    }
+
+    /**
+     * Tests that many sub-pixel shapes on the same pixel are drawn as a single pixel.
+     */
+    @Test
+    public void testSubPixelShapesAreMerged() {
+        DetailRenderer detail = new DetailRenderer(g2D, 1.0);
+        for (int i = 0; i < 1000; i++) {
+            Rectangle rectangle = new Rectangle();
+            rectangle.setCoordinateA(10, 10);
+            rectangle.setCoordinateB(10, 10);
+            rectangle.setWidth(1);
+            rectangle.setHeight(1);
+            detail.draw(rectangle.snapshot());
+        }
+
+        assertEquals(1, detail.getDotCount(), "Only one pixel should be drawn");
+        assertEquals(999, detail.getMergedCount(), "The other shapes should be merged into it");
+        assertEquals(Color.BLACK.getRGB(), image.getRGB(10, 10), "The pixel should have the stroke color");
+    }
+
+    /**
+     * Tests that a pixel covered by a larger shape is drawn again by a dot of its former color.
+     */
+    @Test
+    public void testDotAboveCoveringShapeIsDrawn() {
+        DetailRenderer detail = new DetailRenderer(g2D, 1.0);
+        detail.draw(createDot(Color.BLUE).snapshot());
+        Rectangle cover = new Rectangle();
+        cover.setCoordinateA(0, 0);
+        cover.setCoordinateB(40, 40);
+        cover.setWidth(40);
+        cover.setHeight(40);
+        cover.setFilled(true);
+        cover.setFillColor(Color.RED);
+        cover.setShapeColor(Color.RED);
+        detail.draw(cover.snapshot());
+        detail.draw(createDot(Color.BLUE).snapshot());
+        detail.flush();
+
+        assertEquals(2, detail.getDotCount(), "The dot above the rectangle should be drawn");
+        assertEquals(Color.BLUE.getRGB(), image.getRGB(10, 10), "The top dot should cover the rectangle");
+    }
+
+    /**
+     * Tests that small circles are drawn as boxes and large ones in full detail.
+     */
+    @Test
+    public void testSmallClosedShapesBecomeBoxes() {
+        DetailRenderer detail = new DetailRenderer(g2D, 1.0);
+        detail.draw(createCircle(2).snapshot());
+        detail.draw(createCircle(20).snapshot());
+
+        assertEquals(1, detail.getBoxCount(), "The small circle should be drawn as a box");
+        assertEquals(1, detail.getDetailCount(), "The large circle should be drawn in full");
+
+        DetailRenderer zoomedOut = new DetailRenderer(g2D, 0.1);
+        zoomedOut.draw(createCircle(20).snapshot());
+        assertEquals(1, zoomedOut.getBoxCount(), "A circle becomes a box when zoomed out");
+    }
+
+    /**
+     * Tests that freehand strokes are drawn from a decimated point set that keeps their ends.
+     */
+    @Test
+    public void testFreehandStrokesAreDecimated() {
+        Curve curve = new Curve();
+        curve.setStrokeWidth(1);
+        for (int i = 0; i <= 80; i++) {
+            curve.addPoint(10 + i, 50 + (i % 2));
+        }
+        g2D.scale(0.5, 0.5);
+        DetailRenderer detail = new DetailRenderer(g2D, 0.5);
+        detail.draw(curve.snapshot());
+        detail.flush();
+
+        assertEquals(1, detail.getDetailCount(), "The stroke should be drawn as a polyline");
+        assertNotEquals(0, image.getRGB(44, 25), "The end of the stroke should be kept");
+    }
+
+    /**
+     * Tests that consecutive outlines with the same stroke are drawn with one call,
+     * and that a shape with another style in between keeps the stacking order.
+     */
+    @Test
+    public void testSameStyleOutlinesAreBatched() {
+        DetailRenderer detail = new DetailRenderer(g2D, 1.0);
+        for (int i = 0; i < 5; i++) {
+            Curve curve = new Curve();
+            curve.setStrokeWidth(1);
+            curve.addPoint(10, 10 + i * 10);
+            curve.addPoint(90, 10 + i * 10);
+            detail.draw(curve.snapshot());
+        }
+        Circle cover = createCircle(20);
+        cover.setFilled(true);
+        cover.setFillColor(Color.RED);
+        detail.draw(cover.snapshot());
+        Curve above = new Curve();
+        above.setStrokeWidth(1);
+        above.addPoint(10, 30);
+        above.addPoint(90, 30);
+        detail.draw(above.snapshot());
+        detail.flush();
+
+        assertEquals(6, detail.getBatchedCount(), "All unfilled strokes should be batched");
+        assertEquals(2, detail.getBatchCount(), "The filled circle should split the strokes into two batches");
+        assertEquals(Color.BLACK.getRGB(), image.getRGB(30, 10), "A batched stroke should be drawn");
+        assertEquals(Color.RED.getRGB(), image.getRGB(30, 20), "The circle should cover the strokes below it");
+        assertEquals(Color.BLACK.getRGB(), image.getRGB(30, 30), "The stroke above the circle should be drawn");
+    }
+
+    /**
+     * Creates a rectangle at (10, 10) small enough to be drawn as a single pixel.
+     *
+     * @param color The stroke color of the rectangle.
+     * @return The rectangle.
+     */
+    private Rectangle createDot(Color color) {
+        Rectangle rectangle = new Rectangle();
+        rectangle.setCoordinateA(10, 10);
+        rectangle.setCoordinateB(10, 10);
+        rectangle.setWidth(1);
+        rectangle.setHeight(1);
+        rectangle.setShapeColor(color);
+        return rectangle;
+    }
+
+    /**
+     * Creates a circle at (10, 10).
+     *
+     * @param radius The radius of the circle.
+     * @return The circle.
+     */
+    private Circle createCircle(int radius) {
+        Circle circle = new Circle();
+        circle.setCoordinateA(10, 10);
+        circle.setCoordinateB(10 + radius * 2, 10 + radius * 2);
+        circle.setRadius(radius);
+        return circle;
+    }
+}
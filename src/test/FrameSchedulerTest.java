@@ -0,0 +1,85 @@
+package test;
+
+import controller.FrameScheduler;
+import org.junit.jupiter.api.Test;
+import view.VectorDrawingApp;
+
+import javax.swing.JPanel;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the FrameScheduler.
+ * Contains unit tests to verify that input, repaints and status updates are coalesced into one frame.
+ */
+public class FrameSchedulerTest {
+
+    /**
+     * A panel that records the areas it is asked to repaint.
+     */
+    @SuppressWarnings("serial")
+    private static class RecordingPanel extends JPanel {
+        private final List<Rectangle> repaints = new ArrayList<>();
+
+        @Override
+        public void repaint(long time, int x, int y, int width, int height) {
+            if (repaints != null) {
+                repaints.add(new Rectangle(x, y, width, height));
+            }
+        }
+    }
+
+    /**
+     * Tests that only the latest posted work and status are applied and the damage is repainted once.
+     */
+    @Test
+    public void testFrameAppliesLatestInputOnce() {
+        RecordingPanel panel = new RecordingPanel();
+        List<String> statuses = new ArrayList<>();
+        List<Integer> applied = new ArrayList<>();
+        FrameScheduler scheduler = new FrameScheduler(panel, statuses::add, 1000);
+
+        for (int i = 0; i < 5; i++) {
+            int sample = i;
+            scheduler.post(() -> applied.add(sample));
+            scheduler.repaint(new Rectangle(i * 10, 0, 5, 5));
+            scheduler.setStatus("Mouse at " + i);
+        }
+        assertTrue(scheduler.isRunning(), "The scheduler should wait for the next frame");
+        assertTrue(panel.repaints.isEmpty(), "Nothing should be repainted before the frame");
+
+        scheduler.runFrame();
+        assertEquals(List.of(4), applied, "Only the latest drag should be applied");
+        assertEquals(List.of("Mouse at 4"), statuses, "Only the latest status should be shown");
+        assertEquals(List.of(new Rectangle(0, 0, 45, 5)), panel.repaints, "The damage should be repainted once");
+
+        scheduler.runFrame();
+        assertFalse(scheduler.isRunning(), "The scheduler should stop when there is nothing to do");
+    }
+
+    /**
+     * Tests that posted work can be applied before the next frame.
+     */
+    @Test
+    public void testFlushWork() {
+        List<Integer> applied = new ArrayList<>();
+        FrameScheduler scheduler = new FrameScheduler(new RecordingPanel(), status -> { }, 1000);
+        scheduler.post(() -> applied.add(1));
+        scheduler.flushWork();
+        scheduler.flushWork();
+        assertEquals(List.of(1), applied, "Flushed work should run exactly once");
+    }
+
+    /**
+     * Tests that a frame showing its status in the application window works without the window.
+     */
+    @Test
+    public void testStatusWithoutApplicationWindow() {
+        FrameScheduler scheduler = new FrameScheduler(new RecordingPanel(), VectorDrawingApp::setMouseStateTable, 1000);
+        scheduler.setStatus("Mouse at 1");
+        assertDoesNotThrow(scheduler::runFrame, "The status should be dropped while there is no window");
+    }
+}
@@ -0,0 +1,136 @@
+package test;
+
+import controller.GraphicController;
+import model.Rectangle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the GraphicController.
+ * Contains unit tests to verify that the paint order and the selection lookup of the scene stay in step.
+ */
+public class GraphicControllerTest {
+
+    private GraphicController graphic;
+
+    /**
+     * Sets up an empty scene before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        graphic = new GraphicController();
+    }
+
+    /**
+     * Creates a rectangle at the given position.
+     *
+     * @param x The x-coordinate of the rectangle.
+     * @param y The y-coordinate of the rectangle.
+     * @return The new rectangle.
+     */
+    private Rectangle createRectangle(int x, int y) {
+        Rectangle rectangle = new Rectangle();
+        rectangle.setCoordinateA(x, y);
+        rectangle.setCoordinateB(x, y);
+        rectangle.setWidth(20);
+        rectangle.setHeight(20);
+        return rectangle;
+    }
+
+    /**
+     * Tests that added shapes are kept in paint order and that a shape is only added once.
+     */
+    @Test
+    public void testAddShapeKeepsOrder() {
+        Rectangle bottom = createRectangle(10, 10);
+        Rectangle top = createRectangle(15, 15);
+        graphic.addShape(bottom);
+        graphic.addShape(top);
+        graphic.addShape(bottom);
+
+        assertEquals(2, graphic.getShapeCount(), "A shape should only be added once");
+        assertSame(bottom, graphic.getShape(0), "The first shape should be painted first");
+        assertSame(top, graphic.getShapesAt(20, 20).get(0), "The last shape should be found first");
+    }
+
+    /**
+     * Tests that removing the topmost shape also removes it from the selection lookup.
+     */
+    @Test
+    public void testRemoveLastShape() {
+        Rectangle bottom = createRectangle(10, 10);
+        Rectangle top = createRectangle(15, 15);
+        graphic.addShape(bottom);
+        graphic.addShape(top);
+
+        assertSame(top, graphic.removeLastShape(), "The topmost shape should be removed");
+        assertFalse(graphic.containsShape(top), "The removed shape should no longer be in the scene");
+        assertEquals(1, graphic.getShapesAt(20, 20).size(), "Only the remaining shape should be found");
+
+        graphic.clearShapes();
+        assertEquals(0, graphic.getShapeCount(), "The scene should be empty after clearing");
+        assertNull(graphic.removeLastShape(), "Removing from an empty scene should return null");
+    }
+
+    /**
+     * Tests that the selection lookup returns the shapes in the reverse of their paint order after
+     * every kind of change, and that a shape cannot be put into the scene twice.
+     */
+    @Test
+    public void testLookupFollowsPaintOrder() {
+        Rectangle[] rectangles = new Rectangle[6];
+        for (int i = 0; i < rectangles.length; i++) {
+            rectangles[i] = createRectangle(10 + i, 10 + i);
+        }
+        graphic.addShape(rectangles[0]);
+        graphic.addShape(rectangles[1]);
+        graphic.addShape(rectangles[2]);
+        assertLookupFollowsPaintOrder();
+
+        graphic.insertShape(0, rectangles[3]);
+        assertLookupFollowsPaintOrder();
+        graphic.insertShape(2, rectangles[4]);
+        assertLookupFollowsPaintOrder();
+        Rectangle removed = (Rectangle) graphic.removeShape(1);
+        assertLookupFollowsPaintOrder();
+        graphic.setShape(3, removed);
+        assertLookupFollowsPaintOrder();
+        graphic.insertShape(graphic.getShapeCount(), rectangles[5]);
+        assertLookupFollowsPaintOrder();
+        graphic.removeLastShape();
+        graphic.addShape(rectangles[1]);
+        assertLookupFollowsPaintOrder();
+        for (int i = 0; i < 40; i++) {
+            // Inserting at the same position again and again uses up the room between two neighbours
+            graphic.insertShape(1, graphic.removeShape(2));
+            assertLookupFollowsPaintOrder();
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> graphic.insertShape(0, graphic.getShape(2)),
+                "A shape should not be inserted twice");
+        assertThrows(IllegalArgumentException.class, () -> graphic.setShape(0, graphic.getShape(2)),
+                "A shape should not be put at a second position");
+        assertThrows(IllegalArgumentException.class, () -> graphic.insertShape(0, null));
+        graphic.setShape(0, graphic.getShape(0));
+        assertLookupFollowsPaintOrder();
+    }
+
+    /**
+     * Asserts that the selection lookup holds exactly the shapes of the scene, topmost first.
+     */
+    private void assertLookupFollowsPaintOrder() {
+        List<model.Shape> expected = new ArrayList<>();
+        for (int i = 0; i < graphic.getShapeCount(); i++) {
+            expected.add(graphic.getShape(i));
+        }
+        Collections.reverse(expected);
+        assertEquals(expected, graphic.getShapesIn(new java.awt.Rectangle(0, 0, 100, 100)),
+                "The lookup should return the shapes topmost first");
+    }
+}
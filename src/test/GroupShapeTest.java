@@ -0,0 +1,231 @@
+package test;
+
+import controller.GraphicController;
+import controller.GroupCommand;
+import controller.ShapeEraser;
+import model.GroupShape;
+import model.Point;
+import model.Rectangle;
+import model.ShapeSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the GroupShape.
+ * Contains unit tests to verify that groups are moved through their offset, that drawing and hit-testing
+ * only reach the children under the clip or the point, and that grouping and ungrouping can be undone.
+ */
+public class GroupShapeTest {
+
+    /**
+     * Creates a filled rectangle.
+     *
+     * @param x    The x-coordinate of the rectangle.
+     * @param y    The y-coordinate of the rectangle.
+     * @param size The width and height of the rectangle.
+     * @return The new rectangle.
+     */
+    private Rectangle createRectangle(int x, int y, int size) {
+        Rectangle rectangle = new Rectangle();
+        rectangle.setCoordinateA(x, y);
+        rectangle.setCoordinateB(x + size, y + size);
+        rectangle.setWidth(size);
+        rectangle.setHeight(size);
+        rectangle.setShapeColor(Color.RED);
+        rectangle.setFillColor(Color.RED);
+        rectangle.setFilled(true);
+        return rectangle;
+    }
+
+    /**
+     * Creates a row of small rectangles, ten canvas units apart.
+     *
+     * @param count The number of rectangles.
+     * @return The rectangles from left to right.
+     */
+    private Rectangle[] createRow(int count) {
+        Rectangle[] row = new Rectangle[count];
+        for (int i = 0; i < count; i++) {
+            row[i] = createRectangle(i * 10, 0, 5);
+        }
+        return row;
+    }
+
+    /**
+     * Tests that moving a group only changes its offset and frame, not its children.
+     */
+    @Test
+    public void testTranslateMovesOffsetOnly() {
+        Rectangle[] row = createRow(100);
+        GroupShape group = new GroupShape(row);
+        java.awt.Rectangle bounds = group.getBounds();
+
+        group.translate(20, 30);
+        assertEquals(20, group.getOffsetX());
+        assertEquals(30, group.getOffsetY());
+        assertEquals(0, row[0].getCoordinateA().getX(), "The children should stay where they were grouped");
+        bounds.translate(20, 30);
+        assertEquals(bounds, group.getBounds(), "The bounds should move with the group");
+    }
+
+    /**
+     * Tests that a click hits the group only on one of its moved children.
+     */
+    @Test
+    public void testClickHitsChildren() {
+        GroupShape group = new GroupShape(createRow(50));
+        group.translate(100, 100);
+
+        assertTrue(group.isClickPointInShape(new Point(102, 102)), "The first child should be hit");
+        assertTrue(group.isClickPointInShape(new Point(592, 102)), "The last child should be hit");
+        assertFalse(group.isClickPointInShape(new Point(107, 102)), "The gap between children should not be hit");
+        assertFalse(group.isClickPointInShape(new Point(2, 2)), "The children should not be hit where they were");
+    }
+
+    /**
+     * Tests that only the children overlapping an area are found.
+     */
+    @Test
+    public void testChildrenInArea() {
+        GroupShape group = new GroupShape(createRow(100));
+
+        assertArrayEquals(new int[] {50, 51}, group.getChildrenIn(new java.awt.Rectangle(503, 0, 10, 5)));
+        assertEquals(0, group.getChildrenIn(new java.awt.Rectangle(0, 100, 1000, 10)).length);
+    }
+
+    /**
+     * Tests that nested groups draw their children at the sum of the offsets, both directly and from a snapshot.
+     */
+    @Test
+    public void testNestedGroupsDraw() {
+        GroupShape inner = new GroupShape(createRectangle(0, 0, 10), createRectangle(20, 0, 10));
+        inner.translate(10, 0);
+        GroupShape outer = new GroupShape(inner, createRectangle(0, 40, 10));
+        outer.translate(0, 10);
+
+        BufferedImage image = new BufferedImage(60, 60, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2D = image.createGraphics();
+        outer.draw(g2D);
+        g2D.dispose();
+        assertEquals(Color.RED.getRGB(), image.getRGB(15, 15), "The inner group should be moved by both offsets");
+        assertEquals(0, image.getRGB(5, 5), "Nothing should be left where the inner group was");
+        assertEquals(Color.RED.getRGB(), image.getRGB(5, 55));
+
+        ShapeSnapshot snapshot = outer.snapshot();
+        assertEquals(ShapeSnapshot.GROUP, snapshot.getKind());
+        BufferedImage snapshotImage = new BufferedImage(60, 60, BufferedImage.TYPE_INT_ARGB);
+        g2D = snapshotImage.createGraphics();
+        snapshot.draw(g2D);
+        g2D.dispose();
+        assertEquals(Color.RED.getRGB(), snapshotImage.getRGB(35, 15));
+        assertEquals(image.getRGB(15, 15), snapshotImage.getRGB(15, 15), "The snapshot should look like the group");
+    }
+
+    /**
+     * Tests that grouping and ungrouping a moved group keep the paint order and can be undone.
+     */
+    @Test
+    public void testGroupAndUngroupCommands() {
+        GraphicController graphic = new GraphicController();
+        Rectangle[] shapes = createRow(4);
+        for (Rectangle shape : shapes) {
+            graphic.addShape(shape);
+        }
+
+        Rectangle[] members = {shapes[0], shapes[2]};
+        GroupShape group = new GroupShape(members);
+        GroupCommand grouping = new GroupCommand(graphic, new int[] {0, 2}, members, group, true);
+        grouping.redo();
+        assertEquals(3, graphic.getShapeCount());
+        assertSame(shapes[1], graphic.getShape(0));
+        assertSame(group, graphic.getShape(1), "The group should take the place of its topmost member");
+        assertSame(shapes[3], graphic.getShape(2));
+
+        group.translate(0, 100);
+        GroupCommand ungrouping = new GroupCommand(graphic, new int[] {1, 2}, group.getChildren(), group, false);
+        ungrouping.redo();
+        assertEquals(4, graphic.getShapeCount());
+        assertSame(shapes[0], graphic.getShape(1));
+        assertSame(shapes[2], graphic.getShape(2));
+        assertEquals(100, shapes[0].getCoordinateA().getY(), "The children should be moved by the offset");
+
+        ungrouping.undo();
+        assertSame(group, graphic.getShape(1));
+        assertEquals(0, shapes[0].getCoordinateA().getY(), "The children should be back at their grouped position");
+        group.translate(0, -100);
+        grouping.undo();
+        for (int i = 0; i < shapes.length; i++) {
+            assertSame(shapes[i], graphic.getShape(i), "Undo should restore the original order");
+        }
+    }
+
+    /**
+     * Tests that erasing a child of a moved group rebuilds the group without it.
+     */
+    @Test
+    public void testEraseChildOfGroup() {
+        GraphicController graphic = new GraphicController();
+        GroupShape group = new GroupShape(createRow(3));
+        group.translate(100, 0);
+        graphic.addShape(group);
+
+        assertNotNull(ShapeEraser.erase(graphic, new java.awt.Rectangle(105, -5, 15, 20)));
+        GroupShape remains = (GroupShape) graphic.getShape(0);
+        assertEquals(2, remains.getChildCount(), "The covered child should be removed");
+        assertEquals(100, remains.getOffsetX(), "The remains should keep the offset");
+        assertTrue(remains.isClickPointInShape(new Point(122, 2)));
+        assertNull(ShapeEraser.erase(graphic, new java.awt.Rectangle(0, 0, 20, 20)),
+                "The place the children were grouped at should not be erased");
+    }
+
+    /**
+     * Tests that overlapping shapes that are not grouped keep their place above and below the group in hit-testing,
+     * after grouping, ungrouping and undoing both.
+     */
+    @Test
+    public void testStackingIsKept() {
+        GraphicController graphic = new GraphicController();
+        Rectangle[] shapes = new Rectangle[5];
+        for (int i = 0; i < shapes.length; i++) {
+            shapes[i] = createRectangle(i, i, 20);
+            graphic.addShape(shapes[i]);
+        }
+        Rectangle[] members = {shapes[1], shapes[3]};
+        GroupShape group = new GroupShape(members);
+
+        GroupCommand grouping = new GroupCommand(graphic, new int[] {1, 3}, members, group, true);
+        grouping.redo();
+        assertStackedAsStored(graphic);
+        assertSame(shapes[4], graphic.getShapesAt(10, 10).get(0), "The shape above the members should stay on top");
+
+        GroupCommand ungrouping = new GroupCommand(graphic, new int[] {2, 3}, group.getChildren(), group, false);
+        ungrouping.redo();
+        assertStackedAsStored(graphic);
+        ungrouping.undo();
+        assertStackedAsStored(graphic);
+        grouping.undo();
+        assertStackedAsStored(graphic);
+        for (int i = 0; i < shapes.length; i++) {
+            assertSame(shapes[i], graphic.getShape(i), "Undo should restore the original order");
+        }
+    }
+
+    /**
+     * Checks that hit-testing returns the shapes in the reverse of their paint order.
+     *
+     * @param graphic The scene, whose shapes all overlap the point (10, 10).
+     */
+    private void assertStackedAsStored(GraphicController graphic) {
+        java.util.List<model.Shape> found = graphic.getShapesAt(10, 10);
+        assertEquals(graphic.getShapeCount(), found.size());
+        for (int i = 0; i < found.size(); i++) {
+            assertSame(graphic.getShape(graphic.getShapeCount() - 1 - i), found.get(i),
+                    "Hit-testing should follow the paint order");
+        }
+    }
+}
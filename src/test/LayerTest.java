@@ -0,0 +1,160 @@
+package test;
+
+import controller.Layer;
+import controller.SceneRenderer;
+import controller.TileCache;
+import model.Rectangle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the Layer.
+ * Contains unit tests to verify that a layer keeps its tiles in step with its shapes
+ * and tracks its compositing and editing state.
+ */
+public class LayerTest {
+
+    private SceneRenderer renderer;
+    private Layer layer;
+
+    /**
+     * Sets up an empty layer on a shared tile pool and renderer before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        renderer = new SceneRenderer(() -> {});
+        layer = new Layer("Layer 1", new TileCache.Pool(), renderer);
+    }
+
+    /**
+     * Stops the shared renderer after each test.
+     */
+    @AfterEach
+    public void tearDown() {
+        renderer.shutdown();
+    }
+
+    /**
+     * Creates a rectangle at the given position.
+     *
+     * @param x The x-coordinate of the rectangle.
+     * @param y The y-coordinate of the rectangle.
+     * @return The new rectangle.
+     */
+    private Rectangle createRectangle(int x, int y) {
+        Rectangle rectangle = new Rectangle();
+        rectangle.setCoordinateA(x, y);
+        rectangle.setCoordinateB(x + 20, y + 20);
+        rectangle.setWidth(20);
+        rectangle.setHeight(20);
+        return rectangle;
+    }
+
+    /**
+     * Tests that new shapes only invalidate the tiles once, and that removed shapes drop all tiles.
+     */
+    @Test
+    public void testSyncTiles() {
+        TileCache tiles = layer.getTiles();
+        layer.getScene().addShape(createRectangle(10, 10));
+        int generation = tiles.getGeneration();
+
+        layer.syncTiles();
+        assertNotEquals(generation, tiles.getGeneration(), "A new shape should invalidate its tiles");
+        generation = tiles.getGeneration();
+        layer.syncTiles();
+        assertEquals(generation, tiles.getGeneration(), "Nothing has changed since the last sync");
+
+        layer.getScene().removeLastShape();
+        layer.markSynced();
+        layer.syncTiles();
+        assertEquals(generation, tiles.getGeneration(), "Marked changes should not be invalidated again");
+    }
+
+    /**
+     * Tests that requested tiles are only reported as requested for the current generation.
+     */
+    @Test
+    public void testRequestedTiles() {
+        List<Long> keys = List.of(TileCache.key(0, 0, 0), TileCache.key(0, 1, 0));
+        assertFalse(layer.isRequested(keys));
+
+        layer.requestTiles(keys, List.of());
+        assertTrue(layer.isRequested(keys));
+        assertTrue(layer.isRequested(List.of(keys.get(0))));
+        assertFalse(layer.isRequested(List.of(TileCache.key(0, 2, 0))), "Other tiles are not requested");
+
+        layer.getTiles().clear();
+        assertFalse(layer.isRequested(keys), "A new generation needs new tiles");
+        layer.dispose();
+    }
+
+    /**
+     * Tests that a tile dropped from a shared pool to make room for another layer is requested and
+     * rendered again.
+     */
+    @Test
+    public void testEvictedTilesAreRenderedAgain() throws InterruptedException {
+        TileCache.Pool pool = new TileCache.Pool(3);
+        Layer shared = new Layer("Layer 2", pool, renderer);
+        long first = TileCache.key(0, 0, 0);
+        long second = TileCache.key(0, 1, 0);
+        List<Long> keys = List.of(first, second);
+        shared.requestTiles(keys, List.of());
+        awaitTile(shared, first);
+        awaitTile(shared, second);
+
+        TileCache other = new TileCache(pool);
+        java.awt.image.BufferedImage tile = new java.awt.image.BufferedImage(1, 1, java.awt.image.BufferedImage.TYPE_INT_ARGB);
+        other.put(TileCache.key(0, 0, 0), tile, other.getGeneration());
+        other.put(TileCache.key(0, 1, 0), tile, other.getGeneration());
+        assertNull(shared.getTiles().get(first), "The least recently used tile should be dropped");
+        assertFalse(shared.isRequested(keys), "A dropped tile should be requested again");
+        assertTrue(shared.isRequested(List.of(second)), "A kept tile should not be requested again");
+
+        shared.requestTiles(List.of(first), List.of());
+        awaitTile(shared, first);
+        assertTrue(shared.isRequested(List.of(first)));
+        shared.dispose();
+    }
+
+    /**
+     * Waits until the renderer of a layer has stored a tile.
+     *
+     * @param layer The layer.
+     * @param key   The key of the tile.
+     */
+    private void awaitTile(Layer layer, long key) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (layer.getTiles().get(key) == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertNotNull(layer.getTiles().get(key), "The tile should be rendered");
+    }
+
+    /**
+     * Tests the compositing and editing state of a layer.
+     */
+    @Test
+    public void testState() {
+        assertTrue(layer.isVisible());
+        assertFalse(layer.isLocked());
+        assertTrue(layer.isEditable());
+        assertEquals(1.0f, layer.getOpacity());
+
+        layer.setLocked(true);
+        assertFalse(layer.isEditable(), "A locked layer should not be editable");
+        layer.setLocked(false);
+        layer.setVisible(false);
+        assertFalse(layer.isEditable(), "A hidden layer should not be editable");
+
+        layer.setOpacity(0.25f);
+        assertEquals(0.25f, layer.getOpacity());
+        assertThrows(IllegalArgumentException.class, () -> layer.setOpacity(1.5f));
+    }
+}
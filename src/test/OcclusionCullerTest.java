@@ -0,0 +1,99 @@
+package test;
+
+import controller.OcclusionCuller;
+import model.Oval;
+import model.Rectangle;
+import model.ShapeSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the OcclusionCuller.
+ * Contains unit tests to verify that only shapes hidden completely behind opaque filled shapes are removed.
+ */
+public class OcclusionCullerTest {
+
+    /**
+     * Creates a rectangle.
+     *
+     * @param x    The x-coordinate of the rectangle.
+     * @param y    The y-coordinate of the rectangle.
+     * @param size The width and height of the rectangle.
+     * @param fill The fill color, or null if the rectangle is not filled.
+     * @return The rectangle.
+     */
+    private Rectangle createRectangle(int x, int y, int size, Color fill) {
+        Rectangle rectangle = new Rectangle();
+        rectangle.setCoordinateA(x, y);
+        rectangle.setCoordinateB(x + size, y + size);
+        rectangle.setWidth(size);
+        rectangle.setHeight(size);
+        if (fill != null) {
+            rectangle.setFilled(true);
+            rectangle.setFillColor(fill);
+        }
+        return rectangle;
+    }
+
+    /**
+     * Tests that a shape inside an opaque rectangle above it is removed, and one partly outside is kept.
+     */
+    @Test
+    public void testCoveredShapesAreRemoved() {
+        ShapeSnapshot hidden = createRectangle(20, 20, 30, null).snapshot();
+        ShapeSnapshot partlyVisible = createRectangle(80, 80, 40, null).snapshot();
+        ShapeSnapshot cover = createRectangle(0, 0, 100, Color.BLUE).snapshot();
+
+        List<ShapeSnapshot> visible = OcclusionCuller.cull(List.of(hidden, partlyVisible, cover));
+        assertEquals(List.of(partlyVisible, cover), visible, "Only the covered shape should be removed");
+    }
+
+    /**
+     * Tests that shapes above the opaque rectangle are kept.
+     */
+    @Test
+    public void testShapesAboveAreKept() {
+        ShapeSnapshot cover = createRectangle(0, 0, 100, Color.BLUE).snapshot();
+        ShapeSnapshot above = createRectangle(20, 20, 30, null).snapshot();
+
+        assertEquals(List.of(cover, above), OcclusionCuller.cull(List.of(cover, above)));
+    }
+
+    /**
+     * Tests that translucent, unfilled and rotated shapes hide nothing.
+     */
+    @Test
+    public void testOnlyOpaqueUnrotatedShapesOcclude() {
+        assertNull(createRectangle(0, 0, 100, null).snapshot().getOccluder(), "Unfilled shapes hide nothing");
+        assertNull(createRectangle(0, 0, 100, new Color(0, 0, 255, 128)).snapshot().getOccluder(),
+                "Translucent shapes hide nothing");
+        Rectangle rotated = createRectangle(0, 0, 100, Color.BLUE);
+        rotated.setRotationAngle(30);
+        assertNull(rotated.snapshot().getOccluder(), "Rotated shapes hide nothing");
+    }
+
+    /**
+     * Tests that an opaque oval hides only what lies inside the rectangle inscribed in it.
+     */
+    @Test
+    public void testOvalOccludesInscribedRectangle() {
+        Oval oval = new Oval();
+        oval.setCoordinateA(0, 0);
+        oval.setCoordinateB(100, 100);
+        oval.setWidth(100);
+        oval.setHeight(100);
+        oval.setFilled(true);
+        oval.setFillColor(Color.RED);
+        ShapeSnapshot cover = oval.snapshot();
+        assertNotNull(cover.getOccluder());
+        assertTrue(cover.getOutline().contains(cover.getOccluder()), "The opaque rectangle should lie inside the oval");
+
+        ShapeSnapshot center = createRectangle(40, 40, 10, null).snapshot();
+        ShapeSnapshot corner = createRectangle(2, 2, 10, null).snapshot();
+        assertEquals(List.of(corner, cover), OcclusionCuller.cull(List.of(center, corner, cover)));
+    }
+}
@@ -0,0 +1,96 @@
+package test;
+
+import controller.ProgressivePainter;
+import model.Rectangle;
+import model.ShapeSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Area;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the ProgressivePainter.
+ * Contains unit tests to verify that shapes are drawn into the buffer across several frames
+ * and that the buffer is restarted when the scene or the view changes.
+ */
+public class ProgressivePainterTest {
+
+    private static final Area AREA = new Area(new java.awt.Rectangle(0, 0, 100, 100));
+
+    /**
+     * Creates snapshots of small rectangles along the diagonal.
+     *
+     * @param count The number of rectangles.
+     * @return The snapshots in drawing order.
+     */
+    private List<ShapeSnapshot> createShapes(int count) {
+        List<ShapeSnapshot> shapes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Rectangle rectangle = new Rectangle();
+            rectangle.setCoordinateA(i % 90, i % 90);
+            rectangle.setCoordinateB(i % 90 + 10, i % 90 + 10);
+            rectangle.setWidth(10);
+            rectangle.setHeight(10);
+            shapes.add(rectangle.snapshot());
+        }
+        return shapes;
+    }
+
+    /**
+     * Tests that a used up budget leaves shapes for the next frame, and that they are drawn there.
+     */
+    @Test
+    public void testDrawingContinuesAcrossFrames() {
+        ProgressivePainter painter = new ProgressivePainter();
+        painter.begin(0, new AffineTransform(), 100, 100, AREA, createShapes(500), 1.0);
+
+        int drawn = painter.advance(0);
+        assertTrue(drawn > 0, "At least some shapes should be drawn in the first frame");
+        assertTrue(drawn < 500, "A used up budget should stop the frame early");
+        assertFalse(painter.isComplete(), "Shapes should be left for the next frame");
+        assertNotEquals(0, painter.getBuffer().getRGB(5, 5), "Shapes drawn so far should be visible");
+
+        int total = drawn;
+        while (!painter.isComplete()) {
+            total += painter.advance(0);
+        }
+        assertEquals(500, total, "Every shape should be drawn exactly once");
+        assertEquals(0, painter.advance(ProgressivePainter.DEFAULT_BUDGET_NANOS), "Nothing should be left");
+    }
+
+    /**
+     * Tests that a small scene is drawn completely in one frame.
+     */
+    @Test
+    public void testSmallSceneCompletesInOneFrame() {
+        ProgressivePainter painter = new ProgressivePainter();
+        painter.begin(0, new AffineTransform(), 100, 100, AREA, createShapes(10), 1.0);
+
+        assertEquals(10, painter.advance(ProgressivePainter.DEFAULT_BUDGET_NANOS));
+        assertTrue(painter.isComplete());
+        assertEquals(Color.BLACK.getRGB(), painter.getBuffer().getRGB(0, 5), "The first rectangle should be drawn");
+    }
+
+    /**
+     * Tests that the buffer is only continued for the same scene, view and a covered area.
+     */
+    @Test
+    public void testRestartOnChange() {
+        ProgressivePainter painter = new ProgressivePainter();
+        AffineTransform transform = new AffineTransform();
+        assertFalse(painter.canContinue(0, transform, 100, 100, AREA), "Nothing has been started yet");
+
+        painter.begin(3, transform, 100, 100, AREA, createShapes(10), 1.0);
+        assertTrue(painter.canContinue(3, transform, 100, 100, new Area(new java.awt.Rectangle(10, 10, 20, 20))));
+        assertFalse(painter.canContinue(4, transform, 100, 100, AREA), "The scene has changed");
+        assertFalse(painter.canContinue(3, AffineTransform.getScaleInstance(2, 2), 100, 100, AREA), "The view has changed");
+        assertFalse(painter.canContinue(3, transform, 200, 100, AREA), "The size has changed");
+        assertFalse(painter.canContinue(3, transform, 100, 100, new Area(new java.awt.Rectangle(50, 50, 100, 100))),
+                "The area is not covered");
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Test class for the Rectangle model.
@@ -80,4 +81,45 @@ public class RectangleTest {
         rectangle.setRotationAngle(90);
         assertEquals( 90, rectangle.getRotationAngle(),"Rotation angle should be set to 90");
     }
+
+    /**
+     * Tests that the damage bounds of the rectangle cover its rotation and stroke width.
+     */
+    @Test
+    public void testBoundsCoverRotationAndStroke() {
+        rectangle.setCoordinateA(100, 100);
+        rectangle.setCoordinateB(100, 100);
+        rectangle.setWidth(100);
+        rectangle.setHeight(20);
+        rectangle.setStrokeWidth(10);
+        rectangle.rotate(90);
+
+        java.awt.Rectangle bounds = rectangle.getBounds();
+        assertTrue(bounds.contains(new java.awt.Rectangle(145, 60, 10, 100)), "Bounds should cover the rotated rectangle");
+        assertTrue(bounds.x <= 140 && bounds.getMaxX() >= 160, "Bounds should cover half of the stroke width");
+    }
+
+    /**
+     * Tests that the cached outline and bounds are rebuilt after the geometry changes.
+     */
+    @Test
+    public void testCachedGeometryFollowsChanges() {
+        rectangle.setCoordinateA(10, 10);
+        rectangle.setCoordinateB(10, 10);
+        rectangle.setWidth(30);
+        rectangle.setHeight(20);
+
+        java.awt.Rectangle bounds = rectangle.getBounds();
+        bounds.translate(1000, 1000);
+        assertEquals(rectangle.getBounds(), rectangle.getBounds(), "Cached bounds should be stable");
+        assertTrue(rectangle.getBounds().x < 100, "Changing returned bounds should not change the cache");
+        assertTrue(rectangle.getOutline().contains(25, 25), "The outline should cover the rectangle");
+
+        rectangle.translate(100, 0);
+        assertTrue(rectangle.getBounds().x >= 100, "Bounds should follow a translation");
+        assertTrue(rectangle.getOutline().contains(125, 25), "The outline should follow a translation");
+
+        rectangle.setWidth(60);
+        assertTrue(rectangle.getOutline().contains(155, 25), "The outline should follow a new width");
+    }
 }
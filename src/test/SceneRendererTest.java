@@ -0,0 +1,73 @@
+package test;
+
+import controller.SceneRenderer;
+import controller.SceneSnapshot;
+import controller.TileCache;
+import model.Rectangle;
+import model.ShapeSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the SceneRenderer.
+ * Contains unit tests to verify that snapshots are rendered in the background and stay
+ * unchanged while the shapes they were taken from are edited.
+ */
+public class SceneRendererTest {
+
+    /**
+     * Creates a filled 20x20 rectangle at (10, 10).
+     *
+     * @return The rectangle.
+     */
+    private Rectangle createRectangle() {
+        Rectangle rectangle = new Rectangle();
+        rectangle.setCoordinateA(10, 10);
+        rectangle.setCoordinateB(10, 10);
+        rectangle.setWidth(20);
+        rectangle.setHeight(20);
+        rectangle.setFillColor(Color.RED);
+        rectangle.setFilled(true);
+        return rectangle;
+    }
+
+    /**
+     * Tests that a submitted snapshot is rendered on the background thread and can be blitted.
+     */
+    @Test
+    public void testSnapshotIsRenderedInBackground() throws InterruptedException {
+        CountDownLatch tileReady = new CountDownLatch(1);
+        TileCache cache = new TileCache(new TileCache.Pool());
+        SceneRenderer renderer = new SceneRenderer(tileReady::countDown);
+        long key = TileCache.key(0, 0, 0);
+
+        renderer.submit(cache, new SceneSnapshot(cache.getGeneration(), List.of(createRectangle().snapshot()), new long[]{key}));
+        assertTrue(tileReady.await(5, TimeUnit.SECONDS), "The tile should be finished");
+
+        BufferedImage tile = cache.get(key);
+        assertNotNull(tile, "The finished tile should be cached");
+        assertEquals(Color.RED.getRGB(), tile.getRGB(20, 20), "The rectangle should be filled in the tile");
+        assertEquals(0, tile.getRGB(100, 100), "The tile should be transparent outside the rectangle");
+        renderer.shutdown();
+    }
+
+    /**
+     * Tests that a snapshot keeps the old geometry after the shape is moved.
+     */
+    @Test
+    public void testSnapshotIsNotAffectedByEdits() {
+        Rectangle rectangle = createRectangle();
+        ShapeSnapshot snapshot = rectangle.snapshot();
+
+        rectangle.translate(100, 100);
+        assertTrue(snapshot.getOutline().contains(20, 20), "The snapshot should keep the old position");
+        assertFalse(rectangle.snapshot().getOutline().contains(20, 20), "A new snapshot should follow the shape");
+    }
+}
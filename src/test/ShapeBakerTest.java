@@ -0,0 +1,185 @@
+package test;
+
+import controller.BakeCommand;
+import controller.GraphicController;
+import controller.ShapeBaker;
+import controller.ShapeEraser;
+import model.Curve;
+import model.ImageShape;
+import model.Rectangle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the ShapeBaker.
+ * Contains unit tests to verify that baking replaces a run of shapes by an image that looks the same,
+ * keeps the paint order, can be undone and only picks old strokes automatically.
+ */
+public class ShapeBakerTest {
+
+    private GraphicController graphic;
+
+    /**
+     * Sets up an empty scene before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        graphic = new GraphicController();
+    }
+
+    /**
+     * Creates a horizontal curve and adds it to the scene.
+     *
+     * @param y The y-coordinate of the curve.
+     * @return The new curve.
+     */
+    private Curve addCurve(int y) {
+        Curve curve = new Curve();
+        curve.setShapeColor(Color.RED);
+        curve.setStrokeWidth(4);
+        curve.addPoint(10, y);
+        curve.addPoint(90, y);
+        graphic.addShape(curve);
+        return curve;
+    }
+
+    /**
+     * Creates a filled rectangle and adds it to the scene.
+     *
+     * @param x The x-coordinate of the rectangle.
+     * @param y The y-coordinate of the rectangle.
+     * @return The new rectangle.
+     */
+    private Rectangle addRectangle(int x, int y) {
+        Rectangle rectangle = new Rectangle();
+        rectangle.setCoordinateA(x, y);
+        rectangle.setCoordinateB(x + 20, y + 20);
+        rectangle.setWidth(20);
+        rectangle.setHeight(20);
+        rectangle.setFillColor(Color.BLUE);
+        rectangle.setFilled(true);
+        graphic.addShape(rectangle);
+        return rectangle;
+    }
+
+    /**
+     * Draws all shapes of the scene into an image.
+     *
+     * @return The drawn image.
+     */
+    private BufferedImage paintScene() {
+        BufferedImage image = new BufferedImage(120, 120, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2D = image.createGraphics();
+        for (int i = 0; i < graphic.getShapeCount(); i++) {
+            graphic.getShape(i).draw(g2D);
+        }
+        g2D.dispose();
+        return image;
+    }
+
+    /**
+     * Tests that a run of shapes is replaced by one image that paints the same picture
+     * and that the shapes above the run stay on top.
+     */
+    @Test
+    public void testBakeKeepsPictureAndOrder() {
+        addCurve(20);
+        addCurve(40);
+        addCurve(60);
+        Rectangle top = addRectangle(40, 30);
+        BufferedImage before = paintScene();
+
+        BakeCommand command = ShapeBaker.bake(graphic, 0, 3, 1.0);
+        assertEquals(3, command.getBakedCount());
+        assertEquals(2, graphic.getShapeCount(), "The strokes should be replaced by one image");
+        assertInstanceOf(ImageShape.class, graphic.getShape(0));
+        assertSame(top, graphic.getShape(1), "The shape above the run should stay on top");
+        assertFalse(graphic.getShape(0).isClickPointInShape(new model.Point(20, 20)), "Baked strokes should not be hit");
+
+        BufferedImage after = paintScene();
+        assertEquals(before.getRGB(20, 40), after.getRGB(20, 40), "A baked stroke should look the same");
+        assertEquals(before.getRGB(50, 40), after.getRGB(50, 40), "The shape on top should still cover the strokes");
+        assertEquals(0, after.getRGB(20, 50), "Nothing should be drawn between the strokes");
+    }
+
+    /**
+     * Tests that undoing a bake puts the shapes back in their order, and redoing bakes them again.
+     */
+    @Test
+    public void testUndoAndRedo() {
+        Curve first = addCurve(20);
+        Curve second = addCurve(40);
+        Rectangle top = addRectangle(40, 30);
+
+        BakeCommand command = ShapeBaker.bake(graphic, 0, 2, 1.0);
+        command.undo();
+        assertEquals(3, graphic.getShapeCount());
+        assertSame(first, graphic.getShape(0));
+        assertSame(second, graphic.getShape(1));
+        assertSame(top, graphic.getShape(2));
+
+        command.redo();
+        assertEquals(2, graphic.getShapeCount());
+        assertSame(command.getImage(), graphic.getShape(0));
+        assertTrue(command.getMemorySize() > 0);
+    }
+
+    /**
+     * Tests that a huge area is baked at a lower resolution instead of exceeding the pixel budget.
+     */
+    @Test
+    public void testResolutionIsBounded() {
+        Rectangle huge = addRectangle(0, 0);
+        huge.setCoordinateB(20000, 20000);
+
+        BakeCommand command = ShapeBaker.bake(graphic, 0, 1, 2.0);
+        BufferedImage image = command.getImage().getImage();
+        assertTrue((long) image.getWidth() * image.getHeight() <= ShapeBaker.MAX_PIXELS * 1.01,
+                "The image should stay within the pixel budget");
+    }
+
+    /**
+     * Tests that only the old strokes at the bottom are found, skipping earlier images and stopping
+     * at other shapes, new strokes and the excluded shape.
+     */
+    @Test
+    public void testFindOldStrokes() {
+        addCurve(20);
+        addCurve(40);
+        ShapeBaker.bake(graphic, 0, 2, 1.0);
+        Curve old = addCurve(60);
+        Curve excluded = addCurve(80);
+        addRectangle(0, 0);
+        long now = System.currentTimeMillis() + 1;
+
+        assertArrayEquals(new int[] {1, 3}, ShapeBaker.findOldStrokes(graphic, now, null),
+                "The image should be skipped and the rectangle should end the run");
+        assertArrayEquals(new int[] {1, 2}, ShapeBaker.findOldStrokes(graphic, now, excluded));
+        assertArrayEquals(new int[] {1, 1}, ShapeBaker.findOldStrokes(graphic, old.getCreationTime(), null),
+                "Strokes that are not old enough should not be found");
+    }
+
+    /**
+     * Tests that erasing over a baked image clears its pixels in a copy.
+     */
+    @Test
+    public void testErasingBakedImage() {
+        addCurve(20);
+        addCurve(40);
+        ShapeBaker.bake(graphic, 0, 2, 1.0);
+        ImageShape baked = (ImageShape) graphic.getShape(0);
+
+        ShapeEraser.erase(graphic, new java.awt.Rectangle(0, 0, 50, 100));
+        ImageShape erased = (ImageShape) graphic.getShape(0);
+        assertNotSame(baked, erased, "The original pixels should be kept for undo");
+        BufferedImage image = paintScene();
+        assertEquals(0, image.getRGB(20, 20), "The erased part should be cleared");
+        assertNotEquals(0, image.getRGB(70, 20), "The rest should remain");
+    }
+}
@@ -0,0 +1,124 @@
+package test;
+
+import controller.EraseCommand;
+import controller.GraphicController;
+import controller.ShapeEraser;
+import model.ClippedShape;
+import model.Rectangle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the ShapeEraser.
+ * Contains unit tests to verify that erasing removes covered shapes, clips crossed shapes,
+ * leaves other shapes alone and can be undone.
+ */
+public class ShapeEraserTest {
+
+    private GraphicController graphic;
+
+    /**
+     * Sets up an empty scene before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        graphic = new GraphicController();
+    }
+
+    /**
+     * Creates a filled rectangle and adds it to the scene.
+     *
+     * @param x    The x-coordinate of the rectangle.
+     * @param y    The y-coordinate of the rectangle.
+     * @param size The width and height of the rectangle.
+     * @return The new rectangle.
+     */
+    private Rectangle addRectangle(int x, int y, int size) {
+        Rectangle rectangle = new Rectangle();
+        rectangle.setCoordinateA(x, y);
+        rectangle.setCoordinateB(x + size, y + size);
+        rectangle.setWidth(size);
+        rectangle.setHeight(size);
+        rectangle.setFillColor(Color.RED);
+        rectangle.setFilled(true);
+        graphic.addShape(rectangle);
+        return rectangle;
+    }
+
+    /**
+     * Tests that a shape inside the erased area is removed and the others keep their order.
+     */
+    @Test
+    public void testCoveredShapeIsRemoved() {
+        Rectangle bottom = addRectangle(0, 0, 10);
+        addRectangle(100, 100, 10);
+        Rectangle top = addRectangle(200, 200, 10);
+
+        EraseCommand command = ShapeEraser.erase(graphic, new java.awt.Rectangle(90, 90, 40, 40));
+        assertNotNull(command);
+        assertEquals(1, command.getAffectedCount());
+        assertEquals(2, graphic.getShapeCount(), "The covered shape should be removed");
+        assertSame(bottom, graphic.getShape(0));
+        assertSame(top, graphic.getShape(1));
+        assertTrue(graphic.getShapesAt(105, 105).isEmpty(), "The removed shape should no longer be selectable");
+    }
+
+    /**
+     * Tests that a crossed shape is replaced by its remains at the same position in paint order.
+     */
+    @Test
+    public void testCrossedShapeIsClipped() {
+        addRectangle(0, 0, 10);
+        Rectangle crossed = addRectangle(50, 50, 100);
+        addRectangle(300, 300, 10);
+
+        ShapeEraser.erase(graphic, new java.awt.Rectangle(40, 40, 60, 120));
+        assertEquals(3, graphic.getShapeCount());
+        assertInstanceOf(ClippedShape.class, graphic.getShape(1), "The crossed shape should be clipped");
+        assertFalse(graphic.containsShape(crossed));
+        assertTrue(graphic.getShapesAt(75, 100).isEmpty(), "The erased part should be gone");
+        assertSame(graphic.getShape(1), graphic.getShapesAt(125, 100).get(0), "The rest should remain");
+        assertEquals(Color.RED, graphic.getShape(1).getFillColor(), "The remains should keep the style");
+    }
+
+    /**
+     * Tests that an erase touching no shape changes nothing.
+     */
+    @Test
+    public void testMissIsIgnored() {
+        addRectangle(0, 0, 10);
+
+        assertNull(ShapeEraser.erase(graphic, new java.awt.Rectangle(50, 50, 10, 10)));
+        assertEquals(1, graphic.getShapeCount());
+    }
+
+    /**
+     * Tests that undoing an erase restores the original shapes in their order, and redoing repeats it.
+     */
+    @Test
+    public void testUndoAndRedo() {
+        Rectangle first = addRectangle(0, 0, 10);
+        Rectangle second = addRectangle(20, 0, 10);
+        Rectangle third = addRectangle(40, 0, 100);
+
+        EraseCommand command = ShapeEraser.erase(graphic, new java.awt.Rectangle(-5, -5, 50, 20));
+        assertEquals(3, command.getAffectedCount());
+        assertEquals(1, graphic.getShapeCount(), "Only the remains of the large shape should be left");
+
+        command.undo();
+        assertEquals(3, graphic.getShapeCount());
+        assertSame(first, graphic.getShape(0));
+        assertSame(second, graphic.getShape(1));
+        assertSame(third, graphic.getShape(2));
+        assertSame(third, graphic.getShapesAt(45, 5).get(0), "The restored shape should be selectable again");
+
+        command.redo();
+        assertEquals(1, graphic.getShapeCount());
+        assertInstanceOf(ClippedShape.class, graphic.getShape(0));
+        assertTrue(command.getMemorySize() > 0);
+    }
+}
@@ -0,0 +1,107 @@
+package test;
+
+import controller.ShapeStore;
+import model.Line;
+import model.Shape;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the ShapeStore.
+ * Contains unit tests to verify that the store grows without a fixed limit and keeps paint order.
+ */
+public class ShapeStoreTest {
+
+    private ShapeStore store;
+
+    /**
+     * Sets up an empty ShapeStore before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        store = new ShapeStore();
+    }
+
+    /**
+     * Tests that the store keeps growing past the old 10,000 shape limit.
+     */
+    @Test
+    public void testGrowsWithoutLimit() {
+        Shape[] lines = new Shape[20000];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = new Line();
+            store.add(lines[i]);
+        }
+
+        assertEquals(20000, store.size(), "Every added shape should be stored");
+        assertSame(lines[0], store.get(0), "The first shape should stay at the bottom");
+        assertSame(lines[19999], store.get(19999), "The last shape should be on top");
+    }
+
+    /**
+     * Tests removing the topmost shape and clearing the store.
+     */
+    @Test
+    public void testRemoveLastAndClear() {
+        Shape first = new Line();
+        Shape second = new Line();
+        store.add(first);
+        store.add(second);
+
+        assertSame(second, store.removeLast(), "removeLast should return the topmost shape");
+        assertEquals(1, store.size(), "One shape should remain");
+        assertThrows(IndexOutOfBoundsException.class, () -> store.get(1));
+
+        store.clear();
+        assertEquals(0, store.size(), "The store should be empty after clear");
+        assertNull(store.removeLast(), "removeLast on an empty store should return null");
+    }
+
+    /**
+     * Tests inserting, replacing and removing shapes in the middle of the paint order.
+     */
+    @Test
+    public void testInsertSetAndRemove() {
+        Shape bottom = new Line();
+        Shape top = new Line();
+        Shape middle = new Line();
+        Shape replacement = new Line();
+        store.add(bottom);
+        store.add(top);
+
+        store.insert(1, middle);
+        assertEquals(3, store.size());
+        assertSame(middle, store.get(1), "The inserted shape should be between the others");
+        assertSame(top, store.get(2), "The shapes above should move up");
+
+        store.set(1, replacement);
+        assertSame(replacement, store.get(1));
+
+        assertSame(replacement, store.remove(1));
+        assertEquals(2, store.size());
+        assertSame(top, store.get(1), "The shapes above should move down");
+        assertThrows(IndexOutOfBoundsException.class, () -> store.insert(3, middle));
+    }
+
+    /**
+     * Tests that the store gives memory back as shapes are removed from any position.
+     */
+    @Test
+    public void testShrinksAfterRemoving() {
+        for (int i = 0; i < 1024; i++) {
+            store.add(new Line());
+        }
+        int capacity = store.getCapacity();
+        while (store.size() > 100) {
+            store.remove(store.size() / 2);
+        }
+        assertTrue(store.getCapacity() < capacity, "Removing from the middle should shrink the store");
+        assertTrue(store.getCapacity() >= store.size(), "The remaining shapes should still fit");
+        while (store.size() > 0) {
+            store.removeLast();
+        }
+        assertEquals(64, store.getCapacity(), "The store should shrink back to its initial capacity");
+    }
+}
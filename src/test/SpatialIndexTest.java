@@ -0,0 +1,129 @@
+package test;
+
+import controller.SpatialIndex;
+import model.Rectangle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the SpatialIndex.
+ * Contains unit tests to verify point and rectangle queries, their topmost-first ordering,
+ * and that the index follows shapes that are moved or removed.
+ */
+public class SpatialIndexTest {
+
+    private SpatialIndex index;
+
+    /**
+     * Sets up a new SpatialIndex with a small cell size before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        index = new SpatialIndex(32);
+    }
+
+    /**
+     * Creates a rectangle at the given position.
+     *
+     * @param x      The x-coordinate of the rectangle.
+     * @param y      The y-coordinate of the rectangle.
+     * @param width  The width of the rectangle.
+     * @param height The height of the rectangle.
+     * @return The new rectangle.
+     */
+    private Rectangle createRectangle(int x, int y, int width, int height) {
+        Rectangle rectangle = new Rectangle();
+        rectangle.setCoordinateA(x, y);
+        rectangle.setCoordinateB(x, y);
+        rectangle.setWidth(width);
+        rectangle.setHeight(height);
+        return rectangle;
+    }
+
+    /**
+     * Tests that a point query returns the overlapping shapes with the last added one first.
+     */
+    @Test
+    public void testQueryPointIsTopmostFirst() {
+        Rectangle bottom = createRectangle(0, 0, 100, 100);
+        Rectangle top = createRectangle(50, 50, 100, 100);
+        Rectangle elsewhere = createRectangle(500, 500, 10, 10);
+        index.add(bottom);
+        index.add(top);
+        index.add(elsewhere);
+
+        List<model.Shape> found = index.queryPoint(75, 75);
+        assertEquals(List.of(top, bottom), found, "Overlapping shapes should be returned topmost first");
+        assertEquals(List.of(bottom), index.queryPoint(20, 20), "Only the bottom shape covers this point");
+    }
+
+    /**
+     * Tests that a rectangle query returns every intersecting shape exactly once.
+     */
+    @Test
+    public void testQueryRect() {
+        Rectangle large = createRectangle(0, 0, 5000, 5000);
+        Rectangle small = createRectangle(100, 100, 10, 10);
+        index.add(large);
+        index.add(small);
+
+        List<model.Shape> found = index.queryRect(new java.awt.Rectangle(90, 90, 100, 100));
+        assertEquals(List.of(small, large), found, "Both shapes should be found once, topmost first");
+        assertEquals(List.of(large), index.queryRect(new java.awt.Rectangle(3000, 3000, 5, 5)), "Only the large shape reaches this area");
+    }
+
+    /**
+     * Tests that the index follows a translated shape and forgets a removed one.
+     */
+    @Test
+    public void testUpdateAndRemove() {
+        Rectangle rectangle = createRectangle(0, 0, 20, 20);
+        index.add(rectangle);
+
+        rectangle.translate(300, 300);
+        index.update(rectangle);
+        assertTrue(index.queryPoint(10, 10).isEmpty(), "The old position should no longer match");
+        assertEquals(List.of(rectangle), index.queryPoint(310, 310), "The new position should match");
+
+        assertTrue(index.remove(rectangle), "The rectangle should have been indexed");
+        assertTrue(index.queryPoint(310, 310).isEmpty(), "A removed shape should not be found");
+        assertEquals(0, index.size(), "The index should be empty");
+    }
+
+    /**
+     * Tests that inserted and replacing shapes are ordered between their neighbours, also once the room
+     * between two neighbours has run out.
+     */
+    @Test
+    public void testInsertAndReplaceKeepOrder() {
+        Rectangle bottom = createRectangle(0, 0, 20, 20);
+        Rectangle top = createRectangle(0, 0, 20, 20);
+        index.add(bottom);
+        index.add(top);
+
+        Rectangle below = top;
+        for (int i = 0; i < 40; i++) {
+            Rectangle inserted = createRectangle(0, 0, 20, 20);
+            index.insert(inserted, bottom, below);
+            below = inserted;
+        }
+        List<model.Shape> found = index.queryPoint(10, 10);
+        assertEquals(42, found.size());
+        assertSame(top, found.get(0), "Inserted shapes should stay below the top");
+        assertSame(bottom, found.get(41), "Inserted shapes should stay above the bottom");
+        assertSame(below, found.get(40), "The last inserted shape should be right above the bottom");
+
+        Rectangle lowest = createRectangle(0, 0, 20, 20);
+        index.insert(lowest, null, bottom);
+        Rectangle replacement = createRectangle(0, 0, 20, 20);
+        index.replace(top, replacement);
+        found = index.queryPoint(10, 10);
+        assertSame(replacement, found.get(0), "The replacement should take the place of the top");
+        assertSame(lowest, found.get(found.size() - 1), "A shape inserted at the bottom should come last");
+        assertFalse(index.contains(top), "The replaced shape should be gone");
+    }
+}
@@ -0,0 +1,104 @@
+package test;
+
+import controller.SpriteCache;
+import model.Rectangle;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the SpriteCache.
+ * Contains unit tests to verify that moved shapes are blitted from their sprite,
+ * that changed shapes get a new one and that the memory budget is kept.
+ */
+public class SpriteCacheTest {
+
+    /**
+     * Creates a filled 40x40 rectangle.
+     *
+     * @param x The x-coordinate of the rectangle.
+     * @param y The y-coordinate of the rectangle.
+     * @return The rectangle.
+     */
+    private Rectangle createRectangle(int x, int y) {
+        Rectangle rectangle = new Rectangle();
+        rectangle.setCoordinateA(x, y);
+        rectangle.setCoordinateB(x + 40, y + 40);
+        rectangle.setWidth(40);
+        rectangle.setHeight(40);
+        rectangle.setFilled(true);
+        rectangle.setFillColor(Color.RED);
+        return rectangle;
+    }
+
+    /**
+     * Draws a shape through the cache into an empty image.
+     *
+     * @param cache The sprite cache.
+     * @param shape The shape to draw.
+     * @return The image.
+     */
+    private BufferedImage drawShape(SpriteCache cache, model.Shape shape) {
+        BufferedImage image = new BufferedImage(200, 200, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2D = image.createGraphics();
+        cache.draw(g2D, shape);
+        g2D.dispose();
+        return image;
+    }
+
+    /**
+     * Tests that a moved shape is blitted from the sprite of its first draw, at its new position.
+     */
+    @Test
+    public void testMovedShapeIsBlitted() {
+        SpriteCache cache = new SpriteCache();
+        Rectangle rectangle = createRectangle(10, 10);
+        drawShape(cache, rectangle);
+        rectangle.translate(90, 90);
+        BufferedImage image = drawShape(cache, rectangle);
+
+        assertEquals(1, cache.getMissCount(), "Only the first draw should rasterize the shape");
+        assertEquals(1, cache.getHitCount(), "The moved shape should be blitted");
+        assertEquals(Color.RED.getRGB(), image.getRGB(120, 120), "The sprite should be drawn at the new position");
+        assertEquals(0, image.getRGB(30, 30), "Nothing should be left at the old position");
+    }
+
+    /**
+     * Tests that changing the style or the size of a shape rasterizes a new sprite.
+     */
+    @Test
+    public void testChangedShapeIsRasterized() {
+        SpriteCache cache = new SpriteCache();
+        Rectangle rectangle = createRectangle(10, 10);
+        drawShape(cache, rectangle);
+        rectangle.setFillColor(Color.BLUE);
+        BufferedImage image = drawShape(cache, rectangle);
+        assertEquals(Color.BLUE.getRGB(), image.getRGB(30, 30), "The new fill color should be drawn");
+        rectangle.setWidth(60);
+        drawShape(cache, rectangle);
+
+        assertEquals(3, cache.getMissCount(), "Every change should rasterize a new sprite");
+        assertEquals(0, cache.getHitCount());
+    }
+
+    /**
+     * Tests that the least recently used sprites are dropped to stay within the memory budget.
+     */
+    @Test
+    public void testBudgetIsKept() {
+        long budget = 60 * 60 * 4 * 5;
+        SpriteCache cache = new SpriteCache(budget);
+        Rectangle rectangle = createRectangle(10, 10);
+        for (int width = 10; width < 40; width++) {
+            rectangle.setWidth(width);
+            drawShape(cache, rectangle);
+        }
+
+        assertTrue(cache.getUsedBytes() <= budget, "The cache should stay within its budget");
+        assertTrue(cache.size() < 30, "Old sprites should have been dropped");
+    }
+}
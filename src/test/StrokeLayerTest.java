@@ -0,0 +1,75 @@
+package test;
+
+import controller.StrokeLayer;
+import org.junit.jupiter.api.Test;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.geom.AffineTransform;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the StrokeLayer.
+ * Contains unit tests to verify that a stroke is rasterized segment by segment
+ * and that the layer is only shown for the view and stroke it was started for.
+ */
+public class StrokeLayerTest {
+
+    private static final BasicStroke STROKE = new BasicStroke(3, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+
+    /**
+     * Tests that every new sample adds its segment to the layer.
+     */
+    @Test
+    public void testSegmentsAreRasterized() {
+        StrokeLayer layer = new StrokeLayer();
+        assertTrue(layer.begin(new AffineTransform(), 100, 100, Color.RED, STROKE, 10, 10));
+        layer.addSegment(50, 10);
+        layer.addSegment(50, 50);
+
+        assertEquals(Color.RED.getRGB(), layer.getBuffer().getRGB(30, 10), "The first segment should be drawn");
+        assertEquals(Color.RED.getRGB(), layer.getBuffer().getRGB(50, 30), "The second segment should be drawn");
+        assertEquals(0, layer.getBuffer().getRGB(30, 30), "Nothing else should be drawn");
+    }
+
+    /**
+     * Tests that a new stroke starts from an empty layer.
+     */
+    @Test
+    public void testNewStrokeClearsLayer() {
+        StrokeLayer layer = new StrokeLayer();
+        layer.begin(new AffineTransform(), 100, 100, Color.RED, STROKE, 10, 10);
+        layer.addSegment(50, 10);
+        layer.end();
+        layer.begin(new AffineTransform(), 100, 100, Color.BLUE, STROKE, 10, 80);
+
+        assertEquals(0, layer.getBuffer().getRGB(30, 10), "The previous stroke should be cleared");
+    }
+
+    /**
+     * Tests that the layer is only shown while a stroke is drawn in the view it was started for.
+     */
+    @Test
+    public void testShownOnlyForSameView() {
+        StrokeLayer layer = new StrokeLayer();
+        AffineTransform transform = new AffineTransform();
+        layer.begin(transform, 100, 100, Color.RED, STROKE, 10, 10);
+
+        assertTrue(layer.isShowing(transform, 100, 100));
+        assertFalse(layer.isShowing(AffineTransform.getScaleInstance(2, 2), 100, 100), "The view has been zoomed");
+        assertFalse(layer.isShowing(transform, 120, 100), "The canvas has been resized");
+        layer.end();
+        assertFalse(layer.isShowing(transform, 100, 100), "The stroke has ended");
+    }
+
+    /**
+     * Tests that translucent strokes are not drawn in the layer, since their overlapping segments would blend.
+     */
+    @Test
+    public void testTranslucentStrokesAreRejected() {
+        StrokeLayer layer = new StrokeLayer();
+        assertFalse(layer.begin(new AffineTransform(), 100, 100, new Color(255, 0, 0, 128), STROKE, 10, 10));
+        assertFalse(layer.isShowing(new AffineTransform(), 100, 100));
+    }
+}
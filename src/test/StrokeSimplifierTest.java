@@ -0,0 +1,71 @@
+package test;
+
+import controller.StrokeSimplifier;
+import model.Curve;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the StrokeSimplifier.
+ * Contains unit tests to verify that redundant samples are dropped while the shape of the stroke
+ * stays within the tolerance.
+ */
+public class StrokeSimplifierTest {
+
+    private StrokeSimplifier simplifier;
+    private Curve curve;
+
+    /**
+     * Sets up a new StrokeSimplifier and an empty curve before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        simplifier = new StrokeSimplifier(1.0);
+        curve = new Curve();
+    }
+
+    /**
+     * Tests that the samples of a straight drag collapse into a single segment.
+     */
+    @Test
+    public void testStraightStrokeKeepsEndpoints() {
+        simplifier.begin(curve, 0, 0);
+        for (int x = 1; x < 50; x++) {
+            simplifier.add(x, x % 2 == 0 ? 0 : 1);
+        }
+        simplifier.finish(50, 0);
+
+        assertEquals(2, curve.getPointCount(), "A straight stroke should keep only its endpoints");
+        assertEquals(0, curve.getPointX(0), "The first point should be kept");
+        assertEquals(50, curve.getPointX(1), "The last point should be kept");
+    }
+
+    /**
+     * Tests that corners sharper than the tolerance are kept.
+     */
+    @Test
+    public void testCornerIsKept() {
+        simplifier.begin(curve, 0, 0);
+        for (int x = 1; x <= 50; x++) {
+            simplifier.add(x, 0);
+        }
+        for (int y = 1; y <= 50; y++) {
+            simplifier.add(50, y);
+        }
+        simplifier.finish(50, 50);
+
+        assertEquals(3, curve.getPointCount(), "The stroke should keep its start, corner and end");
+        assertEquals(50, curve.getPointX(1), "X coordinate of the corner should be 50");
+        assertTrue(curve.getPointY(1) <= 1, "The corner should be kept within the tolerance");
+    }
+
+    /**
+     * Tests that a negative tolerance is rejected.
+     */
+    @Test
+    public void testNegativeToleranceIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> simplifier.setTolerance(-1));
+    }
+}
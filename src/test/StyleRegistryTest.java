@@ -0,0 +1,46 @@
+package test;
+
+import model.Rectangle;
+import model.StyleRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the StyleRegistry.
+ * Contains unit tests to verify that equal strokes and colors are shared between shapes.
+ */
+public class StyleRegistryTest {
+
+    /**
+     * Tests that equal strokes are the same instance and different ones are not.
+     */
+    @Test
+    public void testStrokesAreShared() {
+        BasicStroke first = StyleRegistry.getStroke(3, BasicStroke.CAP_ROUND, BasicStroke.JOIN_BEVEL);
+        BasicStroke second = StyleRegistry.getStroke(3, BasicStroke.CAP_ROUND, BasicStroke.JOIN_BEVEL);
+        BasicStroke other = StyleRegistry.getStroke(3, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+
+        assertSame(first, second, "Equal strokes should be shared");
+        assertNotSame(first, other, "Strokes with different joins should not be shared");
+        assertEquals(BasicStroke.JOIN_ROUND, other.getLineJoin(), "The stroke should have the requested join");
+    }
+
+    /**
+     * Tests that shapes given equal colors end up sharing one color instance.
+     */
+    @Test
+    public void testColorsAreShared() {
+        Rectangle first = new Rectangle();
+        Rectangle second = new Rectangle();
+        first.setShapeColor(new Color(12, 34, 56));
+        second.setShapeColor(new Color(12, 34, 56));
+
+        assertSame(first.getShapeColor(), second.getShapeColor(), "Equal colors should be shared");
+        assertSame(StyleRegistry.getColor(12, 34, 56), first.getShapeColor(), "Interned colors should be shared");
+        assertEquals(0, StyleRegistry.TRANSPARENT.getAlpha(), "The transparent color should have no alpha");
+    }
+}
@@ -0,0 +1,133 @@
+package test;
+
+import controller.TileCache;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the TileCache.
+ * Contains unit tests to verify the tile grid of each level, invalidation of changed areas
+ * and the capacity of the cache.
+ */
+public class TileCacheTest {
+
+    /**
+     * Tests that each level covers the canvas with tiles of the expected size, including negative coordinates.
+     */
+    @Test
+    public void testTileAreas() {
+        assertEquals(0, TileCache.levelFor(1.0), "Unzoomed tiles should be rendered at level 0");
+        assertEquals(1, TileCache.levelFor(1.5), "Tiles should be rendered at least at the zoom");
+        assertEquals(-1, TileCache.levelFor(0.5), "Zooming out should use a coarser level");
+
+        assertEquals(new Rectangle(256, 512, 256, 256), TileCache.getTileArea(TileCache.key(0, 1, 2)));
+        assertEquals(new Rectangle(-128, -256, 128, 128), TileCache.getTileArea(TileCache.key(1, -1, -2)));
+        assertEquals(new Rectangle(0, 0, 512, 512), TileCache.getTileArea(TileCache.key(-1, 0, 0)));
+    }
+
+    /**
+     * Tests that invalidating an area drops the overlapping tiles of every level and rejects stale tiles.
+     */
+    @Test
+    public void testInvalidateDropsOverlappingTiles() {
+        TileCache cache = new TileCache();
+        BufferedImage tile = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        int generation = cache.getGeneration();
+        assertTrue(cache.put(TileCache.key(0, 0, 0), tile, generation));
+        assertTrue(cache.put(TileCache.key(0, 1, 0), tile, generation));
+        assertTrue(cache.put(TileCache.key(-1, 0, 0), tile, generation));
+
+        cache.invalidate(new Rectangle(10, 10, 5, 5));
+        assertNull(cache.get(TileCache.key(0, 0, 0)), "The tile under the change should be dropped");
+        assertNull(cache.get(TileCache.key(-1, 0, 0)), "Tiles of other levels under the change should be dropped");
+        assertNotNull(cache.get(TileCache.key(0, 1, 0)), "Other tiles should be kept");
+        assertFalse(cache.put(TileCache.key(0, 0, 0), tile, generation), "Tiles of an older scene should be rejected");
+    }
+
+    /**
+     * Tests that the least recently used tile is dropped when the cache is full.
+     */
+    @Test
+    public void testLeastRecentlyUsedTileIsDropped() {
+        TileCache cache = new TileCache(2);
+        BufferedImage tile = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        cache.put(TileCache.key(0, 0, 0), tile, cache.getGeneration());
+        cache.put(TileCache.key(0, 1, 0), tile, cache.getGeneration());
+        cache.get(TileCache.key(0, 0, 0));
+        cache.put(TileCache.key(0, 2, 0), tile, cache.getGeneration());
+
+        assertEquals(2, cache.size(), "The cache should not grow beyond its capacity");
+        assertNotNull(cache.get(TileCache.key(0, 0, 0)), "The recently used tile should be kept");
+        assertNull(cache.get(TileCache.key(0, 1, 0)), "The least recently used tile should be dropped");
+    }
+
+    /**
+     * Tests that caches sharing a pool are bounded together and only drop their own tiles.
+     */
+    @Test
+    public void testSharedPool() {
+        TileCache.Pool pool = new TileCache.Pool(3);
+        TileCache first = new TileCache(pool);
+        TileCache second = new TileCache(pool);
+        BufferedImage tile = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        first.put(TileCache.key(0, 0, 0), tile, first.getGeneration());
+        first.put(TileCache.key(0, 1, 0), tile, first.getGeneration());
+        second.put(TileCache.key(0, 0, 0), tile, second.getGeneration());
+        assertNotNull(second.get(TileCache.key(0, 0, 0)), "Caches should not see each other's tiles");
+        second.put(TileCache.key(0, 1, 0), tile, second.getGeneration());
+
+        assertEquals(3, pool.size(), "The caches should not grow beyond the pool together");
+        assertNull(first.get(TileCache.key(0, 0, 0)), "The least recently used tile of any cache should be dropped");
+
+        int generation = second.getGeneration();
+        first.invalidate(new Rectangle(10, 10, 5, 5));
+        first.clear();
+        assertEquals(0, first.size());
+        assertEquals(2, second.size(), "Invalidating one cache should keep the tiles of the other");
+        assertEquals(generation, second.getGeneration());
+    }
+
+    /**
+     * Tests that a tile rendered before an invalidation is only rejected if the invalidated area overlaps it.
+     */
+    @Test
+    public void testOlderTilesOutsideInvalidationAreKept() {
+        TileCache cache = new TileCache();
+        BufferedImage tile = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        int generation = cache.getGeneration();
+        cache.invalidate(new Rectangle(10, 10, 5, 5));
+
+        assertFalse(cache.put(TileCache.key(0, 0, 0), tile, generation), "A tile under the change should be rejected");
+        assertTrue(cache.put(TileCache.key(0, 3, 0), tile, generation), "A tile away from the change should be kept");
+        cache.clear();
+        assertFalse(cache.put(TileCache.key(0, 3, 0), tile, generation), "Clearing should reject every older tile");
+    }
+
+    /**
+     * Tests that a pool reports the tiles it drops to their cache and grows while more tiles are shown.
+     */
+    @Test
+    public void testPoolReservesShownTiles() {
+        TileCache.Pool pool = new TileCache.Pool(2);
+        TileCache cache = new TileCache(pool);
+        BufferedImage tile = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        for (int i = 0; i < 3; i++) {
+            cache.put(TileCache.key(0, i, 0), tile, cache.getGeneration());
+        }
+        assertEquals(java.util.Set.of(TileCache.key(0, 0, 0)), cache.takeEvicted(), "The dropped tile should be reported");
+        assertTrue(cache.takeEvicted().isEmpty(), "A dropped tile should only be reported once");
+
+        pool.reserve(4);
+        cache.put(TileCache.key(0, 0, 0), tile, cache.getGeneration());
+        cache.put(TileCache.key(0, 3, 0), tile, cache.getGeneration());
+        assertEquals(4, cache.size(), "The pool should hold all shown tiles");
+        pool.reserve(1);
+        assertEquals(2, pool.getCapacity(), "The pool should not shrink below its initial capacity");
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.takeEvicted().size(), "Tiles dropped when shrinking should be reported");
+    }
+}
@@ -74,4 +74,20 @@ public class TriangleTest {
         triangle.setRotationAngle(45);
         assertEquals(45, triangle.getRotationAngle(), "Rotation angle should be set to 45");
     }
+
+    /**
+     * Tests that hit-testing works on a triangle that has never been painted.
+     */
+    @Test
+    public void testHitTestWithoutPaint() {
+        triangle.setCoordinateA(10, 10);
+        triangle.setCoordinateB(50, 50);
+        triangle.setCoordinateC(10, 50);
+
+        assertTrue(triangle.isClickPointInShape(new model.Point(20, 40)), "A point inside should hit the triangle");
+        assertFalse(triangle.isClickPointInShape(new model.Point(60, 60)), "A point outside should miss the triangle");
+
+        triangle.translate(100, 0);
+        assertTrue(triangle.isClickPointInShape(new model.Point(120, 40)), "Hit-testing should follow a move");
+    }
 }
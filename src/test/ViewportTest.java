@@ -0,0 +1,54 @@
+package test;
+
+import controller.Viewport;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Rectangle;
+import java.awt.geom.Point2D;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the Viewport.
+ * Contains unit tests to verify zooming, panning and fitting the view to the content.
+ */
+public class ViewportTest {
+
+    /**
+     * Tests that zooming keeps the canvas point under the mouse in place and that panning moves the view.
+     */
+    @Test
+    public void testZoomAtKeepsAnchor() {
+        Viewport viewport = new Viewport();
+        Point2D before = viewport.toCanvas(100, 50);
+        viewport.zoomAt(2, 100, 50);
+        Point2D after = viewport.toCanvas(100, 50);
+
+        assertEquals(2, viewport.getZoom(), 1e-9);
+        assertEquals(before.getX(), after.getX(), 1e-9, "The point under the mouse should stay in place");
+        assertEquals(before.getY(), after.getY(), 1e-9, "The point under the mouse should stay in place");
+
+        viewport.panBy(10, 0);
+        assertEquals(after.getX() - 5, viewport.toCanvas(100, 50).getX(), 1e-9, "Panning should move the view");
+        assertEquals(new Rectangle(10, 0, 20, 20), viewport.toScreen(new Rectangle(50, 25, 10, 10)));
+    }
+
+    /**
+     * Tests that the zoom is limited and that fitting centers the content.
+     */
+    @Test
+    public void testLimitsAndFit() {
+        Viewport viewport = new Viewport();
+        viewport.zoomAt(1000, 0, 0);
+        assertEquals(Viewport.MAX_ZOOM, viewport.getZoom(), 1e-9, "The zoom should be limited");
+
+        viewport.fitTo(new Rectangle(100, 100, 200, 100), 420, 420, 10);
+        assertEquals(2, viewport.getZoom(), 1e-9, "The content should fill the width");
+        Point2D center = viewport.toCanvas(210, 210);
+        assertEquals(200, center.getX(), 1e-9, "The content should be centered");
+        assertEquals(150, center.getY(), 1e-9, "The content should be centered");
+
+        viewport.reset();
+        assertTrue(viewport.isIdentity(), "Reset should show the canvas unzoomed");
+    }
+}
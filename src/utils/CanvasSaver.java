@@ -27,8 +27,8 @@ public class CanvasSaver {
         // Get the Graphics2D context of the BufferedImage
         Graphics2D g2D = image.createGraphics();
 
-        // Paint the content of the JPanel onto the BufferedImage
-        panel.paint(g2D);
+        // Paint the content of the JPanel onto the BufferedImage, completely rather than progressively
+        panel.printAll(g2D);
 
         // Release resources
         g2D.dispose();
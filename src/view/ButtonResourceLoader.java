@@ -29,6 +29,7 @@ public class ButtonResourceLoader {
     private static void loadButtonResources() {
         addButtonResource(ButtonController.NewCanvas, "NewCanvas", "New Canvas");
         addButtonResource(ButtonController.Undo, "Undo", "Undo");
+        addButtonResource(ButtonController.Redo, "Redo", "Redo");
         addButtonResource(ButtonController.Eraser, "Eraser", "Eraser");
         addButtonResource(ButtonController.Curve, "Curve", "Curve");
         addButtonResource(ButtonController.Line, "Line", "Line");
@@ -16,9 +16,33 @@ public class MenuBarManager {
      * @param shapeColorListener      Action listener for the "Set Shape Color" menu item.
      * @param backgroundColorListener Action listener for the "Set Background Color" menu item.
      * @param undoListener            Action listener for the "Undo" menu item.
+     * @param redoListener            Action listener for the "Redo" menu item.
      * @param exportListener          Action listener for the "Export" menu item.
+     * @param zoomInListener          Action listener for the "Zoom In" menu item.
+     * @param zoomOutListener         Action listener for the "Zoom Out" menu item.
+     * @param fitToContentListener    Action listener for the "Fit to Content" menu item.
+     * @param actualSizeListener      Action listener for the "Actual Size" menu item.
+     * @param strokeSmoothingListener Action listener for the "Stroke Smoothing" menu item.
+     * @param undoHistoryListener     Action listener for the "Undo History" menu item.
+     * @param spriteCacheListener     Action listener for the "Cache Dragged Shapes" check box menu item.
+     * @param newLayerListener        Action listener for the "New Layer" menu item.
+     * @param deleteLayerListener     Action listener for the "Delete Layer" menu item.
+     * @param layerAboveListener      Action listener for the "Select Layer Above" menu item.
+     * @param layerBelowListener      Action listener for the "Select Layer Below" menu item.
+     * @param layerVisibilityListener Action listener for the "Show/Hide Layer" menu item.
+     * @param layerLockListener       Action listener for the "Lock/Unlock Layer" menu item.
+     * @param layerOpacityListener    Action listener for the "Layer Opacity" menu item.
+     * @param bakeLayerListener       Action listener for the "Bake Layer" menu item.
+     * @param autoBakeListener        Action listener for the "Auto-Bake Old Strokes" check box menu item.
+     * @param groupListener           Action listener for the "Group Shapes" menu item.
+     * @param ungroupListener         Action listener for the "Ungroup" menu item.
      */
-    public MenuBarManager(ActionListener exitListener, ActionListener shapeColorListener, ActionListener backgroundColorListener, ActionListener undoListener, ActionListener exportListener) {
+    public MenuBarManager(ActionListener exitListener, ActionListener shapeColorListener, ActionListener backgroundColorListener, ActionListener undoListener, ActionListener redoListener, ActionListener exportListener,
+                          ActionListener zoomInListener, ActionListener zoomOutListener, ActionListener fitToContentListener, ActionListener actualSizeListener, ActionListener strokeSmoothingListener, ActionListener undoHistoryListener, ActionListener spriteCacheListener,
+                          ActionListener newLayerListener, ActionListener deleteLayerListener, ActionListener layerAboveListener, ActionListener layerBelowListener,
+                          ActionListener layerVisibilityListener, ActionListener layerLockListener, ActionListener layerOpacityListener,
+                          ActionListener bakeLayerListener, ActionListener autoBakeListener,
+                          ActionListener groupListener, ActionListener ungroupListener) {
         menuBar = new JMenuBar();
 
         // Create the "File" menu
@@ -29,6 +53,9 @@ public class MenuBarManager {
         JMenuItem menuItemUndo = new JMenuItem("Undo");
         menuItemUndo.addActionListener(undoListener);
         menu_File.add(menuItemUndo);
+        JMenuItem menuItemRedo = new JMenuItem("Redo");
+        menuItemRedo.addActionListener(redoListener);
+        menu_File.add(menuItemRedo);
         JMenuItem menuItemExit = new JMenuItem("Exit");
         menuItemExit.addActionListener(exitListener);
         menu_File.add(menuItemExit);
@@ -42,9 +69,75 @@ public class MenuBarManager {
         menu_Color.add(menuItemShapeColor);
         menu_Color.add(menuItemBackGroundColor);
 
+        // Create the "View" menu
+        JMenu menu_View = new JMenu("View");
+        JMenuItem menuItemZoomIn = new JMenuItem("Zoom In");
+        menuItemZoomIn.addActionListener(zoomInListener);
+        menu_View.add(menuItemZoomIn);
+        JMenuItem menuItemZoomOut = new JMenuItem("Zoom Out");
+        menuItemZoomOut.addActionListener(zoomOutListener);
+        menu_View.add(menuItemZoomOut);
+        JMenuItem menuItemFitToContent = new JMenuItem("Fit to Content");
+        menuItemFitToContent.addActionListener(fitToContentListener);
+        menu_View.add(menuItemFitToContent);
+        JMenuItem menuItemActualSize = new JMenuItem("Actual Size");
+        menuItemActualSize.addActionListener(actualSizeListener);
+        menu_View.add(menuItemActualSize);
+        JMenuItem menuItemStrokeSmoothing = new JMenuItem("Stroke Smoothing");
+        menuItemStrokeSmoothing.addActionListener(strokeSmoothingListener);
+        menu_View.add(menuItemStrokeSmoothing);
+        JMenuItem menuItemUndoHistory = new JMenuItem("Undo History");
+        menuItemUndoHistory.addActionListener(undoHistoryListener);
+        menu_View.add(menuItemUndoHistory);
+        JCheckBoxMenuItem menuItemSpriteCache = new JCheckBoxMenuItem("Cache Dragged Shapes", true);
+        menuItemSpriteCache.addActionListener(spriteCacheListener);
+        menu_View.add(menuItemSpriteCache);
+
+        // Create the "Layer" menu
+        JMenu menu_Layer = new JMenu("Layer");
+        JMenuItem menuItemNewLayer = new JMenuItem("New Layer");
+        menuItemNewLayer.addActionListener(newLayerListener);
+        menu_Layer.add(menuItemNewLayer);
+        JMenuItem menuItemDeleteLayer = new JMenuItem("Delete Layer");
+        menuItemDeleteLayer.addActionListener(deleteLayerListener);
+        menu_Layer.add(menuItemDeleteLayer);
+        JMenuItem menuItemLayerAbove = new JMenuItem("Select Layer Above");
+        menuItemLayerAbove.addActionListener(layerAboveListener);
+        menu_Layer.add(menuItemLayerAbove);
+        JMenuItem menuItemLayerBelow = new JMenuItem("Select Layer Below");
+        menuItemLayerBelow.addActionListener(layerBelowListener);
+        menu_Layer.add(menuItemLayerBelow);
+        JMenuItem menuItemLayerVisibility = new JMenuItem("Show/Hide Layer");
+        menuItemLayerVisibility.addActionListener(layerVisibilityListener);
+        menu_Layer.add(menuItemLayerVisibility);
+        JMenuItem menuItemLayerLock = new JMenuItem("Lock/Unlock Layer");
+        menuItemLayerLock.addActionListener(layerLockListener);
+        menu_Layer.add(menuItemLayerLock);
+        JMenuItem menuItemLayerOpacity = new JMenuItem("Layer Opacity");
+        menuItemLayerOpacity.addActionListener(layerOpacityListener);
+        menu_Layer.add(menuItemLayerOpacity);
+        JMenuItem menuItemBakeLayer = new JMenuItem("Bake Layer");
+        menuItemBakeLayer.addActionListener(bakeLayerListener);
+        menu_Layer.add(menuItemBakeLayer);
+        JCheckBoxMenuItem menuItemAutoBake = new JCheckBoxMenuItem("Auto-Bake Old Strokes");
+        menuItemAutoBake.addActionListener(autoBakeListener);
+        menu_Layer.add(menuItemAutoBake);
+
+        // Create the "Group" menu
+        JMenu menu_Group = new JMenu("Group");
+        JMenuItem menuItemGroup = new JMenuItem("Group Shapes");
+        menuItemGroup.addActionListener(groupListener);
+        menu_Group.add(menuItemGroup);
+        JMenuItem menuItemUngroup = new JMenuItem("Ungroup");
+        menuItemUngroup.addActionListener(ungroupListener);
+        menu_Group.add(menuItemUngroup);
+
         // Add the menus to the menu bar
         menuBar.add(menu_File);
         menuBar.add(menu_Color);
+        menuBar.add(menu_View);
+        menuBar.add(menu_Layer);
+        menuBar.add(menu_Group);
 
     }
 
@@ -2,6 +2,9 @@ package view;
 
 import controller.ButtonController;
 import controller.CanvasPanelController;
+import controller.CommandHistory;
+import controller.Layer;
+import controller.StrokeSimplifier;
 import network.NetworkClient;
 import utils.CanvasSaver;
 import utils.JsonProcessor;
@@ -43,6 +46,7 @@ public class VectorDrawingApp  extends JFrame {
     // Declare buttons for various drawing tools
     JButton button_NewCanvas;
     JButton button_Undo;
+    JButton button_Redo;
     JButton button_Eraser;
     JButton button_Curve;
     JButton button_Line;
@@ -66,6 +70,8 @@ public class VectorDrawingApp  extends JFrame {
     // Declare controllers and labels
     private CanvasPanelController canvasPanelController;
     private static JLabel mouseStateTable;
+    // Age after which strokes are baked when automatic baking is turned on, 10 minutes
+    private static final long AUTO_BAKE_AGE = 10 * 60 * 1000L;
 
     /**
      * Action performed when the "Exit" menu item is clicked.
@@ -99,6 +105,237 @@ public class VectorDrawingApp  extends JFrame {
      */
     private void menuItemUndoActionPerformed(ActionEvent e) { canvasPanelController.undo(); }
 
+    /**
+     * Action performed when the "Redo" menu item is clicked.
+     *
+     * @param e The ActionEvent generated by the menu item.
+     */
+    private void menuItemRedoActionPerformed(ActionEvent e) { canvasPanelController.redo(); }
+
+    /**
+     * Action performed when the "Zoom In" menu item is clicked.
+     *
+     * @param e The ActionEvent generated by the menu item.
+     */
+    private void menuItemZoomInActionPerformed(ActionEvent e) { canvasPanelController.zoomIn(); }
+
+    /**
+     * Action performed when the "Zoom Out" menu item is clicked.
+     *
+     * @param e The ActionEvent generated by the menu item.
+     */
+    private void menuItemZoomOutActionPerformed(ActionEvent e) { canvasPanelController.zoomOut(); }
+
+    /**
+     * Action performed when the "Fit to Content" menu item is clicked.
+     *
+     * @param e The ActionEvent generated by the menu item.
+     */
+    private void menuItemFitToContentActionPerformed(ActionEvent e) { canvasPanelController.fitToContent(); }
+
+    /**
+     * Action performed when the "Actual Size" menu item is clicked.
+     *
+     * @param e The ActionEvent generated by the menu item.
+     */
+    private void menuItemActualSizeActionPerformed(ActionEvent e) { canvasPanelController.resetZoom(); }
+
+    /**
+     * Action performed when the "Stroke Smoothing" menu item is clicked, letting the user choose how far
+     * freehand strokes may be simplified.
+     *
+     * @param e The ActionEvent generated by the menu item.
+     */
+    private void menuItemStrokeSmoothingActionPerformed(ActionEvent e) {
+        String[] choices = {"Off", "Low", "Normal", "High"};
+        double[] tolerances = {0, 0.75, StrokeSimplifier.DEFAULT_TOLERANCE, 3};
+        String current = choices[2];
+        for (int i = 0; i < choices.length; i++) {
+            if (tolerances[i] == canvasPanelController.getStrokeTolerance()) {
+                current = choices[i];
+            }
+        }
+        String selectedValue = (String) JOptionPane.showInputDialog(null, "Choose how much freehand strokes are simplified:",
+                "Stroke Smoothing", JOptionPane.QUESTION_MESSAGE, null, choices, current);
+        for (int i = 0; i < choices.length; i++) {
+            if (choices[i].equals(selectedValue)) {
+                canvasPanelController.setStrokeTolerance(tolerances[i]);
+            }
+        }
+    }
+
+    /**
+     * Action performed when the "Undo History" menu item is clicked, letting the user choose how many undo
+     * steps are kept and how much memory they may use.
+     *
+     * @param e The ActionEvent generated by the menu item.
+     */
+    private void menuItemUndoHistoryActionPerformed(ActionEvent e) {
+        String[] choices = {"50 steps, 1 MB", "200 steps, 4 MB", "1000 steps, 16 MB"};
+        int[] depths = {50, CommandHistory.DEFAULT_MAX_DEPTH, 1000};
+        long[] budgets = {1024 * 1024, CommandHistory.DEFAULT_MEMORY_BUDGET, 16 * 1024 * 1024};
+        String current = choices[1];
+        for (int i = 0; i < choices.length; i++) {
+            if (depths[i] == canvasPanelController.getHistoryDepth()) {
+                current = choices[i];
+            }
+        }
+        String selectedValue = (String) JOptionPane.showInputDialog(null, "Choose how much can be undone:",
+                "Undo History", JOptionPane.QUESTION_MESSAGE, null, choices, current);
+        for (int i = 0; i < choices.length; i++) {
+            if (choices[i].equals(selectedValue)) {
+                canvasPanelController.setHistoryLimits(depths[i], budgets[i]);
+            }
+        }
+    }
+
+    /**
+     * Action performed when the "Cache Dragged Shapes" menu item is toggled.
+     *
+     * @param e The ActionEvent generated by the menu item.
+     */
+    private void menuItemSpriteCacheActionPerformed(ActionEvent e) {
+        canvasPanelController.setSpriteCacheEnabled(((JCheckBoxMenuItem) e.getSource()).isSelected());
+    }
+
+    /**
+     * Action performed when the "New Layer" menu item is clicked.
+     *
+     * @param e The ActionEvent generated by the menu item.
+     */
+    private void menuItemNewLayerActionPerformed(ActionEvent e) {
+        canvasPanelController.addLayer();
+        updateLayerTitle();
+    }
+
+    /**
+     * Action performed when the "Delete Layer" menu item is clicked.
+     *
+     * @param e The ActionEvent generated by the menu item.
+     */
+    private void menuItemDeleteLayerActionPerformed(ActionEvent e) {
+        if (canvasPanelController.getLayerCount() == 1) {
+            JOptionPane.showMessageDialog(null, "The last layer cannot be deleted.");
+            return;
+        }
+        canvasPanelController.removeActiveLayer();
+        updateLayerTitle();
+    }
+
+    /**
+     * Action performed when the "Select Layer Above" menu item is clicked.
+     *
+     * @param e The ActionEvent generated by the menu item.
+     */
+    private void menuItemLayerAboveActionPerformed(ActionEvent e) {
+        int index = canvasPanelController.getActiveLayerIndex() + 1;
+        if (index < canvasPanelController.getLayerCount()) {
+            canvasPanelController.setActiveLayer(index);
+            updateLayerTitle();
+        }
+    }
+
+    /**
+     * Action performed when the "Select Layer Below" menu item is clicked.
+     *
+     * @param e The ActionEvent generated by the menu item.
+     */
+    private void menuItemLayerBelowActionPerformed(ActionEvent e) {
+        int index = canvasPanelController.getActiveLayerIndex() - 1;
+        if (index >= 0) {
+            canvasPanelController.setActiveLayer(index);
+            updateLayerTitle();
+        }
+    }
+
+    /**
+     * Action performed when the "Show/Hide Layer" menu item is clicked.
+     *
+     * @param e The ActionEvent generated by the menu item.
+     */
+    private void menuItemLayerVisibilityActionPerformed(ActionEvent e) {
+        int index = canvasPanelController.getActiveLayerIndex();
+        canvasPanelController.setLayerVisible(index, !canvasPanelController.getActiveLayer().isVisible());
+        updateLayerTitle();
+    }
+
+    /**
+     * Action performed when the "Lock/Unlock Layer" menu item is clicked.
+     *
+     * @param e The ActionEvent generated by the menu item.
+     */
+    private void menuItemLayerLockActionPerformed(ActionEvent e) {
+        int index = canvasPanelController.getActiveLayerIndex();
+        canvasPanelController.setLayerLocked(index, !canvasPanelController.getActiveLayer().isLocked());
+        updateLayerTitle();
+    }
+
+    /**
+     * Action performed when the "Layer Opacity" menu item is clicked.
+     *
+     * @param e The ActionEvent generated by the menu item.
+     */
+    private void menuItemLayerOpacityActionPerformed(ActionEvent e) {
+        String[] choices = {"100%", "75%", "50%", "25%"};
+        String selectedValue = (String) JOptionPane.showInputDialog(null, "Choose opacity:",
+                "Layer Opacity", JOptionPane.QUESTION_MESSAGE, null, choices, choices[0]);
+        if (selectedValue != null) {
+            float opacity = Integer.parseInt(selectedValue.replace("%", "")) / 100f;
+            canvasPanelController.setLayerOpacity(canvasPanelController.getActiveLayerIndex(), opacity);
+            updateLayerTitle();
+        }
+    }
+
+    /**
+     * Action performed when the "Bake Layer" menu item is clicked.
+     *
+     * @param e The ActionEvent generated by the menu item.
+     */
+    private void menuItemBakeLayerActionPerformed(ActionEvent e) { canvasPanelController.bakeActiveLayer(); }
+
+    /**
+     * Action performed when the "Auto-Bake Old Strokes" menu item is toggled.
+     *
+     * @param e The ActionEvent generated by the menu item.
+     */
+    private void menuItemAutoBakeActionPerformed(ActionEvent e) {
+        boolean enabled = ((JCheckBoxMenuItem) e.getSource()).isSelected();
+        canvasPanelController.setAutoBake(enabled ? AUTO_BAKE_AGE : -1, CanvasPanelController.DEFAULT_AUTO_BAKE_STROKES);
+    }
+
+    /**
+     * Action performed when the "Group Shapes" menu item is clicked, setting the tool to grouping the shapes
+     * inside a dragged rectangle and the cursor to crosshair.
+     *
+     * @param e The ActionEvent generated by the menu item.
+     */
+    private void menuItemGroupActionPerformed(ActionEvent e) { setToolAndCursor(ButtonController.Group, Cursor.CROSSHAIR_CURSOR); }
+
+    /**
+     * Action performed when the "Ungroup" menu item is clicked.
+     *
+     * @param e The ActionEvent generated by the menu item.
+     */
+    private void menuItemUngroupActionPerformed(ActionEvent e) { canvasPanelController.ungroupSelectedShape(); }
+
+    /**
+     * Shows the active layer and its state in the window title.
+     */
+    private void updateLayerTitle() {
+        Layer layer = canvasPanelController.getActiveLayer();
+        StringBuilder title = new StringBuilder("Vector Drawing Tool - ").append(layer.getName());
+        if (!layer.isVisible()) {
+            title.append(" (hidden)");
+        }
+        if (layer.isLocked()) {
+            title.append(" (locked)");
+        }
+        if (layer.getOpacity() < 1.0f) {
+            title.append(" ").append(Math.round(layer.getOpacity() * 100)).append("%");
+        }
+        setTitle(title.toString());
+    }
+
     /**
      * Action performed when the "Export" menu item is clicked.
      *
@@ -166,6 +403,7 @@ public class VectorDrawingApp  extends JFrame {
         button_Select = initializeTextButton(ButtonController.Select,"Select", this::buttonSelectActionPerformed);
         button_Fill = initializeTextButton(ButtonController.Fill,"Fill", this::buttonFillActionPerformed);
         button_Undo = initializeTextButton(ButtonController.Undo,"Undo", this::buttonUndoActionPerformed);
+        button_Redo = initializeTextButton(ButtonController.Redo,"Redo", this::buttonRedoActionPerformed);
         button_Resize = initializeTextButton(ButtonController.Resize,"Resize", this::buttonResizeActionPerformed);
         button_Login = initializeTextButton(ButtonController.Login,"Login", this::buttonLoginActionPerformed);
         button_GetDrawings = initializeTextButton(ButtonController.GetDrawings,"Get", this::buttonGetDrawingsActionPerformed);
@@ -176,6 +414,7 @@ public class VectorDrawingApp  extends JFrame {
         // Add buttons to the toolbar
         addButtonToToolBar(button_NewCanvas);
         addButtonToToolBar(button_Undo);
+        addButtonToToolBar(button_Redo);
         addButtonToToolBar(button_ShapeColor);
         addButtonToToolBar(button_Select);
         addButtonToToolBar(button_Resize);
@@ -280,7 +519,7 @@ public class VectorDrawingApp  extends JFrame {
 
         strokeSizeSlider.addChangeListener(e -> {
             int strokeSize = strokeSizeSlider.getValue();
-            canvasPanelController.setCurrentStroke(strokeSize);
+            canvasPanelController.setCurrentStroke(strokeSize, strokeSizeSlider.getValueIsAdjusting());
         });
 
         return strokeSizeSlider;
@@ -304,7 +543,7 @@ public class VectorDrawingApp  extends JFrame {
 
         strokeSizeSlider.addChangeListener(e -> {
             int angle = strokeSizeSlider.getValue();
-            canvasPanelController.rotateSelectedShape(angle);
+            canvasPanelController.rotateSelectedShape(angle, strokeSizeSlider.getValueIsAdjusting());
 
         });
 
@@ -316,7 +555,10 @@ public class VectorDrawingApp  extends JFrame {
      *
      * @param e The ActionEvent associated with the button click.
      */
-    private void buttonNewFileActionPerformed(ActionEvent e) { canvasPanelController.resetCanvas(); }
+    private void buttonNewFileActionPerformed(ActionEvent e) {
+        canvasPanelController.resetCanvas();
+        updateLayerTitle();
+    }
 
     /**
      * Sets the canvas tool, cursor, prepares for a new shape, and triggers a repaint on the canvas panel.
@@ -478,6 +720,15 @@ public class VectorDrawingApp  extends JFrame {
         canvasPanelController.undo();
     }
 
+    /**
+     * Handles the action when the 'Redo' button is clicked, triggering a redo operation on the canvas panel.
+     *
+     * @param e The ActionEvent associated with the button click.
+     */
+    private void buttonRedoActionPerformed(ActionEvent e) {
+        canvasPanelController.redo();
+    }
+
     /**
      * Handles the action when the 'Resize' button is clicked, setting the tool to resize and the cursor to move.
      *
@@ -715,7 +966,26 @@ public class VectorDrawingApp  extends JFrame {
                 this::menuItemShapeColorActionPerformed,
                 this::menuItemBackgroundColorActionPerformed,
                 this::menuItemUndoActionPerformed,
-                this::menuItemExportActionPerformed
+                this::menuItemRedoActionPerformed,
+                this::menuItemExportActionPerformed,
+                this::menuItemZoomInActionPerformed,
+                this::menuItemZoomOutActionPerformed,
+                this::menuItemFitToContentActionPerformed,
+                this::menuItemActualSizeActionPerformed,
+                this::menuItemStrokeSmoothingActionPerformed,
+                this::menuItemUndoHistoryActionPerformed,
+                this::menuItemSpriteCacheActionPerformed,
+                this::menuItemNewLayerActionPerformed,
+                this::menuItemDeleteLayerActionPerformed,
+                this::menuItemLayerAboveActionPerformed,
+                this::menuItemLayerBelowActionPerformed,
+                this::menuItemLayerVisibilityActionPerformed,
+                this::menuItemLayerLockActionPerformed,
+                this::menuItemLayerOpacityActionPerformed,
+                this::menuItemBakeLayerActionPerformed,
+                this::menuItemAutoBakeActionPerformed,
+                this::menuItemGroupActionPerformed,
+                this::menuItemUngroupActionPerformed
         );
         setJMenuBar(menuBarManager.getMenuBar());
 
@@ -729,6 +999,7 @@ public class VectorDrawingApp  extends JFrame {
         // Initialize and add the drawing panel
         canvasPanelController = new CanvasPanelController();
         contentPane.add(canvasPanelController, BorderLayout.CENTER);
+        updateLayerTitle();
 
         // Initialize and add the mouse state label
         mouseStateTable = new JLabel();
@@ -740,9 +1011,14 @@ public class VectorDrawingApp  extends JFrame {
     }
 
     /**
-     * Sets the text for the mouse state label.
+     * Sets the text for the mouse state label. Does nothing while no application window has been created,
+     * as when a canvas is used on its own.
      *
      * @param info The text to be displayed on the mouse state label.
      */
-    public static void setMouseStateTable(String info) { mouseStateTable.setText(info); }
+    public static void setMouseStateTable(String info) {
+        if (mouseStateTable != null) {
+            mouseStateTable.setText(info);
+        }
+    }
 }